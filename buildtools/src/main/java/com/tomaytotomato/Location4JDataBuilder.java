@@ -4,12 +4,17 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies.SnakeCaseStrategy;
+import com.tomaytotomato.location4j.index.NameTrie;
+import com.tomaytotomato.location4j.index.PerfectHashMap;
+import com.tomaytotomato.location4j.loader.ColumnarDataWriter;
 import com.tomaytotomato.location4j.model.Location4JData;
+import com.tomaytotomato.location4j.model.LocationMatches;
 import com.tomaytotomato.location4j.model.lookup.City;
 import com.tomaytotomato.location4j.model.lookup.Country;
 import com.tomaytotomato.location4j.model.lookup.State;
 import com.tomaytotomato.location4j.text.normaliser.DefaultTextNormaliser;
 import com.tomaytotomato.location4j.text.normaliser.TextNormaliser;
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -32,6 +37,8 @@ public class Location4JDataBuilder {
 
   private static final String JSON_FILE = "/location4j-countries.json";
   private static final String OUTPUT_FILE = "../location4j/target/generated-resources/location4j.bin";
+  private static final String COLUMNAR_OUTPUT_FILE =
+      "../location4j/target/generated-resources/location4j-columnar.bin";
 
   private static final Logger logger = Logger.getLogger(Location4JDataBuilder.class.getName());
   private static final TextNormaliser textNormaliser = new DefaultTextNormaliser();
@@ -108,6 +115,17 @@ public class Location4JDataBuilder {
         objectOutputStream.writeObject(location4JData);
         logger.info("Data successfully serialized to binary format.");
       }
+
+      Path columnarOutputFile = Paths.get(COLUMNAR_OUTPUT_FILE).toAbsolutePath();
+      logger.log(Level.INFO,
+          () -> String.format("Writing data to columnar file at:  %s", columnarOutputFile));
+
+      try (var fileOutputStream = new FileOutputStream(columnarOutputFile.toFile());
+          var bufferedOutputStream = new BufferedOutputStream(fileOutputStream)) {
+        new ColumnarDataWriter(textNormaliser).write(updatedCountries,
+            location4JData.getSearchDictionary(), bufferedOutputStream);
+        logger.info("Data successfully written to columnar format.");
+      }
       logger.info(String.format("Summary: Countries=%d, States=%d, Cities=%d", countryCounter, stateCounter, cityCounter));
     } catch (IOException e) {
       logger.log(Level.SEVERE,
@@ -173,18 +191,26 @@ public class Location4JDataBuilder {
       });
     });
 
-    // Set all the maps
-    data.setCountryNameToCountryMap(countryNameToCountryMap);
+    // Set all the maps, the country and state name maps are indexed by minimal perfect hashes as
+    // their keys are fixed once the data is built
+    data.setCountryNameToCountryMap(PerfectHashMap.of(countryNameToCountryMap));
     data.setCountryIdToCountryMap(countryIdToCountryMap);
     data.setLocalisedNameToCountryMap(localisedNameToCountryMap);
     data.setIso2CodeToCountryMap(iso2CodeToCountryMap);
     data.setIso3CodeToCountryMap(iso3CodeToCountryMap);
     data.setStateIdToStateMap(stateIdToStateMap);
     data.setCityIdToCityMap(cityIdToCityMap);
-    data.setStateNameToStatesMap(stateNameToStatesMap);
+    data.setStateNameToStatesMap(PerfectHashMap.of(stateNameToStatesMap));
     data.setStateCodeToStatesMap(stateCodeToStatesMap);
-    data.setCityNameToCitiesMap(cityNameToCitiesMap);
-    data.setSearchCityNameToCitiesMap(new HashMap<>(cityNameToCitiesMap)); // Copy for search service
+    // The city names and the search dictionary hold most of the keys, so they are stored as tries
+    // that keep each shared prefix once instead of a String per key
+    var cityNames = NameTrie.of(cityNameToCitiesMap);
+    data.setCityNameToCitiesMap(cityNames);
+    data.setSearchCityNameToCitiesMap(cityNames); // Shared with the search service
+    // One posting per search key, so the search resolves a token with a single lookup
+    data.setSearchDictionary(NameTrie.of(LocationMatches.compile(countryNameToCountryMap,
+        iso2CodeToCountryMap, iso3CodeToCountryMap, stateNameToStatesMap, stateCodeToStatesMap,
+        cityNameToCitiesMap)));
 
     logger.info("Pre-computed data structures built successfully.");
     return data;
@@ -0,0 +1,541 @@
+package com.tomaytotomato.location4j.index;
+
+import com.tomaytotomato.location4j.model.lookup.City;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A static k-d tree over city locations, used to find the closest cities to a coordinate without
+ * scanning every city.
+ * <p>
+ * Each city is stored as a point on the unit sphere ({@code x, y, z}), where the straight line
+ * (chord) distance grows with the great circle distance. The tree is pruned with chord distances
+ * while candidates are compared with {@link Haversine#distance}, so results are identical to a
+ * linear haversine scan over the cities in the order they were given, including how ties are
+ * broken. The tree is implicit: the node for a range of the arrays is its middle element, so no
+ * node objects are allocated.
+ * </p>
+ */
+public final class CityKdTree {
+
+  /**
+   * Allows for rounding differences between chord and haversine distances when pruning.
+   */
+  private static final double PRUNE_SLACK = 1e-9;
+
+  /**
+   * Number of batch points resolved by a single fork-join task.
+   */
+  private static final int BATCH_CHUNK_SIZE = 1024;
+
+  /**
+   * Ranges of up to this many cities are scanned linearly instead of being split further.
+   */
+  private static final int LEAF_SIZE = 8;
+
+  private final CityPoints source;
+  private final int[] ordinals;
+  private final double[] latitudeRadians;
+  private final double[] longitudeRadians;
+  private final double[] cosLatitudes;
+  private final double[][] points;
+  private final byte[] axes;
+
+  private CityKdTree(CityPoints source) {
+    int size = source.count();
+    this.source = source;
+    this.ordinals = new int[size];
+    this.latitudeRadians = new double[size];
+    this.longitudeRadians = new double[size];
+    this.cosLatitudes = new double[size];
+    this.points = new double[3][size];
+    this.axes = new byte[size];
+
+    for (int i = 0; i < size; i++) {
+      ordinals[i] = i;
+      double latRad = Math.toRadians(source.latitude(i));
+      double lonRad = Math.toRadians(source.longitude(i));
+      latitudeRadians[i] = latRad;
+      longitudeRadians[i] = lonRad;
+      cosLatitudes[i] = Math.cos(latRad);
+      points[0][i] = cosLatitudes[i] * Math.cos(lonRad);
+      points[1][i] = cosLatitudes[i] * Math.sin(lonRad);
+      points[2][i] = Math.sin(latRad);
+    }
+    build(0, size);
+  }
+
+  /**
+   * Builds a tree over the given cities. Their iteration order decides which city is returned when
+   * several are equally close, the first one wins.
+   *
+   * @param cities the cities to index
+   * @return the tree
+   */
+  public static CityKdTree of(Collection<City> cities) {
+    if (cities == null) {
+      throw new IllegalArgumentException("Cities cannot be null");
+    }
+    return new CityKdTree(CityPoints.of(new ArrayList<>(cities)));
+  }
+
+  /**
+   * Builds a tree over the coordinates of the given cities, only asking for the cities it returns.
+   * Their order decides which city is returned when several are equally close, the first one wins.
+   *
+   * @param points the cities to index
+   * @return the tree
+   */
+  public static CityKdTree of(CityPoints points) {
+    if (points == null) {
+      throw new IllegalArgumentException("Points cannot be null");
+    }
+    return new CityKdTree(points);
+  }
+
+  public int size() {
+    return ordinals.length;
+  }
+
+  /**
+   * Finds the closest city to a coordinate by great circle distance.
+   *
+   * @param latitude  latitude in decimal degrees
+   * @param longitude longitude in decimal degrees
+   * @return the closest city, or null if the tree is empty or the coordinate is not finite
+   */
+  public City findClosest(double latitude, double longitude) {
+    if (ordinals.length == 0 || !Double.isFinite(latitude) || !Double.isFinite(longitude)) {
+      return null;
+    }
+    var query = new ClosestQuery();
+    return query.find(latitude, longitude);
+  }
+
+  /**
+   * Finds the closest city to each coordinate pair, writing the answers into {@code results}.
+   * <p>
+   * The points are first ordered along a Z-order (Morton) curve so consecutive queries walk the
+   * same parts of the tree, then resolved in parallel on the common {@link ForkJoinPool}. Each
+   * worker reuses a single query, so no objects are allocated per point.
+   * </p>
+   *
+   * @param latitudes  latitudes in decimal degrees
+   * @param longitudes longitudes in decimal degrees, the same length as {@code latitudes}
+   * @param results    receives the closest city for each index, or null where the coordinate is
+   *                   not finite; at least as long as {@code latitudes}
+   */
+  public void findClosest(double[] latitudes, double[] longitudes, City[] results) {
+    if (latitudes == null || longitudes == null) {
+      throw new IllegalArgumentException("Latitudes and longitudes cannot be null");
+    } else if (results == null) {
+      throw new IllegalArgumentException("Results cannot be null");
+    } else if (latitudes.length != longitudes.length) {
+      throw new IllegalArgumentException("Latitudes and longitudes must be the same length");
+    } else if (results.length < latitudes.length) {
+      throw new IllegalArgumentException("Results must be at least as long as the latitudes");
+    }
+    if (ordinals.length == 0) {
+      Arrays.fill(results, 0, latitudes.length, null);
+      return;
+    }
+
+    long[] order = new long[latitudes.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = (long) mortonCode(latitudes[i], longitudes[i]) << 32 | i;
+    }
+    var task = new BatchTask(order, 0, order.length, latitudes, longitudes, results);
+    if (order.length <= BATCH_CHUNK_SIZE) {
+      Arrays.sort(order);
+      task.compute();
+    } else {
+      Arrays.parallelSort(order);
+      ForkJoinPool.commonPool().invoke(task);
+    }
+  }
+
+  /**
+   * Finds the k closest cities to a coordinate, ordered by great circle distance.
+   *
+   * @param latitude  latitude in decimal degrees
+   * @param longitude longitude in decimal degrees
+   * @param k         the maximum number of cities to return
+   * @return up to k cities, closest first
+   */
+  public List<City> findNearest(double latitude, double longitude, int k) {
+    if (k < 1) {
+      throw new IllegalArgumentException("Number of cities must be greater than zero");
+    }
+    if (ordinals.length == 0 || !Double.isFinite(latitude) || !Double.isFinite(longitude)) {
+      return List.of();
+    }
+    var query = new NearestQuery(latitude, longitude, Math.min(k, ordinals.length));
+    query.visit(0, ordinals.length);
+    return query.results();
+  }
+
+  /**
+   * Finds every city within a great circle distance of a coordinate, ordered by distance.
+   *
+   * @param latitude  latitude in decimal degrees
+   * @param longitude longitude in decimal degrees
+   * @param radiusKm  the radius in kilometers, inclusive
+   * @return the cities within the radius, closest first
+   */
+  public List<City> findWithinRadius(double latitude, double longitude, double radiusKm) {
+    if (!(radiusKm >= 0)) {
+      throw new IllegalArgumentException("Radius must be zero or a positive number of kilometers");
+    }
+    if (ordinals.length == 0 || !Double.isFinite(latitude) || !Double.isFinite(longitude)) {
+      return List.of();
+    }
+    var query = new RadiusQuery(latitude, longitude, radiusKm);
+    query.visit(0, ordinals.length);
+    return query.results();
+  }
+
+  private void build(int from, int to) {
+    if (to - from <= LEAF_SIZE) {
+      return;
+    }
+    int axis = widestAxis(from, to);
+    int mid = (from + to) >>> 1;
+    select(points[axis], from, to - 1, mid);
+    axes[mid] = (byte) axis;
+    build(from, mid);
+    build(mid + 1, to);
+  }
+
+  private int widestAxis(int from, int to) {
+    int widest = 0;
+    double widestSpread = -1;
+    for (int axis = 0; axis < 3; axis++) {
+      double[] values = points[axis];
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      for (int i = from; i < to; i++) {
+        min = Math.min(min, values[i]);
+        max = Math.max(max, values[i]);
+      }
+      if (max - min > widestSpread) {
+        widestSpread = max - min;
+        widest = axis;
+      }
+    }
+    return widest;
+  }
+
+  /**
+   * Three-way quickselect on one axis, moving the k-th smallest value to index k and the rows of
+   * every column along with it. Equal values are grouped so duplicate coordinates stay linear.
+   */
+  private void select(double[] values, int left, int right, int k) {
+    while (right > left) {
+      double pivot = values[(left + right) >>> 1];
+      int lessThan = left;
+      int greaterThan = right;
+      int i = left;
+      while (i <= greaterThan) {
+        if (values[i] < pivot) {
+          swap(lessThan++, i++);
+        } else if (values[i] > pivot) {
+          swap(i, greaterThan--);
+        } else {
+          i++;
+        }
+      }
+      if (k < lessThan) {
+        right = lessThan - 1;
+      } else if (k > greaterThan) {
+        left = greaterThan + 1;
+      } else {
+        return;
+      }
+    }
+  }
+
+  private void swap(int i, int j) {
+    if (i == j) {
+      return;
+    }
+    int ordinal = ordinals[i];
+    ordinals[i] = ordinals[j];
+    ordinals[j] = ordinal;
+    double value = latitudeRadians[i];
+    latitudeRadians[i] = latitudeRadians[j];
+    latitudeRadians[j] = value;
+    value = longitudeRadians[i];
+    longitudeRadians[i] = longitudeRadians[j];
+    longitudeRadians[j] = value;
+    value = cosLatitudes[i];
+    cosLatitudes[i] = cosLatitudes[j];
+    cosLatitudes[j] = value;
+    for (double[] column : points) {
+      value = column[i];
+      column[i] = column[j];
+      column[j] = value;
+    }
+  }
+
+  /**
+   * Interleaves 16 bits of latitude and longitude into a Z-order curve position, so points that are
+   * close on the map are usually close in the curve order.
+   */
+  static int mortonCode(double latitude, double longitude) {
+    return spreadBits(quantise(latitude, 90)) << 1 | spreadBits(quantise(longitude, 180));
+  }
+
+  private static int quantise(double degrees, double range) {
+    if (!(degrees >= -range)) {
+      return 0;
+    }
+    return (int) (Math.min(degrees + range, 2 * range) / (2 * range) * 0xFFFF);
+  }
+
+  private static int spreadBits(int value) {
+    value = (value | value << 8) & 0x00FF00FF;
+    value = (value | value << 4) & 0x0F0F0F0F;
+    value = (value | value << 2) & 0x33333333;
+    return (value | value << 1) & 0x55555555;
+  }
+
+  /**
+   * Resolves a range of the Morton ordered batch, splitting it in half until it is small enough.
+   */
+  private final class BatchTask extends RecursiveAction {
+
+    private final long[] order;
+    private final int from;
+    private final int to;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final City[] results;
+
+    BatchTask(long[] order, int from, int to, double[] latitudes, double[] longitudes,
+        City[] results) {
+      this.order = order;
+      this.from = from;
+      this.to = to;
+      this.latitudes = latitudes;
+      this.longitudes = longitudes;
+      this.results = results;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > BATCH_CHUNK_SIZE) {
+        int mid = (from + to) >>> 1;
+        invokeAll(new BatchTask(order, from, mid, latitudes, longitudes, results),
+            new BatchTask(order, mid, to, latitudes, longitudes, results));
+        return;
+      }
+      var query = new ClosestQuery();
+      for (int i = from; i < to; i++) {
+        int index = (int) order[i];
+        double latitude = latitudes[index];
+        double longitude = longitudes[index];
+        results[index] = Double.isFinite(latitude) && Double.isFinite(longitude)
+            ? query.find(latitude, longitude)
+            : null;
+      }
+    }
+  }
+
+  /**
+   * Pads a pruning distance for rounding differences between chord and haversine distances.
+   */
+  private static double pruneChord(double distanceKm) {
+    return Haversine.chordLength(distanceKm) * (1 + PRUNE_SLACK) + PRUNE_SLACK;
+  }
+
+  /**
+   * Orders hits by distance, then by the order the cities were given in.
+   */
+  private int compareHits(Hit first, Hit second) {
+    int comparison = Double.compare(first.distance(), second.distance());
+    return comparison != 0 ? comparison
+        : Integer.compare(ordinals[first.index()], ordinals[second.index()]);
+  }
+
+  private City city(int index) {
+    return source.city(ordinals[index]);
+  }
+
+  private List<City> toCities(List<Hit> hits) {
+    hits.sort(this::compareHits);
+    return hits.stream().map(hit -> city(hit.index())).toList();
+  }
+
+  /**
+   * A city found by a query, identified by its position in the tree arrays.
+   */
+  private record Hit(int index, double distance) {
+
+  }
+
+  /**
+   * Walks the tree for a single coordinate, skipping any branch that is further away than the
+   * current pruning distance.
+   */
+  private abstract class Query {
+
+    private double latRad;
+    private double lonRad;
+    private double cosLat;
+    private double x;
+    private double y;
+    private double z;
+
+    /**
+     * Branches whose splitting plane is further than this chord length are skipped, and cities
+     * further than it are not considered.
+     */
+    double pruneChord;
+
+    Query() {
+    }
+
+    Query(double latitude, double longitude) {
+      reset(latitude, longitude);
+    }
+
+    void reset(double latitude, double longitude) {
+      this.pruneChord = Double.MAX_VALUE;
+      latRad = Math.toRadians(latitude);
+      lonRad = Math.toRadians(longitude);
+      cosLat = Math.cos(latRad);
+      x = cosLat * Math.cos(lonRad);
+      y = cosLat * Math.sin(lonRad);
+      z = Math.sin(latRad);
+    }
+
+    abstract void consider(int index, double distance);
+
+    void visit(int from, int to) {
+      if (to - from <= LEAF_SIZE) {
+        for (int i = from; i < to; i++) {
+          test(i);
+        }
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      test(mid);
+      int axis = axes[mid];
+      double delta = (axis == 0 ? x : axis == 1 ? y : z) - points[axis][mid];
+      if (delta < 0) {
+        visit(from, mid);
+        if (-delta <= pruneChord) {
+          visit(mid + 1, to);
+        }
+      } else {
+        visit(mid + 1, to);
+        if (delta <= pruneChord) {
+          visit(from, mid);
+        }
+      }
+    }
+
+    /**
+     * Filters a city on its chord distance, which only needs multiplications, before paying for
+     * the trigonometry of the haversine distance.
+     */
+    private void test(int index) {
+      double dx = points[0][index] - x;
+      double dy = points[1][index] - y;
+      double dz = points[2][index] - z;
+      if (dx * dx + dy * dy + dz * dz <= pruneChord * pruneChord) {
+        consider(index, Haversine.distance(latRad, lonRad, cosLat, latitudeRadians[index],
+            longitudeRadians[index], cosLatitudes[index]));
+      }
+    }
+  }
+
+  private final class ClosestQuery extends Query {
+
+    private int best;
+    private double bestDistance;
+
+    City find(double latitude, double longitude) {
+      reset(latitude, longitude);
+      best = -1;
+      bestDistance = Double.MAX_VALUE;
+      visit(0, ordinals.length);
+      return best < 0 ? null : city(best);
+    }
+
+    @Override
+    void consider(int index, double distance) {
+      if (distance < bestDistance
+          || distance == bestDistance && ordinals[index] < ordinals[best]) {
+        best = index;
+        bestDistance = distance;
+        pruneChord = pruneChord(distance);
+      }
+    }
+  }
+
+  private final class NearestQuery extends Query {
+
+    private final int k;
+    private final PriorityQueue<Hit> furthestFirst;
+
+    NearestQuery(double latitude, double longitude, int k) {
+      super(latitude, longitude);
+      this.k = k;
+      this.furthestFirst = new PriorityQueue<>(k, ((Comparator<Hit>) CityKdTree.this::compareHits)
+          .reversed());
+    }
+
+    @Override
+    void consider(int index, double distance) {
+      if (Double.isNaN(distance)) {
+        return;
+      }
+      var hit = new Hit(index, distance);
+      if (furthestFirst.size() < k) {
+        furthestFirst.add(hit);
+      } else if (compareHits(hit, furthestFirst.peek()) < 0) {
+        furthestFirst.poll();
+        furthestFirst.add(hit);
+      } else {
+        return;
+      }
+      if (furthestFirst.size() == k) {
+        pruneChord = pruneChord(furthestFirst.peek().distance());
+      }
+    }
+
+    List<City> results() {
+      return toCities(new ArrayList<>(furthestFirst));
+    }
+  }
+
+  private final class RadiusQuery extends Query {
+
+    private final double radiusKm;
+    private final List<Hit> hits = new ArrayList<>();
+
+    RadiusQuery(double latitude, double longitude, double radiusKm) {
+      super(latitude, longitude);
+      this.radiusKm = radiusKm;
+      this.pruneChord = pruneChord(radiusKm);
+    }
+
+    @Override
+    void consider(int index, double distance) {
+      if (distance <= radiusKm) {
+        hits.add(new Hit(index, distance));
+      }
+    }
+
+    List<City> results() {
+      return toCities(hits);
+    }
+  }
+}
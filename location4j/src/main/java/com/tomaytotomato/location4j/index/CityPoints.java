@@ -0,0 +1,76 @@
+package com.tomaytotomato.location4j.index;
+
+import com.tomaytotomato.location4j.model.lookup.City;
+import java.util.List;
+
+/**
+ * Cities and their coordinates by position, which a {@link CityKdTree} is built from.
+ * <p>
+ * Sources that keep the coordinates in columns, such as the city table of a memory-mapped data
+ * file, can give them without creating a {@link City} for each row. The tree then only asks for the
+ * cities it returns. The methods are named so that a map of cities can also implement them.
+ * </p>
+ */
+public interface CityPoints {
+
+  /**
+   * Returns the number of cities.
+   *
+   * @return the number of cities
+   */
+  int count();
+
+  /**
+   * Returns the latitude of a city, equal to {@link City#getLatitudeDouble()}.
+   *
+   * @param index the position of the city
+   * @return the latitude in decimal degrees
+   */
+  double latitude(int index);
+
+  /**
+   * Returns the longitude of a city, equal to {@link City#getLongitudeDouble()}.
+   *
+   * @param index the position of the city
+   * @return the longitude in decimal degrees
+   */
+  double longitude(int index);
+
+  /**
+   * Returns the city at a position.
+   *
+   * @param index the position of the city
+   * @return the city
+   */
+  City city(int index);
+
+  /**
+   * Adapts a list of cities, reading the coordinates from each city.
+   *
+   * @param cities the cities, in the order they are given to the tree
+   * @return the cities as points
+   */
+  static CityPoints of(List<City> cities) {
+    return new CityPoints() {
+      @Override
+      public int count() {
+        return cities.size();
+      }
+
+      @Override
+      public double latitude(int index) {
+        return cities.get(index).getLatitudeDouble();
+      }
+
+      @Override
+      public double longitude(int index) {
+        return cities.get(index).getLongitudeDouble();
+      }
+
+      @Override
+      public City city(int index) {
+        return cities.get(index);
+      }
+    };
+  }
+}
@@ -0,0 +1,92 @@
+package com.tomaytotomato.location4j.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Maps the ids of one kind of entity to dense ordinals, {@code 0} to {@code size() - 1}.
+ * <p>
+ * Ordinals let callers keep per-entity state in plain arrays instead of maps keyed by entity. They
+ * are assigned in ascending id order. When the ids are close to contiguous, as in the bundled
+ * dataset, the ordinal is read from an array indexed by id, otherwise it is found by binary
+ * search.
+ * </p>
+ */
+public final class DenseIds {
+
+  // Use a direct table while it is no more than this many times the number of ids
+  private static final int MAX_TABLE_SPREAD = 4;
+
+  private final int[] sortedIds;
+  private final int minId;
+  private final int[] ordinalsById;
+
+  private DenseIds(int[] sortedIds) {
+    this.sortedIds = sortedIds;
+    this.minId = sortedIds.length == 0 ? 0 : sortedIds[0];
+    long range = sortedIds.length == 0 ? 0 : (long) sortedIds[sortedIds.length - 1] - minId + 1;
+    if (range <= (long) MAX_TABLE_SPREAD * sortedIds.length + 1024) {
+      this.ordinalsById = new int[(int) range];
+      Arrays.fill(ordinalsById, -1);
+      for (int ordinal = 0; ordinal < sortedIds.length; ordinal++) {
+        ordinalsById[sortedIds[ordinal] - minId] = ordinal;
+      }
+    } else {
+      this.ordinalsById = null;
+    }
+  }
+
+  /**
+   * Assigns ordinals to a set of ids.
+   *
+   * @param ids the distinct ids, null ids are ignored
+   * @return the ordinals of the ids
+   */
+  public static DenseIds of(Collection<Integer> ids) {
+    if (Objects.isNull(ids)) {
+      throw new IllegalArgumentException("Ids cannot be null");
+    }
+    int[] sortedIds = ids.stream().filter(Objects::nonNull).mapToInt(Integer::intValue).sorted()
+        .toArray();
+    for (int i = 1; i < sortedIds.length; i++) {
+      if (sortedIds[i] == sortedIds[i - 1]) {
+        throw new IllegalArgumentException("Ids must be distinct, found " + sortedIds[i] + " twice");
+      }
+    }
+    return new DenseIds(sortedIds);
+  }
+
+  /**
+   * @return the number of ids, one more than the largest ordinal
+   */
+  public int size() {
+    return sortedIds.length;
+  }
+
+  /**
+   * Returns the ordinal of an id.
+   *
+   * @param id the id
+   * @return the ordinal, or -1 when the id is unknown
+   */
+  public int ordinal(int id) {
+    if (ordinalsById != null) {
+      long index = (long) id - minId;
+      return index < 0 || index >= ordinalsById.length ? -1 : ordinalsById[(int) index];
+    }
+    int ordinal = Arrays.binarySearch(sortedIds, id);
+    return ordinal < 0 ? -1 : ordinal;
+  }
+
+  /**
+   * Returns the id with the given ordinal.
+   *
+   * @param ordinal the ordinal
+   * @return the id
+   */
+  public int id(int ordinal) {
+    Objects.checkIndex(ordinal, sortedIds.length);
+    return sortedIds[ordinal];
+  }
+}
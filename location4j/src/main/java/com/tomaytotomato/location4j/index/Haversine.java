@@ -0,0 +1,65 @@
+package com.tomaytotomato.location4j.index;
+
+/**
+ * Great circle distances on a spherical Earth.
+ */
+public final class Haversine {
+
+  /**
+   * Mean radius of the Earth in kilometers.
+   */
+  public static final double EARTH_RADIUS_KM = 6371.0;
+
+  private Haversine() {
+  }
+
+  /**
+   * Calculate the great circle distance between two points on Earth using the Haversine formula.
+   *
+   * @param lat1 Latitude of first point in decimal degrees
+   * @param lon1 Longitude of first point in decimal degrees
+   * @param lat2 Latitude of second point in decimal degrees
+   * @param lon2 Longitude of second point in decimal degrees
+   * @return Distance in kilometers
+   */
+  public static double distance(double lat1, double lon1, double lat2, double lon2) {
+    // Convert degrees to radians
+    double lat1Rad = Math.toRadians(lat1);
+    double lon1Rad = Math.toRadians(lon1);
+    double lat2Rad = Math.toRadians(lat2);
+    double lon2Rad = Math.toRadians(lon2);
+
+    return distance(lat1Rad, lon1Rad, Math.cos(lat1Rad), lat2Rad, lon2Rad, Math.cos(lat2Rad));
+  }
+
+  /**
+   * The Haversine formula for points already converted to radians, with the cosine of each
+   * latitude precomputed. Gives exactly the same result as {@link #distance(double, double, double,
+   * double)} for the same points.
+   */
+  static double distance(double lat1Rad, double lon1Rad, double cosLat1, double lat2Rad,
+      double lon2Rad, double cosLat2) {
+    // Calculate differences
+    double dLat = lat2Rad - lat1Rad;
+    double dLon = lon2Rad - lon1Rad;
+
+    // Apply Haversine formula
+    double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+        + cosLat1 * cosLat2
+        * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+    double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+    return EARTH_RADIUS_KM * c;
+  }
+
+  /**
+   * The straight line distance through the Earth between two points that are the given great
+   * circle distance apart, on a sphere of radius 1.
+   *
+   * @param distanceKm great circle distance in kilometers
+   * @return the chord length on the unit sphere
+   */
+  static double chordLength(double distanceKm) {
+    return 2 * Math.sin(Math.min(distanceKm / EARTH_RADIUS_KM, Math.PI) / 2);
+  }
+}
@@ -0,0 +1,346 @@
+package com.tomaytotomato.location4j.index;
+
+import com.tomaytotomato.location4j.loader.DataLoader;
+import com.tomaytotomato.location4j.loader.DefaultDataLoader;
+import com.tomaytotomato.location4j.model.Location4JData;
+import com.tomaytotomato.location4j.model.LocationMatches;
+import com.tomaytotomato.location4j.model.LocationMatches.MatchType;
+import com.tomaytotomato.location4j.model.lookup.City;
+import com.tomaytotomato.location4j.model.lookup.Country;
+import com.tomaytotomato.location4j.model.lookup.State;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Immutable snapshot of the pre-built lookup maps, shared by every {@link
+ * com.tomaytotomato.location4j.usecase.lookup.LocationService} and {@link
+ * com.tomaytotomato.location4j.usecase.search.SearchLocationService} built from the same data.
+ * <p>
+ * The maps are read-only views over the loaded {@link Location4JData}. The maps searched by name or
+ * code are held as {@link TextLookup}s, copying them into a {@link TextKeyMap} when the loaded map
+ * is not one already, so that tokens can be looked up as slices of the search text. Services that
+ * need extra keys (e.g. aliases) layer their own small maps on top of this index instead of copying
+ * it, so each additional service instance only costs the size of its overlay.
+ * </p>
+ */
+public final class LocationIndex {
+
+  private static final Map<Location4JData, LocationIndex> INDEXES = new WeakHashMap<>();
+  // Locks rather than monitors, so virtual threads waiting for an index do not pin their carrier
+  private static final ReentrantLock INDEXES_LOCK = new ReentrantLock();
+
+  /**
+   * The shortest name found by {@link #getNameAutomaton()}.
+   */
+  public static final int MIN_MENTION_LENGTH = 3;
+
+  private static volatile LocationIndex defaultIndex;
+
+  private final List<Country> countries;
+  private final Map<String, Country> countryNameToCountryMap;
+  private final Map<Integer, Country> countryIdToCountryMap;
+  private final Map<String, Country> localisedNameToCountryMap;
+  private final Map<String, Country> iso2CodeToCountryMap;
+  private final Map<String, Country> iso3CodeToCountryMap;
+  private final Map<Integer, State> stateIdToStateMap;
+  private final Map<Integer, City> cityIdToCityMap;
+  private final Map<String, List<State>> stateNameToStatesMap;
+  private final Map<String, List<State>> stateCodeToStatesMap;
+  private final Map<String, List<City>> cityNameToCitiesMap;
+  private final Map<String, List<City>> searchCityNameToCitiesMap;
+  private final Map<String, LocationMatches> searchDictionary;
+  private final DenseIds countryIds;
+  private final DenseIds stateIds;
+  private final DenseIds cityIds;
+  // Guards building the indexes below the first time they are requested
+  private final ReentrantLock lazyIndexLock = new ReentrantLock();
+
+  private volatile CityKdTree cityKdTree;
+  private volatile NameTrie<LocationMatches> searchTrie;
+  private volatile SuggestionIndex suggestionIndex;
+  private volatile NameAutomaton<LocationMatches> nameAutomaton;
+
+  private LocationIndex(Location4JData location4JData) {
+    this.countries = Collections.unmodifiableList(location4JData.getCountries());
+    this.countryNameToCountryMap = textLookup(location4JData.getCountryNameToCountryMap());
+    this.countryIdToCountryMap = Collections.unmodifiableMap(
+        location4JData.getCountryIdToCountryMap());
+    this.localisedNameToCountryMap = Collections.unmodifiableMap(
+        location4JData.getLocalisedNameToCountryMap());
+    this.iso2CodeToCountryMap = Collections.unmodifiableMap(
+        location4JData.getIso2CodeToCountryMap());
+    this.iso3CodeToCountryMap = textLookup(location4JData.getIso3CodeToCountryMap());
+    this.stateIdToStateMap = Collections.unmodifiableMap(location4JData.getStateIdToStateMap());
+    this.cityIdToCityMap = Collections.unmodifiableMap(location4JData.getCityIdToCityMap());
+    this.stateNameToStatesMap = textLookup(location4JData.getStateNameToStatesMap());
+    this.stateCodeToStatesMap = textLookup(location4JData.getStateCodeToStatesMap());
+    this.cityNameToCitiesMap = textLookup(location4JData.getCityNameToCitiesMap());
+    // Older data files carry a second copy of the city map for search, prefer the shared one
+    var searchCities = location4JData.getSearchCityNameToCitiesMap();
+    this.searchCityNameToCitiesMap = Objects.isNull(searchCities)
+        || searchCities == location4JData.getCityNameToCitiesMap()
+        ? this.cityNameToCitiesMap
+        : textLookup(searchCities);
+    // Data files written before the search dictionary was added get one compiled from the maps
+    var dictionary = location4JData.getSearchDictionary();
+    this.searchDictionary = textLookup(Objects.isNull(dictionary)
+        ? LocationMatches.compile(countryNameToCountryMap, iso2CodeToCountryMap,
+        iso3CodeToCountryMap, stateNameToStatesMap, stateCodeToStatesMap,
+        searchCityNameToCitiesMap)
+        : dictionary);
+    this.countryIds = DenseIds.of(countryIdToCountryMap.keySet());
+    this.stateIds = DenseIds.of(stateIdToStateMap.keySet());
+    this.cityIds = DenseIds.of(cityIdToCityMap.keySet());
+  }
+
+  /**
+   * Returns the map itself when it is already a read-only {@link TextLookup}, such as the name index
+   * of a memory-mapped data file, otherwise an immutable {@link TextKeyMap} copy of it.
+   */
+  private static <V> Map<String, V> textLookup(Map<String, V> map) {
+    return map instanceof TextLookup<?> ? map : TextKeyMap.of(map);
+  }
+
+  /**
+   * Returns the index for the data held by the given loader. Loaders that return the same
+   * {@link Location4JData} share a single index.
+   *
+   * @param dataLoader the loader to index
+   * @return the shared index for the loader's data
+   */
+  public static LocationIndex of(DataLoader dataLoader) {
+    if (Objects.isNull(dataLoader)) {
+      throw new IllegalArgumentException("DataLoader cannot be null");
+    }
+    var location4JData = dataLoader.getLocation4JData();
+    if (Objects.isNull(location4JData)) {
+      throw new IllegalArgumentException("DataLoader has no Location4J data loaded");
+    }
+    INDEXES_LOCK.lock();
+    try {
+      return INDEXES.computeIfAbsent(location4JData, LocationIndex::new);
+    } finally {
+      INDEXES_LOCK.unlock();
+    }
+  }
+
+  /**
+   * Returns the index over the bundled dataset, loaded with {@link DefaultDataLoader} the first
+   * time it is requested and shared from then on.
+   *
+   * @return the shared default index
+   */
+  public static LocationIndex defaultIndex() {
+    var index = defaultIndex;
+    if (index == null) {
+      INDEXES_LOCK.lock();
+      try {
+        index = defaultIndex;
+        if (index == null) {
+          index = of(new DefaultDataLoader());
+          defaultIndex = index;
+        }
+      } finally {
+        INDEXES_LOCK.unlock();
+      }
+    }
+    return index;
+  }
+
+  public List<Country> getCountries() {
+    return countries;
+  }
+
+  public Map<String, Country> getCountryNameToCountryMap() {
+    return countryNameToCountryMap;
+  }
+
+  public Map<Integer, Country> getCountryIdToCountryMap() {
+    return countryIdToCountryMap;
+  }
+
+  public Map<String, Country> getLocalisedNameToCountryMap() {
+    return localisedNameToCountryMap;
+  }
+
+  public Map<String, Country> getIso2CodeToCountryMap() {
+    return iso2CodeToCountryMap;
+  }
+
+  public Map<String, Country> getIso3CodeToCountryMap() {
+    return iso3CodeToCountryMap;
+  }
+
+  public Map<Integer, State> getStateIdToStateMap() {
+    return stateIdToStateMap;
+  }
+
+  public Map<Integer, City> getCityIdToCityMap() {
+    return cityIdToCityMap;
+  }
+
+  public Map<String, List<State>> getStateNameToStatesMap() {
+    return stateNameToStatesMap;
+  }
+
+  public Map<String, List<State>> getStateCodeToStatesMap() {
+    return stateCodeToStatesMap;
+  }
+
+  public Map<String, List<City>> getCityNameToCitiesMap() {
+    return cityNameToCitiesMap;
+  }
+
+  public Map<String, List<City>> getSearchCityNameToCitiesMap() {
+    return searchCityNameToCitiesMap;
+  }
+
+  /**
+   * Returns the search dictionary, holding every country name, country code, state name, state
+   * code and city name searched by {@link
+   * com.tomaytotomato.location4j.usecase.search.SearchLocationService}, each mapped to all of its
+   * matches so a token is resolved with a single lookup.
+   *
+   * @return the postings by normalised key, also a {@link TextLookup}
+   */
+  public Map<String, LocationMatches> getSearchDictionary() {
+    return searchDictionary;
+  }
+
+  /**
+   * @return the dense ordinals of the country ids in {@link #getCountryIdToCountryMap()}
+   */
+  public DenseIds getCountryIds() {
+    return countryIds;
+  }
+
+  /**
+   * @return the dense ordinals of the state ids in {@link #getStateIdToStateMap()}
+   */
+  public DenseIds getStateIds() {
+    return stateIds;
+  }
+
+  /**
+   * @return the dense ordinals of the city ids in {@link #getCityIdToCityMap()}
+   */
+  public DenseIds getCityIds() {
+    return cityIds;
+  }
+
+  /**
+   * Returns the spatial index over every city in {@link #getCityNameToCitiesMap()}, built the first
+   * time it is requested.
+   *
+   * @return the shared k-d tree
+   */
+  public CityKdTree getCityKdTree() {
+    var tree = cityKdTree;
+    if (tree == null) {
+      lazyIndexLock.lock();
+      try {
+        tree = cityKdTree;
+        if (tree == null) {
+          // A mapped name index gives the coordinates without creating every city
+          tree = cityNameToCitiesMap instanceof CityPoints points
+              ? CityKdTree.of(points)
+              : CityKdTree.of(cityNameToCitiesMap.values().stream()
+                  .flatMap(List::stream)
+                  .toList());
+          cityKdTree = tree;
+        }
+      } finally {
+        lazyIndexLock.unlock();
+      }
+    }
+    return tree;
+  }
+
+  /**
+   * Returns {@link #getSearchDictionary()} as a {@link NameTrie}, for searches over its sorted keys.
+   * A dictionary that is not already a trie, such as the one of a memory-mapped data file, is copied
+   * into one the first time it is requested.
+   *
+   * @return the shared search dictionary trie
+   */
+  @SuppressWarnings("unchecked")
+  public NameTrie<LocationMatches> getSearchTrie() {
+    if (searchDictionary instanceof NameTrie<?> trie) {
+      return (NameTrie<LocationMatches>) trie;
+    }
+    var trie = searchTrie;
+    if (trie == null) {
+      lazyIndexLock.lock();
+      try {
+        trie = searchTrie;
+        if (trie == null) {
+          trie = NameTrie.of(searchDictionary);
+          searchTrie = trie;
+        }
+      } finally {
+        lazyIndexLock.unlock();
+      }
+    }
+    return trie;
+  }
+
+  /**
+   * Returns the prefix index over the names in {@link #getSearchTrie()}, built the first time it is
+   * requested.
+   *
+   * @return the shared suggestion index
+   */
+  public SuggestionIndex getSuggestionIndex() {
+    var index = suggestionIndex;
+    if (index == null) {
+      lazyIndexLock.lock();
+      try {
+        index = suggestionIndex;
+        if (index == null) {
+          index = SuggestionIndex.of(getSearchTrie());
+          suggestionIndex = index;
+        }
+      } finally {
+        lazyIndexLock.unlock();
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Returns the automaton finding the country, state and city names of {@link #getSearchTrie()} in
+   * documents, built the first time it is requested. Codes and names shorter than
+   * {@value #MIN_MENTION_LENGTH} characters are left out, as in prose they are mostly ordinary
+   * words such as "in" or "or".
+   *
+   * @return the shared name automaton
+   */
+  public NameAutomaton<LocationMatches> getNameAutomaton() {
+    var automaton = nameAutomaton;
+    if (automaton == null) {
+      lazyIndexLock.lock();
+      try {
+        automaton = nameAutomaton;
+        if (automaton == null) {
+          Map<String, LocationMatches> names = new HashMap<>();
+          getSearchTrie().forEach((key, matches) -> {
+            if (key.length() >= MIN_MENTION_LENGTH && (matches.has(MatchType.COUNTRY_NAME)
+                || matches.has(MatchType.STATE_NAME) || matches.has(MatchType.CITY_NAME))) {
+              names.put(key, matches);
+            }
+          });
+          automaton = NameAutomaton.of(names);
+          nameAutomaton = automaton;
+        }
+      } finally {
+        lazyIndexLock.unlock();
+      }
+    }
+    return automaton;
+  }
+}
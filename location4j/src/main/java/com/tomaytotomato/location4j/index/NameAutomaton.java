@@ -0,0 +1,382 @@
+package com.tomaytotomato.location4j.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable Aho-Corasick automaton over a fixed set of normalised names, finding every name
+ * mentioned in a document in a single pass over its characters.
+ * <p>
+ * The names are held as a trie in flat arrays, numbered in breadth-first order so the children of
+ * each node are contiguous and sorted by character. Each node also links to the longest proper
+ * suffix of its path that is a prefix of some name, and to the nearest such suffix that is a whole
+ * name, so the scan never steps back in the document: a mismatch follows the suffix links instead.
+ * </p>
+ * <p>
+ * Documents are normalised while they are scanned, the same way as by
+ * {@link com.tomaytotomato.location4j.text.normaliser.DefaultTextNormaliser}: letters are
+ * lowercased, ASCII punctuation is dropped and whitespace runs count as a single space. Quotes and
+ * brackets outside ASCII also count as spaces. A name is only found as whole words, and where
+ * found names overlap the leftmost and then longest one is kept, so "New York City" is one mention
+ * rather than also "York". Spans are reported as offsets into the original document.
+ * </p>
+ *
+ * @param <V> the type of the values of the names
+ */
+public final class NameAutomaton<V> {
+
+  private static final int ROOT = 0;
+  private static final int NONE = -1;
+  private static final char DROPPED = 0;
+  // Normalised form of each ASCII character: itself lowercased, a space or DROPPED
+  private static final char[] ASCII = new char[128];
+
+  static {
+    for (char c = 0; c < ASCII.length; c++) {
+      if (c <= ' ') {
+        ASCII[c] = ' ';
+      } else if (Character.isLetterOrDigit(c)) {
+        ASCII[c] = Character.toLowerCase(c);
+      } else {
+        ASCII[c] = DROPPED;
+      }
+    }
+  }
+
+  private final String[] names;
+  private final Object[] values;
+  // Character of the edge into each node
+  private final char[] labels;
+  // Children of node n are the nodes firstChild[n] until firstChild[n + 1]
+  private final int[] firstChild;
+  // Node reached after a mismatch, the longest proper suffix of the path that is in the trie
+  private final int[] fail;
+  // Name ending at each node, or NONE
+  private final int[] output;
+  // Nearest node along the fail links that ends a name, or NONE
+  private final int[] outputLink;
+  // Child of the root by each ASCII character, as most mismatches fall back to the root
+  private final int[] rootChildren = new int[128];
+  private final int maxNameLength;
+
+  private NameAutomaton(String[] names, Object[] values) {
+    this.names = names;
+    this.values = values;
+    var builder = new Builder(names);
+    this.labels = builder.labels;
+    this.firstChild = builder.firstChild;
+    this.output = builder.output;
+    this.fail = new int[builder.size];
+    this.outputLink = new int[builder.size];
+    this.maxNameLength = builder.maxNameLength;
+    for (char c = 0; c < rootChildren.length; c++) {
+      rootChildren[c] = child(ROOT, c);
+    }
+    linkSuffixes(builder.parents);
+  }
+
+  /**
+   * Compiles the automaton of a map from normalised names. Empty names are ignored.
+   *
+   * @param names the values by normalised name
+   * @param <V>   the type of the values
+   * @return the automaton finding the names
+   */
+  public static <V> NameAutomaton<V> of(Map<String, ? extends V> names) {
+    if (Objects.isNull(names)) {
+      throw new IllegalArgumentException("Map cannot be null");
+    }
+    var sorted = names.keySet().stream()
+        .filter(name -> !Objects.isNull(name) && !name.isEmpty())
+        .sorted()
+        .toArray(String[]::new);
+    var values = new Object[sorted.length];
+    for (int i = 0; i < sorted.length; i++) {
+      values[i] = names.get(sorted[i]);
+    }
+    return new NameAutomaton<>(sorted, values);
+  }
+
+  /**
+   * @return the number of names
+   */
+  public int size() {
+    return names.length;
+  }
+
+  /**
+   * @return the number of trie nodes, including the root
+   */
+  public int nodeCount() {
+    return labels.length;
+  }
+
+  /**
+   * Finds the names mentioned in a document, as whole words.
+   *
+   * @param document the text to scan
+   * @return the mentions in the order they appear, without overlaps
+   */
+  public List<Mention<V>> findAll(CharSequence document) {
+    if (Objects.isNull(document)) {
+      throw new IllegalArgumentException("Document cannot be null");
+    }
+    var scan = new Scan();
+    for (int i = 0; i < document.length(); i++) {
+      char c = document.charAt(i);
+      if (c < ASCII.length) {
+        c = ASCII[c];
+      } else if (Character.isSpaceChar(c) || isBracketOrQuote(c)) {
+        c = ' ';
+      } else {
+        c = Character.toLowerCase(c);
+      }
+      if (c == ' ') {
+        scan.space(i);
+      } else if (c != DROPPED) {
+        scan.letter(c, i);
+      }
+    }
+    scan.end();
+    return scan.mentions;
+  }
+
+  /**
+   * A name found in a document.
+   *
+   * @param start the index of the first character of the mention in the document
+   * @param end   the index after the last character of the mention in the document
+   * @param name  the normalised name that was found
+   * @param value the value of the name
+   * @param <V>   the type of the value
+   */
+  public record Mention<V>(int start, int end, String name, V value) {
+  }
+
+  /**
+   * State of one scan: the current node and the last normalised characters, enough to check the
+   * word boundary before a name and to map it back to the document.
+   */
+  private final class Scan {
+
+    private final char[] recent;
+    private final int[] recentStarts;
+    private final int[] recentEnds;
+    private final int mask;
+    private final List<Mention<V>> mentions = new ArrayList<>();
+    private int node = ROOT;
+    // Number of normalised characters so far
+    private int length;
+    private boolean afterSpace = true;
+
+    private Scan() {
+      int capacity = Integer.highestOneBit(maxNameLength + 1) << 1;
+      this.recent = new char[capacity];
+      this.recentStarts = new int[capacity];
+      this.recentEnds = new int[capacity];
+      this.mask = capacity - 1;
+    }
+
+    private void space(int index) {
+      if (afterSpace) {
+        // Whitespace runs and leading whitespace are dropped like by the normaliser
+        return;
+      }
+      collect();
+      append(' ', index);
+      afterSpace = true;
+    }
+
+    private void letter(char c, int index) {
+      append(c, index);
+      afterSpace = false;
+    }
+
+    private void end() {
+      if (!afterSpace) {
+        collect();
+      }
+    }
+
+    private void append(char c, int index) {
+      node = next(node, c);
+      int slot = length & mask;
+      recent[slot] = c;
+      recentStarts[slot] = index;
+      recentEnds[slot] = index + 1;
+      length++;
+    }
+
+    /**
+     * Collects the names ending at the last character, which is followed by a space or the end of
+     * the document, and that start at the beginning of a word. The output links list them longest
+     * first.
+     */
+    private void collect() {
+      int last = length - 1;
+      for (int n = output[node] != NONE ? node : outputLink[node]; n != NONE; n = outputLink[n]) {
+        int name = output[n];
+        int first = length - names[name].length();
+        if (first == 0 || recent[(first - 1) & mask] == ' ') {
+          add(recentStarts[first & mask], recentEnds[last & mask], name);
+        }
+      }
+    }
+
+    /**
+     * Adds a name unless it overlaps a mention that starts before it. Names are added in the order
+     * they end, so the mentions it overlaps end last, and it replaces them when it starts with or
+     * before them all. This keeps the leftmost and then longest names without sorting them.
+     */
+    @SuppressWarnings("unchecked")
+    private void add(int start, int end, int name) {
+      int overlapped = mentions.size();
+      while (overlapped > 0 && mentions.get(overlapped - 1).end() > start) {
+        overlapped--;
+      }
+      if (overlapped < mentions.size()) {
+        if (mentions.get(overlapped).start() < start) {
+          return;
+        }
+        mentions.subList(overlapped, mentions.size()).clear();
+      }
+      mentions.add(new Mention<>(start, end, names[name], (V) values[name]));
+    }
+  }
+
+  /**
+   * @return the node reached from a node by a character, following fail links on a mismatch
+   */
+  private int next(int node, char c) {
+    for (; node != ROOT; node = fail[node]) {
+      int child = child(node, c);
+      if (child != NONE) {
+        return child;
+      }
+    }
+    int child = c < rootChildren.length ? rootChildren[c] : child(ROOT, c);
+    return child == NONE ? ROOT : child;
+  }
+
+  /**
+   * @return the child of a node by the character of its edge, or NONE
+   */
+  private int child(int node, char c) {
+    int low = firstChild[node];
+    int high = firstChild[node + 1] - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      char label = labels[middle];
+      if (label < c) {
+        low = middle + 1;
+      } else if (label > c) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return NONE;
+  }
+
+  /**
+   * Sets the fail and output links in breadth-first order, so the links of every shorter path are
+   * known when a node is linked.
+   */
+  private void linkSuffixes(int[] parents) {
+    fail[ROOT] = ROOT;
+    outputLink[ROOT] = NONE;
+    for (int node = 1; node < labels.length; node++) {
+      int parent = parents[node];
+      int suffix = ROOT;
+      if (parent != ROOT) {
+        suffix = fail[parent];
+        while (child(suffix, labels[node]) == NONE && suffix != ROOT) {
+          suffix = fail[suffix];
+        }
+        int child = child(suffix, labels[node]);
+        suffix = child == NONE ? ROOT : child;
+      }
+      fail[node] = suffix;
+      outputLink[node] = output[suffix] != NONE ? suffix : outputLink[suffix];
+    }
+  }
+
+  private static boolean isBracketOrQuote(char c) {
+    if (c < 128) {
+      return false;
+    }
+    return switch (Character.getType(c)) {
+      case Character.START_PUNCTUATION, Character.END_PUNCTUATION,
+           Character.INITIAL_QUOTE_PUNCTUATION, Character.FINAL_QUOTE_PUNCTUATION -> true;
+      default -> false;
+    };
+  }
+
+  /**
+   * Lays the sorted names out as a trie in breadth-first order. The names below each node are a
+   * contiguous range of the sorted names, split into one child per distinct next character.
+   */
+  private static final class Builder {
+
+    private char[] labels = new char[1024];
+    private int[] firstChild = new int[1025];
+    private int[] output = new int[1024];
+    private int[] parents = new int[1024];
+    private int[] rangeStarts = new int[1024];
+    private int[] rangeEnds = new int[1024];
+    private int size;
+    private int maxNameLength;
+
+    private Builder(String[] names) {
+      add(ROOT, ROOT, 0, names.length);
+      for (int node = 0, depth = 0, depthEnd = 1; node < size; node++) {
+        if (node == depthEnd) {
+          depth++;
+          depthEnd = size;
+        }
+        int start = rangeStarts[node];
+        int end = rangeEnds[node];
+        // Sorted, so the name ending at this node comes first
+        if (start < end && names[start].length() == depth) {
+          output[node] = start++;
+          maxNameLength = Math.max(maxNameLength, depth);
+        }
+        firstChild[node] = size;
+        while (start < end) {
+          char c = names[start].charAt(depth);
+          int next = start + 1;
+          while (next < end && names[next].charAt(depth) == c) {
+            next++;
+          }
+          add(c, node, start, next);
+          start = next;
+        }
+      }
+      firstChild[size] = size;
+      labels = Arrays.copyOf(labels, size);
+      firstChild = Arrays.copyOf(firstChild, size + 1);
+      output = Arrays.copyOf(output, size);
+    }
+
+    private void add(int label, int parent, int start, int end) {
+      if (size == labels.length) {
+        int capacity = size * 2;
+        labels = Arrays.copyOf(labels, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity + 1);
+        output = Arrays.copyOf(output, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        rangeStarts = Arrays.copyOf(rangeStarts, capacity);
+        rangeEnds = Arrays.copyOf(rangeEnds, capacity);
+      }
+      labels[size] = (char) label;
+      output[size] = NONE;
+      parents[size] = parent;
+      rangeStarts[size] = start;
+      rangeEnds[size] = end;
+      size++;
+    }
+  }
+}
@@ -0,0 +1,531 @@
+package com.tomaytotomato.location4j.index;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable map from a fixed set of String keys, held as a path compressed trie in flat arrays.
+ * <p>
+ * Location names share long prefixes ("san ", "santa ", "saint ", "new ", "port "), so each shared
+ * prefix is stored once as the label of a trie node instead of once per key. Nodes are numbered in
+ * depth-first order with their children sorted by first character, which numbers the keys in
+ * lexicographic order. That rank is the offset of the key's value, so there is no String, entry or
+ * node object per key: the whole map is a handful of arrays. Like {@link TextKeyMap} it can be probed
+ * with a slice of a {@link CharSequence}.
+ * </p>
+ * <p>
+ * A lookup walks one node per shared prefix, finding the child of each node by its first
+ * character, so it costs a few times a hash lookup in exchange for the smaller heap.
+ * </p>
+ *
+ * @param <V> the type of the values
+ */
+public final class NameTrie<V> extends AbstractMap<String, V>
+    implements TextLookup<V>, Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  // Fields of each node, kept together so a step down the trie reads one or two cache lines
+  private static final int NODE_FIELDS = 3;
+  private static final int LABEL_START = 0;
+  private static final int CHILD_START = 1;
+  // Number of keys ending before the node, shifted left one bit with the low bit set when a key
+  // ends at the node. The count is also the rank of that key.
+  private static final int RANK = 2;
+  private static final int LINEAR_SCAN_CHILDREN = 8;
+
+  // Node n owns labels [LABEL_START of n, LABEL_START of n + 1) and the children entries
+  // [CHILD_START of n, CHILD_START of n + 1), followed by a sentinel node closing the last ranges
+  private final int[] nodes;
+  private final char[] labels;
+  // The first label character of each child in the high half, the child node in the low half
+  private final long[] children;
+  // Node n and its descendants are the nodes [n, subtreeEnds[n])
+  private final int[] subtreeEnds;
+  private final Object[] values;
+
+  private NameTrie(Builder builder, Object[] values) {
+    int nodeCount = builder.nodeCount;
+    this.nodes = new int[(nodeCount + 1) * NODE_FIELDS];
+    for (int n = 0; n <= nodeCount; n++) {
+      nodes[n * NODE_FIELDS + LABEL_START] = builder.labelStarts[n];
+      nodes[n * NODE_FIELDS + CHILD_START] = builder.childStarts[n];
+      nodes[n * NODE_FIELDS + RANK] = builder.ranks[n];
+    }
+    this.labels = Arrays.copyOf(builder.labels, builder.labelCount);
+    this.children = new long[builder.childCount];
+    for (int i = 0; i < children.length; i++) {
+      children[i] = (long) builder.childChars[i] << 32 | builder.childNodes[i];
+    }
+    this.subtreeEnds = Arrays.copyOf(builder.subtreeEnds, nodeCount);
+    this.values = values;
+  }
+
+  /**
+   * Copies the entries of a map into a trie.
+   *
+   * @param map the map to copy
+   * @param <V> the type of the values
+   * @return an immutable copy of the map
+   */
+  public static <V> NameTrie<V> of(Map<String, ? extends V> map) {
+    if (Objects.isNull(map)) {
+      throw new IllegalArgumentException("Map cannot be null");
+    }
+    String[] keys = map.keySet().toArray(String[]::new);
+    long characters = 0;
+    for (String key : keys) {
+      if (Objects.isNull(key)) {
+        throw new IllegalArgumentException("Keys cannot be null");
+      }
+      characters += key.length();
+    }
+    if (characters > Integer.MAX_VALUE - 1) {
+      throw new IllegalArgumentException("Keys are too long to index, " + characters
+          + " characters");
+    }
+    Arrays.sort(keys);
+
+    var builder = new Builder(keys, (int) characters);
+    builder.addNode(0, keys.length, 0, 0);
+    builder.labelStarts[builder.nodeCount] = builder.labelCount;
+    builder.childStarts[builder.nodeCount] = builder.childCount;
+    builder.ranks[builder.nodeCount] = keys.length << 1;
+
+    var values = new Object[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      values[i] = map.get(keys[i]);
+    }
+    return new NameTrie<>(builder, values);
+  }
+
+  @Override
+  public V get(CharSequence text, int start, int end) {
+    int rank = rank(text, start, end);
+    return rank < 0 ? null : value(rank);
+  }
+
+  /**
+   * Checks whether there is a key equal to the characters in {@code [start, end)} of the text.
+   *
+   * @param text  the text holding the key
+   * @param start the index of the first character of the key
+   * @param end   the index after the last character of the key
+   * @return true if the key is present
+   */
+  public boolean containsKey(CharSequence text, int start, int end) {
+    return rank(text, start, end) >= 0;
+  }
+
+  @Override
+  public V get(Object key) {
+    if (key instanceof String text) {
+      return get(text, 0, text.length());
+    }
+    return null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof String text && rank(text, 0, text.length()) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  /**
+   * @return the number of nodes in the trie, which is at most twice the number of keys
+   */
+  public int nodeCount() {
+    return subtreeEnds.length;
+  }
+
+  /**
+   * @return the number of characters stored in node labels, after prefix sharing
+   */
+  public int labelLength() {
+    return labels.length;
+  }
+
+  /**
+   * Returns the ranks of the keys starting with a prefix. As keys are ranked in lexicographic
+   * order, they are the contiguous ranks {@code [from, to)}.
+   *
+   * @param prefix the start of the keys
+   * @return the pair {@code {from, to}}, empty when no key starts with the prefix
+   */
+  public int[] prefixRanks(CharSequence prefix) {
+    int node = 0;
+    int position = 0;
+    while (position < prefix.length()) {
+      int child = child(node, prefix.charAt(position));
+      if (child < 0) {
+        return new int[]{0, 0};
+      }
+      int labelEnd = field(child + 1, LABEL_START);
+      for (int i = field(child, LABEL_START); i < labelEnd && position < prefix.length();
+          i++, position++) {
+        if (labels[i] != prefix.charAt(position)) {
+          return new int[]{0, 0};
+        }
+      }
+      node = child;
+    }
+    return new int[]{field(node, RANK) >>> 1, field(subtreeEnds[node], RANK) >>> 1};
+  }
+
+  /**
+   * @param rank the rank of a key, from 0 to {@code size() - 1}
+   * @return the value of the key with the given rank
+   */
+  public V valueAt(int rank) {
+    Objects.checkIndex(rank, values.length);
+    return value(rank);
+  }
+
+  /**
+   * Finds the key closest to the characters in {@code [start, end)} of the text, counting the
+   * characters inserted, deleted, substituted or swapped with their neighbour to turn one into the
+   * other (the optimal string alignment distance).
+   * <p>
+   * The trie is walked depth first, computing one row of the edit distance table per label
+   * character, so keys sharing a prefix share its rows. A branch is abandoned as soon as its rows
+   * are over the distance, which keeps the walk to a small part of the trie for small distances.
+   * </p>
+   *
+   * @param text        the text holding the misspelt key
+   * @param start       the index of the first character of the key
+   * @param end         the index after the last character of the key
+   * @param maxDistance the largest distance accepted
+   * @return the closest key, the first in lexicographic order between keys at the same distance, or
+   * null when no key is within {@code maxDistance}
+   */
+  public String nearestKey(CharSequence text, int start, int end, int maxDistance) {
+    Objects.checkFromToIndex(start, end, text.length());
+    if (maxDistance < 0) {
+      throw new IllegalArgumentException("Max distance cannot be negative");
+    }
+    var search = new NearestKeySearch(text, start, end, maxDistance);
+    search.visit(0, 0);
+    return search.nearest;
+  }
+
+  /**
+   * Iterates the entries in lexicographic order of their keys, rebuilding each key from the labels
+   * on its path.
+   */
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<String, V>> iterator() {
+        return new Iterator<>() {
+          private final StringBuilder key = new StringBuilder();
+          // Key length at the end of each open node and the node that closes it
+          private int[] lengths = new int[16];
+          private int[] closes = new int[16];
+          private int depth;
+          private int node = nextKey(0);
+          private int visited;
+
+          @Override
+          public boolean hasNext() {
+            return node >= 0;
+          }
+
+          @Override
+          public Entry<String, V> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            // Walk the nodes in order up to the next key, keeping the path from the root
+            for (; visited <= node; visited++) {
+              while (depth > 0 && closes[depth - 1] <= visited) {
+                depth--;
+              }
+              key.setLength(depth == 0 ? 0 : lengths[depth - 1]);
+              if (depth == lengths.length) {
+                lengths = Arrays.copyOf(lengths, depth * 2);
+                closes = Arrays.copyOf(closes, depth * 2);
+              }
+              int labelStart = field(visited, LABEL_START);
+              key.append(labels, labelStart, field(visited + 1, LABEL_START) - labelStart);
+              lengths[depth] = key.length();
+              closes[depth] = subtreeEnds[visited];
+              depth++;
+            }
+            var entry = new SimpleImmutableEntry<>(key.toString(),
+                value(field(node, RANK) >>> 1));
+            node = nextKey(node + 1);
+            return entry;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return values.length;
+      }
+    };
+  }
+
+  /**
+   * Returns the rank of the key equal to the characters in {@code [start, end)} of the text.
+   */
+  private int rank(CharSequence text, int start, int end) {
+    Objects.checkFromToIndex(start, end, text.length());
+    int node = 0;
+    int position = start;
+    while (position < end) {
+      int child = child(node, text.charAt(position));
+      if (child < 0) {
+        return -1;
+      }
+      int labelEnd = field(child + 1, LABEL_START);
+      for (int i = field(child, LABEL_START); i < labelEnd; i++, position++) {
+        if (position == end || labels[i] != text.charAt(position)) {
+          return -1;
+        }
+      }
+      node = child;
+    }
+    int rank = field(node, RANK);
+    return (rank & 1) == 0 ? -1 : rank >>> 1;
+  }
+
+  private int child(int node, char first) {
+    int low = field(node, CHILD_START);
+    int high = field(node + 1, CHILD_START) - 1;
+    // Most nodes only have a few children, which are quicker to scan than to bisect
+    if (high - low < LINEAR_SCAN_CHILDREN) {
+      for (int i = low; i <= high; i++) {
+        long child = children[i];
+        if ((char) (child >>> 32) == first) {
+          return (int) child;
+        }
+      }
+      return -1;
+    }
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      long child = children[middle];
+      char c = (char) (child >>> 32);
+      if (c < first) {
+        low = middle + 1;
+      } else if (c > first) {
+        high = middle - 1;
+      } else {
+        return (int) child;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return the first node from {@code node} onwards where a key ends, or -1 if there is none
+   */
+  private int nextKey(int node) {
+    for (int n = node; n < subtreeEnds.length; n++) {
+      if ((field(n, RANK) & 1) != 0) {
+        return n;
+      }
+    }
+    return -1;
+  }
+
+  private int field(int node, int field) {
+    return nodes[node * NODE_FIELDS + field];
+  }
+
+  @SuppressWarnings("unchecked")
+  private V value(int rank) {
+    return (V) values[rank];
+  }
+
+  /**
+   * State of one {@link #nearestKey} walk: the characters on the path from the root and one edit
+   * distance row per character.
+   */
+  private final class NearestKeySearch {
+
+    private final CharSequence text;
+    private final int start;
+    private final int length;
+    private final char[] path;
+    // rows[d][j] is the distance between the first d path characters and the first j of the text
+    private final int[][] rows;
+    private final int[] rowMinimums;
+    private int limit;
+    private String nearest;
+
+    private NearestKeySearch(CharSequence text, int start, int end, int maxDistance) {
+      this.text = text;
+      this.start = start;
+      this.length = end - start;
+      // Keys longer than the text by more than the distance cannot be within it
+      int maxDepth = length + maxDistance;
+      this.path = new char[maxDepth];
+      this.rows = new int[maxDepth + 1][length + 1];
+      this.rowMinimums = new int[maxDepth + 1];
+      for (int j = 0; j <= length; j++) {
+        rows[0][j] = j;
+      }
+      this.limit = maxDistance;
+    }
+
+    private void visit(int node, int depth) {
+      if ((field(node, RANK) & 1) != 0 && rows[depth][length] <= limit) {
+        nearest = new String(path, 0, depth);
+        // Only a closer key can replace this one, keys at the same distance rank after it
+        limit = rows[depth][length] - 1;
+      }
+      for (int i = field(node, CHILD_START), last = field(node + 1, CHILD_START);
+          i < last && limit >= 0; i++) {
+        int child = (int) children[i];
+        int childDepth = depth;
+        boolean reachable = true;
+        for (int l = field(child, LABEL_START), labelEnd = field(child + 1, LABEL_START);
+            l < labelEnd && reachable; l++) {
+          reachable = childDepth < path.length && addRow(childDepth++, labels[l]);
+        }
+        if (reachable) {
+          visit(child, childDepth);
+        }
+      }
+    }
+
+    /**
+     * Fills the row after {@code depth} for the path character {@code c}.
+     *
+     * @return false when no key continuing the path can be within the limit
+     */
+    private boolean addRow(int depth, char c) {
+      path[depth] = c;
+      int[] previous = rows[depth];
+      int[] row = rows[depth + 1];
+      row[0] = depth + 1;
+      int minimum = row[0];
+      for (int j = 1; j <= length; j++) {
+        char t = text.charAt(start + j - 1);
+        int distance = Math.min(Math.min(previous[j], row[j - 1]) + 1,
+            previous[j - 1] + (c == t ? 0 : 1));
+        if (depth > 0 && j > 1 && c == text.charAt(start + j - 2) && path[depth - 1] == t) {
+          distance = Math.min(distance, rows[depth - 1][j - 2] + 1);
+        }
+        row[j] = distance;
+        minimum = Math.min(minimum, distance);
+      }
+      rowMinimums[depth + 1] = minimum;
+      // A swap reaches back two rows, so both must be out of reach to give up
+      return minimum <= limit || rowMinimums[depth] < limit;
+    }
+  }
+
+  /**
+   * Lays out the trie of a sorted key array, sized for the worst case and trimmed once built.
+   */
+  private static final class Builder {
+
+    private final String[] keys;
+    private final char[] labels;
+    private final int[] labelStarts;
+    private final int[] childStarts;
+    private final int[] childNodes;
+    private final char[] childChars;
+    private final int[] ranks;
+    private final int[] subtreeEnds;
+    private int nodeCount;
+    private int labelCount;
+    private int childCount;
+    private int keyCount;
+
+    private Builder(String[] keys, int characters) {
+      // Every key adds at most one leaf and one branching node to the root
+      int maxNodes = 2 * keys.length + 1;
+      this.keys = keys;
+      this.labels = new char[characters];
+      this.labelStarts = new int[maxNodes + 1];
+      this.childStarts = new int[maxNodes + 1];
+      this.childNodes = new int[maxNodes];
+      this.childChars = new char[maxNodes];
+      this.ranks = new int[maxNodes + 1];
+      this.subtreeEnds = new int[maxNodes];
+    }
+
+    /**
+     * Adds the node for the sorted keys {@code [from, to)}, which share their first {@code depth}
+     * characters, labelled with the characters {@code [labelFrom, depth)} of those keys.
+     *
+     * @return the number of the node
+     */
+    private int addNode(int from, int to, int labelFrom, int depth) {
+      int node = nodeCount++;
+      labelStarts[node] = labelCount;
+      if (from < to) {
+        keys[from].getChars(labelFrom, depth, labels, labelCount);
+        labelCount += depth - labelFrom;
+      }
+      ranks[node] = keyCount << 1;
+      // Sorting puts a key before every key it is a prefix of
+      if (from < to && keys[from].length() == depth) {
+        ranks[node] |= 1;
+        keyCount++;
+        from++;
+      }
+
+      // Reserve the children before adding them, so each node's children stay contiguous
+      int groups = 0;
+      for (int i = from; i < to; i = groupEnd(i, to, depth)) {
+        groups++;
+      }
+      int firstChild = childCount;
+      childStarts[node] = firstChild;
+      childCount += groups;
+
+      int child = firstChild;
+      for (int i = from; i < to; ) {
+        int end = groupEnd(i, to, depth);
+        childChars[child] = keys[i].charAt(depth);
+        childNodes[child] = addNode(i, end, depth, commonPrefix(keys[i], keys[end - 1], depth));
+        child++;
+        i = end;
+      }
+      subtreeEnds[node] = nodeCount;
+      return node;
+    }
+
+    private int groupEnd(int from, int to, int depth) {
+      char first = keys[from].charAt(depth);
+      int end = from + 1;
+      while (end < to && keys[end].charAt(depth) == first) {
+        end++;
+      }
+      return end;
+    }
+
+    /**
+     * Returns the length of the prefix shared by two keys, both longer than {@code depth} and equal
+     * up to it. As the keys are sorted, the first and last keys of a group share the prefix of the
+     * whole group.
+     */
+    private static int commonPrefix(String first, String last, int depth) {
+      int length = Math.min(first.length(), last.length());
+      int i = depth + 1;
+      while (i < length && first.charAt(i) == last.charAt(i)) {
+        i++;
+      }
+      return i;
+    }
+  }
+}
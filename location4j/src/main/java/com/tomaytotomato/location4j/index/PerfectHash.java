@@ -0,0 +1,222 @@
+package com.tomaytotomato.location4j.index;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Minimal perfect hash function over a fixed set of String keys, built with the CHD (compress, hash
+ * and displace) algorithm.
+ * <p>
+ * Every key is given its own slot in {@code [0, size())}. Keys are first hashed into small buckets,
+ * then each bucket is given a displacement that moves all of its keys into free slots, so a lookup
+ * is one hash of the text, a read of the bucket displacement and a second mix of the hash. Text that
+ * is not one of the keys still maps to some slot, so callers must verify the key held there.
+ * </p>
+ * <p>
+ * Slices of a {@link CharSequence} hash to the same slot as the equal String, so tokens can be
+ * looked up without creating a String for them.
+ * </p>
+ */
+public final class PerfectHash implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  // Average number of keys per bucket, larger buckets need fewer displacements but more tries
+  private static final int KEYS_PER_BUCKET = 4;
+  private static final int MAX_SEEDS = 16;
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  private final long seed;
+  private final int size;
+  private final int[] displacements;
+
+  private PerfectHash(long seed, int size, int[] displacements) {
+    this.seed = seed;
+    this.size = size;
+    this.displacements = displacements;
+  }
+
+  /**
+   * Builds a minimal perfect hash function for a set of keys.
+   *
+   * @param keys the distinct keys
+   * @return a function giving each key its own slot
+   */
+  public static PerfectHash of(Collection<String> keys) {
+    if (Objects.isNull(keys)) {
+      throw new IllegalArgumentException("Keys cannot be null");
+    }
+    String[] keyArray = keys.toArray(String[]::new);
+    Set<String> distinct = HashSet.newHashSet(keyArray.length);
+    for (String key : keyArray) {
+      if (Objects.isNull(key)) {
+        throw new IllegalArgumentException("Keys cannot be null");
+      }
+      if (!distinct.add(key)) {
+        throw new IllegalArgumentException("Keys must be distinct, found " + key + " twice");
+      }
+    }
+
+    long seed = FNV_OFFSET;
+    for (int attempt = 0; attempt < MAX_SEEDS; attempt++) {
+      var hash = build(keyArray, seed);
+      if (hash != null) {
+        return hash;
+      }
+      seed = mix(seed + GOLDEN_GAMMA);
+    }
+    throw new IllegalStateException("Could not build a perfect hash for " + keyArray.length
+        + " keys");
+  }
+
+  /**
+   * Restores a function from the values returned by {@link #seed()} and {@link #displacements()},
+   * for example when reading it back from a data file.
+   *
+   * @param seed          the seed of the function
+   * @param size          the number of keys
+   * @param displacements the displacement of each bucket
+   * @return the function
+   */
+  public static PerfectHash of(long seed, int size, int[] displacements) {
+    if (size < 0 || Objects.isNull(displacements)
+        || displacements.length != bucketCount(size)) {
+      throw new IllegalArgumentException("Displacements do not match " + size + " keys");
+    }
+    return new PerfectHash(seed, size, displacements.clone());
+  }
+
+  /**
+   * Returns the slot of the key equal to the characters in {@code [start, end)} of the text.
+   *
+   * @param text  the text holding the key
+   * @param start the index of the first character of the key
+   * @param end   the index after the last character of the key
+   * @return the slot of the key if it is one of the keys, otherwise an arbitrary slot, or -1 when
+   * there are no keys
+   */
+  public int slot(CharSequence text, int start, int end) {
+    Objects.checkFromToIndex(start, end, text.length());
+    if (size == 0) {
+      return -1;
+    }
+    long hash = hash(text, start, end, seed);
+    return slot(hash, displacements[bucket(hash, displacements.length)], size);
+  }
+
+  /**
+   * @return the number of keys, which is also the number of slots
+   */
+  public int size() {
+    return size;
+  }
+
+  public long seed() {
+    return seed;
+  }
+
+  public int[] displacements() {
+    return displacements.clone();
+  }
+
+  private static PerfectHash build(String[] keys, long seed) {
+    int size = keys.length;
+    int bucketCount = bucketCount(size);
+    long[] hashes = new long[size];
+    List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+    for (int b = 0; b < bucketCount; b++) {
+      buckets.add(new ArrayList<>(KEYS_PER_BUCKET));
+    }
+    for (int i = 0; i < size; i++) {
+      hashes[i] = hash(keys[i], 0, keys[i].length(), seed);
+      buckets.get(bucket(hashes[i], bucketCount)).add(i);
+    }
+
+    // Place the largest buckets first, while most slots are still free
+    Integer[] order = new Integer[bucketCount];
+    Arrays.setAll(order, b -> b);
+    Arrays.sort(order, (a, b) -> buckets.get(b).size() - buckets.get(a).size());
+
+    int[] displacements = new int[bucketCount];
+    boolean[] taken = new boolean[size];
+    int[] slots = new int[KEYS_PER_BUCKET * 8];
+    long maxTries = Math.max(1024L, 64L * size);
+    for (int b : order) {
+      var bucket = buckets.get(b);
+      if (bucket.isEmpty()) {
+        break;
+      }
+      if (bucket.size() > slots.length) {
+        return null;
+      }
+      int displacement = 0;
+      while (!fits(bucket, hashes, displacement, taken, slots)) {
+        if (++displacement > maxTries) {
+          return null;
+        }
+      }
+      for (int k = 0; k < bucket.size(); k++) {
+        taken[slots[k]] = true;
+      }
+      displacements[b] = displacement;
+    }
+    return new PerfectHash(seed, size, displacements);
+  }
+
+  private static boolean fits(List<Integer> bucket, long[] hashes, int displacement,
+      boolean[] taken, int[] slots) {
+    int size = taken.length;
+    for (int k = 0; k < bucket.size(); k++) {
+      int slot = slot(hashes[bucket.get(k)], displacement, size);
+      if (taken[slot]) {
+        return false;
+      }
+      for (int j = 0; j < k; j++) {
+        if (slots[j] == slot) {
+          return false;
+        }
+      }
+      slots[k] = slot;
+    }
+    return true;
+  }
+
+  private static int bucketCount(int size) {
+    return size == 0 ? 0 : (size + KEYS_PER_BUCKET - 1) / KEYS_PER_BUCKET;
+  }
+
+  private static int bucket(long hash, int bucketCount) {
+    return (int) (((hash >>> 32) * bucketCount) >>> 32);
+  }
+
+  private static int slot(long hash, int displacement, int size) {
+    return (int) (((mix(hash + displacement * GOLDEN_GAMMA) >>> 32) * size) >>> 32);
+  }
+
+  private static long hash(CharSequence text, int start, int end, long seed) {
+    long hash = seed;
+    for (int i = start; i < end; i++) {
+      hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+    }
+    return mix(hash);
+  }
+
+  /**
+   * The 64-bit finaliser of MurmurHash3.
+   */
+  private static long mix(long hash) {
+    hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+    hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return hash ^ (hash >>> 33);
+  }
+}
@@ -0,0 +1,179 @@
+package com.tomaytotomato.location4j.index;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Immutable map from a fixed set of String keys, indexed by a {@link PerfectHash}.
+ * <p>
+ * Keys and values are held in two arrays ordered by slot, so a lookup is the perfect hash of the
+ * text followed by one key comparison, with no per-entry node objects. Like {@link TextKeyMap} it
+ * can be probed with a slice of a {@link CharSequence}.
+ * </p>
+ *
+ * @param <V> the type of the values
+ */
+public final class PerfectHashMap<V> extends AbstractMap<String, V>
+    implements TextLookup<V>, Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  private final PerfectHash hash;
+  private final String[] keys;
+  private final Object[] values;
+
+  private PerfectHashMap(PerfectHash hash, String[] keys, Object[] values) {
+    this.hash = hash;
+    this.keys = keys;
+    this.values = values;
+  }
+
+  /**
+   * Copies the entries of a map, building a perfect hash for its keys.
+   *
+   * @param map the map to copy
+   * @param <V> the type of the values
+   * @return an immutable copy of the map
+   */
+  public static <V> PerfectHashMap<V> of(Map<String, ? extends V> map) {
+    if (Objects.isNull(map)) {
+      throw new IllegalArgumentException("Map cannot be null");
+    }
+    var hash = PerfectHash.of(map.keySet());
+    var keys = new String[hash.size()];
+    var values = new Object[hash.size()];
+    map.forEach((key, value) -> {
+      int slot = hash.slot(key, 0, key.length());
+      keys[slot] = key;
+      values[slot] = value;
+    });
+    return new PerfectHashMap<>(hash, keys, values);
+  }
+
+  /**
+   * Creates a map from a perfect hash that was built for its keys, for example one read back from a
+   * data file.
+   *
+   * @param hash   the perfect hash of the keys
+   * @param keys   the key held by each slot
+   * @param values the value held by each slot
+   * @param <V>    the type of the values
+   * @return the map
+   */
+  public static <V> PerfectHashMap<V> of(PerfectHash hash, IntFunction<String> keys,
+      IntFunction<? extends V> values) {
+    if (Objects.isNull(hash)) {
+      throw new IllegalArgumentException("Perfect hash cannot be null");
+    }
+    var slotKeys = new String[hash.size()];
+    var slotValues = new Object[hash.size()];
+    for (int slot = 0; slot < slotKeys.length; slot++) {
+      var key = keys.apply(slot);
+      if (Objects.isNull(key) || hash.slot(key, 0, key.length()) != slot) {
+        throw new IllegalArgumentException("Key " + key + " does not hash to slot " + slot);
+      }
+      slotKeys[slot] = key;
+      slotValues[slot] = values.apply(slot);
+    }
+    return new PerfectHashMap<>(hash, slotKeys, slotValues);
+  }
+
+  @Override
+  public V get(CharSequence text, int start, int end) {
+    int slot = find(text, start, end);
+    return slot < 0 ? null : value(slot);
+  }
+
+  /**
+   * Checks whether there is a key equal to the characters in {@code [start, end)} of the text.
+   *
+   * @param text  the text holding the key
+   * @param start the index of the first character of the key
+   * @param end   the index after the last character of the key
+   * @return true if the key is present
+   */
+  public boolean containsKey(CharSequence text, int start, int end) {
+    return find(text, start, end) >= 0;
+  }
+
+  @Override
+  public V get(Object key) {
+    if (key instanceof String text) {
+      return get(text, 0, text.length());
+    }
+    return null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof String text && find(text, 0, text.length()) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return keys.length;
+  }
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<String, V>> iterator() {
+        return new Iterator<>() {
+          private int slot;
+
+          @Override
+          public boolean hasNext() {
+            return slot < keys.length;
+          }
+
+          @Override
+          public Entry<String, V> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            var entry = new SimpleImmutableEntry<>(keys[slot], value(slot));
+            slot++;
+            return entry;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return keys.length;
+      }
+    };
+  }
+
+  private int find(CharSequence text, int start, int end) {
+    int slot = hash.slot(text, start, end);
+    if (slot < 0) {
+      return -1;
+    }
+    var key = keys[slot];
+    if (key.length() != end - start) {
+      return -1;
+    }
+    for (int i = 0; i < key.length(); i++) {
+      if (key.charAt(i) != text.charAt(start + i)) {
+        return -1;
+      }
+    }
+    return slot;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V value(int slot) {
+    return (V) values[slot];
+  }
+}
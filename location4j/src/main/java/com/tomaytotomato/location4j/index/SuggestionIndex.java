@@ -0,0 +1,156 @@
+package com.tomaytotomato.location4j.index;
+
+import com.tomaytotomato.location4j.model.LocationMatches;
+import com.tomaytotomato.location4j.model.LocationMatches.MatchType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Prefix index over the country, state and city names of a search dictionary, answering typeahead
+ * queries.
+ * <p>
+ * The names are held in a {@link NameTrie}, so the names starting with a prefix are one contiguous
+ * range of ranks. Each name is given a fixed priority when the index is built: country names come
+ * before state names, which come before city names, then shorter names before longer ones. A
+ * segment tree over the priorities finds the best name in any range, so the top {@code limit} names
+ * are found by repeatedly splitting the range around its best name, without visiting the other
+ * names of the range.
+ * </p>
+ */
+public final class SuggestionIndex {
+
+  private static final int NOT_A_NAME = Integer.MAX_VALUE;
+
+  private final NameTrie<LocationMatches> names;
+  // Priority of each rank, lower is better
+  private final int[] priorities;
+  // Rank with the lowest priority in each segment, leaves start at priorities.length
+  private final int[] tree;
+
+  private SuggestionIndex(NameTrie<LocationMatches> names, int[] priorities) {
+    this.names = names;
+    this.priorities = priorities;
+    int size = priorities.length;
+    this.tree = new int[2 * size];
+    for (int rank = 0; rank < size; rank++) {
+      tree[size + rank] = rank;
+    }
+    for (int i = size - 1; i > 0; i--) {
+      tree[i] = better(tree[2 * i], tree[2 * i + 1]);
+    }
+  }
+
+  /**
+   * Indexes the names of a search dictionary. A dictionary that is already a {@link NameTrie} is
+   * shared, any other is copied into one.
+   *
+   * @param dictionary the postings by normalised key
+   * @return the index
+   */
+  @SuppressWarnings("unchecked")
+  public static SuggestionIndex of(Map<String, LocationMatches> dictionary) {
+    if (Objects.isNull(dictionary)) {
+      throw new IllegalArgumentException("Dictionary cannot be null");
+    }
+    var names = dictionary instanceof NameTrie<?> trie
+        ? (NameTrie<LocationMatches>) trie
+        : NameTrie.of(dictionary);
+
+    // Entries iterate in rank order, order the ranks by kind of name then by length
+    int size = names.size();
+    long[] order = new long[size];
+    int rank = 0;
+    for (var entry : names.entrySet()) {
+      long kind = kind(entry.getValue());
+      order[rank] = kind << 56 | (long) Math.min(entry.getKey().length(), 0xFFFFFF) << 32 | rank;
+      rank++;
+    }
+    Arrays.sort(order);
+
+    int[] priorities = new int[size];
+    for (int priority = 0; priority < size; priority++) {
+      long sorted = order[priority];
+      priorities[(int) sorted] = sorted >>> 56 == MatchType.values().length ? NOT_A_NAME : priority;
+    }
+    return new SuggestionIndex(names, priorities);
+  }
+
+  /**
+   * Returns the matches of the best names starting with a normalised prefix, best first.
+   *
+   * @param prefix the normalised prefix
+   * @param limit  the maximum number of names to return
+   * @return the matches of up to {@code limit} names
+   */
+  public List<LocationMatches> suggest(CharSequence prefix, int limit) {
+    if (limit <= 0) {
+      return List.of();
+    }
+    int[] range = names.prefixRanks(prefix);
+    if (range[0] >= range[1]) {
+      return List.of();
+    }
+
+    // Each candidate is the best rank of a range, ranges are split around the ranks taken
+    var candidates = new PriorityQueue<int[]>(Comparator.comparingInt(
+        candidate -> priorities[candidate[0]]));
+    candidates.add(new int[]{best(range[0], range[1]), range[0], range[1]});
+    List<LocationMatches> suggestions = new ArrayList<>(Math.min(limit, range[1] - range[0]));
+    while (!candidates.isEmpty() && suggestions.size() < limit) {
+      int[] candidate = candidates.poll();
+      int rank = candidate[0];
+      if (priorities[rank] == NOT_A_NAME) {
+        break;
+      }
+      suggestions.add(names.valueAt(rank));
+      if (candidate[1] < rank) {
+        candidates.add(new int[]{best(candidate[1], rank), candidate[1], rank});
+      }
+      if (rank + 1 < candidate[2]) {
+        candidates.add(new int[]{best(rank + 1, candidate[2]), rank + 1, candidate[2]});
+      }
+    }
+    return suggestions;
+  }
+
+  /**
+   * @return the rank with the lowest priority in {@code [from, to)}
+   */
+  private int best(int from, int to) {
+    int best = from;
+    for (int low = from + priorities.length, high = to + priorities.length; low < high;
+        low >>= 1, high >>= 1) {
+      if ((low & 1) == 1) {
+        best = better(best, tree[low++]);
+      }
+      if ((high & 1) == 1) {
+        best = better(best, tree[--high]);
+      }
+    }
+    return best;
+  }
+
+  private int better(int rank, int other) {
+    return priorities[other] < priorities[rank] ? other : rank;
+  }
+
+  /**
+   * @return the ordinal of the most general kind of name the key matches, or the number of match
+   * types when it is only a code
+   */
+  private static int kind(LocationMatches matches) {
+    if (matches.has(MatchType.COUNTRY_NAME)) {
+      return MatchType.COUNTRY_NAME.ordinal();
+    } else if (matches.has(MatchType.STATE_NAME)) {
+      return MatchType.STATE_NAME.ordinal();
+    } else if (matches.has(MatchType.CITY_NAME)) {
+      return MatchType.CITY_NAME.ordinal();
+    }
+    return MatchType.values().length;
+  }
+}
@@ -0,0 +1,177 @@
+package com.tomaytotomato.location4j.index;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable map from String keys that can also be probed with a slice of a {@link CharSequence}.
+ * <p>
+ * Entries are held in an open addressing table with the hash of each key, computed the same way as
+ * {@link String#hashCode()} so a slice hashes to the same slot as the equal String.
+ * </p>
+ *
+ * @param <V> the type of the values
+ */
+public final class TextKeyMap<V> extends AbstractMap<String, V> implements TextLookup<V> {
+
+  private final String[] keys;
+  private final Object[] values;
+  private final int[] hashes;
+  private final int mask;
+  private final int size;
+
+  private TextKeyMap(Map<String, ? extends V> map) {
+    // Keep the table at most two thirds full so probe sequences stay short
+    int capacity = Integer.highestOneBit(Math.max(2, map.size() * 3 / 2) - 1) << 1;
+    this.keys = new String[capacity];
+    this.values = new Object[capacity];
+    this.hashes = new int[capacity];
+    this.mask = capacity - 1;
+    this.size = map.size();
+
+    map.forEach((key, value) -> {
+      if (Objects.isNull(key)) {
+        throw new IllegalArgumentException("Keys cannot be null");
+      }
+      int hash = key.hashCode();
+      int slot = spread(hash) & mask;
+      while (keys[slot] != null) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = value;
+      hashes[slot] = hash;
+    });
+  }
+
+  /**
+   * Copies the entries of a map.
+   *
+   * @param map the map to copy
+   * @param <V> the type of the values
+   * @return an immutable copy of the map
+   */
+  public static <V> TextKeyMap<V> of(Map<String, ? extends V> map) {
+    if (Objects.isNull(map)) {
+      throw new IllegalArgumentException("Map cannot be null");
+    }
+    return new TextKeyMap<>(map);
+  }
+
+  @Override
+  public V get(CharSequence text, int start, int end) {
+    int slot = find(text, start, end);
+    return slot < 0 ? null : value(slot);
+  }
+
+  /**
+   * Checks whether there is a key equal to the characters in {@code [start, end)} of the text.
+   *
+   * @param text  the text holding the key
+   * @param start the index of the first character of the key
+   * @param end   the index after the last character of the key
+   * @return true if the key is present
+   */
+  public boolean containsKey(CharSequence text, int start, int end) {
+    return find(text, start, end) >= 0;
+  }
+
+  @Override
+  public V get(Object key) {
+    if (key instanceof String text) {
+      return get(text, 0, text.length());
+    }
+    return null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof String text && find(text, 0, text.length()) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<String, V>> iterator() {
+        return new Iterator<>() {
+          private int slot = advance(0);
+
+          private int advance(int from) {
+            while (from < keys.length && keys[from] == null) {
+              from++;
+            }
+            return from;
+          }
+
+          @Override
+          public boolean hasNext() {
+            return slot < keys.length;
+          }
+
+          @Override
+          public Entry<String, V> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            var entry = new SimpleImmutableEntry<>(keys[slot], value(slot));
+            slot = advance(slot + 1);
+            return entry;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private int find(CharSequence text, int start, int end) {
+    Objects.checkFromToIndex(start, end, text.length());
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + text.charAt(i);
+    }
+
+    int length = end - start;
+    int slot = spread(hash) & mask;
+    String key;
+    while ((key = keys[slot]) != null) {
+      if (hashes[slot] == hash && key.length() == length && matches(key, text, start)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private static boolean matches(String key, CharSequence text, int start) {
+    for (int i = 0; i < key.length(); i++) {
+      if (key.charAt(i) != text.charAt(start + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V value(int slot) {
+    return (V) values[slot];
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+}
@@ -0,0 +1,42 @@
+package com.tomaytotomato.location4j.index;
+
+import java.util.Map;
+
+/**
+ * A lookup keyed by text that can be probed with a slice of a {@link CharSequence}.
+ * <p>
+ * Callers that hold their tokens as ranges of a larger buffer, such as
+ * {@link com.tomaytotomato.location4j.text.tokeniser.TokenSpans}, can look each token up without
+ * creating a String for it.
+ * </p>
+ *
+ * @param <V> the type of the values
+ */
+public interface TextLookup<V> {
+
+  /**
+   * Returns the value for the key equal to the characters in {@code [start, end)} of the text.
+   *
+   * @param text  the text holding the key
+   * @param start the index of the first character of the key
+   * @param end   the index after the last character of the key
+   * @return the value, or null when there is no such key
+   */
+  V get(CharSequence text, int start, int end);
+
+  /**
+   * Adapts a map to a lookup. Maps that are already lookups are returned as they are, any other
+   * map is probed with a String created from the slice.
+   *
+   * @param map the map to look up keys in
+   * @param <V> the type of the values
+   * @return a lookup over the map
+   */
+  @SuppressWarnings("unchecked")
+  static <V> TextLookup<V> of(Map<String, ? extends V> map) {
+    if (map instanceof TextLookup<?> lookup) {
+      return (TextLookup<V>) lookup;
+    }
+    return (text, start, end) -> map.get(text.subSequence(start, end).toString());
+  }
+}
@@ -0,0 +1,68 @@
+package com.tomaytotomato.location4j.loader;
+
+import java.nio.ByteOrder;
+
+/**
+ * Constants describing the versioned columnar location4j dataset.
+ * <p>
+ * The file starts with a fixed header (magic, version, section count) followed by a directory of
+ * {@code (tag, offset, length)} entries. Each section holds a row count followed by fixed width
+ * columns, so a reader can pull whole columns into primitive arrays with a single bulk read.
+ * Strings are stored once in a shared string table and referenced by index, entities refer to their
+ * parent by row index (parent-id arrays) and variable length relations use an offsets column.
+ * </p>
+ * <p>
+ * Readers must ignore section tags they do not recognise, which allows new sections to be added
+ * without breaking older loaders.
+ * </p>
+ */
+final class ColumnarDataFormat {
+
+  /**
+   * "L4JC" in ASCII.
+   */
+  static final int MAGIC = 0x4C344A43;
+  static final int VERSION = 1;
+  static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  static final int HEADER_BYTES = 12;
+  static final int DIRECTORY_ENTRY_BYTES = 12;
+  static final int ALIGNMENT = 8;
+
+  static final int SECTION_STRINGS = 1;
+  static final int SECTION_TIMEZONES = 2;
+  static final int SECTION_COUNTRIES = 3;
+  static final int SECTION_STATES = 4;
+  static final int SECTION_CITIES = 5;
+  static final int SECTION_CITY_ID_INDEX = 6;
+  static final int SECTION_CITY_NAME_INDEX = 7;
+  static final int SECTION_SEARCH_DICTIONARY = 8;
+  static final int SECTION_CITY_NAME_HASH = 9;
+  static final int SECTION_SEARCH_DICTIONARY_HASH = 10;
+
+  /**
+   * Search dictionary postings pack the {@link
+   * com.tomaytotomato.location4j.model.LocationMatches.MatchType} ordinal into the top bits and the
+   * row of the matched country, state or city into the rest.
+   */
+  static final int POSTING_ROW_BITS = 28;
+  static final int POSTING_ROW_MASK = (1 << POSTING_ROW_BITS) - 1;
+
+  /**
+   * Marks a missing string, timezone or parent reference.
+   */
+  static final int NO_REFERENCE = -1;
+
+  /**
+   * Marks a missing {@link Integer} value.
+   */
+  static final int NULL_INT = Integer.MIN_VALUE;
+
+  /**
+   * Marks a missing coordinate in a scale column.
+   */
+  static final byte NULL_SCALE = Byte.MIN_VALUE;
+
+  private ColumnarDataFormat() {
+  }
+}
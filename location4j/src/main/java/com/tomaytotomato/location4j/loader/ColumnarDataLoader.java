@@ -0,0 +1,57 @@
+package com.tomaytotomato.location4j.loader;
+
+import com.tomaytotomato.location4j.model.Location4JData;
+import com.tomaytotomato.location4j.model.lookup.Country;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Loads the columnar dataset (DEFAULT_FILE) from the location4j.jar.
+ * <p>
+ * Unlike {@link DefaultDataLoader} this does not use Java serialization, each column is decoded
+ * with bulk {@link ByteBuffer} reads and entities are created directly through their builders.
+ * The resulting {@link Location4JData} is the same shape, so it can be passed to the existing
+ * service builders.
+ * </p>
+ */
+public class ColumnarDataLoader implements DataLoader {
+
+  static final String DEFAULT_FILE = "/location4j-columnar.bin";
+  private static final Logger logger = Logger.getLogger(ColumnarDataLoader.class.getName());
+
+  private Location4JData location4JData;
+
+  /**
+   * Loads a list of {@link Country} from the location4j-columnar.bin file.
+   */
+  public ColumnarDataLoader() {
+    loadData();
+  }
+
+  protected void loadData() {
+    try (InputStream inputStream = this.getClass().getResourceAsStream(DEFAULT_FILE)) {
+      if (inputStream == null) {
+        throw new IllegalArgumentException("File not found: " + DEFAULT_FILE);
+      }
+
+      var buffer = ByteBuffer.wrap(inputStream.readAllBytes());
+      location4JData = ColumnarDataReader.open(buffer).readLocation4JData();
+      logger.info("Location4J columnar data loaded successfully");
+    } catch (IOException e) {
+      logger.severe("Failed to load Location4J columnar data: " + e.getMessage());
+    }
+  }
+
+  @Override
+  public List<Country> getCountries() {
+    return location4JData.getCountries();
+  }
+
+  @Override
+  public Location4JData getLocation4JData() {
+    return location4JData;
+  }
+}
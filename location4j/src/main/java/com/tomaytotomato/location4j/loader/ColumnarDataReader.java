@@ -0,0 +1,665 @@
+package com.tomaytotomato.location4j.loader;
+
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.ALIGNMENT;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.BYTE_ORDER;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.HEADER_BYTES;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.MAGIC;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.NO_REFERENCE;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.NULL_INT;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.NULL_SCALE;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.POSTING_ROW_BITS;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.POSTING_ROW_MASK;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_CITIES;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_CITY_ID_INDEX;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_CITY_NAME_HASH;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_CITY_NAME_INDEX;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_COUNTRIES;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_SEARCH_DICTIONARY;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_SEARCH_DICTIONARY_HASH;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_STATES;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_STRINGS;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_TIMEZONES;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.VERSION;
+
+import com.tomaytotomato.location4j.index.PerfectHashMap;
+import com.tomaytotomato.location4j.model.Location4JData;
+import com.tomaytotomato.location4j.model.LocationMatches;
+import com.tomaytotomato.location4j.model.LocationMatches.MatchType;
+import com.tomaytotomato.location4j.model.lookup.City;
+import com.tomaytotomato.location4j.model.lookup.Country;
+import com.tomaytotomato.location4j.model.lookup.State;
+import com.tomaytotomato.location4j.model.lookup.TimeZone;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Decodes the columnar location4j format written by {@link ColumnarDataWriter}.
+ * <p>
+ * Every column is pulled out of the buffer with a single bulk read, entities are created through
+ * their builders and the lookup maps are assembled from the pre-normalised keys stored in the file.
+ * </p>
+ */
+final class ColumnarDataReader {
+
+  private static final MatchType[] MATCH_TYPES = MatchType.values();
+
+  /**
+   * Powers of ten that are exact in a double, for dividing coordinates by their scale.
+   */
+  private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8,
+      1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+  private static final long MAX_EXACT_LONG = 1L << 53;
+
+  private final Map<Integer, ByteBuffer> sections = new HashMap<>();
+
+  private ColumnarDataReader(ByteBuffer buffer) throws IOException {
+    buffer = buffer.duplicate().order(BYTE_ORDER);
+    if (buffer.remaining() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a location4j columnar data file");
+    }
+    int version = buffer.getInt(4);
+    if (version != VERSION) {
+      throw new IOException("Unsupported location4j columnar data version: " + version);
+    }
+    int sectionCount = buffer.getInt(8);
+    for (int i = 0; i < sectionCount; i++) {
+      int entry = HEADER_BYTES + i * ColumnarDataFormat.DIRECTORY_ENTRY_BYTES;
+      int tag = buffer.getInt(entry);
+      int offset = buffer.getInt(entry + 4);
+      int length = buffer.getInt(entry + 8);
+      if (offset < 0 || length < 0 || offset + length > buffer.limit()) {
+        throw new IOException("Corrupt location4j columnar data, section " + tag
+            + " is out of bounds");
+      }
+      sections.put(tag, buffer.slice(offset, length).order(BYTE_ORDER));
+    }
+  }
+
+  /**
+   * Reads and validates the header and section directory of a columnar data file.
+   *
+   * @param buffer the complete file contents
+   * @return a reader over the file sections
+   * @throws IOException if the buffer is not a supported columnar data file
+   */
+  static ColumnarDataReader open(ByteBuffer buffer) throws IOException {
+    return new ColumnarDataReader(buffer);
+  }
+
+  /**
+   * Materialises the full dataset, including the pre-built lookup maps.
+   *
+   * @return the decoded data
+   * @throws IOException if a required section is missing
+   */
+  Location4JData readLocation4JData() throws IOException {
+    String[] table = new ColumnarStringTable(section(SECTION_STRINGS)).toArray();
+    IntFunction<String> strings = index -> index == NO_REFERENCE ? null : table[index];
+    TimeZone[] timeZones = readTimeZones(strings);
+
+    var cityColumns = columns(SECTION_CITIES);
+    int cityCount = cityColumns.count();
+    int[] cityIds = cityColumns.ints(cityCount);
+    int[] cityStates = cityColumns.ints(cityCount);
+    int[] cityNames = cityColumns.ints(cityCount);
+    int[] cityWikiDataIds = cityColumns.ints(cityCount);
+    int[] cityTimeZones = cityColumns.ints(cityCount);
+    BigDecimal[] cityLatitudes = cityColumns.coordinates(cityCount);
+    BigDecimal[] cityLongitudes = cityColumns.coordinates(cityCount);
+    int[] cityNameKeys = cityColumns.ints(cityCount);
+
+    var cities = new City[cityCount];
+    var hierarchy = readHierarchy(strings, timeZones, IntBuffer.wrap(cityStates),
+        (from, to) -> view(cities, from, to));
+
+    for (int i = 0; i < cityCount; i++) {
+      var state = hierarchy.states()[cityStates[i]];
+      cities[i] = City.builder()
+          .id(integer(cityIds[i]))
+          .name(strings.apply(cityNames[i]))
+          .state(state)
+          .country(state.getCountry())
+          .latitude(cityLatitudes[i])
+          .longitude(cityLongitudes[i])
+          .timezone(timeZone(timeZones, cityTimeZones[i]))
+          .wikiDataId(strings.apply(cityWikiDataIds[i]))
+          .build();
+    }
+
+    Map<Integer, City> cityIdToCityMap = HashMap.newHashMap(cityCount);
+    Map<String, List<City>> cityNameToCitiesMap = HashMap.newHashMap(cityCount);
+    for (int i = 0; i < cityCount; i++) {
+      var city = cities[i];
+      addIfKeyed(cityNameToCitiesMap, strings, cityNameKeys[i], city);
+      cityIdToCityMap.put(city.getId(), city);
+    }
+
+    if (sections.containsKey(SECTION_CITY_NAME_HASH)) {
+      var nameIndexColumns = columns(SECTION_CITY_NAME_INDEX);
+      int[] sortedNames = nameIndexColumns.ints(nameIndexColumns.count());
+      cityNameToCitiesMap = perfectHashed(cityNameToCitiesMap, SECTION_CITY_NAME_HASH,
+          sortedNames, strings);
+    }
+
+    var data = hierarchy.toLocation4JData(strings);
+    data.setCityIdToCityMap(cityIdToCityMap);
+    data.setCityNameToCitiesMap(cityNameToCitiesMap);
+    data.setSearchCityNameToCitiesMap(cityNameToCitiesMap);
+    data.setSearchDictionary(readSearchDictionary(strings, hierarchy, cities));
+    return data;
+  }
+
+  /**
+   * Materialises countries, states and timezones, but leaves cities in the buffer. A {@link City}
+   * is only created, and then cached, when it is first returned by a lookup.
+   *
+   * @return the decoded data, backed by the buffer this reader was opened with
+   * @throws IOException if a required section is missing
+   */
+  Location4JData readMappedLocation4JData() throws IOException {
+    var stringTable = new ColumnarStringTable(section(SECTION_STRINGS));
+    IntFunction<String> strings = stringTable::get;
+    TimeZone[] timeZones = readTimeZones(strings);
+
+    var cityTable = new MappedCityTable(columns(SECTION_CITIES), columns(SECTION_CITY_ID_INDEX),
+        columns(SECTION_CITY_NAME_INDEX), sortedKeyHash(SECTION_CITY_NAME_HASH), stringTable,
+        timeZones);
+    var hierarchy = readHierarchy(strings, timeZones, cityTable.stateColumn(),
+        cityTable::subList);
+    cityTable.bindStates(hierarchy.states());
+
+    var data = hierarchy.toLocation4JData(strings);
+    data.setCityIdToCityMap(cityTable.idMap());
+    data.setCityNameToCitiesMap(cityTable.nameMap());
+    data.setSearchCityNameToCitiesMap(cityTable.nameMap());
+    if (sections.containsKey(SECTION_SEARCH_DICTIONARY)) {
+      data.setSearchDictionary(new MappedSearchDictionary(columns(SECTION_SEARCH_DICTIONARY),
+          sortedKeyHash(SECTION_SEARCH_DICTIONARY_HASH), stringTable, hierarchy.countries(),
+          hierarchy.states(), cityTable));
+    }
+    return data;
+  }
+
+  /**
+   * Reads the search dictionary onto the heap.
+   *
+   * @return the postings by key, or null when the file was written without a search dictionary
+   */
+  private Map<String, LocationMatches> readSearchDictionary(IntFunction<String> strings,
+      Hierarchy hierarchy, City[] cities) throws IOException {
+    if (!sections.containsKey(SECTION_SEARCH_DICTIONARY)) {
+      return null;
+    }
+    var columns = columns(SECTION_SEARCH_DICTIONARY);
+    int count = columns.count();
+    int[] keys = columns.ints(count);
+    int[] offsets = columns.ints(count + 1);
+    var postings = columns.intView(offsets[count]);
+
+    Map<String, LocationMatches> searchDictionary = HashMap.newHashMap(count);
+    for (int i = 0; i < count; i++) {
+      searchDictionary.put(strings.apply(keys[i]), matches(postings, offsets[i],
+          offsets[i + 1], hierarchy.countries(), hierarchy.states(),
+          (from, to) -> {
+            List<City> matched = new ArrayList<>(to - from);
+            for (int p = from; p < to; p++) {
+              matched.add(cities[postings.get(p) & POSTING_ROW_MASK]);
+            }
+            return matched;
+          }));
+    }
+    return perfectHashed(searchDictionary, SECTION_SEARCH_DICTIONARY_HASH, keys, strings);
+  }
+
+  /**
+   * Copies a map read onto the heap into a {@link PerfectHashMap}, using the perfect hash stored
+   * for its sorted key column.
+   *
+   * @return the copy, or the map itself when the file has no perfect hash for it
+   */
+  private <V> Map<String, V> perfectHashed(Map<String, V> map, int tag, int[] sortedKeys,
+      IntFunction<String> strings) throws IOException {
+    var keyHash = sortedKeyHash(tag);
+    if (keyHash == null) {
+      return map;
+    }
+    try {
+      return PerfectHashMap.of(keyHash.hash(),
+          slot -> strings.apply(sortedKeys[keyHash.index(slot)]),
+          slot -> map.get(strings.apply(sortedKeys[keyHash.index(slot)])));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new IOException("Corrupt location4j columnar data, section " + tag
+          + " does not match its keys", e);
+    }
+  }
+
+  /**
+   * @return the perfect hash stored in a section, or null when the file does not have one
+   */
+  private SortedKeyHash sortedKeyHash(int tag) throws IOException {
+    if (!sections.containsKey(tag)) {
+      return null;
+    }
+    try {
+      return new SortedKeyHash(columns(tag));
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Corrupt location4j columnar data, section " + tag
+          + " is not a perfect hash", e);
+    }
+  }
+
+  /**
+   * Decodes the postings of one search dictionary key. City postings are written last, so they are
+   * handed to {@code cityPostings} as a single range.
+   */
+  static LocationMatches matches(IntBuffer postings, int from, int to, Country[] countries,
+      State[] states, CityPostings cityPostings) {
+    var builder = LocationMatches.builder();
+    List<State> statesByName = null;
+    List<State> statesByCode = null;
+    int citiesFrom = -1;
+    int citiesTo = -1;
+    for (int p = from; p < to; p++) {
+      int posting = postings.get(p);
+      int type = posting >>> POSTING_ROW_BITS;
+      int row = posting & POSTING_ROW_MASK;
+      if (type >= MATCH_TYPES.length) {
+        // Written by a newer version
+        continue;
+      }
+      switch (MATCH_TYPES[type]) {
+        case COUNTRY_NAME -> builder.countryByName(countries[row]);
+        case COUNTRY_ISO2 -> builder.countryByIso2(countries[row]);
+        case COUNTRY_ISO3 -> builder.countryByIso3(countries[row]);
+        case STATE_NAME -> statesByName = add(statesByName, states[row]);
+        case STATE_CODE -> statesByCode = add(statesByCode, states[row]);
+        case CITY_NAME -> {
+          if (citiesFrom < 0) {
+            citiesFrom = p;
+          }
+          citiesTo = p + 1;
+        }
+      }
+    }
+    if (statesByName != null) {
+      builder.statesByName(statesByName);
+    }
+    if (statesByCode != null) {
+      builder.statesByCode(statesByCode);
+    }
+    if (citiesFrom >= 0) {
+      builder.citiesByName(cityPostings.cities(citiesFrom, citiesTo));
+    }
+    return builder.build();
+  }
+
+  private static <T> List<T> add(List<T> list, T value) {
+    var values = list == null ? new ArrayList<T>(1) : list;
+    values.add(value);
+    return values;
+  }
+
+  /**
+   * Reads the countries and states, linking each state to the cities in its slice of the city
+   * table.
+   */
+  private Hierarchy readHierarchy(IntFunction<String> strings, TimeZone[] timeZones,
+      IntBuffer cityStates, CitySlices citySlices) throws IOException {
+    // Countries
+    var countryColumns = columns(SECTION_COUNTRIES);
+    int countryCount = countryColumns.count();
+    int[] countryIds = countryColumns.ints(countryCount);
+    int[] countryNames = countryColumns.ints(countryCount);
+    int[] countryIso3s = countryColumns.ints(countryCount);
+    int[] countryIso2s = countryColumns.ints(countryCount);
+    int[] countryPhoneCodes = countryColumns.ints(countryCount);
+    int[] countryNumericCodes = countryColumns.ints(countryCount);
+    int[] countryCapitals = countryColumns.ints(countryCount);
+    int[] countryCurrencies = countryColumns.ints(countryCount);
+    int[] countryCurrencyNames = countryColumns.ints(countryCount);
+    int[] countryCurrencySymbols = countryColumns.ints(countryCount);
+    int[] countryTlds = countryColumns.ints(countryCount);
+    int[] countryNativeNames = countryColumns.ints(countryCount);
+    int[] countryRegions = countryColumns.ints(countryCount);
+    int[] countryRegionIds = countryColumns.ints(countryCount);
+    int[] countrySubregions = countryColumns.ints(countryCount);
+    int[] countrySubregionIds = countryColumns.ints(countryCount);
+    int[] countryNationalities = countryColumns.ints(countryCount);
+    int[] countryEmojis = countryColumns.ints(countryCount);
+    int[] countryEmojiUs = countryColumns.ints(countryCount);
+    int[] populations = countryColumns.ints(countryCount);
+    int[] gdps = countryColumns.ints(countryCount);
+    BigDecimal[] countryLatitudes = countryColumns.coordinates(countryCount);
+    BigDecimal[] countryLongitudes = countryColumns.coordinates(countryCount);
+    int[] countryTimeZoneOffsets = countryColumns.ints(countryCount + 1);
+    int[] countryTimeZones = countryColumns.ints(countryTimeZoneOffsets[countryCount]);
+    int[] translationOffsets = countryColumns.ints(countryCount + 1);
+    int[] translationKeys = countryColumns.ints(translationOffsets[countryCount]);
+    int[] translationValues = countryColumns.ints(translationOffsets[countryCount]);
+    int[] countryNameKeys = countryColumns.ints(countryCount);
+    int[] countryIso2Keys = countryColumns.ints(countryCount);
+    int[] countryIso3Keys = countryColumns.ints(countryCount);
+    int[] localisedOffsets = countryColumns.ints(countryCount + 1);
+    int[] localisedKeys = countryColumns.ints(localisedOffsets[countryCount]);
+
+    // States
+    var stateColumns = columns(SECTION_STATES);
+    int stateCount = stateColumns.count();
+    int[] stateIds = stateColumns.ints(stateCount);
+    int[] stateCountries = stateColumns.ints(stateCount);
+    int[] stateNames = stateColumns.ints(stateCount);
+    int[] stateNativeNames = stateColumns.ints(stateCount);
+    int[] stateTypes = stateColumns.ints(stateCount);
+    int[] stateIso2s = stateColumns.ints(stateCount);
+    int[] stateIso31662s = stateColumns.ints(stateCount);
+    int[] stateTimeZones = stateColumns.ints(stateCount);
+    BigDecimal[] stateLatitudes = stateColumns.coordinates(stateCount);
+    BigDecimal[] stateLongitudes = stateColumns.coordinates(stateCount);
+    int[] stateNameKeys = stateColumns.ints(stateCount);
+    int[] stateCodeKeys = stateColumns.ints(stateCount);
+
+    // Children are stored grouped by parent, so each parent gets a view over a shared table
+    var states = new State[stateCount];
+    int[] countryStateOffsets = groupOffsets(IntBuffer.wrap(stateCountries), countryCount,
+        "state");
+    int[] stateCityOffsets = groupOffsets(cityStates, stateCount, "city");
+
+    var countries = new Country[countryCount];
+    for (int i = 0; i < countryCount; i++) {
+      Map<String, String> translations = new LinkedHashMap<>();
+      for (int t = translationOffsets[i]; t < translationOffsets[i + 1]; t++) {
+        translations.put(strings.apply(translationKeys[t]),
+            strings.apply(translationValues[t]));
+      }
+      List<TimeZone> countryTimeZoneList = new ArrayList<>();
+      for (int t = countryTimeZoneOffsets[i]; t < countryTimeZoneOffsets[i + 1]; t++) {
+        countryTimeZoneList.add(timeZone(timeZones, countryTimeZones[t]));
+      }
+      countries[i] = Country.builder()
+          .id(integer(countryIds[i]))
+          .name(strings.apply(countryNames[i]))
+          .iso3Code(strings.apply(countryIso3s[i]))
+          .iso2Code(strings.apply(countryIso2s[i]))
+          .phoneCode(strings.apply(countryPhoneCodes[i]))
+          .numericCode(strings.apply(countryNumericCodes[i]))
+          .capital(strings.apply(countryCapitals[i]))
+          .currency(strings.apply(countryCurrencies[i]))
+          .currencyName(strings.apply(countryCurrencyNames[i]))
+          .currencySymbol(strings.apply(countryCurrencySymbols[i]))
+          .tld(strings.apply(countryTlds[i]))
+          .nativeName(strings.apply(countryNativeNames[i]))
+          .region(strings.apply(countryRegions[i]))
+          .regionId(strings.apply(countryRegionIds[i]))
+          .subregion(strings.apply(countrySubregions[i]))
+          .subregionId(strings.apply(countrySubregionIds[i]))
+          .nationality(strings.apply(countryNationalities[i]))
+          .emoji(strings.apply(countryEmojis[i]))
+          .emojiU(strings.apply(countryEmojiUs[i]))
+          .population(integer(populations[i]))
+          .gdp(integer(gdps[i]))
+          .latitude(countryLatitudes[i])
+          .longitude(countryLongitudes[i])
+          .timezones(countryTimeZoneList)
+          .translations(translations)
+          .states(view(states, countryStateOffsets[i], countryStateOffsets[i + 1]))
+          .build();
+    }
+
+    for (int i = 0; i < stateCount; i++) {
+      states[i] = State.builder()
+          .id(integer(stateIds[i]))
+          .name(strings.apply(stateNames[i]))
+          .nativeName(strings.apply(stateNativeNames[i]))
+          .type(strings.apply(stateTypes[i]))
+          .iso2(strings.apply(stateIso2s[i]))
+          .iso31662(strings.apply(stateIso31662s[i]))
+          .timezone(timeZone(timeZones, stateTimeZones[i]))
+          .latitude(stateLatitudes[i])
+          .longitude(stateLongitudes[i])
+          .country(countries[stateCountries[i]])
+          .cities(citySlices.slice(stateCityOffsets[i], stateCityOffsets[i + 1]))
+          .build();
+    }
+
+    return new Hierarchy(countries, states, countryNameKeys, countryIso2Keys, countryIso3Keys,
+        localisedOffsets, localisedKeys, stateNameKeys, stateCodeKeys);
+  }
+
+  private TimeZone[] readTimeZones(IntFunction<String> strings) throws IOException {
+    var columns = columns(SECTION_TIMEZONES);
+    int count = columns.count();
+    int[] zoneNames = columns.ints(count);
+    int[] abbreviations = columns.ints(count);
+    int[] tzNames = columns.ints(count);
+    int[] gmtOffsets = columns.ints(count);
+    int[] gmtOffsetNames = columns.ints(count);
+    var timeZones = new TimeZone[count];
+    for (int i = 0; i < count; i++) {
+      timeZones[i] = new TimeZone(strings.apply(zoneNames[i]), strings.apply(abbreviations[i]),
+          strings.apply(tzNames[i]), integer(gmtOffsets[i]), strings.apply(gmtOffsetNames[i]));
+    }
+    return timeZones;
+  }
+
+  private ByteBuffer section(int tag) throws IOException {
+    var section = sections.get(tag);
+    if (section == null) {
+      throw new IOException("Corrupt location4j columnar data, missing section " + tag);
+    }
+    return section.duplicate().order(BYTE_ORDER);
+  }
+
+  private Columns columns(int tag) throws IOException {
+    return new Columns(section(tag));
+  }
+
+  /**
+   * Converts a parent-id column, grouped by parent, into per-parent start offsets.
+   */
+  private static int[] groupOffsets(IntBuffer parents, int parentCount, String childType)
+      throws IOException {
+    int[] offsets = new int[parentCount + 1];
+    int previous = 0;
+    for (int i = 0; i < parents.limit(); i++) {
+      int parent = parents.get(i);
+      if (parent < previous || parent >= parentCount) {
+        throw new IOException("Corrupt location4j columnar data, " + childType + " " + i
+            + " has an invalid parent");
+      }
+      offsets[parent + 1]++;
+      previous = parent;
+    }
+    for (int i = 0; i < parentCount; i++) {
+      offsets[i + 1] += offsets[i];
+    }
+    return offsets;
+  }
+
+  private static <T> List<T> view(T[] array, int from, int to) {
+    return Collections.unmodifiableList(Arrays.asList(array).subList(from, to));
+  }
+
+  private static <T> void addIfKeyed(Map<String, List<T>> map, IntFunction<String> strings,
+      int key, T value) {
+    if (key != NO_REFERENCE) {
+      map.computeIfAbsent(strings.apply(key), k -> new ArrayList<>()).add(value);
+    }
+  }
+
+  static TimeZone timeZone(TimeZone[] timeZones, int index) {
+    return index == NO_REFERENCE ? null : timeZones[index];
+  }
+
+  static Integer integer(int value) {
+    return value == NULL_INT ? null : value;
+  }
+
+  static BigDecimal coordinate(long unscaled, byte scale) {
+    return scale == NULL_SCALE ? null : BigDecimal.valueOf(unscaled, scale);
+  }
+
+  /**
+   * Returns the coordinate as the double a {@link City} holds for it, without creating the
+   * {@link BigDecimal}. Dividing two exact doubles rounds correctly, as does
+   * {@link BigDecimal#doubleValue()}, so both give the same value.
+   */
+  static double coordinateDouble(long unscaled, byte scale) {
+    if (scale == NULL_SCALE) {
+      return 0.0;
+    }
+    if (scale >= 0 && scale < POWERS_OF_TEN.length
+        && unscaled >= -MAX_EXACT_LONG && unscaled <= MAX_EXACT_LONG) {
+      return unscaled / POWERS_OF_TEN[scale];
+    }
+    return BigDecimal.valueOf(unscaled, scale).doubleValue();
+  }
+
+  /**
+   * Supplies the cities of a range of city postings in the search dictionary.
+   */
+  @FunctionalInterface
+  interface CityPostings {
+
+    List<City> cities(int from, int to);
+  }
+
+  /**
+   * Supplies the list of cities belonging to a state, given its row range in the city table.
+   */
+  @FunctionalInterface
+  private interface CitySlices {
+
+    List<City> slice(int from, int to);
+  }
+
+  /**
+   * Countries and states along with the key columns needed to build their lookup maps.
+   */
+  private record Hierarchy(Country[] countries, State[] states, int[] countryNameKeys,
+                           int[] countryIso2Keys, int[] countryIso3Keys, int[] localisedOffsets,
+                           int[] localisedKeys, int[] stateNameKeys, int[] stateCodeKeys) {
+
+    /**
+     * Creates the data with the country and state maps, populated in the same order as the
+     * binary builder. City maps are left for the caller.
+     */
+    Location4JData toLocation4JData(IntFunction<String> strings) {
+      int countryCount = countries.length;
+      int stateCount = states.length;
+      Map<String, Country> countryNameToCountryMap = HashMap.newHashMap(countryCount);
+      Map<Integer, Country> countryIdToCountryMap = HashMap.newHashMap(countryCount);
+      Map<String, Country> localisedNameToCountryMap = HashMap.newHashMap(localisedKeys.length);
+      Map<String, Country> iso2CodeToCountryMap = HashMap.newHashMap(countryCount);
+      Map<String, Country> iso3CodeToCountryMap = HashMap.newHashMap(countryCount);
+      Map<Integer, State> stateIdToStateMap = HashMap.newHashMap(stateCount);
+      Map<String, List<State>> stateNameToStatesMap = HashMap.newHashMap(stateCount);
+      Map<String, List<State>> stateCodeToStatesMap = HashMap.newHashMap(stateCount);
+
+      for (int i = 0; i < countryCount; i++) {
+        var country = countries[i];
+        countryIdToCountryMap.put(country.getId(), country);
+        putIfKeyed(countryNameToCountryMap, strings, countryNameKeys[i], country);
+        for (int k = localisedOffsets[i]; k < localisedOffsets[i + 1]; k++) {
+          localisedNameToCountryMap.put(strings.apply(localisedKeys[k]), country);
+        }
+        putIfKeyed(iso2CodeToCountryMap, strings, countryIso2Keys[i], country);
+        putIfKeyed(iso3CodeToCountryMap, strings, countryIso3Keys[i], country);
+      }
+      for (int i = 0; i < stateCount; i++) {
+        var state = states[i];
+        stateIdToStateMap.put(state.getId(), state);
+        addIfKeyed(stateNameToStatesMap, strings, stateNameKeys[i], state);
+        addIfKeyed(stateCodeToStatesMap, strings, stateCodeKeys[i], state);
+      }
+
+      var data = new Location4JData();
+      data.setCountries(Collections.unmodifiableList(Arrays.asList(countries)));
+      data.setCountryNameToCountryMap(countryNameToCountryMap);
+      data.setCountryIdToCountryMap(countryIdToCountryMap);
+      data.setLocalisedNameToCountryMap(localisedNameToCountryMap);
+      data.setIso2CodeToCountryMap(iso2CodeToCountryMap);
+      data.setIso3CodeToCountryMap(iso3CodeToCountryMap);
+      data.setStateIdToStateMap(stateIdToStateMap);
+      data.setStateNameToStatesMap(stateNameToStatesMap);
+      data.setStateCodeToStatesMap(stateCodeToStatesMap);
+      return data;
+    }
+
+    private static void putIfKeyed(Map<String, Country> map, IntFunction<String> strings,
+        int key, Country country) {
+      if (key != NO_REFERENCE) {
+        map.put(strings.apply(key), country);
+      }
+    }
+  }
+
+  /**
+   * Sequential cursor over the columns of a single section. Columns can either be copied onto the
+   * heap or returned as views over the underlying buffer.
+   */
+  static final class Columns {
+
+    private final ByteBuffer buffer;
+
+    Columns(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    int count() {
+      return buffer.getInt();
+    }
+
+    int[] ints(int count) {
+      int[] values = new int[count];
+      intView(count).get(values);
+      return values;
+    }
+
+    IntBuffer intView(int count) {
+      var view = buffer.slice(buffer.position(), count * Integer.BYTES).order(BYTE_ORDER)
+          .asIntBuffer();
+      buffer.position(buffer.position() + count * Integer.BYTES);
+      return view;
+    }
+
+    LongBuffer longView(int count) {
+      var view = buffer.slice(buffer.position(), count * Long.BYTES).order(BYTE_ORDER)
+          .asLongBuffer();
+      buffer.position(buffer.position() + count * Long.BYTES);
+      return view;
+    }
+
+    ByteBuffer byteView(int count) {
+      var view = buffer.slice(buffer.position(), count);
+      buffer.position(buffer.position() + count);
+      return view;
+    }
+
+    BigDecimal[] coordinates(int count) {
+      align();
+      var unscaled = longView(count);
+      var scales = byteView(count);
+      align();
+      var coordinates = new BigDecimal[count];
+      for (int i = 0; i < count; i++) {
+        coordinates[i] = coordinate(unscaled.get(i), scales.get(i));
+      }
+      return coordinates;
+    }
+
+    void align() {
+      buffer.position((buffer.position() + ALIGNMENT - 1) & -ALIGNMENT);
+    }
+  }
+}
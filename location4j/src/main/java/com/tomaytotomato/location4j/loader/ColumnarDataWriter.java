@@ -0,0 +1,639 @@
+package com.tomaytotomato.location4j.loader;
+
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.ALIGNMENT;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.BYTE_ORDER;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.DIRECTORY_ENTRY_BYTES;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.HEADER_BYTES;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.MAGIC;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.NO_REFERENCE;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.NULL_INT;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.NULL_SCALE;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.POSTING_ROW_BITS;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.POSTING_ROW_MASK;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_CITIES;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_CITY_ID_INDEX;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_CITY_NAME_HASH;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_CITY_NAME_INDEX;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_COUNTRIES;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_SEARCH_DICTIONARY;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_SEARCH_DICTIONARY_HASH;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_STATES;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_STRINGS;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.SECTION_TIMEZONES;
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.VERSION;
+
+import com.tomaytotomato.location4j.index.PerfectHash;
+import com.tomaytotomato.location4j.model.LocationMatches;
+import com.tomaytotomato.location4j.model.LocationMatches.MatchType;
+import com.tomaytotomato.location4j.model.lookup.City;
+import com.tomaytotomato.location4j.model.lookup.Country;
+import com.tomaytotomato.location4j.model.lookup.State;
+import com.tomaytotomato.location4j.model.lookup.TimeZone;
+import com.tomaytotomato.location4j.text.normaliser.DefaultTextNormaliser;
+import com.tomaytotomato.location4j.text.normaliser.TextNormaliser;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Writes countries, states and cities into the columnar location4j format read by
+ * {@link ColumnarDataLoader}.
+ * <p>
+ * The normalised lookup keys are computed here with the supplied {@link TextNormaliser}, so the
+ * loader only has to assemble its maps and never normalises text at start-up.
+ * </p>
+ */
+public class ColumnarDataWriter {
+
+  private final TextNormaliser textNormaliser;
+
+  public ColumnarDataWriter() {
+    this(new DefaultTextNormaliser());
+  }
+
+  public ColumnarDataWriter(TextNormaliser textNormaliser) {
+    this.textNormaliser = textNormaliser;
+  }
+
+  /**
+   * Writes the given countries, along with their states and cities, to the output stream.
+   *
+   * @param countries    the fully linked countries to write
+   * @param outputStream the stream to write to, it is not closed by this method
+   * @throws IOException if the stream cannot be written to
+   */
+  public void write(List<Country> countries, OutputStream outputStream) throws IOException {
+    Objects.requireNonNull(countries, "Countries cannot be null");
+    write(countries, compileSearchDictionary(countries), outputStream);
+  }
+
+  /**
+   * Writes the given countries, along with their states and cities, and a search dictionary that
+   * has already been compiled for them.
+   *
+   * @param countries        the fully linked countries to write
+   * @param searchDictionary the postings by normalised key, matching only the given entities
+   * @param outputStream     the stream to write to, it is not closed by this method
+   * @throws IOException if the stream cannot be written to
+   */
+  public void write(List<Country> countries, Map<String, LocationMatches> searchDictionary,
+      OutputStream outputStream) throws IOException {
+    Objects.requireNonNull(countries, "Countries cannot be null");
+    Objects.requireNonNull(searchDictionary, "Search dictionary cannot be null");
+
+    List<State> states = new ArrayList<>();
+    List<Integer> stateCountries = new ArrayList<>();
+    List<City> cities = new ArrayList<>();
+    List<Integer> cityStates = new ArrayList<>();
+
+    for (int countryIndex = 0; countryIndex < countries.size(); countryIndex++) {
+      var country = countries.get(countryIndex);
+      if (Objects.isNull(country.getStates())) {
+        continue;
+      }
+      for (State state : country.getStates()) {
+        int stateIndex = states.size();
+        states.add(state);
+        stateCountries.add(countryIndex);
+        if (!Objects.isNull(state.getCities())) {
+          for (City city : state.getCities()) {
+            cities.add(city);
+            cityStates.add(stateIndex);
+          }
+        }
+      }
+    }
+
+    var strings = new StringTable();
+    var timeZones = new TimeZoneTable(strings);
+
+    Map<Integer, byte[]> sections = new LinkedHashMap<>();
+    byte[] countrySection = encodeCountries(countries, strings, timeZones);
+    byte[] stateSection = encodeStates(states, stateCountries, strings, timeZones);
+    byte[] citySection = encodeCities(cities, cityStates, strings, timeZones);
+    byte[] cityIdIndexSection = encodeCityIdIndex(cities);
+    byte[] cityNameIndexSection = encodeCityNameIndex(cities, strings);
+    byte[] searchDictionarySection = encodeSearchDictionary(searchDictionary, countries, states,
+        cities, strings);
+    byte[] timeZoneSection = timeZones.encode();
+    sections.put(SECTION_STRINGS, strings.encode());
+    sections.put(SECTION_TIMEZONES, timeZoneSection);
+    sections.put(SECTION_COUNTRIES, countrySection);
+    sections.put(SECTION_STATES, stateSection);
+    sections.put(SECTION_CITIES, citySection);
+    sections.put(SECTION_CITY_ID_INDEX, cityIdIndexSection);
+    sections.put(SECTION_CITY_NAME_INDEX, cityNameIndexSection);
+    sections.put(SECTION_SEARCH_DICTIONARY, searchDictionarySection);
+    sections.put(SECTION_CITY_NAME_HASH, encodePerfectHash(sortedKeys(cities.stream()
+        .map(city -> keyMaker(city.getName()))
+        .filter(Objects::nonNull)
+        .distinct()
+        .toList())));
+    sections.put(SECTION_SEARCH_DICTIONARY_HASH,
+        encodePerfectHash(sortedKeys(searchDictionary.keySet())));
+
+    writeSections(sections, outputStream);
+  }
+
+  private void writeSections(Map<Integer, byte[]> sections, OutputStream outputStream)
+      throws IOException {
+    var header = new SectionBuffer();
+    header.putInt(MAGIC);
+    header.putInt(VERSION);
+    header.putInt(sections.size());
+
+    int offset = align(HEADER_BYTES + sections.size() * DIRECTORY_ENTRY_BYTES);
+    for (Map.Entry<Integer, byte[]> section : sections.entrySet()) {
+      header.putInt(section.getKey());
+      header.putInt(offset);
+      header.putInt(section.getValue().length);
+      offset = align(offset + section.getValue().length);
+    }
+    header.align();
+    outputStream.write(header.toByteArray());
+
+    for (byte[] section : sections.values()) {
+      outputStream.write(section);
+      outputStream.write(new byte[align(section.length) - section.length]);
+    }
+    outputStream.flush();
+  }
+
+  private byte[] encodeCountries(List<Country> countries, StringTable strings,
+      TimeZoneTable timeZones) {
+    int count = countries.size();
+    var buffer = new SectionBuffer();
+    buffer.putInt(count);
+    buffer.putInts(column(countries, Country::getId));
+
+    List<Function<Country, String>> textColumns = List.of(
+        Country::getName, Country::getIso3, Country::getIso2, Country::getPhoneCode,
+        Country::getNumericCode, Country::getCapital, Country::getCurrency,
+        Country::getCurrencyName, Country::getCurrencySymbol, Country::getTld,
+        Country::getNativeName, Country::getRegion, Country::getRegionId, Country::getSubregion,
+        Country::getSubregionId, Country::getNationality, Country::getEmoji, Country::getEmojiU);
+    textColumns.forEach(text -> buffer.putInts(strings.column(countries, text)));
+
+    buffer.putInts(column(countries, Country::getPopulation));
+    buffer.putInts(column(countries, Country::getGdp));
+    putCoordinates(buffer, countries, Country::getLatitude);
+    putCoordinates(buffer, countries, Country::getLongitude);
+
+    putRelation(buffer, countries, country -> nullToEmpty(country.getTimezones()).stream()
+        .mapToInt(timeZones::indexOf).toArray());
+
+    int[] translationOffsets = new int[count + 1];
+    List<Integer> translationKeys = new ArrayList<>();
+    List<Integer> translationValues = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      var translations = countries.get(i).getTranslations();
+      if (!Objects.isNull(translations)) {
+        translations.forEach((key, value) -> {
+          translationKeys.add(strings.indexOf(key));
+          translationValues.add(strings.indexOf(value));
+        });
+      }
+      translationOffsets[i + 1] = translationKeys.size();
+    }
+    buffer.putInts(translationOffsets);
+    buffer.putInts(toIntArray(translationKeys));
+    buffer.putInts(toIntArray(translationValues));
+
+    buffer.putInts(strings.column(countries, country -> keyMaker(country.getName())));
+    buffer.putInts(strings.column(countries, country -> keyMaker(country.getIso2())));
+    buffer.putInts(strings.column(countries, country -> keyMaker(country.getIso3())));
+    putRelation(buffer, countries, country -> localisedKeys(country).stream()
+        .mapToInt(strings::indexOf).toArray());
+    return buffer.toByteArray();
+  }
+
+  private byte[] encodeStates(List<State> states, List<Integer> stateCountries,
+      StringTable strings, TimeZoneTable timeZones) {
+    var buffer = new SectionBuffer();
+    buffer.putInt(states.size());
+    buffer.putInts(column(states, State::getId));
+    buffer.putInts(toIntArray(stateCountries));
+    buffer.putInts(strings.column(states, State::getName));
+    buffer.putInts(strings.column(states, State::getNativeName));
+    buffer.putInts(strings.column(states, State::getType));
+    buffer.putInts(strings.column(states, State::getIso2));
+    buffer.putInts(strings.column(states, State::getIso31662));
+    buffer.putInts(states.stream().mapToInt(state -> timeZones.indexOf(state.getTimezone()))
+        .toArray());
+    putCoordinates(buffer, states, State::getLatitude);
+    putCoordinates(buffer, states, State::getLongitude);
+    buffer.putInts(strings.column(states, state -> keyMaker(state.getName())));
+    buffer.putInts(strings.column(states, state -> keyMaker(state.getIso2())));
+    return buffer.toByteArray();
+  }
+
+  private byte[] encodeCities(List<City> cities, List<Integer> cityStates, StringTable strings,
+      TimeZoneTable timeZones) {
+    var buffer = new SectionBuffer();
+    buffer.putInt(cities.size());
+    buffer.putInts(column(cities, City::getId));
+    buffer.putInts(toIntArray(cityStates));
+    buffer.putInts(strings.column(cities, City::getName));
+    buffer.putInts(strings.column(cities, City::getWikiDataId));
+    buffer.putInts(cities.stream().mapToInt(city -> timeZones.indexOf(city.getTimezone()))
+        .toArray());
+    putCoordinates(buffer, cities, City::getLatitude);
+    putCoordinates(buffer, cities, City::getLongitude);
+    buffer.putInts(strings.column(cities, city -> keyMaker(city.getName())));
+    return buffer.toByteArray();
+  }
+
+  /**
+   * City ids in ascending order alongside their rows, so a city can be found by binary search
+   * without building a map.
+   */
+  private byte[] encodeCityIdIndex(List<City> cities) {
+    int[] ids = column(cities, City::getId);
+    Integer[] rows = new Integer[ids.length];
+    Arrays.setAll(rows, row -> row);
+    Arrays.sort(rows, Comparator.comparingInt(row -> ids[row]));
+
+    var buffer = new SectionBuffer();
+    buffer.putInt(rows.length);
+    buffer.putInts(Arrays.stream(rows).mapToInt(row -> ids[row]).toArray());
+    buffer.putInts(Arrays.stream(rows).mapToInt(Integer::intValue).toArray());
+    return buffer.toByteArray();
+  }
+
+  /**
+   * Distinct normalised city names sorted by their unsigned UTF-8 bytes, each followed by the rows
+   * of the cities with that name in table order.
+   */
+  private byte[] encodeCityNameIndex(List<City> cities, StringTable strings) {
+    Map<String, List<Integer>> rowsByName = new HashMap<>();
+    for (int row = 0; row < cities.size(); row++) {
+      var key = keyMaker(cities.get(row).getName());
+      if (!Objects.isNull(key)) {
+        rowsByName.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+      }
+    }
+    List<String> names = sortedKeys(rowsByName.keySet());
+
+    int[] offsets = new int[names.size() + 1];
+    List<Integer> rows = new ArrayList<>(cities.size());
+    for (int i = 0; i < names.size(); i++) {
+      rows.addAll(rowsByName.get(names.get(i)));
+      offsets[i + 1] = rows.size();
+    }
+
+    var buffer = new SectionBuffer();
+    buffer.putInt(names.size());
+    buffer.putInts(names.stream().mapToInt(strings::indexOf).toArray());
+    buffer.putInts(offsets);
+    buffer.putInts(toIntArray(rows));
+    return buffer.toByteArray();
+  }
+
+  /**
+   * Distinct search keys sorted by their unsigned UTF-8 bytes, each followed by its packed postings
+   * in {@link MatchType} order. A posting holds the match type and the row of the matched entity.
+   */
+  private byte[] encodeSearchDictionary(Map<String, LocationMatches> searchDictionary,
+      List<Country> countries, List<State> states, List<City> cities, StringTable strings) {
+    var countryRows = rows(countries);
+    var stateRows = rows(states);
+    var cityRows = rows(cities);
+
+    List<String> keys = sortedKeys(searchDictionary.keySet());
+
+    int[] offsets = new int[keys.size() + 1];
+    List<Integer> postings = new ArrayList<>();
+    for (int i = 0; i < keys.size(); i++) {
+      var matches = searchDictionary.get(keys.get(i));
+      addPosting(postings, MatchType.COUNTRY_NAME, countryRows, matches.getCountryByName());
+      addPosting(postings, MatchType.COUNTRY_ISO2, countryRows, matches.getCountryByIso2());
+      addPosting(postings, MatchType.COUNTRY_ISO3, countryRows, matches.getCountryByIso3());
+      nullToEmpty(matches.getStatesByName())
+          .forEach(state -> addPosting(postings, MatchType.STATE_NAME, stateRows, state));
+      nullToEmpty(matches.getStatesByCode())
+          .forEach(state -> addPosting(postings, MatchType.STATE_CODE, stateRows, state));
+      nullToEmpty(matches.getCitiesByName())
+          .forEach(city -> addPosting(postings, MatchType.CITY_NAME, cityRows, city));
+      offsets[i + 1] = postings.size();
+    }
+
+    var buffer = new SectionBuffer();
+    buffer.putInt(keys.size());
+    buffer.putInts(keys.stream().mapToInt(strings::indexOf).toArray());
+    buffer.putInts(offsets);
+    buffer.putInts(toIntArray(postings));
+    return buffer.toByteArray();
+  }
+
+  /**
+   * A minimal perfect hash over the keys of a sorted key column, followed by the position in the
+   * column of the key held by each slot. Readers can then find a key with one comparison instead of
+   * a binary search.
+   */
+  private byte[] encodePerfectHash(List<String> sortedKeys) {
+    var hash = PerfectHash.of(sortedKeys);
+    int[] displacements = hash.displacements();
+    int[] indexes = new int[sortedKeys.size()];
+    for (int i = 0; i < indexes.length; i++) {
+      var key = sortedKeys.get(i);
+      indexes[hash.slot(key, 0, key.length())] = i;
+    }
+
+    var buffer = new SectionBuffer();
+    buffer.putInt(indexes.length);
+    buffer.putInt(displacements.length);
+    buffer.putLongs(new long[]{hash.seed()});
+    buffer.putInts(displacements);
+    buffer.putInts(indexes);
+    return buffer.toByteArray();
+  }
+
+  /**
+   * Sorts keys by their unsigned UTF-8 bytes, the order of the key columns searched in place.
+   */
+  private static List<String> sortedKeys(Collection<String> keys) {
+    List<String> sorted = new ArrayList<>(keys);
+    sorted.sort(Comparator.comparing(key -> key.getBytes(StandardCharsets.UTF_8),
+        Arrays::compareUnsigned));
+    return sorted;
+  }
+
+  private static <T> void addPosting(List<Integer> postings, MatchType matchType,
+      Map<T, Integer> rows, T entity) {
+    if (Objects.isNull(entity)) {
+      return;
+    }
+    var row = rows.get(entity);
+    if (Objects.isNull(row)) {
+      throw new IllegalArgumentException("Search dictionary refers to a " + matchType
+          + " match that is not being written");
+    }
+    if (row > POSTING_ROW_MASK) {
+      throw new IllegalArgumentException("Too many rows to pack into a search dictionary posting");
+    }
+    postings.add(matchType.ordinal() << POSTING_ROW_BITS | row);
+  }
+
+  private static <T> Map<T, Integer> rows(List<T> entities) {
+    Map<T, Integer> rows = new IdentityHashMap<>(entities.size());
+    for (int row = 0; row < entities.size(); row++) {
+      rows.put(entities.get(row), row);
+    }
+    return rows;
+  }
+
+  /**
+   * Compiles the search dictionary from the same keys as the binary builder's lookup maps.
+   */
+  private Map<String, LocationMatches> compileSearchDictionary(List<Country> countries) {
+    Map<String, Country> countryNames = new HashMap<>();
+    Map<String, Country> iso2Codes = new HashMap<>();
+    Map<String, Country> iso3Codes = new HashMap<>();
+    Map<String, List<State>> stateNames = new HashMap<>();
+    Map<String, List<State>> stateCodes = new HashMap<>();
+    Map<String, List<City>> cityNames = new HashMap<>();
+    for (Country country : countries) {
+      putIfKeyed(countryNames, keyMaker(country.getName()), country);
+      putIfKeyed(iso2Codes, keyMaker(country.getIso2()), country);
+      putIfKeyed(iso3Codes, keyMaker(country.getIso3()), country);
+      for (State state : nullToEmpty(country.getStates())) {
+        addIfKeyed(stateNames, keyMaker(state.getName()), state);
+        addIfKeyed(stateCodes, keyMaker(state.getIso2()), state);
+        for (City city : nullToEmpty(state.getCities())) {
+          addIfKeyed(cityNames, keyMaker(city.getName()), city);
+        }
+      }
+    }
+    return LocationMatches.compile(countryNames, iso2Codes, iso3Codes, stateNames, stateCodes,
+        cityNames);
+  }
+
+  private static <T> void putIfKeyed(Map<String, T> map, String key, T value) {
+    if (!Objects.isNull(key)) {
+      map.put(key, value);
+    }
+  }
+
+  private static <T> void addIfKeyed(Map<String, List<T>> map, String key, T value) {
+    if (!Objects.isNull(key)) {
+      map.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+    }
+  }
+
+  /**
+   * Localised keys in the same order the binary builder inserts them, native name first.
+   */
+  private List<String> localisedKeys(Country country) {
+    List<String> keys = new ArrayList<>();
+    var nativeName = keyMaker(country.getNativeName());
+    if (!Objects.isNull(nativeName)) {
+      keys.add(nativeName);
+    }
+    if (!Objects.isNull(country.getTranslations())) {
+      country.getTranslations().values().stream()
+          .map(this::keyMaker)
+          .filter(Objects::nonNull)
+          .forEach(keys::add);
+    }
+    return keys;
+  }
+
+  private String keyMaker(String key) {
+    if (Objects.isNull(key) || key.isEmpty()) {
+      return null;
+    }
+    return textNormaliser.normalise(key);
+  }
+
+  private static <T> int[] column(List<T> rows, Function<T, Integer> getter) {
+    int[] column = new int[rows.size()];
+    for (int i = 0; i < column.length; i++) {
+      var value = getter.apply(rows.get(i));
+      column[i] = Objects.isNull(value) ? NULL_INT : value;
+    }
+    return column;
+  }
+
+  private static <T> void putCoordinates(SectionBuffer buffer, List<T> rows,
+      Function<T, BigDecimal> getter) {
+    long[] unscaled = new long[rows.size()];
+    byte[] scales = new byte[rows.size()];
+    for (int i = 0; i < unscaled.length; i++) {
+      var value = getter.apply(rows.get(i));
+      if (Objects.isNull(value)) {
+        scales[i] = NULL_SCALE;
+      } else {
+        unscaled[i] = value.unscaledValue().longValueExact();
+        scales[i] = (byte) value.scale();
+      }
+    }
+    buffer.align();
+    buffer.putLongs(unscaled);
+    buffer.putBytes(scales);
+    buffer.align();
+  }
+
+  private static <T> void putRelation(SectionBuffer buffer, List<T> rows,
+      Function<T, int[]> children) {
+    int[] offsets = new int[rows.size() + 1];
+    List<int[]> references = new ArrayList<>(rows.size());
+    for (int i = 0; i < rows.size(); i++) {
+      int[] refs = children.apply(rows.get(i));
+      references.add(refs);
+      offsets[i + 1] = offsets[i] + refs.length;
+    }
+    buffer.putInts(offsets);
+    references.forEach(buffer::putInts);
+  }
+
+  private static <T> List<T> nullToEmpty(List<T> list) {
+    return Objects.isNull(list) ? List.of() : list;
+  }
+
+  private static int[] toIntArray(List<Integer> values) {
+    return values.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static int align(int position) {
+    return (position + ALIGNMENT - 1) & -ALIGNMENT;
+  }
+
+  /**
+   * De-duplicated table of every string referenced by the dataset.
+   */
+  private static final class StringTable {
+
+    private final Map<String, Integer> indexes = new LinkedHashMap<>();
+
+    int indexOf(String value) {
+      if (Objects.isNull(value)) {
+        return NO_REFERENCE;
+      }
+      return indexes.computeIfAbsent(value, k -> indexes.size());
+    }
+
+    <T> int[] column(List<T> rows, Function<T, String> getter) {
+      int[] column = new int[rows.size()];
+      for (int i = 0; i < column.length; i++) {
+        column[i] = indexOf(getter.apply(rows.get(i)));
+      }
+      return column;
+    }
+
+    byte[] encode() {
+      int[] offsets = new int[indexes.size() + 1];
+      List<byte[]> encoded = new ArrayList<>(indexes.size());
+      int i = 0;
+      for (String value : indexes.keySet()) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        encoded.add(bytes);
+        offsets[i + 1] = offsets[i] + bytes.length;
+        i++;
+      }
+      var buffer = new SectionBuffer();
+      buffer.putInt(indexes.size());
+      buffer.putInts(offsets);
+      encoded.forEach(buffer::putBytes);
+      return buffer.toByteArray();
+    }
+  }
+
+  /**
+   * De-duplicated table of timezones, shared by countries, states and cities.
+   */
+  private static final class TimeZoneTable {
+
+    private final StringTable strings;
+    private final Map<TimeZone, Integer> indexes = new HashMap<>();
+    private final List<TimeZone> timeZones = new ArrayList<>();
+
+    TimeZoneTable(StringTable strings) {
+      this.strings = strings;
+    }
+
+    int indexOf(TimeZone timeZone) {
+      if (Objects.isNull(timeZone)) {
+        return NO_REFERENCE;
+      }
+      return indexes.computeIfAbsent(timeZone, k -> {
+        timeZones.add(k);
+        return timeZones.size() - 1;
+      });
+    }
+
+    byte[] encode() {
+      var buffer = new SectionBuffer();
+      buffer.putInt(timeZones.size());
+      buffer.putInts(strings.column(timeZones, TimeZone::getZoneName));
+      buffer.putInts(strings.column(timeZones, TimeZone::getAbbreviation));
+      buffer.putInts(strings.column(timeZones, TimeZone::getTzName));
+      buffer.putInts(column(timeZones, TimeZone::getGmtOffset));
+      buffer.putInts(strings.column(timeZones, TimeZone::getGmtOffsetName));
+      return buffer.toByteArray();
+    }
+  }
+
+  /**
+   * Growable little-endian buffer used to assemble a single section.
+   */
+  private static final class SectionBuffer {
+
+    private ByteBuffer buffer = ByteBuffer.allocate(4096).order(BYTE_ORDER);
+
+    void putInt(int value) {
+      ensureCapacity(Integer.BYTES);
+      buffer.putInt(value);
+    }
+
+    void putInts(int[] values) {
+      ensureCapacity(values.length * Integer.BYTES);
+      buffer.asIntBuffer().put(values);
+      buffer.position(buffer.position() + values.length * Integer.BYTES);
+    }
+
+    void putLongs(long[] values) {
+      ensureCapacity(values.length * Long.BYTES);
+      buffer.asLongBuffer().put(values);
+      buffer.position(buffer.position() + values.length * Long.BYTES);
+    }
+
+    void putBytes(byte[] values) {
+      ensureCapacity(values.length);
+      buffer.put(values);
+    }
+
+    void align() {
+      int padding = ColumnarDataWriter.align(buffer.position()) - buffer.position();
+      ensureCapacity(padding);
+      buffer.position(buffer.position() + padding);
+    }
+
+    byte[] toByteArray() {
+      byte[] bytes = new byte[buffer.position()];
+      buffer.get(0, bytes);
+      return bytes;
+    }
+
+    private void ensureCapacity(int bytes) {
+      if (buffer.remaining() < bytes) {
+        int capacity = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+        var grown = ByteBuffer.allocate(capacity).order(BYTE_ORDER);
+        grown.put(buffer.flip());
+        buffer = grown;
+      }
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.tomaytotomato.location4j.loader;
+
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.NO_REFERENCE;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The shared UTF-8 string table of a columnar data file.
+ * <p>
+ * Strings are decoded on demand straight from the underlying buffer, which may be memory-mapped,
+ * so only the strings that are actually used end up on the heap.
+ * </p>
+ */
+final class ColumnarStringTable {
+
+  private final int count;
+  private final IntBuffer offsets;
+  private final ByteBuffer bytes;
+
+  ColumnarStringTable(ByteBuffer section) {
+    this.count = section.getInt(0);
+    int offsetsStart = Integer.BYTES;
+    int bytesStart = offsetsStart + (count + 1) * Integer.BYTES;
+    this.offsets = section.slice(offsetsStart, (count + 1) * Integer.BYTES)
+        .order(section.order()).asIntBuffer();
+    this.bytes = section.slice(bytesStart, offsets.get(count));
+  }
+
+  int size() {
+    return count;
+  }
+
+  /**
+   * Decodes the string at the given index.
+   *
+   * @param index the string index, or {@link ColumnarDataFormat#NO_REFERENCE}
+   * @return the string, or null when the index is {@link ColumnarDataFormat#NO_REFERENCE}
+   */
+  String get(int index) {
+    if (index == NO_REFERENCE) {
+      return null;
+    }
+    int start = offsets.get(index);
+    byte[] value = new byte[offsets.get(index + 1) - start];
+    bytes.get(start, value);
+    return new String(value, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Compares the string at the given index with the characters in {@code [start, end)} of a key,
+   * decoding the UTF-8 bytes as they are compared. Code point order is the same as the unsigned
+   * byte order of UTF-8, which the sorted index sections use.
+   *
+   * @param index the string index
+   * @param key   the text holding the key
+   * @param start the index of the first character of the key
+   * @param end   the index after the last character of the key
+   * @return a negative number, zero or a positive number as the string is less than, equal to or
+   * greater than the key
+   */
+  int compare(int index, CharSequence key, int start, int end) {
+    int position = offsets.get(index);
+    int limit = offsets.get(index + 1);
+    int i = start;
+    while (position < limit && i < end) {
+      int lead = Byte.toUnsignedInt(bytes.get(position));
+      int codePoint;
+      if (lead < 0x80) {
+        codePoint = lead;
+        position++;
+      } else if (lead < 0xE0) {
+        codePoint = (lead & 0x1F) << 6 | continuation(position + 1);
+        position += 2;
+      } else if (lead < 0xF0) {
+        codePoint = (lead & 0x0F) << 12 | continuation(position + 1) << 6
+            | continuation(position + 2);
+        position += 3;
+      } else {
+        codePoint = (lead & 0x07) << 18 | continuation(position + 1) << 12
+            | continuation(position + 2) << 6 | continuation(position + 3);
+        position += 4;
+      }
+
+      int keyCodePoint = key.charAt(i++);
+      if (Character.isHighSurrogate((char) keyCodePoint) && i < end
+          && Character.isLowSurrogate(key.charAt(i))) {
+        keyCodePoint = Character.toCodePoint((char) keyCodePoint, key.charAt(i++));
+      }
+      if (codePoint != keyCodePoint) {
+        return codePoint - keyCodePoint;
+      }
+    }
+    return (position < limit ? 1 : 0) - (i < end ? 1 : 0);
+  }
+
+  private int continuation(int position) {
+    return bytes.get(position) & 0x3F;
+  }
+
+  /**
+   * Decodes every string in the table.
+   *
+   * @return all strings, in index order
+   */
+  String[] toArray() {
+    byte[] all = new byte[bytes.limit()];
+    bytes.get(0, all);
+    var strings = new String[count];
+    for (int i = 0; i < count; i++) {
+      int start = offsets.get(i);
+      strings[i] = new String(all, start, offsets.get(i + 1) - start, StandardCharsets.UTF_8);
+    }
+    return strings;
+  }
+}
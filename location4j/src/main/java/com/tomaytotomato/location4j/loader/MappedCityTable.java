@@ -0,0 +1,389 @@
+package com.tomaytotomato.location4j.loader;
+
+import com.tomaytotomato.location4j.index.CityPoints;
+import com.tomaytotomato.location4j.index.TextLookup;
+import com.tomaytotomato.location4j.loader.ColumnarDataReader.Columns;
+import com.tomaytotomato.location4j.model.lookup.City;
+import com.tomaytotomato.location4j.model.lookup.State;
+import com.tomaytotomato.location4j.model.lookup.TimeZone;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The city table of a columnar data file, left in its (memory-mapped) buffer.
+ * <p>
+ * A {@link City} is only built the first time its row is read and is then cached, so heap usage
+ * grows with the number of distinct cities returned by lookups rather than with the dataset. The
+ * id and name maps are backed by the sorted index sections of the file and are searched in place,
+ * names through the perfect hash stored for them when the file has one. The name map also gives the
+ * coordinates of its cities from the columns, so a spatial index can be built over them without
+ * creating every city.
+ * </p>
+ */
+final class MappedCityTable extends AbstractList<City> implements RandomAccess {
+
+  private final int count;
+  private final IntBuffer ids;
+  private final IntBuffer states;
+  private final IntBuffer names;
+  private final IntBuffer wikiDataIds;
+  private final IntBuffer timeZoneRefs;
+  private final LongBuffer latitudes;
+  private final ByteBuffer latitudeScales;
+  private final LongBuffer longitudes;
+  private final ByteBuffer longitudeScales;
+
+  private final IntBuffer sortedIds;
+  private final IntBuffer idRows;
+
+  private final int nameCount;
+  private final IntBuffer nameKeys;
+  private final IntBuffer nameOffsets;
+  private final IntBuffer nameRows;
+  private final SortedKeyHash nameHash;
+
+  private final ColumnarStringTable strings;
+  private final TimeZone[] timeZones;
+  private final AtomicReferenceArray<City> cities;
+  private State[] stateRows;
+
+  MappedCityTable(Columns cityColumns, Columns idIndexColumns, Columns nameIndexColumns,
+      SortedKeyHash nameHash, ColumnarStringTable strings, TimeZone[] timeZones) {
+    this.nameHash = nameHash;
+    this.strings = strings;
+    this.timeZones = timeZones;
+
+    this.count = cityColumns.count();
+    this.ids = cityColumns.intView(count);
+    this.states = cityColumns.intView(count);
+    this.names = cityColumns.intView(count);
+    this.wikiDataIds = cityColumns.intView(count);
+    this.timeZoneRefs = cityColumns.intView(count);
+    cityColumns.align();
+    this.latitudes = cityColumns.longView(count);
+    this.latitudeScales = cityColumns.byteView(count);
+    cityColumns.align();
+    this.longitudes = cityColumns.longView(count);
+    this.longitudeScales = cityColumns.byteView(count);
+
+    int idCount = idIndexColumns.count();
+    this.sortedIds = idIndexColumns.intView(idCount);
+    this.idRows = idIndexColumns.intView(idCount);
+
+    this.nameCount = nameIndexColumns.count();
+    this.nameKeys = nameIndexColumns.intView(nameCount);
+    this.nameOffsets = nameIndexColumns.intView(nameCount + 1);
+    this.nameRows = nameIndexColumns.intView(nameOffsets.get(nameCount));
+
+    this.cities = new AtomicReferenceArray<>(count);
+  }
+
+  /**
+   * The parent-id column, giving the state row of each city.
+   */
+  IntBuffer stateColumn() {
+    return states.duplicate();
+  }
+
+  void bindStates(State[] stateRows) {
+    this.stateRows = stateRows;
+  }
+
+  @Override
+  public int size() {
+    return count;
+  }
+
+  @Override
+  public City get(int row) {
+    var city = cities.get(row);
+    if (city == null) {
+      city = materialise(row);
+      if (!cities.compareAndSet(row, null, city)) {
+        city = cities.get(row);
+      }
+    }
+    return city;
+  }
+
+  private City materialise(int row) {
+    var state = stateRows[states.get(row)];
+    return City.builder()
+        .id(ColumnarDataReader.integer(ids.get(row)))
+        .name(strings.get(names.get(row)))
+        .state(state)
+        .country(state.getCountry())
+        .latitude(ColumnarDataReader.coordinate(latitudes.get(row), latitudeScales.get(row)))
+        .longitude(ColumnarDataReader.coordinate(longitudes.get(row), longitudeScales.get(row)))
+        .timezone(ColumnarDataReader.timeZone(timeZones, timeZoneRefs.get(row)))
+        .wikiDataId(strings.get(wikiDataIds.get(row)))
+        .build();
+  }
+
+  /**
+   * A lookup of cities by id, searched in the sorted id index.
+   */
+  Map<Integer, City> idMap() {
+    return new IdMap();
+  }
+
+  /**
+   * A lookup of cities by normalised name, searched in the sorted name index.
+   */
+  Map<String, List<City>> nameMap() {
+    return new NameMap();
+  }
+
+  private int findIdRow(int id) {
+    int low = 0;
+    int high = sortedIds.limit() - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int midId = sortedIds.get(mid);
+      if (midId < id) {
+        low = mid + 1;
+      } else if (midId > id) {
+        high = mid - 1;
+      } else {
+        return idRows.get(mid);
+      }
+    }
+    return -1;
+  }
+
+  private int findName(CharSequence name, int start, int end) {
+    if (nameHash != null) {
+      int index = nameHash.candidate(name, start, end);
+      return index >= 0 && strings.compare(nameKeys.get(index), name, start, end) == 0 ? index : -1;
+    }
+    int low = 0;
+    int high = nameCount - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int comparison = strings.compare(nameKeys.get(mid), name, start, end);
+      if (comparison < 0) {
+        low = mid + 1;
+      } else if (comparison > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  private List<City> citiesNamed(int name) {
+    return new RowList(nameOffsets.get(name), nameOffsets.get(name + 1));
+  }
+
+  /**
+   * Cities whose rows are listed in a range of the name index.
+   */
+  private final class RowList extends AbstractList<City> implements RandomAccess {
+
+    private final int from;
+    private final int to;
+
+    RowList(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public City get(int index) {
+      if (index < 0 || index >= size()) {
+        throw new IndexOutOfBoundsException(index);
+      }
+      return MappedCityTable.this.get(nameRows.get(from + index));
+    }
+
+    @Override
+    public int size() {
+      return to - from;
+    }
+  }
+
+  private final class IdMap extends AbstractMap<Integer, City> {
+
+    @Override
+    public City get(Object key) {
+      if (key instanceof Integer id) {
+        int row = findIdRow(id);
+        return row < 0 ? null : MappedCityTable.this.get(row);
+      }
+      return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return key instanceof Integer id && findIdRow(id) >= 0;
+    }
+
+    @Override
+    public int size() {
+      return sortedIds.limit();
+    }
+
+    @Override
+    public Set<Integer> keySet() {
+      // Iterate the id index directly, without creating the cities
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Integer> iterator() {
+          return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+              return next < sortedIds.limit();
+            }
+
+            @Override
+            public Integer next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+              return sortedIds.get(next++);
+            }
+          };
+        }
+
+        @Override
+        public boolean contains(Object key) {
+          return containsKey(key);
+        }
+
+        @Override
+        public int size() {
+          return sortedIds.limit();
+        }
+      };
+    }
+
+    @Override
+    public Set<Entry<Integer, City>> entrySet() {
+      return new IndexEntrySet<>(size()) {
+        @Override
+        Entry<Integer, City> entry(int index) {
+          return new SimpleImmutableEntry<>(sortedIds.get(index),
+              MappedCityTable.this.get(idRows.get(index)));
+        }
+      };
+    }
+  }
+
+  private final class NameMap extends AbstractMap<String, List<City>>
+      implements TextLookup<List<City>>, CityPoints {
+
+    @Override
+    public List<City> get(Object key) {
+      if (key instanceof String name) {
+        return get(name, 0, name.length());
+      }
+      return null;
+    }
+
+    @Override
+    public List<City> get(CharSequence text, int start, int end) {
+      Objects.checkFromToIndex(start, end, text.length());
+      int index = findName(text, start, end);
+      return index < 0 ? null : citiesNamed(index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return key instanceof String name && findName(name, 0, name.length()) >= 0;
+    }
+
+    @Override
+    public int size() {
+      return nameCount;
+    }
+
+    /**
+     * Counts the cities of every name, in the order the values of this map list them.
+     */
+    @Override
+    public int count() {
+      return nameRows.limit();
+    }
+
+    @Override
+    public double latitude(int index) {
+      int row = nameRows.get(index);
+      return ColumnarDataReader.coordinateDouble(latitudes.get(row), latitudeScales.get(row));
+    }
+
+    @Override
+    public double longitude(int index) {
+      int row = nameRows.get(index);
+      return ColumnarDataReader.coordinateDouble(longitudes.get(row), longitudeScales.get(row));
+    }
+
+    @Override
+    public City city(int index) {
+      return MappedCityTable.this.get(nameRows.get(index));
+    }
+
+    @Override
+    public Set<Entry<String, List<City>>> entrySet() {
+      return new IndexEntrySet<>(nameCount) {
+        @Override
+        Entry<String, List<City>> entry(int index) {
+          return new SimpleImmutableEntry<>(strings.get(nameKeys.get(index)), citiesNamed(index));
+        }
+      };
+    }
+  }
+
+  /**
+   * Read-only entry set that creates each entry as it is iterated.
+   */
+  private abstract static class IndexEntrySet<K, V> extends AbstractSet<Map.Entry<K, V>> {
+
+    private final int size;
+
+    IndexEntrySet(int size) {
+      this.size = size;
+    }
+
+    abstract Map.Entry<K, V> entry(int index);
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+      return new Iterator<>() {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+          return next < size;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          return entry(next++);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
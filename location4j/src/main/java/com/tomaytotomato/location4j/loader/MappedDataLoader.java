@@ -0,0 +1,254 @@
+package com.tomaytotomato.location4j.loader;
+
+import com.tomaytotomato.location4j.model.Location4JData;
+import com.tomaytotomato.location4j.model.lookup.City;
+import com.tomaytotomato.location4j.model.lookup.Country;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.nio.file.attribute.UserPrincipalNotFoundException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Memory-maps the columnar dataset (DEFAULT_FILE) instead of reading it onto the heap.
+ * <p>
+ * When the dataset is packaged inside a jar it is extracted once to a cache directory and mapped
+ * from there on subsequent loads. Countries and states are decoded up front, while {@link City}
+ * entities are only created when a lookup first returns them. The city id and name maps are
+ * backed by sorted indexes in the mapped file, so start-up time and heap usage no longer grow with
+ * the number of cities.
+ * </p>
+ */
+public class MappedDataLoader implements DataLoader {
+
+  private static final Logger logger = Logger.getLogger(MappedDataLoader.class.getName());
+  private static final int BUFFER_BYTES = 1 << 16;
+
+  private final Path cacheDirectory;
+  private Location4JData location4JData;
+
+  /**
+   * Maps the columnar dataset, extracting it to {@code ${java.io.tmpdir}/location4j-${user.name}}
+   * if needed.
+   */
+  public MappedDataLoader() {
+    this(Path.of(System.getProperty("java.io.tmpdir"),
+        "location4j-" + System.getProperty("user.name").replaceAll("[^A-Za-z0-9._-]", "_")));
+  }
+
+  /**
+   * Maps the columnar dataset, extracting it to the given directory if needed.
+   *
+   * @param cacheDirectory where the dataset is extracted to when it is packaged inside a jar,
+   *                       created readable by the current user only
+   */
+  public MappedDataLoader(Path cacheDirectory) {
+    if (Objects.isNull(cacheDirectory)) {
+      throw new IllegalArgumentException("Cache directory cannot be null");
+    }
+    this.cacheDirectory = cacheDirectory;
+    loadData();
+  }
+
+  protected void loadData() {
+    var url = this.getClass().getResource(ColumnarDataLoader.DEFAULT_FILE);
+    if (url == null) {
+      throw new IllegalArgumentException("File not found: " + ColumnarDataLoader.DEFAULT_FILE);
+    }
+
+    try (FileChannel channel = FileChannel.open(resolve(url, cacheDirectory),
+        StandardOpenOption.READ)) {
+      var buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+      location4JData = ColumnarDataReader.open(buffer).readMappedLocation4JData();
+      logger.info("Location4J columnar data mapped successfully");
+    } catch (IOException e) {
+      logger.severe("Failed to map Location4J columnar data: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Finds a file that can be mapped for the resource, extracting it to the cache directory when it
+   * is not already on the file system.
+   * <p>
+   * The extracted file is named after the length and CRC-32 of the resource, and is only reused
+   * once its size, header and checksum match, so a stale or tampered file is extracted again. As a
+   * mapped file that is truncated crashes the JVM, the cache directory must belong to the current
+   * user and not be writable by anyone else, otherwise a new private directory is used instead.
+   * </p>
+   *
+   * @param url            the columnar data resource
+   * @param cacheDirectory where the resource is extracted to when it is not a file
+   * @return the file to map
+   * @throws IOException if the resource cannot be read or extracted
+   */
+  static Path resolve(URL url, Path cacheDirectory) throws IOException {
+    if ("file".equals(url.getProtocol())) {
+      try {
+        return Path.of(url.toURI());
+      } catch (URISyntaxException e) {
+        throw new IOException("Invalid resource location: " + url, e);
+      }
+    }
+
+    URLConnection connection = url.openConnection();
+    long length;
+    long crc;
+    if (connection instanceof JarURLConnection jarConnection
+        && jarConnection.getJarEntry().getCrc() != -1) {
+      // Zip entries record the checksum of their contents, so the resource is not read twice
+      length = jarConnection.getJarEntry().getSize();
+      crc = jarConnection.getJarEntry().getCrc();
+    } else {
+      var checksum = new CRC32();
+      try (var inputStream = new CheckedInputStream(url.openStream(), checksum)) {
+        length = inputStream.transferTo(OutputStream.nullOutputStream());
+      }
+      crc = checksum.getValue();
+    }
+
+    var directory = secureDirectory(cacheDirectory);
+    var cached = directory.resolve("location4j-columnar-" + Long.toHexString(length) + "-"
+        + Long.toHexString(crc) + ".bin");
+    if (isValid(cached, length, crc)) {
+      return cached;
+    }
+    if (!directory.equals(cacheDirectory)) {
+      cached.toFile().deleteOnExit();
+    }
+
+    var temporary = Files.createTempFile(directory, "location4j-columnar-", ".tmp", ownerOnly(
+        directory, PosixFilePermissions.fromString("rw-------")));
+    try (InputStream inputStream = connection.getInputStream();
+        OutputStream outputStream = Files.newOutputStream(temporary)) {
+      // Written into the owner-only temporary file, as copying over it would recreate it
+      inputStream.transferTo(outputStream);
+      outputStream.close();
+      if (!isValid(temporary, length, crc)) {
+        throw new IOException("Extracted Location4J columnar data does not match " + url);
+      }
+      try {
+        Files.move(temporary, cached, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporary, cached, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+    logger.info("Location4J columnar data extracted to " + cached);
+    return cached;
+  }
+
+  /**
+   * Creates the cache directory readable by the current user only, or checks an existing one is
+   * owned by the current user and not writable by others. When it is not, a private temporary
+   * directory is returned that is deleted on exit.
+   */
+  private static Path secureDirectory(Path cacheDirectory) throws IOException {
+    if (!Files.exists(cacheDirectory, LinkOption.NOFOLLOW_LINKS)) {
+      Files.createDirectories(cacheDirectory, ownerOnly(cacheDirectory,
+          PosixFilePermissions.fromString("rwx------")));
+    }
+    if (isPrivate(cacheDirectory)) {
+      return cacheDirectory;
+    }
+
+    logger.warning("Location4J cache directory " + cacheDirectory
+        + " is shared with other users, extracting to a private directory instead");
+    var directory = Files.createTempDirectory("location4j-", ownerOnly(cacheDirectory,
+        PosixFilePermissions.fromString("rwx------")));
+    directory.toFile().deleteOnExit();
+    return directory;
+  }
+
+  private static boolean isPrivate(Path directory) throws IOException {
+    if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+      return false;
+    }
+    if (!Files.getFileStore(directory).supportsFileAttributeView(PosixFileAttributeView.class)) {
+      return true;
+    }
+
+    var attributes = Files.readAttributes(directory, PosixFileAttributes.class,
+        LinkOption.NOFOLLOW_LINKS);
+    UserPrincipal user;
+    try {
+      user = directory.getFileSystem().getUserPrincipalLookupService()
+          .lookupPrincipalByName(System.getProperty("user.name"));
+    } catch (UserPrincipalNotFoundException e) {
+      return false;
+    }
+    return attributes.owner().equals(user)
+        && !attributes.permissions().contains(PosixFilePermission.GROUP_WRITE)
+        && !attributes.permissions().contains(PosixFilePermission.OTHERS_WRITE);
+  }
+
+  private static FileAttribute<?>[] ownerOnly(Path path, Set<PosixFilePermission> permissions) {
+    return path.getFileSystem().supportedFileAttributeViews().contains("posix")
+        ? new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(permissions)}
+        : new FileAttribute<?>[0];
+  }
+
+  /**
+   * Checks a regular file holds a supported columnar data file with the expected length and CRC-32,
+   * reading it instead of mapping it so a corrupt file cannot fault the mapping.
+   */
+  private static boolean isValid(Path file, long length, long crc) throws IOException {
+    if (!Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS) || Files.size(file) != length) {
+      return false;
+    }
+
+    var checksum = new CRC32();
+    var buffer = ByteBuffer.allocate(BUFFER_BYTES).order(ColumnarDataFormat.BYTE_ORDER);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      boolean header = true;
+      while (channel.read(buffer) != -1 || buffer.position() > 0) {
+        buffer.flip();
+        if (header) {
+          if (buffer.remaining() < ColumnarDataFormat.HEADER_BYTES
+              || buffer.getInt(0) != ColumnarDataFormat.MAGIC
+              || buffer.getInt(4) != ColumnarDataFormat.VERSION) {
+            return false;
+          }
+          header = false;
+        }
+        checksum.update(buffer);
+        buffer.clear();
+      }
+    }
+    return checksum.getValue() == crc;
+  }
+
+  @Override
+  public List<Country> getCountries() {
+    return location4JData.getCountries();
+  }
+
+  @Override
+  public Location4JData getLocation4JData() {
+    return location4JData;
+  }
+}
@@ -0,0 +1,175 @@
+package com.tomaytotomato.location4j.loader;
+
+import static com.tomaytotomato.location4j.loader.ColumnarDataFormat.POSTING_ROW_MASK;
+
+import com.tomaytotomato.location4j.index.TextLookup;
+import com.tomaytotomato.location4j.loader.ColumnarDataReader.Columns;
+import com.tomaytotomato.location4j.model.LocationMatches;
+import com.tomaytotomato.location4j.model.lookup.City;
+import com.tomaytotomato.location4j.model.lookup.Country;
+import com.tomaytotomato.location4j.model.lookup.State;
+import java.nio.IntBuffer;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The search dictionary of a columnar data file, searched in its (memory-mapped) buffer.
+ * <p>
+ * Keys are found through the perfect hash stored for the sorted key column, or by binary search
+ * when the file has none. The postings of a key are decoded
+ * the first time it is looked up and then cached, with the matched cities returned as a view over
+ * the postings, so they are only created when they are read.
+ * </p>
+ */
+final class MappedSearchDictionary extends AbstractMap<String, LocationMatches>
+    implements TextLookup<LocationMatches> {
+
+  private final int count;
+  private final IntBuffer keys;
+  private final IntBuffer offsets;
+  private final IntBuffer postings;
+  private final SortedKeyHash keyHash;
+  private final ColumnarStringTable strings;
+  private final Country[] countries;
+  private final State[] states;
+  private final MappedCityTable cityTable;
+  private final AtomicReferenceArray<LocationMatches> decoded;
+
+  MappedSearchDictionary(Columns columns, SortedKeyHash keyHash, ColumnarStringTable strings,
+      Country[] countries, State[] states, MappedCityTable cityTable) {
+    this.keyHash = keyHash;
+    this.count = columns.count();
+    this.keys = columns.intView(count);
+    this.offsets = columns.intView(count + 1);
+    this.postings = columns.intView(offsets.get(count));
+    this.strings = strings;
+    this.countries = countries;
+    this.states = states;
+    this.cityTable = cityTable;
+    this.decoded = new AtomicReferenceArray<>(count);
+  }
+
+  @Override
+  public LocationMatches get(CharSequence text, int start, int end) {
+    Objects.checkFromToIndex(start, end, text.length());
+    int index = find(text, start, end);
+    return index < 0 ? null : matches(index);
+  }
+
+  @Override
+  public LocationMatches get(Object key) {
+    if (key instanceof String text) {
+      return get(text, 0, text.length());
+    }
+    return null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof String text && find(text, 0, text.length()) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return count;
+  }
+
+  @Override
+  public Set<Entry<String, LocationMatches>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<String, LocationMatches>> iterator() {
+        return new Iterator<>() {
+          private int next;
+
+          @Override
+          public boolean hasNext() {
+            return next < count;
+          }
+
+          @Override
+          public Entry<String, LocationMatches> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            int index = next++;
+            return new SimpleImmutableEntry<>(strings.get(keys.get(index)), matches(index));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return count;
+      }
+    };
+  }
+
+  private int find(CharSequence text, int start, int end) {
+    if (keyHash != null) {
+      int index = keyHash.candidate(text, start, end);
+      return index >= 0 && strings.compare(keys.get(index), text, start, end) == 0 ? index : -1;
+    }
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int comparison = strings.compare(keys.get(mid), text, start, end);
+      if (comparison < 0) {
+        low = mid + 1;
+      } else if (comparison > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  private LocationMatches matches(int index) {
+    var matches = decoded.get(index);
+    if (matches == null) {
+      matches = ColumnarDataReader.matches(postings, offsets.get(index), offsets.get(index + 1),
+          countries, states, PostingList::new);
+      if (!decoded.compareAndSet(index, null, matches)) {
+        matches = decoded.get(index);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Cities whose rows are held in a range of city postings.
+   */
+  private final class PostingList extends AbstractList<City> implements RandomAccess {
+
+    private final int from;
+    private final int to;
+
+    PostingList(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public City get(int index) {
+      if (index < 0 || index >= size()) {
+        throw new IndexOutOfBoundsException(index);
+      }
+      return cityTable.get(postings.get(from + index) & POSTING_ROW_MASK);
+    }
+
+    @Override
+    public int size() {
+      return to - from;
+    }
+  }
+}
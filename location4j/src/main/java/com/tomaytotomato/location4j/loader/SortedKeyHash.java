@@ -0,0 +1,45 @@
+package com.tomaytotomato.location4j.loader;
+
+import com.tomaytotomato.location4j.index.PerfectHash;
+import com.tomaytotomato.location4j.loader.ColumnarDataReader.Columns;
+import java.nio.IntBuffer;
+
+/**
+ * A minimal perfect hash stored alongside a sorted key column of a columnar data file, giving the
+ * position in the column of the only key a text can be equal to.
+ */
+final class SortedKeyHash {
+
+  private final PerfectHash hash;
+  private final IntBuffer indexes;
+
+  SortedKeyHash(Columns columns) {
+    int count = columns.count();
+    int bucketCount = columns.count();
+    long seed = columns.longView(1).get(0);
+    this.hash = PerfectHash.of(seed, count, columns.ints(bucketCount));
+    this.indexes = columns.intView(count);
+  }
+
+  /**
+   * Returns the position of the key that the characters in {@code [start, end)} of the text would
+   * have to equal. The caller must compare the key at that position with the text.
+   *
+   * @return the position in the sorted key column, or -1 when the column is empty
+   */
+  int candidate(CharSequence text, int start, int end) {
+    int slot = hash.slot(text, start, end);
+    return slot < 0 ? -1 : indexes.get(slot);
+  }
+
+  PerfectHash hash() {
+    return hash;
+  }
+
+  /**
+   * @return the position in the sorted key column of the key held by a slot of {@link #hash()}
+   */
+  int index(int slot) {
+    return indexes.get(slot);
+  }
+}
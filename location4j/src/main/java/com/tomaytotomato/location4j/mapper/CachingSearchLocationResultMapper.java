@@ -0,0 +1,113 @@
+package com.tomaytotomato.location4j.mapper;
+
+import com.tomaytotomato.location4j.index.DenseIds;
+import com.tomaytotomato.location4j.index.LocationIndex;
+import com.tomaytotomato.location4j.model.lookup.City;
+import com.tomaytotomato.location4j.model.lookup.Country;
+import com.tomaytotomato.location4j.model.lookup.State;
+import com.tomaytotomato.location4j.model.lookup.TimeZone;
+import com.tomaytotomato.location4j.model.search.CityResult;
+import com.tomaytotomato.location4j.model.search.CountryResult;
+import com.tomaytotomato.location4j.model.search.StateResult;
+import com.tomaytotomato.location4j.model.search.TimeZoneResult;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Maps each country, state and city of a {@link LocationIndex} once and returns the same result
+ * instance every time it is mapped again.
+ * <p>
+ * Results are immutable, so they can be shared by every search. They are created by another mapper
+ * the first time an entity is mapped and kept in arrays indexed by the dense ordinal of the
+ * entity's id, so a repeated result costs an array read and allocates nothing. Entities that are
+ * not in the index are mapped every time. Two threads mapping the same entity at once may both
+ * create its result, one of which is kept.
+ * </p>
+ * <p>
+ * Wrapping a {@link LazySearchLocationResultMapper} keeps the cached results small, as the cities
+ * of each state are only mapped when they are read.
+ * </p>
+ */
+public class CachingSearchLocationResultMapper implements SearchLocationResultMapper {
+
+  private final SearchLocationResultMapper delegate;
+  private final ResultCache<Country, CountryResult> countries;
+  private final ResultCache<State, StateResult> states;
+  private final ResultCache<City, CityResult> cities;
+
+  /**
+   * @param delegate      the mapper creating the results
+   * @param locationIndex the index holding the entities to cache results for
+   */
+  public CachingSearchLocationResultMapper(SearchLocationResultMapper delegate,
+      LocationIndex locationIndex) {
+    if (Objects.isNull(delegate)) {
+      throw new IllegalArgumentException("Mapper cannot be null");
+    } else if (Objects.isNull(locationIndex)) {
+      throw new IllegalArgumentException("LocationIndex cannot be null");
+    }
+    this.delegate = delegate;
+    this.countries = new ResultCache<>(locationIndex.getCountryIds(), Country::getId,
+        delegate::toCountryResult);
+    this.states = new ResultCache<>(locationIndex.getStateIds(), State::getId,
+        delegate::toStateResult);
+    this.cities = new ResultCache<>(locationIndex.getCityIds(), City::getId,
+        delegate::toCityResult);
+  }
+
+  @Override
+  public CountryResult toCountryResult(Country country) {
+    return countries.get(country);
+  }
+
+  @Override
+  public StateResult toStateResult(State state) {
+    return states.get(state);
+  }
+
+  @Override
+  public CityResult toCityResult(City city) {
+    return cities.get(city);
+  }
+
+  @Override
+  public TimeZoneResult toTimeZoneResult(TimeZone timezone) {
+    return delegate.toTimeZoneResult(timezone);
+  }
+
+  /**
+   * The results of one kind of entity, by dense ordinal.
+   */
+  private static final class ResultCache<E, R> {
+
+    private final DenseIds ids;
+    private final Function<E, Integer> idOf;
+    private final Function<E, R> mapper;
+    private final Object[] results;
+
+    private ResultCache(DenseIds ids, Function<E, Integer> idOf, Function<E, R> mapper) {
+      this.ids = ids;
+      this.idOf = idOf;
+      this.mapper = mapper;
+      this.results = new Object[ids.size()];
+    }
+
+    @SuppressWarnings("unchecked")
+    private R get(E entity) {
+      if (Objects.isNull(entity)) {
+        return null;
+      }
+      var id = idOf.apply(entity);
+      int ordinal = Objects.isNull(id) ? -1 : ids.ordinal(id);
+      if (ordinal < 0) {
+        return mapper.apply(entity);
+      }
+      var result = (R) results[ordinal];
+      if (result == null) {
+        result = mapper.apply(entity);
+        results[ordinal] = result;
+      }
+      return result;
+    }
+  }
+}
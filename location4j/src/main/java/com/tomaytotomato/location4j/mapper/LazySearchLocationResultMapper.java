@@ -0,0 +1,111 @@
+package com.tomaytotomato.location4j.mapper;
+
+import com.tomaytotomato.location4j.model.lookup.City;
+import com.tomaytotomato.location4j.model.lookup.Country;
+import com.tomaytotomato.location4j.model.lookup.State;
+import com.tomaytotomato.location4j.model.lookup.TimeZone;
+import com.tomaytotomato.location4j.model.search.CityResult;
+import com.tomaytotomato.location4j.model.search.CountryResult;
+import com.tomaytotomato.location4j.model.search.StateResult;
+import com.tomaytotomato.location4j.model.search.TimeZoneResult;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Maps search results like {@link DefaultSearchLocationResultMapper}, but leaves the nested
+ * relations unmapped until they are read.
+ * <p>
+ * The cities of a {@link StateResult} and the timezones of a {@link CountryResult} are read-only
+ * views over the loaded data that map each element the first time it is read. A city result
+ * therefore costs a handful of objects instead of one per city of its state, which suits callers
+ * that mostly read the name, id and coordinates. The results are equal to the ones of
+ * {@link DefaultSearchLocationResultMapper} in every other respect.
+ * </p>
+ */
+public class LazySearchLocationResultMapper implements SearchLocationResultMapper {
+
+  @Override
+  public CountryResult toCountryResult(Country country) {
+    if (Objects.isNull(country)) {
+      return null;
+    }
+    return new CountryResult(
+        country.getId(),
+        country.getName(),
+        country.getIso2(),
+        country.getIso3(),
+        country.getLatitude(),
+        country.getLongitude(),
+        new MappedListView<>(country.getTimezones(), this::toTimeZoneResult)
+    );
+  }
+
+  @Override
+  public StateResult toStateResult(State state) {
+    if (Objects.isNull(state)) {
+      return null;
+    }
+    return toStateResult(state,
+        new MappedListView<>(state.getCities(), this::toCityResultWithoutStateCities));
+  }
+
+  @Override
+  public CityResult toCityResult(City city) {
+    if (Objects.isNull(city)) {
+      return null;
+    }
+    return toCityResult(city, toStateResult(city.getState()));
+  }
+
+  @Override
+  public TimeZoneResult toTimeZoneResult(TimeZone timezone) {
+    if (Objects.isNull(timezone)) {
+      return null;
+    }
+    return new TimeZoneResult(
+        timezone.getZoneName(),
+        timezone.getAbbreviation(),
+        timezone.getTzName(),
+        timezone.getGmtOffset(),
+        timezone.getGmtOffsetName()
+    );
+  }
+
+  /**
+   * Prevents a circular dependency by creating a City without the State's other cities
+   */
+  private CityResult toCityResultWithoutStateCities(City city) {
+    if (Objects.isNull(city)) {
+      return null;
+    }
+    var state = city.getState();
+    return toCityResult(city, Objects.isNull(state) ? null : toStateResult(state, List.of()));
+  }
+
+  private StateResult toStateResult(State state, List<CityResult> cities) {
+    return new StateResult(
+        state.getId(),
+        state.getName(),
+        state.getIso2(),
+        state.getIso31662(),
+        state.getLatitude(),
+        state.getLongitude(),
+        toTimeZoneResult(state.getTimezone()),
+        toCountryResult(state.getCountry()),
+        cities
+    );
+  }
+
+  private CityResult toCityResult(City city, StateResult state) {
+    return new CityResult(
+        city.getId(),
+        city.getName(),
+        toCountryResult(city.getCountry()),
+        state,
+        city.getLatitude(),
+        city.getLongitude(),
+        toTimeZoneResult(city.getTimezone()),
+        city.getWikiDataId()
+    );
+  }
+}
@@ -0,0 +1,51 @@
+package com.tomaytotomato.location4j.mapper;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Read-only view of a list that maps each element the first time it is read.
+ * <p>
+ * Nothing is mapped when the view is created, so a result can reference a large relation, such as
+ * the cities of a state, at the cost of one small object. Mapped elements are kept, so reading
+ * an element again returns the same instance. The mapped elements are immutable and held in a
+ * plain array: two threads reading the same element at once may both map it, which is harmless.
+ * </p>
+ *
+ * @param <S> the type of the source elements
+ * @param <T> the type of the mapped elements
+ */
+final class MappedListView<S, T> extends AbstractList<T> implements RandomAccess {
+
+  private final List<S> source;
+  private final Function<? super S, ? extends T> mapper;
+  private Object[] mapped;
+
+  MappedListView(List<S> source, Function<? super S, ? extends T> mapper) {
+    this.source = source;
+    this.mapper = mapper;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T get(int index) {
+    var elements = mapped;
+    if (elements == null) {
+      elements = new Object[source.size()];
+      mapped = elements;
+    }
+    var element = elements[index];
+    if (element == null) {
+      element = mapper.apply(source.get(index));
+      elements[index] = element;
+    }
+    return (T) element;
+  }
+
+  @Override
+  public int size() {
+    return source.size();
+  }
+}
@@ -32,6 +32,7 @@ public class Location4JData implements Serializable {
 
   // SearchLocationService additional data structures
   private Map<String, List<City>> searchCityNameToCitiesMap;
+  private Map<String, LocationMatches> searchDictionary;
 
   public Location4JData() {
   }
@@ -132,5 +133,16 @@ public class Location4JData implements Serializable {
   public void setSearchCityNameToCitiesMap(Map<String, List<City>> searchCityNameToCitiesMap) {
     this.searchCityNameToCitiesMap = searchCityNameToCitiesMap;
   }
-}
 
+  /**
+   * @return every search key mapped to all of its matches, or null for data files written before
+   * the dictionary was added
+   */
+  public Map<String, LocationMatches> getSearchDictionary() {
+    return searchDictionary;
+  }
+
+  public void setSearchDictionary(Map<String, LocationMatches> searchDictionary) {
+    this.searchDictionary = searchDictionary;
+  }
+}
@@ -0,0 +1,200 @@
+package com.tomaytotomato.location4j.model;
+
+import com.tomaytotomato.location4j.model.lookup.City;
+import com.tomaytotomato.location4j.model.lookup.Country;
+import com.tomaytotomato.location4j.model.lookup.State;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Everything a single normalised key matches, across countries, states and cities.
+ * <p>
+ * The search dictionary maps each key to one of these postings, so the search can resolve a token
+ * against every kind of location with one lookup instead of probing a map per kind. A posting
+ * records which {@link MatchType}s the key has, along with the matched entities.
+ * </p>
+ */
+public final class LocationMatches implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The ways a key can match a location. The ordinals are stored in the columnar data file, so new
+   * types must be added at the end.
+   */
+  public enum MatchType {
+    COUNTRY_NAME,
+    COUNTRY_ISO2,
+    COUNTRY_ISO3,
+    STATE_NAME,
+    STATE_CODE,
+    CITY_NAME
+  }
+
+  private final int matchTypes;
+  private final Country countryByName;
+  private final Country countryByIso2;
+  private final Country countryByIso3;
+  private final List<State> statesByName;
+  private final List<State> statesByCode;
+  private final List<City> citiesByName;
+
+  private LocationMatches(Builder builder) {
+    this.matchTypes = builder.matchTypes;
+    this.countryByName = builder.countryByName;
+    this.countryByIso2 = builder.countryByIso2;
+    this.countryByIso3 = builder.countryByIso3;
+    this.statesByName = builder.statesByName;
+    this.statesByCode = builder.statesByCode;
+    this.citiesByName = builder.citiesByName;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Starts a builder with the matches of an existing posting, used to layer extra matches such as
+   * aliases over it.
+   *
+   * @param matches the posting to copy, or null to start empty
+   * @return a builder holding the same matches
+   */
+  public static Builder builder(LocationMatches matches) {
+    var builder = new Builder();
+    if (matches != null) {
+      builder.matchTypes = matches.matchTypes;
+      builder.countryByName = matches.countryByName;
+      builder.countryByIso2 = matches.countryByIso2;
+      builder.countryByIso3 = matches.countryByIso3;
+      builder.statesByName = matches.statesByName;
+      builder.statesByCode = matches.statesByCode;
+      builder.citiesByName = matches.citiesByName;
+    }
+    return builder;
+  }
+
+  /**
+   * Compiles the search dictionary from the separate lookup maps, giving each key one posting with
+   * the values it has in every map.
+   *
+   * @return the postings by normalised key
+   */
+  public static Map<String, LocationMatches> compile(Map<String, Country> countryNameToCountryMap,
+      Map<String, Country> iso2CodeToCountryMap, Map<String, Country> iso3CodeToCountryMap,
+      Map<String, List<State>> stateNameToStatesMap,
+      Map<String, List<State>> stateCodeToStatesMap,
+      Map<String, List<City>> cityNameToCitiesMap) {
+    Map<String, Builder> builders = new HashMap<>();
+    collect(builders, countryNameToCountryMap, Builder::countryByName);
+    collect(builders, iso2CodeToCountryMap, Builder::countryByIso2);
+    collect(builders, iso3CodeToCountryMap, Builder::countryByIso3);
+    collect(builders, stateNameToStatesMap, Builder::statesByName);
+    collect(builders, stateCodeToStatesMap, Builder::statesByCode);
+    collect(builders, cityNameToCitiesMap, Builder::citiesByName);
+
+    Map<String, LocationMatches> dictionary = HashMap.newHashMap(builders.size());
+    builders.forEach((key, builder) -> dictionary.put(key, builder.build()));
+    return dictionary;
+  }
+
+  private static <V> void collect(Map<String, Builder> builders, Map<String, V> map,
+      BiConsumer<Builder, V> setter) {
+    map.forEach((key, value) -> setter.accept(builders.computeIfAbsent(key, k -> new Builder()),
+        value));
+  }
+
+  /**
+   * @return true if the key matches in the given way, even if an alias mapped it to nothing
+   */
+  public boolean has(MatchType matchType) {
+    return (matchTypes & bit(matchType)) != 0;
+  }
+
+  public Country getCountryByName() {
+    return countryByName;
+  }
+
+  public Country getCountryByIso2() {
+    return countryByIso2;
+  }
+
+  public Country getCountryByIso3() {
+    return countryByIso3;
+  }
+
+  public List<State> getStatesByName() {
+    return statesByName;
+  }
+
+  public List<State> getStatesByCode() {
+    return statesByCode;
+  }
+
+  public List<City> getCitiesByName() {
+    return citiesByName;
+  }
+
+  private static int bit(MatchType matchType) {
+    return 1 << matchType.ordinal();
+  }
+
+  public static final class Builder {
+
+    private int matchTypes;
+    private Country countryByName;
+    private Country countryByIso2;
+    private Country countryByIso3;
+    private List<State> statesByName;
+    private List<State> statesByCode;
+    private List<City> citiesByName;
+
+    private Builder() {
+    }
+
+    public Builder countryByName(Country countryByName) {
+      this.countryByName = countryByName;
+      this.matchTypes |= bit(MatchType.COUNTRY_NAME);
+      return this;
+    }
+
+    public Builder countryByIso2(Country countryByIso2) {
+      this.countryByIso2 = countryByIso2;
+      this.matchTypes |= bit(MatchType.COUNTRY_ISO2);
+      return this;
+    }
+
+    public Builder countryByIso3(Country countryByIso3) {
+      this.countryByIso3 = countryByIso3;
+      this.matchTypes |= bit(MatchType.COUNTRY_ISO3);
+      return this;
+    }
+
+    public Builder statesByName(List<State> statesByName) {
+      this.statesByName = statesByName;
+      this.matchTypes |= bit(MatchType.STATE_NAME);
+      return this;
+    }
+
+    public Builder statesByCode(List<State> statesByCode) {
+      this.statesByCode = statesByCode;
+      this.matchTypes |= bit(MatchType.STATE_CODE);
+      return this;
+    }
+
+    public Builder citiesByName(List<City> citiesByName) {
+      this.citiesByName = citiesByName;
+      this.matchTypes |= bit(MatchType.CITY_NAME);
+      return this;
+    }
+
+    public LocationMatches build() {
+      return new LocationMatches(this);
+    }
+  }
+}
@@ -21,10 +21,12 @@ public class City implements Serializable {
   private String name;
   private Country country;
   private State state;
-  private BigDecimal latitude;
-  private BigDecimal longitude;
-  private double latitudeDouble = 0.0;
-  private double longitudeDouble = 0.0;
+  private double latitude;
+  private double longitude;
+  private byte latitudeScale = Coordinates.NO_SCALE;
+  private byte longitudeScale = Coordinates.NO_SCALE;
+  private transient BigDecimal latitudeDecimal;
+  private transient BigDecimal longitudeDecimal;
   private TimeZone timezone;
   private String wikiDataId;
 
@@ -48,28 +50,54 @@ public class City implements Serializable {
     return state;
   }
 
+  /**
+   * The latitude at the precision of the source data, created on first access.
+   *
+   * @return the latitude, or null if the city has no decimal latitude
+   */
   public BigDecimal getLatitude() {
-    return latitude;
+    if (Objects.isNull(latitudeDecimal)) {
+      latitudeDecimal = Coordinates.toBigDecimal(latitude, latitudeScale);
+    }
+    return latitudeDecimal;
   }
 
+  /**
+   * The longitude at the precision of the source data, created on first access.
+   *
+   * @return the longitude, or null if the city has no decimal longitude
+   */
   public BigDecimal getLongitude() {
-    return longitude;
+    if (Objects.isNull(longitudeDecimal)) {
+      longitudeDecimal = Coordinates.toBigDecimal(longitude, longitudeScale);
+    }
+    return longitudeDecimal;
   }
 
   public double getLatitudeDouble() {
-    // If double value is not set (0.0) but BigDecimal value exists, convert it
-    if (latitudeDouble == 0.0 && latitude != null && latitude.doubleValue() != 0.0) {
-      return latitude.doubleValue();
-    }
-    return latitudeDouble;
+    return latitude;
   }
 
   public double getLongitudeDouble() {
-    // If double value is not set (0.0) but BigDecimal value exists, convert it
-    if (longitudeDouble == 0.0 && longitude != null && longitude.doubleValue() != 0.0) {
-      return longitude.doubleValue();
-    }
-    return longitudeDouble;
+    return longitude;
+  }
+
+  /**
+   * Used by Jackson when reading the source JSON, use the {@link Builder} otherwise.
+   */
+  private void setLatitude(BigDecimal latitude) {
+    this.latitude = Coordinates.toDouble(latitude);
+    this.latitudeScale = Coordinates.scaleOf(latitude);
+    this.latitudeDecimal = null;
+  }
+
+  /**
+   * Used by Jackson when reading the source JSON, use the {@link Builder} otherwise.
+   */
+  private void setLongitude(BigDecimal longitude) {
+    this.longitude = Coordinates.toDouble(longitude);
+    this.longitudeScale = Coordinates.scaleOf(longitude);
+    this.longitudeDecimal = null;
   }
 
   public TimeZone getTimezone() {
@@ -86,20 +114,20 @@ public class City implements Serializable {
       return false;
     }
     City city = (City) o;
-    return Double.compare(getLatitudeDouble(), city.getLatitudeDouble()) == 0
-        && Double.compare(getLongitudeDouble(), city.getLongitudeDouble()) == 0
+    return Double.compare(latitude, city.latitude) == 0
+        && Double.compare(longitude, city.longitude) == 0
+        && latitudeScale == city.latitudeScale && longitudeScale == city.longitudeScale
         && Objects.equals(getId(), city.getId()) && Objects.equals(getName(),
         city.getName()) && Objects.equals(getCountry(), city.getCountry())
-        && Objects.equals(getState(), city.getState()) && Objects.equals(
-        getLatitude(), city.getLatitude()) && Objects.equals(getLongitude(),
-        city.getLongitude()) && Objects.equals(getTimezone(), city.getTimezone())
+        && Objects.equals(getState(), city.getState())
+        && Objects.equals(getTimezone(), city.getTimezone())
         && Objects.equals(getWikiDataId(), city.getWikiDataId());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(getId(), getName(), getCountry(), getState(), getLatitude(), getLongitude(),
-        getLatitudeDouble(), getLongitudeDouble(), getTimezone(), getWikiDataId());
+    return Objects.hash(getId(), getName(), getCountry(), getState(), latitude, longitude,
+        latitudeScale, longitudeScale, getTimezone(), getWikiDataId());
   }
 
   public static Builder builder() {
@@ -152,11 +180,19 @@ public class City implements Serializable {
       return this;
     }
 
+    /**
+     * Sets the latitude when no {@link BigDecimal} latitude is given, in which case
+     * {@link City#getLatitude()} returns null.
+     */
     public Builder latitudeDouble(double latitudeDouble) {
       this.latitudeDouble = latitudeDouble;
       return this;
     }
 
+    /**
+     * Sets the longitude when no {@link BigDecimal} longitude is given, in which case
+     * {@link City#getLongitude()} returns null.
+     */
     public Builder longitudeDouble(double longitudeDouble) {
       this.longitudeDouble = longitudeDouble;
       return this;
@@ -183,11 +219,15 @@ public class City implements Serializable {
       city.name = this.name;
       city.country = this.country;
       city.state = this.state;
-      city.latitudeDouble = this.latitudeDouble;
-      city.longitudeDouble = this.longitudeDouble;
       city.timezone = this.timezone;
-      city.latitude = this.latitude;
-      city.longitude = this.longitude;
+      city.setLatitude(this.latitude);
+      city.setLongitude(this.longitude);
+      if (Objects.isNull(this.latitude)) {
+        city.latitude = this.latitudeDouble;
+      }
+      if (Objects.isNull(this.longitude)) {
+        city.longitude = this.longitudeDouble;
+      }
       city.wikiDataId = this.wikiDataId;
       return city;
     }
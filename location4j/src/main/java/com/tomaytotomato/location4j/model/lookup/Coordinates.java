@@ -0,0 +1,45 @@
+package com.tomaytotomato.location4j.model.lookup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Helpers for storing a coordinate as a primitive double plus the scale of its original
+ * {@link BigDecimal}, so entities only create the {@link BigDecimal} when it is asked for.
+ * <p>
+ * Rebuilding is exact for values with up to 15 significant digits, which covers every coordinate
+ * in the dataset (at most 3 integer and 8 fractional digits).
+ * </p>
+ */
+final class Coordinates {
+
+  /**
+   * Scale recorded when there is no coordinate.
+   */
+  static final byte NO_SCALE = Byte.MIN_VALUE;
+
+  private Coordinates() {
+  }
+
+  static double toDouble(BigDecimal value) {
+    return Objects.isNull(value) ? 0.0 : value.doubleValue();
+  }
+
+  static byte scaleOf(BigDecimal value) {
+    if (Objects.isNull(value)) {
+      return NO_SCALE;
+    }
+    if (value.scale() <= NO_SCALE || value.scale() > Byte.MAX_VALUE) {
+      throw new IllegalArgumentException("Coordinate scale is out of range: " + value);
+    }
+    return (byte) value.scale();
+  }
+
+  static BigDecimal toBigDecimal(double value, byte scale) {
+    if (scale == NO_SCALE) {
+      return null;
+    }
+    return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_EVEN);
+  }
+}
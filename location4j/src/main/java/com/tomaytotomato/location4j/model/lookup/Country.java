@@ -38,8 +38,12 @@ public class Country implements Serializable {
   private String nationality;
   private List<TimeZone> timezones;
   private Map<String, String> translations;
-  private BigDecimal latitude;
-  private BigDecimal longitude;
+  private double latitude;
+  private double longitude;
+  private byte latitudeScale = Coordinates.NO_SCALE;
+  private byte longitudeScale = Coordinates.NO_SCALE;
+  private transient BigDecimal latitudeDecimal;
+  private transient BigDecimal longitudeDecimal;
   private String emoji;
   private String emojiU;
   private Integer population;
@@ -133,13 +137,45 @@ public class Country implements Serializable {
   }
 
   public BigDecimal getLatitude() {
-    return latitude;
+    if (latitudeDecimal == null) {
+      latitudeDecimal = Coordinates.toBigDecimal(latitude, latitudeScale);
+    }
+    return latitudeDecimal;
   }
 
   public BigDecimal getLongitude() {
+    if (longitudeDecimal == null) {
+      longitudeDecimal = Coordinates.toBigDecimal(longitude, longitudeScale);
+    }
+    return longitudeDecimal;
+  }
+
+  public double getLatitudeDouble() {
+    return latitude;
+  }
+
+  public double getLongitudeDouble() {
     return longitude;
   }
 
+  /**
+   * Used by Jackson when reading the source JSON, use the {@link Builder} otherwise.
+   */
+  private void setLatitude(BigDecimal latitude) {
+    this.latitude = Coordinates.toDouble(latitude);
+    this.latitudeScale = Coordinates.scaleOf(latitude);
+    this.latitudeDecimal = null;
+  }
+
+  /**
+   * Used by Jackson when reading the source JSON, use the {@link Builder} otherwise.
+   */
+  private void setLongitude(BigDecimal longitude) {
+    this.longitude = Coordinates.toDouble(longitude);
+    this.longitudeScale = Coordinates.scaleOf(longitude);
+    this.longitudeDecimal = null;
+  }
+
   public String getEmoji() {
     return emoji;
   }
@@ -320,7 +356,7 @@ public class Country implements Serializable {
       country.name = this.name;
       country.phoneCode = this.phoneCode;
       country.iso3 = this.iso3;
-      country.longitude = this.longitude;
+      country.setLongitude(this.longitude);
       country.currencyName = this.currencyName;
       country.numericCode = this.numericCode;
       country.subregionId = this.subregionId;
@@ -336,7 +372,7 @@ public class Country implements Serializable {
       country.emoji = this.emoji;
       country.subregion = this.subregion;
       country.regionId = this.regionId;
-      country.latitude = this.latitude;
+      country.setLatitude(this.latitude);
       country.id = this.id;
       country.states = this.states;
       country.nationality = this.nationality;
@@ -22,8 +22,12 @@ public class State implements Serializable {
   private String iso2;
   private String iso31662;
   private TimeZone timezone;
-  private BigDecimal latitude;
-  private BigDecimal longitude;
+  private double latitude;
+  private double longitude;
+  private byte latitudeScale = Coordinates.NO_SCALE;
+  private byte longitudeScale = Coordinates.NO_SCALE;
+  private transient BigDecimal latitudeDecimal;
+  private transient BigDecimal longitudeDecimal;
   private Country country;
   private List<City> cities = new ArrayList<>();
 
@@ -59,13 +63,45 @@ public class State implements Serializable {
   }
 
   public BigDecimal getLatitude() {
-    return latitude;
+    if (latitudeDecimal == null) {
+      latitudeDecimal = Coordinates.toBigDecimal(latitude, latitudeScale);
+    }
+    return latitudeDecimal;
   }
 
   public BigDecimal getLongitude() {
+    if (longitudeDecimal == null) {
+      longitudeDecimal = Coordinates.toBigDecimal(longitude, longitudeScale);
+    }
+    return longitudeDecimal;
+  }
+
+  public double getLatitudeDouble() {
+    return latitude;
+  }
+
+  public double getLongitudeDouble() {
     return longitude;
   }
 
+  /**
+   * Used by Jackson when reading the source JSON, use the {@link Builder} otherwise.
+   */
+  private void setLatitude(BigDecimal latitude) {
+    this.latitude = Coordinates.toDouble(latitude);
+    this.latitudeScale = Coordinates.scaleOf(latitude);
+    this.latitudeDecimal = null;
+  }
+
+  /**
+   * Used by Jackson when reading the source JSON, use the {@link Builder} otherwise.
+   */
+  private void setLongitude(BigDecimal longitude) {
+    this.longitude = Coordinates.toDouble(longitude);
+    this.longitudeScale = Coordinates.scaleOf(longitude);
+    this.longitudeDecimal = null;
+  }
+
   public List<City> getCities() {
     return cities;
   }
@@ -155,8 +191,8 @@ public class State implements Serializable {
       state.iso2 = this.iso2;
       state.iso31662 = this.iso31662;
       state.timezone = this.timezone;
-      state.latitude = this.latitude;
-      state.longitude = this.longitude;
+      state.setLatitude(this.latitude);
+      state.setLongitude(this.longitude);
       state.country = this.country;
       state.cities = this.cities;
       return state;
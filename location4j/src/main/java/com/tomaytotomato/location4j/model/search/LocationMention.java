@@ -0,0 +1,25 @@
+package com.tomaytotomato.location4j.model.search;
+
+import java.util.List;
+
+/**
+ * A location name mentioned in a document, with the locations it may refer to.
+ * <p>
+ * A name can refer to several locations, for example "Georgia" is both a country and a state, so
+ * every location with the name is listed and picking one is left to the caller.
+ * </p>
+ *
+ * @param start      the index of the first character of the mention in the document
+ * @param end        the index after the last character of the mention in the document
+ * @param countryIds the ids of the countries with the name
+ * @param stateIds   the ids of the states with the name
+ * @param cityIds    the ids of the cities with the name
+ */
+public record LocationMention(
+    int start,
+    int end,
+    List<Integer> countryIds,
+    List<Integer> stateIds,
+    List<Integer> cityIds
+) {
+}
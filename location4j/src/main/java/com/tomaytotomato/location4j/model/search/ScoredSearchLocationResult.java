@@ -0,0 +1,17 @@
+package com.tomaytotomato.location4j.model.search;
+
+/**
+ * A search result with the score that ranked it.
+ * <p>
+ * The score counts the search tokens that matched the location, its state and its country, so
+ * candidates reinforced by more of the text score higher.
+ * </p>
+ *
+ * @param location the matching location
+ * @param score    the composite score of the location, at least 1
+ */
+public record ScoredSearchLocationResult(
+    SearchLocationResult location,
+    int score
+) {
+}
@@ -1,20 +1,132 @@
 package com.tomaytotomato.location4j.text.normaliser;
 
+import java.util.Locale;
 import java.util.Objects;
 
 /**
  * Default text normaliser, lowercases text, removes unnecessary punctuation characters and spaces
+ * <p>
+ * The result is the same as {@code text.trim().toLowerCase().replaceAll("\\p{Punct}", "")
+ * .replaceAll("\\s+", " ")}, computed in a single pass over the characters. ASCII text is lowercased
+ * while scanning, text that is already normalised is returned as is, and otherwise only the result
+ * is allocated.
+ * </p>
  */
 public class DefaultTextNormaliser implements TextNormaliser {
 
+  /**
+   * Bits set for the ASCII punctuation characters matched by {@code \p{Punct}}, split over two
+   * longs for code points 0-63 and 64-127.
+   */
+  private static final long PUNCTUATION_LOW = asciiMask(0, "!\"#$%&'()*+,-./:;<=>?");
+  private static final long PUNCTUATION_HIGH = asciiMask(64, "@[\\]^_`{|}~");
+
+  /**
+   * Bits set for the whitespace characters matched by {@code \s}: space, \t, \n, \u000B, \f, \r.
+   */
+  private static final long WHITESPACE = asciiMask(0, " \t\n\u000B\f\r");
+
+  private static final int REMOVED = -1;
+
   @Override
   public String normalise(String text) {
     if (Objects.isNull(text) || text.isEmpty()) {
       throw new IllegalArgumentException("Text cannot be null or empty");
     }
-    return text.trim()
-        .toLowerCase()
-        .replaceAll("\\p{Punct}", "")
-        .replaceAll("\\s+", " ");
+
+    // Same bounds as String.trim()
+    int start = 0;
+    int end = text.length();
+    while (start < end && text.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && text.charAt(end - 1) <= ' ') {
+      end--;
+    }
+
+    var source = text;
+    if (!isAsciiLowerCaseSafe(text, start, end)) {
+      // Non-ASCII lowercasing can depend on the locale or surrounding characters
+      source = text.substring(start, end).toLowerCase();
+      start = 0;
+      end = source.length();
+    }
+    return normaliseAscii(source, start, end);
+  }
+
+  /**
+   * Lowercases ASCII letters, removes punctuation and collapses whitespace runs to a single space.
+   */
+  private static String normaliseAscii(String source, int start, int end) {
+    char[] result = null;
+    int length = 0;
+    boolean inWhitespace = false;
+
+    for (int i = start; i < end; i++) {
+      char c = source.charAt(i);
+      int replacement;
+      if (isPunctuation(c)) {
+        replacement = REMOVED;
+      } else if (isWhitespace(c)) {
+        replacement = inWhitespace ? REMOVED : ' ';
+        inWhitespace = true;
+      } else {
+        replacement = c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+        inWhitespace = false;
+      }
+
+      if (result == null) {
+        if (replacement == c) {
+          continue;
+        }
+        // First change, copy the unchanged prefix
+        result = new char[end - start];
+        length = i - start;
+        source.getChars(start, i, result, 0);
+      }
+      if (replacement != REMOVED) {
+        result[length++] = (char) replacement;
+      }
+    }
+
+    if (result == null) {
+      return start == 0 && end == source.length() ? source : source.substring(start, end);
+    }
+    return new String(result, 0, length);
+  }
+
+  /**
+   * Checks whether {@link String#toLowerCase()} would only map A-Z to a-z for the given range.
+   */
+  private static boolean isAsciiLowerCaseSafe(String text, int start, int end) {
+    var language = Locale.getDefault().getLanguage();
+    if (language.equals("tr") || language.equals("az") || language.equals("lt")) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      if (text.charAt(i) >= 0x80) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isPunctuation(char c) {
+    if (c < 64) {
+      return (PUNCTUATION_LOW & 1L << c) != 0;
+    }
+    return c < 128 && (PUNCTUATION_HIGH & 1L << (c - 64)) != 0;
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c < 64 && (WHITESPACE & 1L << c) != 0;
+  }
+
+  private static long asciiMask(int offset, String characters) {
+    long mask = 0;
+    for (int i = 0; i < characters.length(); i++) {
+      mask |= 1L << (characters.charAt(i) - offset);
+    }
+    return mask;
   }
 }
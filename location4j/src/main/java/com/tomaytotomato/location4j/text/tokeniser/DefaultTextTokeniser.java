@@ -1,7 +1,6 @@
 package com.tomaytotomato.location4j.text.tokeniser;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -23,14 +22,14 @@ import java.util.Objects;
  *   <li>"USA"</li>
  * </ul>
  */
-public class DefaultTextTokeniser implements TextTokeniser {
+public class DefaultTextTokeniser implements SpanTextTokeniser {
 
   /**
    * Tokenises the input text into pairs of adjacent words, followed by individual words.
    * <p>
-   * This method first removes any non-alphanumeric characters except spaces, hyphens, apostrophes,
-   * and periods. Then, it splits the cleaned text by whitespace and forms overlapping pairs of
-   * words. Finally, it adds each word individually to the list of tokens.
+   * Words are runs of letters, numbers, hyphens, apostrophes and periods, any other character
+   * separates them. The words are then formed into overlapping pairs, and finally each word is
+   * added individually to the list of tokens.
    * </p>
    * <p>
    * Example usage:
@@ -50,16 +49,82 @@ public class DefaultTextTokeniser implements TextTokeniser {
       return new ArrayList<>();
     }
 
-    List<String> tokens = new ArrayList<>();
-    text = text.replaceAll("[^\\p{L}\\p{N}\\s\\-'.]", " ").trim();
+    var tokens = new TokenSpans();
+    tokenise(text, tokens);
+    return tokens.toList();
+  }
 
-    String[] parts = text.split("\\s+");
+  /**
+   * Tokenises the input text into the buffer, writing the words separated by single spaces so that
+   * each pair of adjacent words is also a single span.
+   *
+   * @param text   the input text to be tokenised
+   * @param tokens the buffer to write the tokens to
+   */
+  @Override
+  public void tokenise(CharSequence text, TokenSpans tokens) {
+    tokens.clear();
+    if (Objects.isNull(text)) {
+      return;
+    }
+
+    boolean inWord = false;
+    for (int i = 0; i < text.length(); ) {
+      int codePoint = Character.codePointAt(text, i);
+      int charCount = Character.charCount(codePoint);
+      if (isWordCharacter(codePoint)) {
+        if (!inWord && tokens.length() > 0) {
+          tokens.append(' ');
+        }
+        for (int j = 0; j < charCount; j++) {
+          tokens.append(text.charAt(i + j));
+        }
+        inWord = true;
+      } else {
+        inWord = false;
+      }
+      i += charCount;
+    }
 
-    for (int i = 0; i < parts.length - 1; i++) {
-      tokens.add(parts[i] + " " + parts[i + 1]);
+    // Pairs of adjacent words first
+    int previousStart = -1;
+    for (int start = 0; start < tokens.length(); ) {
+      int end = wordEnd(tokens, start);
+      if (previousStart >= 0) {
+        tokens.addSpan(previousStart, end);
+      }
+      previousStart = start;
+      start = end + 1;
     }
 
-    tokens.addAll(Arrays.asList(parts));
-    return tokens;
+    // Then the individual words
+    for (int start = 0; start < tokens.length(); ) {
+      int end = wordEnd(tokens, start);
+      tokens.addSpan(start, end);
+      start = end + 1;
+    }
+  }
+
+  private static int wordEnd(TokenSpans tokens, int start) {
+    int end = start;
+    while (end < tokens.length() && tokens.charAt(end) != ' ') {
+      end++;
+    }
+    return end;
+  }
+
+  /**
+   * Letters, numbers, hyphens, apostrophes and periods are kept, everything else separates words.
+   */
+  private static boolean isWordCharacter(int codePoint) {
+    if (codePoint == '-' || codePoint == '\'' || codePoint == '.') {
+      return true;
+    }
+    return switch (Character.getType(codePoint)) {
+      case Character.UPPERCASE_LETTER, Character.LOWERCASE_LETTER, Character.TITLECASE_LETTER,
+          Character.MODIFIER_LETTER, Character.OTHER_LETTER, Character.DECIMAL_DIGIT_NUMBER,
+          Character.LETTER_NUMBER, Character.OTHER_NUMBER -> true;
+      default -> false;
+    };
   }
 }
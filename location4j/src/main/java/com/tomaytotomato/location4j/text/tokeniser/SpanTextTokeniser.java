@@ -0,0 +1,17 @@
+package com.tomaytotomato.location4j.text.tokeniser;
+
+/**
+ * A {@link TextTokeniser} that can write its tokens into a reusable {@link TokenSpans} buffer
+ * instead of creating a String per token.
+ */
+public interface SpanTextTokeniser extends TextTokeniser {
+
+  /**
+   * Tokenises the text into the given buffer, clearing anything it held before. The tokens are the
+   * same, and in the same order, as those returned by {@link #tokenise(String)}.
+   *
+   * @param text   the input text to be tokenised
+   * @param tokens the buffer to write the tokens to
+   */
+  void tokenise(CharSequence text, TokenSpans tokens);
+}
@@ -0,0 +1,155 @@
+package com.tomaytotomato.location4j.text.tokeniser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reusable buffer of tokens, held as start/end offsets over a single character buffer.
+ * <p>
+ * A {@link SpanTextTokeniser} writes the text it keeps into the buffer and records each token as a
+ * span of it, so tokenising does not create a String per token. The spans can be probed directly
+ * with a {@link com.tomaytotomato.location4j.index.TextLookup}, using this buffer as the
+ * {@link CharSequence}.
+ * </p>
+ */
+public final class TokenSpans implements CharSequence {
+
+  private char[] chars = new char[64];
+  private int length;
+  private int[] starts = new int[16];
+  private int[] ends = new int[16];
+  private int size;
+
+  /**
+   * Removes all characters and tokens, keeping the allocated capacity.
+   */
+  public void clear() {
+    length = 0;
+    size = 0;
+  }
+
+  /**
+   * Appends a character to the buffer.
+   *
+   * @param c the character to append
+   */
+  public void append(char c) {
+    if (length == chars.length) {
+      chars = Arrays.copyOf(chars, length * 2);
+    }
+    chars[length++] = c;
+  }
+
+  /**
+   * Records a token spanning {@code [start, end)} of the buffer.
+   *
+   * @param start the index of the first character of the token
+   * @param end   the index after the last character of the token
+   */
+  public void addSpan(int start, int end) {
+    if (start < 0 || start > end || end > length) {
+      throw new IllegalArgumentException("Span [" + start + ", " + end
+          + ") is outside of the buffer of length " + length);
+    }
+    if (size == starts.length) {
+      starts = Arrays.copyOf(starts, size * 2);
+      ends = Arrays.copyOf(ends, size * 2);
+    }
+    starts[size] = start;
+    ends[size] = end;
+    size++;
+  }
+
+  /**
+   * Appends a token to the buffer and records its span, for tokenisers that produce Strings.
+   *
+   * @param token the token to add
+   */
+  public void addToken(CharSequence token) {
+    if (Objects.isNull(token)) {
+      throw new IllegalArgumentException("Token cannot be null");
+    }
+    int start = length;
+    for (int i = 0; i < token.length(); i++) {
+      append(token.charAt(i));
+    }
+    addSpan(start, length);
+  }
+
+  /**
+   * @return the number of tokens
+   */
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @param token the token index
+   * @return the index in the buffer of the first character of the token
+   */
+  public int start(int token) {
+    Objects.checkIndex(token, size);
+    return starts[token];
+  }
+
+  /**
+   * @param token the token index
+   * @return the index in the buffer after the last character of the token
+   */
+  public int end(int token) {
+    Objects.checkIndex(token, size);
+    return ends[token];
+  }
+
+  /**
+   * Creates a String for a single token.
+   *
+   * @param token the token index
+   * @return the token text
+   */
+  public String token(int token) {
+    Objects.checkIndex(token, size);
+    return new String(chars, starts[token], ends[token] - starts[token]);
+  }
+
+  /**
+   * Creates a String for every token.
+   *
+   * @return the tokens, in order
+   */
+  public List<String> toList() {
+    List<String> tokens = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      tokens.add(token(i));
+    }
+    return tokens;
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    Objects.checkIndex(index, length);
+    return chars[index];
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    Objects.checkFromToIndex(start, end, length);
+    return new String(chars, start, end - start);
+  }
+
+  @Override
+  public String toString() {
+    return new String(chars, 0, length);
+  }
+}
@@ -1,9 +1,12 @@
 package com.tomaytotomato.location4j.usecase.lookup;
 
+import com.tomaytotomato.location4j.index.Haversine;
 import com.tomaytotomato.location4j.model.lookup.City;
 import java.math.BigDecimal;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface for finding cities based on various known criteria such as ID, Name and Lat/Long.
@@ -53,6 +56,23 @@ public interface FindCity {
    */
   City findClosestCityByLatLong(double latitude, double longitude);
 
+  /**
+   * Retrieve the city closest to the supplied Lat/Long pair without blocking the calling thread.
+   * <p>
+   * The default implementation runs {@link #findClosestCityByLatLong(double, double)} on a new
+   * virtual thread.
+   * </p>
+   *
+   * @param latitude  the latitude to search for
+   * @param longitude the longitude to search for
+   * @return a future of the closest City reference
+   */
+  default CompletableFuture<City> findClosestCityByLatLongAsync(double latitude,
+      double longitude) {
+    return CompletableFuture.supplyAsync(() -> findClosestCityByLatLong(latitude, longitude),
+        Thread::startVirtualThread);
+  }
+
   /**
    * Retrieve the city closest to the supplied Lat/Long pair.
    *
@@ -64,4 +84,75 @@ public interface FindCity {
     return findClosestCityByLatLong(
         Double.parseDouble(latitude), Double.parseDouble(longitude));
   }
+
+  /**
+   * Retrieve the closest city for each of the supplied Lat/Long pairs.
+   *
+   * @param latitudes  the latitudes to search for
+   * @param longitudes the longitudes to search for, the same length as latitudes
+   * @return the closest City reference for each pair, in the same order
+   */
+  default City[] findClosestCities(double[] latitudes, double[] longitudes) {
+    if (latitudes == null || longitudes == null) {
+      throw new IllegalArgumentException("Latitudes and longitudes cannot be null");
+    } else if (latitudes.length != longitudes.length) {
+      throw new IllegalArgumentException("Latitudes and longitudes must be the same length");
+    }
+    var results = new City[latitudes.length];
+    for (int i = 0; i < results.length; i++) {
+      results[i] = findClosestCityByLatLong(latitudes[i], longitudes[i]);
+    }
+    return results;
+  }
+
+  /**
+   * Retrieve the cities closest to the supplied Lat/Long pair, ordered by distance.
+   * <p>
+   * The default implementation measures the distance to every city of {@link #findAllCities()}.
+   * </p>
+   *
+   * @param latitude  the latitude to search for
+   * @param longitude the longitude to search for
+   * @param k         the maximum number of cities to return
+   * @return up to k City references, closest first
+   */
+  default List<City> findNearestCities(double latitude, double longitude, int k) {
+    if (k < 1) {
+      throw new IllegalArgumentException("Number of cities must be greater than zero");
+    }
+    return findAllCities().stream()
+        .sorted(byDistanceFrom(latitude, longitude))
+        .limit(k)
+        .toList();
+  }
+
+  /**
+   * Retrieve every city within a distance of the supplied Lat/Long pair, ordered by distance.
+   * <p>
+   * The default implementation measures the distance to every city of {@link #findAllCities()}.
+   * </p>
+   *
+   * @param latitude  the latitude to search for
+   * @param longitude the longitude to search for
+   * @param radiusKm  the radius in kilometers
+   * @return the City references within the radius, closest first
+   */
+  default List<City> findCitiesWithinRadius(double latitude, double longitude, double radiusKm) {
+    if (Double.isNaN(radiusKm) || radiusKm < 0) {
+      throw new IllegalArgumentException("Radius must be zero or a positive number of kilometers");
+    }
+    return findAllCities().stream()
+        .filter(city -> distance(latitude, longitude, city) <= radiusKm)
+        .sorted(byDistanceFrom(latitude, longitude))
+        .toList();
+  }
+
+  private static Comparator<City> byDistanceFrom(double latitude, double longitude) {
+    return Comparator.comparingDouble(city -> distance(latitude, longitude, city));
+  }
+
+  private static double distance(double latitude, double longitude, City city) {
+    return Haversine.distance(latitude, longitude, city.getLatitudeDouble(),
+        city.getLongitudeDouble());
+  }
 }
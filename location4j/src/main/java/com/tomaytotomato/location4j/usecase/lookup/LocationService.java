@@ -1,8 +1,7 @@
 package com.tomaytotomato.location4j.usecase.lookup;
 
+import com.tomaytotomato.location4j.index.LocationIndex;
 import com.tomaytotomato.location4j.loader.DataLoader;
-import com.tomaytotomato.location4j.loader.DefaultDataLoader;
-import com.tomaytotomato.location4j.model.Location4JData;
 import com.tomaytotomato.location4j.model.lookup.City;
 import com.tomaytotomato.location4j.model.lookup.Country;
 import com.tomaytotomato.location4j.model.lookup.State;
@@ -13,6 +12,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -33,23 +34,36 @@ public class LocationService implements FindCountry, FindState, FindCity {
   private final Map<String, List<City>> cityNameToCitiesMap;
 
   private final TextNormaliser textNormaliser;
+  private final LocationIndex locationIndex;
+  // Runs asynchronous lookups
+  private final Executor executor;
 
   protected LocationService(TextNormaliser textNormaliser, DataLoader dataLoader) {
+    this(textNormaliser, LocationIndex.of(dataLoader));
+  }
+
+  protected LocationService(TextNormaliser textNormaliser, LocationIndex locationIndex) {
+    this(textNormaliser, locationIndex, Thread::startVirtualThread);
+  }
+
+  protected LocationService(TextNormaliser textNormaliser, LocationIndex locationIndex,
+      Executor executor) {
     this.textNormaliser = textNormaliser;
+    this.locationIndex = locationIndex;
+    this.executor = executor;
 
-    // Load pre-built data structures
-    Location4JData location4JData = dataLoader.getLocation4JData();
-    this.countries = location4JData.getCountries();
-    this.countryNameToCountryMap = location4JData.getCountryNameToCountryMap();
-    this.countryIdToCountryMap = location4JData.getCountryIdToCountryMap();
-    this.localisedNameToCountryMap = location4JData.getLocalisedNameToCountryMap();
-    this.iso2CodeToCountryMap = location4JData.getIso2CodeToCountryMap();
-    this.iso3CodeToCountryMap = location4JData.getIso3CodeToCountryMap();
-    this.stateIdToStateMap = location4JData.getStateIdToStateMap();
-    this.cityIdToCityMap = location4JData.getCityIdToCityMap();
-    this.stateNameToStatesMap = location4JData.getStateNameToStatesMap();
-    this.stateCodeToStatesMap = location4JData.getStateCodeToStatesMap();
-    this.cityNameToCitiesMap = location4JData.getCityNameToCitiesMap();
+    // Share pre-built data structures
+    this.countries = locationIndex.getCountries();
+    this.countryNameToCountryMap = locationIndex.getCountryNameToCountryMap();
+    this.countryIdToCountryMap = locationIndex.getCountryIdToCountryMap();
+    this.localisedNameToCountryMap = locationIndex.getLocalisedNameToCountryMap();
+    this.iso2CodeToCountryMap = locationIndex.getIso2CodeToCountryMap();
+    this.iso3CodeToCountryMap = locationIndex.getIso3CodeToCountryMap();
+    this.stateIdToStateMap = locationIndex.getStateIdToStateMap();
+    this.cityIdToCityMap = locationIndex.getCityIdToCityMap();
+    this.stateNameToStatesMap = locationIndex.getStateNameToStatesMap();
+    this.stateCodeToStatesMap = locationIndex.getStateCodeToStatesMap();
+    this.cityNameToCitiesMap = locationIndex.getCityNameToCitiesMap();
   }
 
   public static Builder builder() {
@@ -205,65 +219,90 @@ public class LocationService implements FindCountry, FindState, FindCity {
 
   @Override
   public City findClosestCityByLatLong(double latitude, double longitude) {
-    var cities = cityNameToCitiesMap.values();
-    double[] distance = {Double.MAX_VALUE};
-    City[] city = {null};
-    cities.forEach(
-        it ->
-            it.forEach(
-                (c -> {
-                  var d = haversineDistance(latitude, longitude, 
-                      c.getLatitudeDouble(), c.getLongitudeDouble());
-                  if (d < distance[0]) {
-                    city[0] = c;
-                    distance[0] = d;
-                  }
-                }))
-    );
-    return city[0];
+    return locationIndex.getCityKdTree().findClosest(latitude, longitude);
+  }
+
+  @Override
+  public CompletableFuture<City> findClosestCityByLatLongAsync(double latitude, double longitude) {
+    return CompletableFuture.supplyAsync(() -> findClosestCityByLatLong(latitude, longitude),
+        executor);
   }
 
   /**
-   * Calculate the great circle distance between two points on Earth using the Haversine formula.
-   * 
-   * @param lat1 Latitude of first point in decimal degrees
-   * @param lon1 Longitude of first point in decimal degrees  
-   * @param lat2 Latitude of second point in decimal degrees
-   * @param lon2 Longitude of second point in decimal degrees
-   * @return Distance in kilometers
+   * Resolves the closest city for every Lat/Long pair in parallel. The points are processed in
+   * spatial order on the common fork-join pool, see {@link #findClosestCities(double[], double[],
+   * City[])}.
    */
-  private double haversineDistance(double lat1, double lon1, double lat2, double lon2) {
-    final double R = 6371.0; // Earth's radius in kilometers
-    
-    // Convert degrees to radians
-    double lat1Rad = Math.toRadians(lat1);
-    double lon1Rad = Math.toRadians(lon1);
-    double lat2Rad = Math.toRadians(lat2);
-    double lon2Rad = Math.toRadians(lon2);
-    
-    // Calculate differences
-    double dLat = lat2Rad - lat1Rad;
-    double dLon = lon2Rad - lon1Rad;
-    
-    // Apply Haversine formula
-    double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-               Math.cos(lat1Rad) * Math.cos(lat2Rad) *
-               Math.sin(dLon / 2) * Math.sin(dLon / 2);
-    double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-    
-    return R * c;
+  @Override
+  public City[] findClosestCities(double[] latitudes, double[] longitudes) {
+    if (latitudes == null) {
+      throw new IllegalArgumentException("Latitudes and longitudes cannot be null");
+    }
+    var results = new City[latitudes.length];
+    findClosestCities(latitudes, longitudes, results);
+    return results;
+  }
+
+  /**
+   * Resolves the closest city for every Lat/Long pair in parallel, writing into a caller supplied
+   * array so it can be reused between batches.
+   *
+   * @param latitudes  the latitudes to search for
+   * @param longitudes the longitudes to search for, the same length as latitudes
+   * @param results    receives the closest City for each pair, at least as long as latitudes
+   */
+  public void findClosestCities(double[] latitudes, double[] longitudes, City[] results) {
+    locationIndex.getCityKdTree().findClosest(latitudes, longitudes, results);
+  }
+
+  @Override
+  public List<City> findNearestCities(double latitude, double longitude, int k) {
+    validateLatLong(latitude, longitude);
+    if (k < 1) {
+      throw new IllegalArgumentException("Number of cities must be greater than zero");
+    }
+    return locationIndex.getCityKdTree().findNearest(latitude, longitude, k);
+  }
+
+  @Override
+  public List<City> findCitiesWithinRadius(double latitude, double longitude, double radiusKm) {
+    validateLatLong(latitude, longitude);
+    if (Double.isNaN(radiusKm) || radiusKm < 0) {
+      throw new IllegalArgumentException("Radius must be zero or a positive number of kilometers");
+    }
+    return locationIndex.getCityKdTree().findWithinRadius(latitude, longitude, radiusKm);
+  }
+
+  private void validateLatLong(double latitude, double longitude) {
+    if (!(latitude >= -90 && latitude <= 90)) {
+      throw new IllegalArgumentException("Latitude must be within range of [-90 to 90]");
+    } else if (!(longitude >= -180 && longitude <= 180)) {
+      throw new IllegalArgumentException("Longitude must be within range of [-180 to 180]");
+    }
   }
 
   public static class Builder {
 
     private TextNormaliser textNormaliser = new DefaultTextNormaliser();
-    private DataLoader dataLoader = new DefaultDataLoader();
+    private DataLoader dataLoader;
+    private LocationIndex locationIndex;
+    private Executor executor = Thread::startVirtualThread;
 
     Builder() {
     }
 
     public Builder withDataLoader(DataLoader dataLoader) {
       this.dataLoader = dataLoader;
+      this.locationIndex = null;
+      return this;
+    }
+
+    /**
+     * Shares an existing index instead of indexing the data of a {@link DataLoader}.
+     */
+    public Builder withLocationIndex(LocationIndex locationIndex) {
+      this.locationIndex = locationIndex;
+      this.dataLoader = null;
       return this;
     }
 
@@ -272,8 +311,21 @@ public class LocationService implements FindCountry, FindState, FindCity {
       return this;
     }
 
+    /**
+     * Sets the executor running asynchronous lookups, by default a new virtual thread per lookup.
+     */
+    public Builder withExecutor(Executor executor) {
+      if (Objects.isNull(executor)) {
+        throw new IllegalArgumentException("Executor cannot be null");
+      }
+      this.executor = executor;
+      return this;
+    }
+
     public LocationService build() {
-      return new LocationService(textNormaliser, dataLoader);
+      var index = Objects.nonNull(dataLoader) ? LocationIndex.of(dataLoader)
+          : Objects.isNull(locationIndex) ? LocationIndex.defaultIndex() : locationIndex;
+      return new LocationService(textNormaliser, index, executor);
     }
   }
 }
@@ -0,0 +1,122 @@
+package com.tomaytotomato.location4j.usecase.search;
+
+import com.tomaytotomato.location4j.index.TextKeyMap;
+import com.tomaytotomato.location4j.index.TextLookup;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A map of aliases layered over a shared, read-only base map.
+ * <p>
+ * Keys in the overlay shadow the same keys in the base map. Only the overlay is owned by this map,
+ * so the base can be shared between any number of services. Both can be probed with slices of a
+ * {@link CharSequence}, the overlay through a {@link TextKeyMap} copy made after the last alias is
+ * added. Aliases cannot be null, so a slice is resolved with one probe of the overlay and at most
+ * one of the base.
+ * </p>
+ */
+final class AliasOverlayMap<V> extends AbstractMap<String, V> implements TextLookup<V> {
+
+  private final Map<String, V> base;
+  private final TextLookup<V> baseLookup;
+  private final Map<String, V> overlay = new HashMap<>();
+  private volatile TextKeyMap<V> overlayLookup;
+
+  AliasOverlayMap(Map<String, V> base) {
+    this.base = base;
+    this.baseLookup = TextLookup.of(base);
+  }
+
+  @Override
+  public V put(String key, V value) {
+    if (Objects.isNull(value)) {
+      throw new IllegalArgumentException("Alias value cannot be null");
+    }
+    overlayLookup = null;
+    return overlay.put(key, value);
+  }
+
+  @Override
+  public V get(CharSequence text, int start, int end) {
+    var aliases = overlayLookup;
+    if (aliases == null) {
+      aliases = TextKeyMap.of(overlay);
+      overlayLookup = aliases;
+    }
+    if (!aliases.isEmpty()) {
+      var alias = aliases.get(text, start, end);
+      if (alias != null) {
+        return alias;
+      }
+    }
+    return baseLookup.get(text, start, end);
+  }
+
+  @Override
+  public V get(Object key) {
+    return overlay.containsKey(key) ? overlay.get(key) : base.get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return overlay.containsKey(key) || base.containsKey(key);
+  }
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<String, V>> iterator() {
+        var overlayEntries = overlay.entrySet().iterator();
+        var baseEntries = base.entrySet().iterator();
+        return new Iterator<>() {
+          private Entry<String, V> next;
+
+          @Override
+          public boolean hasNext() {
+            while (next == null) {
+              if (overlayEntries.hasNext()) {
+                next = overlayEntries.next();
+              } else if (baseEntries.hasNext()) {
+                var entry = baseEntries.next();
+                if (!overlay.containsKey(entry.getKey())) {
+                  next = entry;
+                }
+              } else {
+                return false;
+              }
+            }
+            return true;
+          }
+
+          @Override
+          public Entry<String, V> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            var entry = next;
+            next = null;
+            return entry;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        int size = base.size();
+        for (String key : overlay.keySet()) {
+          if (!base.containsKey(key)) {
+            size++;
+          }
+        }
+        return size;
+      }
+    };
+  }
+}
@@ -0,0 +1,31 @@
+package com.tomaytotomato.location4j.usecase.search;
+
+import com.tomaytotomato.location4j.model.search.SearchLocationResult;
+import java.util.List;
+
+/**
+ * Results of a {@link SearchLocation#searchAll(List)} batch, with the throughput it achieved.
+ *
+ * @param results       the locations found for each text, in the order of the searched texts
+ * @param uniqueQueries the number of distinct texts that were searched, compared once normalised
+ *                      by {@link SearchLocationService}
+ * @param workers       the number of threads the searches were split across, at most one per core
+ * @param elapsedNanos  the wall clock time of the batch, in nanoseconds
+ */
+public record BatchSearchResult(List<List<SearchLocationResult>> results, int uniqueQueries,
+    int workers, long elapsedNanos) {
+
+  /**
+   * @return the number of texts searched per second, 0 for an empty batch
+   */
+  public double queriesPerSecond() {
+    return elapsedNanos == 0 ? 0 : results.size() * 1_000_000_000D / elapsedNanos;
+  }
+
+  /**
+   * @return the number of texts searched per second by each worker, 0 for an empty batch
+   */
+  public double queriesPerSecondPerCore() {
+    return workers == 0 ? 0 : queriesPerSecond() / workers;
+  }
+}
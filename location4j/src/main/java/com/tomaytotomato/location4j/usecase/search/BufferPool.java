@@ -0,0 +1,69 @@
+package com.tomaytotomato.location4j.usecase.search;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Small pool of reusable scratch buffers, for per-search state too large to allocate every time.
+ * <p>
+ * Unlike a {@link ThreadLocal}, buffers are not tied to a thread, so virtual threads started per
+ * request share a few buffers instead of each allocating its own. A search takes a buffer and gives
+ * it back when done. When every pooled buffer is taken a new one is created, and a buffer given
+ * back to a full pool is dropped. Taking and giving back only swap array slots, starting from a
+ * slot picked by the thread id so that threads rarely compete for the same one.
+ * </p>
+ *
+ * @param <T> the type of the buffers
+ */
+final class BufferPool<T> {
+
+  private final AtomicReferenceArray<T> buffers;
+  private final Supplier<T> factory;
+
+  BufferPool(int size, Supplier<T> factory) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Size must be positive");
+    } else if (Objects.isNull(factory)) {
+      throw new IllegalArgumentException("Factory cannot be null");
+    }
+    this.buffers = new AtomicReferenceArray<>(size);
+    this.factory = factory;
+  }
+
+  /**
+   * Takes a pooled buffer, or creates one when none is free.
+   *
+   * @return a buffer only used by the caller until it is given back
+   */
+  T acquire() {
+    int start = start();
+    for (int i = 0; i < buffers.length(); i++) {
+      int slot = (start + i) % buffers.length();
+      var buffer = buffers.get(slot);
+      if (buffer != null && buffers.compareAndSet(slot, buffer, null)) {
+        return buffer;
+      }
+    }
+    return factory.get();
+  }
+
+  /**
+   * Gives a buffer back to the pool, dropping it when the pool is full.
+   *
+   * @param buffer a buffer taken with {@link #acquire()}, no longer used by the caller
+   */
+  void release(T buffer) {
+    int start = start();
+    for (int i = 0; i < buffers.length(); i++) {
+      int slot = (start + i) % buffers.length();
+      if (buffers.get(slot) == null && buffers.compareAndSet(slot, null, buffer)) {
+        return;
+      }
+    }
+  }
+
+  private int start() {
+    return (int) (Thread.currentThread().threadId() % buffers.length());
+  }
+}
@@ -0,0 +1,99 @@
+package com.tomaytotomato.location4j.usecase.search;
+
+import com.tomaytotomato.location4j.index.DenseIds;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Counts hits per entity in a reusable {@code int[]} indexed by the entity's dense ordinal.
+ * <p>
+ * Entities are listed in the order of their first hit, and only the counts of those entities are
+ * reset by {@link #clear()}, so a counter can be reused for every search without allocating or
+ * clearing the whole array.
+ * </p>
+ *
+ * @param <E> the type of the entities
+ */
+final class HitCounter<E> {
+
+  private final DenseIds ids;
+  private final Function<E, Integer> idOf;
+  private final int[] counts;
+  private int[] touched = new int[16];
+  private Object[] entities = new Object[16];
+  private int size;
+
+  HitCounter(DenseIds ids, Function<E, Integer> idOf) {
+    this.ids = ids;
+    this.idOf = idOf;
+    this.counts = new int[ids.size()];
+  }
+
+  /**
+   * Adds a hit for an entity. Null entities and entities without an id in the index are ignored.
+   */
+  void hit(E entity) {
+    int ordinal = ordinal(entity);
+    if (ordinal < 0) {
+      return;
+    }
+    if (counts[ordinal]++ == 0) {
+      if (size == touched.length) {
+        touched = Arrays.copyOf(touched, size * 2);
+        entities = Arrays.copyOf(entities, size * 2);
+      }
+      touched[size] = ordinal;
+      entities[size] = entity;
+      size++;
+    }
+  }
+
+  /**
+   * @return the number of hits for the entity, or 0 if it has none
+   */
+  int count(E entity) {
+    int ordinal = ordinal(entity);
+    return ordinal < 0 ? 0 : counts[ordinal];
+  }
+
+  /**
+   * @return the number of entities with at least one hit
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return the entity with the given position in order of first hit
+   */
+  @SuppressWarnings("unchecked")
+  E entity(int index) {
+    return (E) entities[index];
+  }
+
+  /**
+   * @return the number of hits for the entity with the given position in order of first hit
+   */
+  int count(int index) {
+    return counts[touched[index]];
+  }
+
+  /**
+   * Resets the counts of the entities that were hit.
+   */
+  void clear() {
+    for (int i = 0; i < size; i++) {
+      counts[touched[i]] = 0;
+      entities[i] = null;
+    }
+    size = 0;
+  }
+
+  private int ordinal(E entity) {
+    if (entity == null) {
+      return -1;
+    }
+    var id = idOf.apply(entity);
+    return id == null ? -1 : ids.ordinal(id);
+  }
+}
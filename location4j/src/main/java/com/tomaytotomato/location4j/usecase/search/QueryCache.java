@@ -0,0 +1,195 @@
+package com.tomaytotomato.location4j.usecase.search;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of search results, keyed by normalised query text.
+ * <p>
+ * Reads are a {@link ConcurrentHashMap} lookup and never lock. Every read also counts the key in a
+ * small frequency sketch, so the cache can tell frequent queries from one-off ones. The entries are
+ * held in a fixed ring of slots: when the ring is full, a new query is only admitted if it has been
+ * seen more often than the least frequent entry of a few slots after the clock hand, which it then
+ * replaces. One-off queries therefore cannot flush the frequent ones out of the cache.
+ * </p>
+ * <p>
+ * Admission is the only step that locks, and a thread that finds it taken does not wait: its result
+ * is simply not cached, as it would be cached by the next miss anyway.
+ * </p>
+ *
+ * @param <V> the type of the cached results
+ */
+final class QueryCache<V> {
+
+  // Slots compared when looking for an entry to evict
+  private static final int EVICTION_SAMPLE = 8;
+  // Odd multipliers of the rows of the frequency sketch, each counting every key in a different
+  // position
+  private static final long[] SKETCH_ROWS = {0x9E3779B97F4A7C15L, 0xBF58476D1CE4E5B9L,
+      0x94D049BB133111EBL, 0xD6E8FEB86659FD93L};
+  private static final int MAX_FREQUENCY = 15;
+  // Counts are halved after this many reads per slot, so old queries are slowly forgotten
+  private static final int SAMPLES_PER_SLOT = 10;
+
+  private final ConcurrentHashMap<String, V> entries;
+  private final String[] slots;
+  private final byte[] sketch;
+  private final int sketchShift;
+  private final int resetThreshold;
+  private final ReentrantLock admission = new ReentrantLock();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  // Reads counted since the sketch was last halved, updated without synchronisation
+  private int samples;
+  private int hand;
+  private int size;
+
+  QueryCache(int maximumSize) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("Maximum size must be positive");
+    }
+    this.entries = new ConcurrentHashMap<>(Math.min(maximumSize, 1 << 20));
+    this.slots = new String[maximumSize];
+    // Sixteen counters per entry keep collisions between frequent and one-off queries rare
+    int width = Integer.highestOneBit((int) Math.min(Math.max(256, maximumSize * 16L), 1 << 30) - 1)
+        << 1;
+    this.sketch = new byte[width];
+    this.sketchShift = Long.SIZE - Integer.numberOfTrailingZeros(width);
+    this.resetThreshold = (int) Math.min(Integer.MAX_VALUE, (long) SAMPLES_PER_SLOT * maximumSize);
+  }
+
+  /**
+   * Returns the cached results of a query, counting the query as read.
+   *
+   * @param key the normalised query
+   * @return the results, or null when they are not cached
+   */
+  V get(String key) {
+    record(key);
+    var value = entries.get(key);
+    if (value == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return value;
+  }
+
+  /**
+   * Offers the results of a query that missed. They are cached unless the cache is full of more
+   * frequent queries, or another thread is caching results at the same time.
+   *
+   * @param key   the normalised query
+   * @param value the results, not null and never changed afterwards
+   */
+  void put(String key, V value) {
+    if (!admission.tryLock()) {
+      return;
+    }
+    try {
+      if (entries.containsKey(key)) {
+        return;
+      }
+      int slot;
+      if (size < slots.length) {
+        slot = size++;
+      } else {
+        slot = victim();
+        if (frequency(slots[slot]) >= frequency(key)) {
+          return;
+        }
+        entries.remove(slots[slot]);
+      }
+      slots[slot] = key;
+      entries.put(key, value);
+    } finally {
+      admission.unlock();
+    }
+  }
+
+  /**
+   * @return the number of reads that found cached results
+   */
+  long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of reads that found no cached results
+   */
+  long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the number of cached queries
+   */
+  int size() {
+    return entries.size();
+  }
+
+  /**
+   * @return the largest number of cached queries
+   */
+  int maximumSize() {
+    return slots.length;
+  }
+
+  /**
+   * Picks the least frequent of the slots after the clock hand, then moves the hand past them.
+   */
+  private int victim() {
+    int victim = hand;
+    int lowest = Integer.MAX_VALUE;
+    for (int i = 0; i < EVICTION_SAMPLE; i++) {
+      int slot = (hand + i) % slots.length;
+      int frequency = frequency(slots[slot]);
+      if (frequency < lowest) {
+        lowest = frequency;
+        victim = slot;
+      }
+    }
+    hand = (hand + EVICTION_SAMPLE) % slots.length;
+    return victim;
+  }
+
+  /**
+   * Counts a read of the key in each row of the sketch. Concurrent reads may lose an increment,
+   * which only makes the estimate slightly low.
+   */
+  private void record(String key) {
+    int hash = key.hashCode();
+    for (long row : SKETCH_ROWS) {
+      int index = index(hash, row);
+      if (sketch[index] < MAX_FREQUENCY) {
+        sketch[index]++;
+      }
+    }
+    if (++samples >= resetThreshold) {
+      samples = 0;
+      for (int i = 0; i < sketch.length; i++) {
+        sketch[i] >>= 1;
+      }
+    }
+  }
+
+  /**
+   * @return the estimated number of recent reads of the key, the lowest count of its rows
+   */
+  private int frequency(String key) {
+    int hash = key.hashCode();
+    int frequency = MAX_FREQUENCY;
+    for (long row : SKETCH_ROWS) {
+      frequency = Math.min(frequency, sketch[index(hash, row)]);
+    }
+    return frequency;
+  }
+
+  /**
+   * @return the counter of the key in a row, from the top bits of the hash times the row multiplier
+   */
+  private int index(int hash, long row) {
+    return (int) (hash * row >>> sketchShift);
+  }
+}
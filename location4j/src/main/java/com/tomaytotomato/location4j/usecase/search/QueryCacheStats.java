@@ -0,0 +1,20 @@
+package com.tomaytotomato.location4j.usecase.search;
+
+/**
+ * Snapshot of the counters of the query cache of a {@link SearchLocationService}.
+ *
+ * @param hitCount    the number of searches answered from the cache
+ * @param missCount   the number of searches that were not cached
+ * @param size        the number of cached queries
+ * @param maximumSize the largest number of cached queries, 0 when the cache is disabled
+ */
+public record QueryCacheStats(long hitCount, long missCount, int size, int maximumSize) {
+
+  /**
+   * @return the share of searches answered from the cache, 0 before the first search
+   */
+  public double hitRate() {
+    long requests = hitCount + missCount;
+    return requests == 0 ? 0 : (double) hitCount / requests;
+  }
+}
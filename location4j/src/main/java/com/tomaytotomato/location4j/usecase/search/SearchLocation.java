@@ -1,7 +1,16 @@
 package com.tomaytotomato.location4j.usecase.search;
 
+import com.tomaytotomato.location4j.model.search.LocationMention;
+import com.tomaytotomato.location4j.model.search.ScoredSearchLocationResult;
 import com.tomaytotomato.location4j.model.search.SearchLocationResult;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Interface for searching locations based on a free-text input.
@@ -33,4 +42,157 @@ public interface SearchLocation {
    */
   List<SearchLocationResult> search(String text);
 
+  /**
+   * Searches for locations based on a free-text input as by {@link #search(String)}, without
+   * blocking the calling thread.
+   *
+   * <p>
+   * The default implementation runs {@link #search(String)} on a new virtual thread.
+   * </p>
+   *
+   * @param text the free-text input used to search for locations
+   * @return a future of the matching locations, completed exceptionally with an
+   * {@link IllegalArgumentException} when the text is null or empty
+   */
+  default CompletableFuture<List<SearchLocationResult>> searchAsync(String text) {
+    return CompletableFuture.supplyAsync(() -> search(text), Thread::startVirtualThread);
+  }
+
+  /**
+   * Searches for the {@code k} best matching locations of a free-text input, with their scores.
+   * <p>
+   * The input is matched as by {@link #search(String)}, but instead of only the best location, up
+   * to {@code k} candidates are returned in the order {@link #search(String)} prefers them, so the
+   * first one is the first location it returns. Each score counts the parts of the text that
+   * matched the location, its state and its country, letting callers weigh close candidates
+   * themselves.
+   * <p>
+   * The default implementation returns up to {@code k} of the locations found by
+   * {@link #search(String)}, each with a score of 1 as it cannot tell how well they matched.
+   * </p>
+   *
+   * @param text the free-text input used to search for locations
+   * @param k    the maximum number of locations to return
+   * @return a List of up to {@code k} {@link ScoredSearchLocationResult} objects, best first
+   */
+  default List<ScoredSearchLocationResult> search(String text, int k) {
+    if (k < 0) {
+      throw new IllegalArgumentException("K cannot be negative");
+    }
+    return search(text).stream()
+        .limit(k)
+        .map(location -> new ScoredSearchLocationResult(location, 1))
+        .toList();
+  }
+
+  /**
+   * Searches every text of a batch, for example a column of imported addresses.
+   * <p>
+   * Each text is matched as by {@link #search(String)}. Texts that are the same once normalised
+   * are only searched once and share their result, and the distinct texts may be searched in
+   * parallel. A null or empty text finds no locations rather than failing the batch.
+   * <p>
+   * The default implementation searches each distinct text once, one after another, with
+   * {@link #search(String)}.
+   * </p>
+   *
+   * @param texts the free-text inputs used to search for locations
+   * @return the locations found for each text, in the order of the texts, with the throughput
+   */
+  default BatchSearchResult searchAll(List<String> texts) {
+    if (Objects.isNull(texts)) {
+      throw new IllegalArgumentException("Texts cannot be null");
+    }
+    long start = System.nanoTime();
+    Map<String, List<SearchLocationResult>> distinct = new HashMap<>();
+    List<List<SearchLocationResult>> results = new ArrayList<>(texts.size());
+    for (String text : texts) {
+      results.add(Objects.isNull(text) || text.isEmpty() ? List.of()
+          // Shared by every duplicate of the text, so it must not be changed by the caller
+          : distinct.computeIfAbsent(text, key -> List.copyOf(search(key))));
+    }
+    return new BatchSearchResult(results, distinct.size(), 1, System.nanoTime() - start);
+  }
+
+  /**
+   * Searches every text of a batch, as by {@link #searchAll(List)}.
+   *
+   * @param texts the free-text inputs used to search for locations
+   * @return the locations found for each text, in the order of the texts, with the throughput
+   */
+  default BatchSearchResult searchAll(String[] texts) {
+    if (Objects.isNull(texts)) {
+      throw new IllegalArgumentException("Texts cannot be null");
+    }
+    return searchAll(Arrays.asList(texts));
+  }
+
+  /**
+   * Searches every text of a stream lazily, for inputs too long to hold in memory.
+   * <p>
+   * Texts are read and searched a window at a time as the returned stream is consumed, so memory
+   * stays constant however many texts there are. The returned stream has one element per text, in
+   * the encounter order of the texts. A parallel stream of texts only searches each window in
+   * parallel, its results come in the same order as for a sequential one. Closing the returned
+   * stream closes the stream of texts.
+   * <p>
+   * The default implementation searches the texts one at a time with {@link #search(String)}, as
+   * the returned stream is consumed.
+   * </p>
+   *
+   * @param texts the free-text inputs used to search for locations
+   * @return the locations found for each text, in the order of the texts
+   */
+  default Stream<List<SearchLocationResult>> searchAll(Stream<String> texts) {
+    if (Objects.isNull(texts)) {
+      throw new IllegalArgumentException("Texts cannot be null");
+    }
+    return texts.sequential().map(text -> Objects.isNull(text) || text.isEmpty()
+        ? List.<SearchLocationResult>of() : search(text));
+  }
+
+  /**
+   * Suggests the locations whose name starts with a prefix, for typeahead as the text is typed.
+   * <p>
+   * Countries are suggested before states and states before cities, then shorter names before
+   * longer ones, for example "glas" suggests the cities named "Glasgow" before those named
+   * "Glastonbury". A prefix ending with a space only completes whole words, so "san " suggests
+   * "San Francisco" but not "Sandy".
+   * <p>
+   * The default implementation throws {@link UnsupportedOperationException}, as suggesting needs an
+   * index of names that {@link #search(String)} does not give access to.
+   * </p>
+   *
+   * @param prefix the start of a country, state or city name
+   * @param limit  the maximum number of locations to return
+   * @return a List of up to {@code limit} {@link SearchLocationResult} objects, best first
+   * @throws UnsupportedOperationException if the implementation does not suggest locations
+   */
+  default List<SearchLocationResult> suggest(String prefix, int limit) {
+    throw new UnsupportedOperationException(getClass().getName() + " does not suggest locations");
+  }
+
+  /**
+   * Finds every country, state and city name mentioned in a document, for example an article or a
+   * log file.
+   * <p>
+   * Unlike {@link #search(String)}, the document is not read as one location: each name found in
+   * it is a separate mention, in the order they appear. Names are only found as whole words and
+   * ignoring case and punctuation, and where names overlap the longest one wins, so "New York City"
+   * is not also a mention of "York". Country and state codes and aliases are not looked for, as in
+   * prose they are mostly ordinary words. The document is scanned once whatever its length or the
+   * number of names.
+   * <p>
+   * The default implementation throws {@link UnsupportedOperationException}, as extracting needs
+   * an index of names that {@link #search(String)} does not give access to.
+   * </p>
+   *
+   * @param document the text to find locations in
+   * @return the mentions with their spans in the document, in the order they appear
+   * @throws UnsupportedOperationException if the implementation does not extract locations
+   */
+  default List<LocationMention> extractLocations(CharSequence document) {
+    throw new UnsupportedOperationException(getClass().getName() + " does not extract locations");
+  }
+
 }
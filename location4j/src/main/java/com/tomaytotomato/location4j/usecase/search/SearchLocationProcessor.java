@@ -0,0 +1,276 @@
+package com.tomaytotomato.location4j.usecase.search;
+
+import com.tomaytotomato.location4j.model.search.SearchLocationResult;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Reactive adapter searching each text published to it and publishing the locations found.
+ * <p>
+ * Subscribe the processor to a {@link Flow.Publisher} of texts, then subscribe one
+ * {@link Flow.Subscriber} to the processor. Each text is searched on the executor, as by
+ * {@link SearchLocation#search(String)}, and its results are published in the order the texts
+ * arrived, however many searches run at once. A text shorter than 2 characters finds no locations.
+ * </p>
+ * <p>
+ * Buffering is bounded and driven by demand: at most {@code bufferSize} texts are searched or
+ * waiting to be published at any time, and a new text is only requested from the publisher once
+ * the results of an earlier one have been delivered. A slow subscriber therefore slows the
+ * publisher down rather than letting results pile up. Completion is signalled once every buffered
+ * result has been delivered, while an error from the publisher or a search is signalled at once,
+ * dropping the buffered results. An exception thrown by the subscriber's {@code onNext} is treated
+ * the same way, cancelling the publisher and signalling the exception to {@code onError}.
+ * </p>
+ */
+public class SearchLocationProcessor implements
+    Flow.Processor<String, List<SearchLocationResult>> {
+
+  // Stands in for a cancelled subscription, so a late one is cancelled at once
+  private static final Flow.Subscription CANCELLED = new Flow.Subscription() {
+    @Override
+    public void request(long n) {
+    }
+
+    @Override
+    public void cancel() {
+    }
+  };
+
+  private final SearchLocation searchLocation;
+  private final Executor executor;
+  private final int bufferSize;
+
+  // Results by arrival sequence modulo the buffer size, null until the search is done
+  private final AtomicReferenceArray<List<SearchLocationResult>> results;
+  private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+  private final AtomicLong demand = new AtomicLong();
+  // Counts the signals to deliver, only the thread raising it from 0 delivers them
+  private final AtomicInteger pending = new AtomicInteger();
+  private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+  private volatile Flow.Subscriber<? super List<SearchLocationResult>> downstream;
+  private volatile long received;
+  private volatile boolean done;
+  private volatile boolean cancelled;
+  // Only read and written while delivering
+  private long emitted;
+  private boolean terminated;
+
+  /**
+   * Creates a processor searching on the common fork-join pool with the default buffer size of
+   * {@link Flow#defaultBufferSize()}.
+   *
+   * @param searchLocation the search to run for each text
+   */
+  public SearchLocationProcessor(SearchLocation searchLocation) {
+    this(searchLocation, ForkJoinPool.commonPool(), Flow.defaultBufferSize());
+  }
+
+  /**
+   * @param searchLocation the search to run for each text
+   * @param executor       runs the searches, up to {@code bufferSize} at once
+   * @param bufferSize     the largest number of texts searched or waiting to be published
+   */
+  public SearchLocationProcessor(SearchLocation searchLocation, Executor executor,
+      int bufferSize) {
+    if (Objects.isNull(searchLocation)) {
+      throw new IllegalArgumentException("SearchLocation cannot be null");
+    } else if (Objects.isNull(executor)) {
+      throw new IllegalArgumentException("Executor cannot be null");
+    } else if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Buffer size must be positive");
+    }
+    this.searchLocation = searchLocation;
+    this.executor = executor;
+    this.bufferSize = bufferSize;
+    this.results = new AtomicReferenceArray<>(bufferSize);
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super List<SearchLocationResult>> subscriber) {
+    Objects.requireNonNull(subscriber, "Subscriber cannot be null");
+    if (!subscribed.compareAndSet(false, true)) {
+      subscriber.onSubscribe(CANCELLED);
+      subscriber.onError(new IllegalStateException(
+          "SearchLocationProcessor only supports one subscriber"));
+      return;
+    }
+    subscriber.onSubscribe(new Flow.Subscription() {
+      @Override
+      public void request(long n) {
+        if (n <= 0) {
+          fail(new IllegalArgumentException("Request must be positive"));
+          return;
+        }
+        demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE
+            : current + added);
+        deliver();
+      }
+
+      @Override
+      public void cancel() {
+        cancelled = true;
+        cancelUpstream();
+        deliver();
+      }
+    });
+    // Only set once the subscriber has its subscription, so no signal can overtake it
+    downstream = subscriber;
+    deliver();
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    Objects.requireNonNull(subscription, "Subscription cannot be null");
+    if (!upstream.compareAndSet(null, subscription) || cancelled) {
+      subscription.cancel();
+      return;
+    }
+    subscription.request(bufferSize);
+  }
+
+  @Override
+  public void onNext(String text) {
+    Objects.requireNonNull(text, "Text cannot be null");
+    if (done || cancelled) {
+      return;
+    }
+    // Signals from the publisher never overlap, so only this method writes the sequence
+    long sequence = received;
+    received = sequence + 1;
+    try {
+      executor.execute(() -> search(sequence, text));
+    } catch (RejectedExecutionException e) {
+      fail(e);
+    }
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    Objects.requireNonNull(throwable, "Throwable cannot be null");
+    fail(throwable);
+  }
+
+  @Override
+  public void onComplete() {
+    done = true;
+    deliver();
+  }
+
+  private void search(long sequence, String text) {
+    if (cancelled || error.get() != null) {
+      return;
+    }
+    try {
+      var locations = text.length() < 2 ? List.<SearchLocationResult>of()
+          : searchLocation.search(text);
+      results.set(slot(sequence), locations);
+      deliver();
+    } catch (RuntimeException e) {
+      fail(e);
+    }
+  }
+
+  private void fail(Throwable throwable) {
+    if (error.compareAndSet(null, throwable)) {
+      done = true;
+      cancelUpstream();
+    }
+    deliver();
+  }
+
+  private void cancelUpstream() {
+    var subscription = upstream.getAndSet(CANCELLED);
+    if (subscription != null && subscription != CANCELLED) {
+      subscription.cancel();
+    }
+  }
+
+  /**
+   * Delivers the results that are ready, in order and as far as the demand allows, then the
+   * completion or error. Calls made while another thread delivers are left to that thread.
+   */
+  private void deliver() {
+    if (pending.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      var subscriber = downstream;
+      if (terminated || cancelled) {
+        terminated = true;
+        clear();
+      } else if (subscriber != null) {
+        while (deliverReady(subscriber)) {
+          // Delivering may have freed slots for searches that finished meanwhile
+        }
+        if (error.get() != null) {
+          terminated = true;
+          clear();
+          subscriber.onError(error.get());
+        } else if (done && emitted == received) {
+          terminated = true;
+          subscriber.onComplete();
+        }
+      }
+      missed = pending.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  /**
+   * Delivers the results that are ready as far as the demand allows, then requests as many texts as
+   * were delivered.
+   *
+   * @return whether any result was delivered
+   */
+  private boolean deliverReady(Flow.Subscriber<? super List<SearchLocationResult>> subscriber) {
+    long requested = demand.get();
+    long sent = 0;
+    while (sent != requested && !cancelled && error.get() == null) {
+      var locations = results.getAndSet(slot(emitted), null);
+      if (locations == null) {
+        break;
+      }
+      emitted++;
+      sent++;
+      try {
+        subscriber.onNext(locations);
+      } catch (Throwable e) {
+        // Subscribers must not throw (Reactive Streams 2.13), so stop the flow and report it
+        fail(e);
+        break;
+      }
+    }
+    if (sent == 0) {
+      return false;
+    }
+    if (requested != Long.MAX_VALUE) {
+      demand.addAndGet(-sent);
+    }
+    var subscription = upstream.get();
+    if (!done && subscription != null && subscription != CANCELLED) {
+      subscription.request(sent);
+    }
+    return true;
+  }
+
+  private void clear() {
+    for (int i = 0; i < bufferSize; i++) {
+      results.lazySet(i, null);
+    }
+  }
+
+  private int slot(long sequence) {
+    return (int) (sequence % bufferSize);
+  }
+}
@@ -2,66 +2,128 @@ package com.tomaytotomato.location4j.usecase.search;
 
 import com.tomaytotomato.location4j.aliases.DefaultLocationAliases;
 import com.tomaytotomato.location4j.aliases.LocationAliases;
+import com.tomaytotomato.location4j.index.LocationIndex;
 import com.tomaytotomato.location4j.loader.DataLoader;
-import com.tomaytotomato.location4j.loader.DefaultDataLoader;
 import com.tomaytotomato.location4j.mapper.DefaultSearchLocationResultMapper;
 import com.tomaytotomato.location4j.mapper.SearchLocationResultMapper;
-import com.tomaytotomato.location4j.model.Location4JData;
+import com.tomaytotomato.location4j.model.LocationMatches;
+import com.tomaytotomato.location4j.model.LocationMatches.MatchType;
 import com.tomaytotomato.location4j.model.lookup.City;
 import com.tomaytotomato.location4j.model.lookup.Country;
 import com.tomaytotomato.location4j.model.lookup.State;
+import com.tomaytotomato.location4j.model.search.CityResult;
+import com.tomaytotomato.location4j.model.search.CountryResult;
+import com.tomaytotomato.location4j.model.search.LocationMention;
+import com.tomaytotomato.location4j.model.search.ScoredSearchLocationResult;
 import com.tomaytotomato.location4j.model.search.SearchLocationResult;
+import com.tomaytotomato.location4j.model.search.StateResult;
 import com.tomaytotomato.location4j.text.normaliser.DefaultTextNormaliser;
 import com.tomaytotomato.location4j.text.normaliser.TextNormaliser;
 import com.tomaytotomato.location4j.text.tokeniser.DefaultTextTokeniser;
+import com.tomaytotomato.location4j.text.tokeniser.SpanTextTokeniser;
 import com.tomaytotomato.location4j.text.tokeniser.TextTokeniser;
+import com.tomaytotomato.location4j.text.tokeniser.TokenSpans;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.UnaryOperator;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Provides search functionality to find a Country, State or City based on text input
  */
 public class SearchLocationService implements SearchLocation {
 
+  /**
+   * The largest edit distance accepted by {@link Builder#withMaxEditDistance(int)}.
+   */
+  public static final int MAX_EDIT_DISTANCE = 2;
+
+  // Misspelt words are allowed one edit per this many characters, so short codes are never changed
+  private static final int CHARACTERS_PER_EDIT = 3;
+  // Batches are split into chunks of at least this many queries, smaller batches stay on the caller
+  private static final int MIN_BATCH_CHUNK = 64;
+  private static final int CHUNKS_PER_WORKER = 4;
+  // Texts of a stream searched together, enough for several chunks on most machines
+  private static final int STREAM_WINDOW = 1024;
+  // Search buffers kept for reuse, enough for every core to search with a few spare
+  private static final int SEARCH_BUFFERS_PER_CORE = 2;
+
   private final Logger logger = Logger.getLogger(this.getClass().getName());
 
+  private final LocationIndex locationIndex;
   private final Map<Integer, Country> countryIdToCountryMap;
-  private final Map<String, Country> countryNameToCountryMap;
-  private final Map<String, Country> iso2CodeToCountryMap;
-  private final Map<String, Country> iso3CodeToCountryMap;
   private final Map<Integer, State> stateIdToStateMap;
-  private final Map<String, List<State>> stateNameToStatesMap;
-  private final Map<String, List<State>> stateCodeToStatesMap;
-  private final Map<String, List<City>> cityNameToCitiesMap;
+
+  // Every name and code searched, with the aliases of this service layered on top
+  private final AliasOverlayMap<LocationMatches> searchDictionary;
+
+  // Reusable token and score buffers for tokenized matching, shared by every thread searching
+  private final BufferPool<SearchBuffers> searchBuffers;
+  private final BestMatch bestMatch = new BestMatch();
 
   private final TextTokeniser textTokeniser;
   private final TextNormaliser textNormaliser;
   private final SearchLocationResultMapper searchLocationResultMapper;
   private final LocationAliases locationAliases;
+  private final int maxEditDistance;
+  // Results of frequent queries, null when caching is disabled
+  private final QueryCache<List<SearchLocationResult>> queryCache;
+  // Runs asynchronous searches
+  private final Executor executor;
 
   protected SearchLocationService(TextTokeniser textTokeniser, TextNormaliser textNormaliser,
       SearchLocationResultMapper searchLocationResultMapper, DataLoader dataLoader,
       LocationAliases locationAliases) {
-    this.textTokeniser = textTokeniser;
-    this.textNormaliser = textNormaliser;
-    this.searchLocationResultMapper = searchLocationResultMapper;
-    this.locationAliases = locationAliases;
-
-    // Load pre-built data structures
-    Location4JData location4JData = dataLoader.getLocation4JData();
-    this.countryIdToCountryMap = location4JData.getCountryIdToCountryMap();
-    this.countryNameToCountryMap = new HashMap<>(location4JData.getCountryNameToCountryMap());
-    this.iso2CodeToCountryMap = new HashMap<>(location4JData.getIso2CodeToCountryMap());
-    this.iso3CodeToCountryMap = new HashMap<>(location4JData.getIso3CodeToCountryMap());
-    this.stateIdToStateMap = location4JData.getStateIdToStateMap();
-    this.stateNameToStatesMap = new HashMap<>(location4JData.getStateNameToStatesMap());
-    this.stateCodeToStatesMap = new HashMap<>(location4JData.getStateCodeToStatesMap());
-    this.cityNameToCitiesMap = new HashMap<>(location4JData.getSearchCityNameToCitiesMap());
+    this(textTokeniser, textNormaliser, searchLocationResultMapper, LocationIndex.of(dataLoader),
+        locationAliases);
+  }
+
+  protected SearchLocationService(TextTokeniser textTokeniser, TextNormaliser textNormaliser,
+      SearchLocationResultMapper searchLocationResultMapper, LocationIndex locationIndex,
+      LocationAliases locationAliases) {
+    this(builder()
+        .withTextTokeniser(textTokeniser)
+        .withTextNormaliser(textNormaliser)
+        .withLocationMapper(searchLocationResultMapper)
+        .withLocationAliases(locationAliases), locationIndex);
+  }
+
+  private SearchLocationService(Builder builder, LocationIndex locationIndex) {
+    this.textTokeniser = builder.textTokeniser;
+    this.textNormaliser = builder.textNormaliser;
+    this.searchLocationResultMapper = builder.searchLocationResultMapper;
+    this.locationAliases = builder.locationAliases;
+    this.maxEditDistance = builder.maxEditDistance;
+    this.queryCache = builder.queryCacheSize == 0 ? null : new QueryCache<>(builder.queryCacheSize);
+    this.executor = builder.executor;
+
+    // Share the pre-built data structures, only the alias overlay belongs to this instance
+    this.locationIndex = locationIndex;
+    this.countryIdToCountryMap = locationIndex.getCountryIdToCountryMap();
+    this.stateIdToStateMap = locationIndex.getStateIdToStateMap();
+    this.searchDictionary = new AliasOverlayMap<>(locationIndex.getSearchDictionary());
+    this.searchBuffers = new BufferPool<>(
+        SEARCH_BUFFERS_PER_CORE * Runtime.getRuntime().availableProcessors(),
+        () -> new SearchBuffers(new TokenSpans(), new HitCounters(
+            new HitCounter<>(locationIndex.getCountryIds(), Country::getId),
+            new HitCounter<>(locationIndex.getStateIds(), State::getId),
+            new HitCounter<>(locationIndex.getCityIds(), City::getId))));
 
     // Add custom aliases on top of pre-built data structures
     addAliases();
@@ -79,31 +141,53 @@ public class SearchLocationService implements SearchLocation {
     logger.info("Adding aliases for location lookups");
 
     locationAliases.getCountryNameAliases().forEach((alias, originalKey) -> {
-      var country = countryNameToCountryMap.get(keyMaker(originalKey));
-      countryNameToCountryMap.put(keyMaker(alias), country);
+      var country = matches(keyMaker(originalKey)).getCountryByName();
+      addAlias(keyMaker(alias), matches -> matches.countryByName(country));
     });
 
     locationAliases.getCountryIso2Aliases().forEach((alias, originalKey) -> {
-      var country = iso2CodeToCountryMap.get(keyMaker(originalKey));
-      countryNameToCountryMap.put(keyMaker(alias), country);
+      var country = matches(keyMaker(originalKey)).getCountryByIso2();
+      addAlias(keyMaker(alias), matches -> matches.countryByName(country));
     });
 
     locationAliases.getCountryIso3Aliases().forEach((alias, originalKey) -> {
-      var country = iso3CodeToCountryMap.get(keyMaker(originalKey));
-      countryNameToCountryMap.put(keyMaker(alias), country);
+      var country = matches(keyMaker(originalKey)).getCountryByIso3();
+      addAlias(keyMaker(alias), matches -> matches.countryByName(country));
     });
 
     locationAliases.getStateNameAliases().forEach((alias, originalKey) -> {
-      var states = stateNameToStatesMap.get(keyMaker(originalKey));
-      stateNameToStatesMap.put(alias, states);
+      var states = matches(keyMaker(originalKey)).getStatesByName();
+      addAlias(alias, matches -> matches.statesByName(states));
     });
 
     locationAliases.getCityNameAliases().forEach((alias, originalKey) -> {
-      var cities = cityNameToCitiesMap.get(keyMaker(originalKey));
-      cityNameToCitiesMap.put(alias, cities);
+      var cities = matches(keyMaker(originalKey)).getCitiesByName();
+      addAlias(alias, matches -> matches.citiesByName(cities));
     });
   }
 
+  /**
+   * Gets the matches of a key, including the aliases added so far.
+   *
+   * @param key The normalized key.
+   * @return The matches, empty when the key is unknown.
+   */
+  private LocationMatches matches(String key) {
+    var matches = searchDictionary.get(key);
+    return Objects.isNull(matches) ? LocationMatches.builder().build() : matches;
+  }
+
+  /**
+   * Layers an alias over the matches the key already has.
+   *
+   * @param key   The alias key.
+   * @param alias Adds the aliased location to the matches of the key.
+   */
+  private void addAlias(String key, UnaryOperator<LocationMatches.Builder> alias) {
+    searchDictionary.put(key, alias.apply(LocationMatches.builder(searchDictionary.get(key)))
+        .build());
+  }
+
 
   /**
    * Normalizes a key for consistent lookup.
@@ -126,16 +210,249 @@ public class SearchLocationService implements SearchLocation {
       return List.of();
     }
 
-    text = textNormaliser.normalise(text);
+    return findBestMatches(textNormaliser.normalise(text));
+  }
+
+  @Override
+  public CompletableFuture<List<SearchLocationResult>> searchAsync(String text) {
+    return CompletableFuture.supplyAsync(() -> search(text), executor);
+  }
+
+  /**
+   * Finds the best matches of the normalised text, from the query cache when it is enabled.
+   *
+   * @param text The normalized search text.
+   * @return A list of matching locations.
+   */
+  private List<SearchLocationResult> findBestMatches(String text) {
+    if (queryCache == null) {
+      return findMatches(text, bestMatch);
+    }
+
+    // Repeated queries skip tokenising, scoring and mapping
+    var cached = queryCache.get(text);
+    if (cached != null) {
+      return cached;
+    }
+    List<SearchLocationResult> matches = List.copyOf(findMatches(text, bestMatch));
+    queryCache.put(text, matches);
+    return matches;
+  }
+
+  @Override
+  public BatchSearchResult searchAll(List<String> texts) {
+    if (Objects.isNull(texts)) {
+      throw new IllegalArgumentException("Texts cannot be null");
+    }
+    return searchAll(texts, true);
+  }
+
+  @Override
+  public Stream<List<SearchLocationResult>> searchAll(Stream<String> texts) {
+    if (Objects.isNull(texts)) {
+      throw new IllegalArgumentException("Texts cannot be null");
+    }
+    var results = new SearchWindows(texts.iterator(), texts.isParallel());
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results,
+        Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(texts::close);
+  }
+
+  /**
+   * Searches every text of a batch, each distinct normalised text once.
+   *
+   * @param texts    The texts to search, may contain null or empty texts.
+   * @param parallel Whether the distinct texts may be split across the common fork-join pool.
+   * @return The results in the order of the texts.
+   */
+  private BatchSearchResult searchAll(List<String> texts, boolean parallel) {
+    long start = System.nanoTime();
+
+    // Each distinct normalised text is searched once, duplicates point at its slot
+    Map<String, Integer> slots = new HashMap<>();
+    List<String> queries = new ArrayList<>();
+    int[] slotOfText = new int[texts.size()];
+    int index = 0;
+    for (String text : texts) {
+      if (Objects.isNull(text) || text.length() < 2) {
+        slotOfText[index++] = -1;
+        continue;
+      }
+      var query = textNormaliser.normalise(text);
+      Integer slot = slots.putIfAbsent(query, queries.size());
+      if (slot == null) {
+        slot = queries.size();
+        queries.add(query);
+      }
+      slotOfText[index++] = slot;
+    }
+
+    // Set by index from the workers, each slot by only one of them
+    List<List<SearchLocationResult>> matches = new ArrayList<>(
+        Collections.nCopies(queries.size(), null));
+    var pool = ForkJoinPool.commonPool();
+    int workers = !parallel ? 1 : Math.min(pool.getParallelism(),
+        (queries.size() + MIN_BATCH_CHUNK - 1) / MIN_BATCH_CHUNK);
+    if (workers <= 1) {
+      new BatchSearch(queries, matches, 0, queries.size(), queries.size()).compute();
+    } else {
+      // A few chunks per worker even out slow queries, each worker reuses its own buffers
+      int chunk = Math.max(MIN_BATCH_CHUNK, queries.size() / (workers * CHUNKS_PER_WORKER));
+      pool.invoke(new BatchSearch(queries, matches, 0, queries.size(), chunk));
+    }
+
+    List<List<SearchLocationResult>> results = new ArrayList<>(slotOfText.length);
+    for (int slot : slotOfText) {
+      results.add(slot < 0 ? List.of() : matches.get(slot));
+    }
+    return new BatchSearchResult(results, queries.size(), Math.max(1, workers),
+        System.nanoTime() - start);
+  }
+
+  @Override
+  public List<ScoredSearchLocationResult> search(String text, int k) {
+    if (Objects.isNull(text) || text.isEmpty()) {
+      throw new IllegalArgumentException("SearchLocation Text cannot be null or empty");
+    } else if (k < 0) {
+      throw new IllegalArgumentException("K cannot be negative");
+    } else if (text.length() < 2 || k == 0) {
+      return List.of();
+    }
+
+    return findMatches(textNormaliser.normalise(text), new TopMatches(k));
+  }
+
+  /**
+   * Returns the counters of the query cache enabled by {@link Builder#withQueryCache(int)}.
+   *
+   * @return the cache counters, all 0 when the cache is disabled
+   */
+  public QueryCacheStats getQueryCacheStats() {
+    if (queryCache == null) {
+      return new QueryCacheStats(0, 0, 0, 0);
+    }
+    return new QueryCacheStats(queryCache.hitCount(), queryCache.missCount(), queryCache.size(),
+        queryCache.maximumSize());
+  }
 
+  /**
+   * Finds the matches of the normalised text, trying each tier in turn.
+   *
+   * @param text    The normalized search text.
+   * @param ranking Chooses the matches returned.
+   * @return A list of matching locations.
+   */
+  private <R> List<R> findMatches(String text, Ranking<R> ranking) {
     // Direct matches
     List<SearchLocationResult> directMatches = findDirectMatches(text);
     if (!directMatches.isEmpty()) {
-      return directMatches;
+      return ranking.rankDirectMatches(directMatches);
+    }
+
+    var buffers = searchBuffers.acquire();
+    try {
+      // Tokenized search
+      var tokens = tokenise(text, buffers.tokens());
+      List<R> tokenizedMatches = findTokenizedMatches(tokens, buffers.hits(), ranking);
+      if (!tokenizedMatches.isEmpty() || maxEditDistance == 0) {
+        return tokenizedMatches;
+      }
+
+      // Typo tolerant search, only when nothing matched exactly
+      return findFuzzyMatches(text, tokens, buffers.hits(), ranking);
+    } finally {
+      searchBuffers.release(buffers);
+    }
+  }
+
+  @Override
+  public List<SearchLocationResult> suggest(String prefix, int limit) {
+    if (Objects.isNull(prefix)) {
+      throw new IllegalArgumentException("Prefix cannot be null");
+    } else if (limit < 0) {
+      throw new IllegalArgumentException("Limit cannot be negative");
+    } else if (prefix.isEmpty()) {
+      // An empty typeahead box, which the normaliser would reject
+      return List.of();
+    }
+
+    var key = textNormaliser.normalise(prefix);
+    if (key.isEmpty() || limit == 0) {
+      return List.of();
+    }
+    // Keep a trailing space so the prefix only completes whole words
+    if (Character.isWhitespace(prefix.charAt(prefix.length() - 1))) {
+      key = key + " ";
+    }
+
+    // Every suggested name has at least one location, so at most limit names are needed
+    List<SearchLocationResult> suggestions = new ArrayList<>();
+    for (LocationMatches matches : locationIndex.getSuggestionIndex().suggest(key, limit)) {
+      if (matches.has(MatchType.COUNTRY_NAME)) {
+        suggestions.add(searchLocationResultMapper.toCountryResult(matches.getCountryByName()));
+      }
+      if (matches.has(MatchType.STATE_NAME)) {
+        matches.getStatesByName().stream()
+            .limit(limit - suggestions.size())
+            .forEach(state -> suggestions.add(searchLocationResultMapper.toStateResult(state)));
+      }
+      if (matches.has(MatchType.CITY_NAME)) {
+        matches.getCitiesByName().stream()
+            .limit(limit - suggestions.size())
+            .forEach(city -> suggestions.add(searchLocationResultMapper.toCityResult(city)));
+      }
+      if (suggestions.size() == limit) {
+        break;
+      }
+    }
+    return suggestions;
+  }
+
+  @Override
+  public List<LocationMention> extractLocations(CharSequence document) {
+    if (Objects.isNull(document)) {
+      throw new IllegalArgumentException("Document cannot be null");
+    }
+
+    // Names mentioned many times share the lists of ids of their first mention
+    Map<LocationMatches, LocationMention> idsByName = new IdentityHashMap<>();
+    List<LocationMention> mentions = new ArrayList<>();
+    for (var mention : locationIndex.getNameAutomaton().findAll(document)) {
+      var ids = idsByName.computeIfAbsent(mention.value(), SearchLocationService::toMentionIds);
+      mentions.add(new LocationMention(mention.start(), mention.end(), ids.countryIds(),
+          ids.stateIds(), ids.cityIds()));
     }
+    return mentions;
+  }
+
+  /**
+   * @return a mention without a span, holding the ids of the locations named by a dictionary key
+   */
+  private static LocationMention toMentionIds(LocationMatches matches) {
+    List<Integer> countryIds = matches.has(MatchType.COUNTRY_NAME)
+        ? List.of(matches.getCountryByName().getId()) : List.of();
+    List<Integer> stateIds = matches.has(MatchType.STATE_NAME)
+        ? matches.getStatesByName().stream().map(State::getId).toList() : List.of();
+    List<Integer> cityIds = matches.has(MatchType.CITY_NAME)
+        ? matches.getCitiesByName().stream().map(City::getId).toList() : List.of();
+    return new LocationMention(0, 0, countryIds, stateIds, cityIds);
+  }
 
-    // Tokenized search
-    return findTokenizedMatches(textTokeniser.tokenise(text));
+  /**
+   * Tokenises the normalised text into a buffer, falling back to copying the tokens of tokenisers
+   * that only produce Strings.
+   *
+   * @param text   The normalized search text.
+   * @param tokens The buffer to write the tokens to.
+   * @return The tokens of the text.
+   */
+  private TokenSpans tokenise(String text, TokenSpans tokens) {
+    tokens.clear();
+    if (textTokeniser instanceof SpanTextTokeniser spanTextTokeniser) {
+      spanTextTokeniser.tokenise(text, tokens);
+    } else {
+      textTokeniser.tokenise(text).forEach(tokens::addToken);
+    }
+    return tokens;
   }
 
   /**
@@ -147,35 +464,41 @@ public class SearchLocationService implements SearchLocation {
   private List<SearchLocationResult> findDirectMatches(String text) {
     List<SearchLocationResult> matches = new ArrayList<>();
 
-    if (countryNameToCountryMap.containsKey(text)) {
-      matches.add(searchLocationResultMapper.toCountryResult(countryNameToCountryMap.get(text)));
+    var textMatches = searchDictionary.get(text, 0, text.length());
+    if (textMatches == null) {
+      return matches;
+    }
+
+    if (textMatches.has(MatchType.COUNTRY_NAME)) {
+      matches.add(searchLocationResultMapper.toCountryResult(textMatches.getCountryByName()));
       return matches;
     }
 
-    if (text.length() == 3 && iso3CodeToCountryMap.containsKey(text)) {
-      matches.add(searchLocationResultMapper.toCountryResult(iso3CodeToCountryMap.get(text)));
+    if (text.length() == 3 && textMatches.has(MatchType.COUNTRY_ISO3)) {
+      matches.add(searchLocationResultMapper.toCountryResult(textMatches.getCountryByIso3()));
       return matches;
     }
 
     if (text.length() == 2) {
-      if (iso2CodeToCountryMap.containsKey(text)) {
-        matches.add(searchLocationResultMapper.toCountryResult(iso2CodeToCountryMap.get(text)));
+      if (textMatches.has(MatchType.COUNTRY_ISO2)) {
+        matches.add(searchLocationResultMapper.toCountryResult(textMatches.getCountryByIso2()));
       }
-      if (stateCodeToStatesMap.containsKey(text)) {
-        stateCodeToStatesMap.get(text)
+      if (textMatches.has(MatchType.STATE_CODE)) {
+        textMatches.getStatesByCode()
             .forEach(state -> matches.add(searchLocationResultMapper.toStateResult(state)));
       }
       return matches;
     }
 
-    if (stateNameToStatesMap.containsKey(text)) {
-      stateNameToStatesMap.get(text)
+    if (textMatches.has(MatchType.STATE_NAME)) {
+      textMatches.getStatesByName()
           .forEach(state -> matches.add(searchLocationResultMapper.toStateResult(state)));
       return matches;
     }
 
-    if (cityNameToCitiesMap.containsKey(text)) {
-      cityNameToCitiesMap.get(text).forEach(city -> matches.add(searchLocationResultMapper.toCityResult(city)));
+    if (textMatches.has(MatchType.CITY_NAME)) {
+      textMatches.getCitiesByName()
+          .forEach(city -> matches.add(searchLocationResultMapper.toCityResult(city)));
       return matches;
     }
 
@@ -185,97 +508,167 @@ public class SearchLocationService implements SearchLocation {
   /**
    * Finds matches for the given tokenized text.
    *
-   * @param tokenizedText The tokenized search text.
+   * @param tokens  The tokenized search text.
+   * @param hits    The counters to score the tokens with, left empty.
+   * @param ranking Chooses the matches returned from the hit counts.
    * @return A list of matching locations.
    */
-  private List<SearchLocationResult> findTokenizedMatches(List<String> tokenizedText) {
-    Map<Country, Integer> countryHitsCount = new HashMap<>();
-    Map<State, Integer> stateHitsCount = new HashMap<>();
-    Map<City, Integer> cityHitsCount = new HashMap<>();
+  private <R> List<R> findTokenizedMatches(TokenSpans tokens, HitCounters hits,
+      Ranking<R> ranking) {
+    try {
+      int countryToken = populateCountryHits(tokens, hits.countries());
 
-    boolean countryFound = populateCountryHits(tokenizedText, countryHitsCount);
+      if (countryToken < 0) {
+        populateStateAndCityHits(tokens, hits);
+      } else {
+        filterAndPopulateStateAndCityHits(tokens, countryToken, hits);
+      }
 
-    if (!countryFound) {
-      populateStateAndCityHits(tokenizedText, countryHitsCount, stateHitsCount, cityHitsCount);
-    } else {
-      filterAndPopulateStateAndCityHits(tokenizedText, countryHitsCount, stateHitsCount,
-          cityHitsCount);
+      return ranking.rankHits(hits);
+    } finally {
+      hits.clear();
     }
-
-    return getTopMatchingLocations(countryHitsCount, stateHitsCount, cityHitsCount);
   }
 
   /**
-   * Populates country hit counts based on tokenized text.
+   * Finds matches for misspelt text, first by correcting the whole text to the closest key of the
+   * search dictionary, then by correcting each token that has no match and searching the corrected
+   * tokens.
    *
-   * @param tokenizedText    The tokenized search text.
-   * @param countryHitsCount The map to populate with country hits.
-   * @return true if a country is found, false otherwise.
+   * @param text    The normalized search text, which has no exact matches.
+   * @param tokens  The tokenized search text.
+   * @param hits    The counters to score the corrected tokens with, left empty.
+   * @param ranking Chooses the matches returned.
+   * @return A list of matching locations.
    */
-  private boolean populateCountryHits(List<String> tokenizedText,
-      Map<Country, Integer> countryHitsCount) {
-    Iterator<String> iterator = tokenizedText.iterator();
-
-    while (iterator.hasNext()) {
-      String token = iterator.next();
-      if (countryNameToCountryMap.containsKey(token)) {
-        var country = countryNameToCountryMap.get(token);
-        countryHitsCount.put(country, countryHitsCount.getOrDefault(country, 0) + 1);
-        iterator.remove();
-        return true;
+  private <R> List<R> findFuzzyMatches(String text, TokenSpans tokens, HitCounters hits,
+      Ranking<R> ranking) {
+    var names = locationIndex.getSearchTrie();
+
+    var key = names.nearestKey(text, 0, text.length(), editDistance(text.length()));
+    if (key != null) {
+      List<SearchLocationResult> directMatches = findDirectMatches(key);
+      if (!directMatches.isEmpty()) {
+        return ranking.rankDirectMatches(directMatches);
+      }
+    }
+
+    // Tokens overlap, e.g. a pair of words and each word, so a word inside a corrected pair is
+    // left alone
+    var corrected = new TokenSpans();
+    var covered = new boolean[tokens.length()];
+    boolean changed = false;
+    for (int token = 0; token < tokens.size(); token++) {
+      int start = tokens.start(token);
+      int end = tokens.end(token);
+      if (lookup(tokens, token) != null) {
+        corrected.addToken(tokens.subSequence(start, end));
+        continue;
+      }
+      var correction = isCovered(covered, start, end) ? null
+          : names.nearestKey(tokens, start, end, editDistance(end - start));
+      if (correction != null) {
+        corrected.addToken(correction);
+        Arrays.fill(covered, start, end, true);
+        changed = true;
       }
-      if (iso3CodeToCountryMap.containsKey(token)) {
-        var country = iso3CodeToCountryMap.get(token);
-        countryHitsCount.put(country, countryHitsCount.getOrDefault(country, 0) + 1);
-        iterator.remove();
+    }
+    return changed ? findTokenizedMatches(corrected, hits, ranking) : List.of();
+  }
+
+  /**
+   * @return the edit distance allowed for text of the given length
+   */
+  private int editDistance(int length) {
+    return Math.min(maxEditDistance, (length - 1) / CHARACTERS_PER_EDIT);
+  }
+
+  private static boolean isCovered(boolean[] covered, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (covered[i]) {
         return true;
       }
     }
     return false;
   }
 
+  /**
+   * Looks up a token as a slice of the tokenised text, with a single probe of the search
+   * dictionary.
+   *
+   * @param tokens The tokenized search text.
+   * @param token  The index of the token.
+   * @return The matches of the token, or null when there are none.
+   */
+  private LocationMatches lookup(TokenSpans tokens, int token) {
+    return searchDictionary.get(tokens, tokens.start(token), tokens.end(token));
+  }
+
+  /**
+   * Populates country hit counts based on tokenized text.
+   *
+   * @param tokens      The tokenized search text.
+   * @param countryHits The counter to populate with country hits.
+   * @return the index of the token that matched a country, or -1 if no country is found.
+   */
+  private int populateCountryHits(TokenSpans tokens, HitCounter<Country> countryHits) {
+    for (int token = 0; token < tokens.size(); token++) {
+      var matches = lookup(tokens, token);
+      if (matches == null) {
+        continue;
+      }
+      var country = matches.getCountryByName();
+      if (country == null) {
+        country = matches.getCountryByIso3();
+      }
+      if (country != null) {
+        countryHits.hit(country);
+        return token;
+      }
+    }
+    return -1;
+  }
+
   /**
    * Populates state and city hit counts based on tokenized text without filtering.
    * All tokens are processed to allow for disambiguation - no early termination.
    *
-   * @param tokenizedText    The tokenized search text.
-   * @param countryHitsCount The map to populate with country hits.
-   * @param stateHitsCount   The map to populate with state hits.
-   * @param cityHitsCount    The map to populate with city hits.
+   * @param tokens The tokenized search text.
+   * @param hits   The counters to populate with country, state and city hits.
    */
-  private void populateStateAndCityHits(List<String> tokenizedText,
-      Map<Country, Integer> countryHitsCount,
-      Map<State, Integer> stateHitsCount,
-      Map<City, Integer> cityHitsCount) {
+  private void populateStateAndCityHits(TokenSpans tokens, HitCounters hits) {
+    for (int token = 0; token < tokens.size(); token++) {
+      var matches = lookup(tokens, token);
+      if (matches == null) {
+        continue;
+      }
 
-    for (String token : tokenizedText) {
       // Check for state matches by name
-      if (stateNameToStatesMap.containsKey(token)) {
-        stateNameToStatesMap.get(token).forEach(state -> {
-          var country = countryIdToCountryMap.get(state.getCountry().getId());
-          stateHitsCount.put(state, stateHitsCount.getOrDefault(state, 0) + 1);
-          countryHitsCount.put(country, countryHitsCount.getOrDefault(country, 0) + 1);
-        });
-      }
-      
+      var statesByName = matches.getStatesByName();
+      if (statesByName != null) {
+        for (State state : statesByName) {
+          hits.states().hit(state);
+          hits.countries().hit(countryIdToCountryMap.get(state.getCountry().getId()));
+        }
+      }
+
       // Check for state matches by code
-      if (stateCodeToStatesMap.containsKey(token)) {
-        stateCodeToStatesMap.get(token).forEach(state -> {
-          var country = countryIdToCountryMap.get(state.getCountry().getId());
-          stateHitsCount.put(state, stateHitsCount.getOrDefault(state, 0) + 1);
-          countryHitsCount.put(country, countryHitsCount.getOrDefault(country, 0) + 1);
-        });
-      }
-      
+      var statesByCode = matches.getStatesByCode();
+      if (statesByCode != null) {
+        for (State state : statesByCode) {
+          hits.states().hit(state);
+          hits.countries().hit(countryIdToCountryMap.get(state.getCountry().getId()));
+        }
+      }
+
       // Check for city matches by name
-      if (cityNameToCitiesMap.containsKey(token)) {
-        cityNameToCitiesMap.get(token).forEach(city -> {
-          var country = countryIdToCountryMap.get(city.getCountry().getId());
-          var state = stateIdToStateMap.get(city.getState().getId());
-          stateHitsCount.put(state, stateHitsCount.getOrDefault(state, 0) + 1);
-          cityHitsCount.put(city, cityHitsCount.getOrDefault(city, 0) + 1);
-          countryHitsCount.put(country, countryHitsCount.getOrDefault(country, 0) + 1);
-        });
+      var cities = matches.getCitiesByName();
+      if (cities != null) {
+        for (City city : cities) {
+          hits.states().hit(stateIdToStateMap.get(city.getState().getId()));
+          hits.cities().hit(city);
+          hits.countries().hit(countryIdToCountryMap.get(city.getCountry().getId()));
+        }
       }
     }
   }
@@ -283,44 +676,58 @@ public class SearchLocationService implements SearchLocation {
   /**
    * Filters and populates state and city hit counts based on tokenized text.
    *
-   * @param tokenizedText    The tokenized search text.
-   * @param countryHitsCount The map to populate with country hits.
-   * @param stateHitsCount   The map to populate with state hits.
-   * @param cityHitsCount    The map to populate with city hits.
+   * @param tokens       The tokenized search text.
+   * @param countryToken The index of the token that matched the country, which is skipped.
+   * @param hits         The counters to populate with state and city hits.
    */
-  private void filterAndPopulateStateAndCityHits(List<String> tokenizedText,
-      Map<Country, Integer> countryHitsCount,
-      Map<State, Integer> stateHitsCount,
-      Map<City, Integer> cityHitsCount) {
-    var topCountry = getTopCountry(countryHitsCount);
+  private void filterAndPopulateStateAndCityHits(TokenSpans tokens, int countryToken,
+      HitCounters hits) {
+    var topCountryName = getTopCountry(hits.countries()).getName();
     var stateFound = false;
     var cityFound = false;
 
-    for (String token : tokenizedText) {
-      if (stateNameToStatesMap.containsKey(token) && !stateFound) {
-        stateNameToStatesMap.get(token).stream()
-            .filter(state -> state.getCountry().getName().equals(topCountry.getName()))
-            .forEach(state -> stateHitsCount.put(state,
-                stateHitsCount.getOrDefault(state, 0) + 1));
-        stateFound = true;
+    for (int token = 0; token < tokens.size(); token++) {
+      if (token == countryToken) {
+        continue;
+      }
+      var matches = lookup(tokens, token);
+      if (matches == null) {
+        continue;
       }
-      if (stateCodeToStatesMap.containsKey(token) && !stateFound) {
-        stateCodeToStatesMap.get(token).stream()
-            .filter(state -> state.getCountry().getName().equals(topCountry.getName()))
-            .forEach(state -> stateHitsCount.put(state,
-                stateHitsCount.getOrDefault(state, 0) + 1));
-        stateFound = true;
+      if (!stateFound) {
+        var states = matches.getStatesByName();
+        if (states != null) {
+          hitStatesInCountry(states, topCountryName, hits.states());
+          stateFound = true;
+        }
       }
-      if (cityNameToCitiesMap.containsKey(token) && !cityFound) {
-        cityNameToCitiesMap.get(token).stream()
-            .filter(city -> city.getCountry().getName().equals(topCountry.getName()))
-            .forEach(city -> {
-              var state = stateIdToStateMap.get(city.getState().getId());
-              cityHitsCount.put(city, cityHitsCount.getOrDefault(city, 0) + 1);
-              stateHitsCount.put(state,
-                  stateHitsCount.getOrDefault(state, 0) + 1);
-            });
-        cityFound = true;
+      if (!stateFound) {
+        var states = matches.getStatesByCode();
+        if (states != null) {
+          hitStatesInCountry(states, topCountryName, hits.states());
+          stateFound = true;
+        }
+      }
+      if (!cityFound) {
+        var cities = matches.getCitiesByName();
+        if (cities != null) {
+          for (City city : cities) {
+            if (city.getCountry().getName().equals(topCountryName)) {
+              hits.cities().hit(city);
+              hits.states().hit(stateIdToStateMap.get(city.getState().getId()));
+            }
+          }
+          cityFound = true;
+        }
+      }
+    }
+  }
+
+  private static void hitStatesInCountry(List<State> states, String countryName,
+      HitCounter<State> stateHits) {
+    for (State state : states) {
+      if (state.getCountry().getName().equals(countryName)) {
+        stateHits.hit(state);
       }
     }
   }
@@ -329,68 +736,49 @@ public class SearchLocationService implements SearchLocation {
    * Retrieves the top matching locations based on hit counts.
    * Uses improved scoring that considers hierarchical reinforcement.
    *
-   * @param countryHitsCount The map of country hits.
-   * @param stateHitsCount   The map of state hits.
-   * @param cityHitsCount    The map of city hits.
+   * @param hits The counters of country, state and city hits.
    * @return A list of top matching locations.
    */
-  private List<SearchLocationResult> getTopMatchingLocations(Map<Country, Integer> countryHitsCount,
-      Map<State, Integer> stateHitsCount,
-      Map<City, Integer> cityHitsCount) {
+  private List<SearchLocationResult> getTopMatchingLocations(HitCounters hits) {
+    var countryHits = hits.countries();
+    var stateHits = hits.states();
+    var cityHits = hits.cities();
 
-    // Calculate composite scores for cities that consider hierarchical reinforcement
-    City bestCity = null;
+    // Calculate composite scores for cities that consider hierarchical reinforcement, ties keep
+    // the city hit first so results are the same on every run
+    int bestCity = -1;
     int bestCityScore = 0;
-    
-    for (Map.Entry<City, Integer> cityEntry : cityHitsCount.entrySet()) {
-      City city = cityEntry.getKey();
-      int cityHits = cityEntry.getValue();
-      
-      // Get hits for the city's state and country
-      State cityState = stateIdToStateMap.get(city.getState().getId());
-      Country cityCountry = countryIdToCountryMap.get(city.getCountry().getId());
-      
-      int stateHits = stateHitsCount.getOrDefault(cityState, 0);
-      int countryHits = countryHitsCount.getOrDefault(cityCountry, 0);
-      
-      // Calculate composite score: city hits + state hits + country hits
-      // This favors cities where the state/country also have matches (hierarchical reinforcement)
-      int compositeScore = cityHits + stateHits + countryHits;
-      
+
+    for (int i = 0; i < cityHits.size(); i++) {
+      int compositeScore = cityScore(hits, i);
+
       if (compositeScore > bestCityScore) {
         bestCityScore = compositeScore;
-        bestCity = city;
+        bestCity = i;
       }
     }
-    
+
     // Find best state (with hierarchical reinforcement)
-    State bestState = null;
+    int bestState = -1;
     int bestStateScore = 0;
-    
-    for (Map.Entry<State, Integer> stateEntry : stateHitsCount.entrySet()) {
-      State state = stateEntry.getKey();
-      int stateHits = stateEntry.getValue();
-      
-      Country stateCountry = countryIdToCountryMap.get(state.getCountry().getId());
-      int countryHits = countryHitsCount.getOrDefault(stateCountry, 0);
-      
-      // Calculate composite score: state hits + country hits
-      int compositeScore = stateHits + countryHits;
-      
+
+    for (int i = 0; i < stateHits.size(); i++) {
+      int compositeScore = stateScore(hits, i);
+
       if (compositeScore > bestStateScore) {
         bestStateScore = compositeScore;
-        bestState = state;
+        bestState = i;
       }
     }
 
     // Find best country
-    Country bestCountry = getTopCountry(countryHitsCount);
+    Country bestCountry = getTopCountry(countryHits);
 
     // Return the most specific result with the highest composite score
-    if (bestCity != null && bestCityScore > 0) {
-      return List.of(searchLocationResultMapper.toCityResult(bestCity));
-    } else if (bestState != null && bestStateScore > 0) {
-      return List.of(searchLocationResultMapper.toStateResult(bestState));
+    if (bestCity >= 0) {
+      return List.of(searchLocationResultMapper.toCityResult(cityHits.entity(bestCity)));
+    } else if (bestState >= 0) {
+      return List.of(searchLocationResultMapper.toStateResult(stateHits.entity(bestState)));
     } else if (bestCountry != null) {
       return List.of(searchLocationResultMapper.toCountryResult(bestCountry));
     } else {
@@ -399,16 +787,298 @@ public class SearchLocationService implements SearchLocation {
   }
 
   /**
-   * Gets the top country based on hit counts.
+   * Retrieves up to {@code k} matching locations with their scores, in the order {@link
+   * #getTopMatchingLocations(HitCounters)} prefers them: cities before states before countries,
+   * each by descending composite score.
+   *
+   * @param hits The counters of country, state and city hits.
+   * @param k    The maximum number of locations.
+   * @return A list of the top matching locations, best first.
+   */
+  private List<ScoredSearchLocationResult> getTopMatchingLocations(HitCounters hits, int k) {
+    List<ScoredSearchLocationResult> matches = new ArrayList<>(Math.min(k,
+        hits.cities().size() + hits.states().size() + hits.countries().size()));
+
+    var cities = new TopScores(hits.cities(), k);
+    for (int i = 0; i < hits.cities().size(); i++) {
+      cities.offer(i, cityScore(hits, i));
+    }
+    for (int rank = 0, size = cities.sort(); rank < size; rank++) {
+      matches.add(new ScoredSearchLocationResult(searchLocationResultMapper.toCityResult(
+          hits.cities().entity(cities.position(rank))), cities.score(rank)));
+    }
+
+    var states = new TopScores(hits.states(), k - matches.size());
+    for (int i = 0; i < hits.states().size(); i++) {
+      states.offer(i, stateScore(hits, i));
+    }
+    for (int rank = 0, size = states.sort(); rank < size; rank++) {
+      matches.add(new ScoredSearchLocationResult(searchLocationResultMapper.toStateResult(
+          hits.states().entity(states.position(rank))), states.score(rank)));
+    }
+
+    var countries = new TopScores(hits.countries(), k - matches.size());
+    for (int i = 0; i < hits.countries().size(); i++) {
+      countries.offer(i, hits.countries().count(i));
+    }
+    for (int rank = 0, size = countries.sort(); rank < size; rank++) {
+      matches.add(new ScoredSearchLocationResult(searchLocationResultMapper.toCountryResult(
+          hits.countries().entity(countries.position(rank))), countries.score(rank)));
+    }
+    return matches;
+  }
+
+  /**
+   * Scores the matches of the whole text as if it were a single token, keeping their order.
+   *
+   * @param directMatches The direct matches of the text.
+   * @param k             The maximum number of locations.
+   * @return A list of the first {@code k} matches with their scores.
+   */
+  private static List<ScoredSearchLocationResult> scoreDirectMatches(
+      List<SearchLocationResult> directMatches, int k) {
+    Map<Integer, Integer> cityHits = new HashMap<>();
+    Map<Integer, Integer> stateHits = new HashMap<>();
+    Map<Integer, Integer> countryHits = new HashMap<>();
+    for (SearchLocationResult match : directMatches) {
+      switch (match) {
+        case CityResult city -> {
+          hit(cityHits, city);
+          hit(stateHits, city.state());
+          hit(countryHits, city.country());
+        }
+        case StateResult state -> {
+          hit(stateHits, state);
+          hit(countryHits, state.country());
+        }
+        case CountryResult country -> hit(countryHits, country);
+      }
+    }
+
+    List<ScoredSearchLocationResult> matches = new ArrayList<>(Math.min(k, directMatches.size()));
+    for (SearchLocationResult match : directMatches) {
+      if (matches.size() == k) {
+        break;
+      }
+      int score = switch (match) {
+        case CityResult city -> count(cityHits, city) + count(stateHits, city.state())
+            + count(countryHits, city.country());
+        case StateResult state -> count(stateHits, state) + count(countryHits, state.country());
+        case CountryResult country -> count(countryHits, country);
+      };
+      matches.add(new ScoredSearchLocationResult(match, score));
+    }
+    return matches;
+  }
+
+  private static void hit(Map<Integer, Integer> hits, SearchLocationResult location) {
+    if (Objects.nonNull(location)) {
+      hits.merge(id(location), 1, Integer::sum);
+    }
+  }
+
+  private static int count(Map<Integer, Integer> hits, SearchLocationResult location) {
+    return Objects.isNull(location) ? 0 : hits.getOrDefault(id(location), 0);
+  }
+
+  private static Integer id(SearchLocationResult location) {
+    return switch (location) {
+      case CountryResult country -> country.id();
+      case StateResult state -> state.id();
+      case CityResult city -> city.id();
+    };
+  }
+
+  /**
+   * Calculates the composite score of a city: city hits + state hits + country hits. This favors
+   * cities where the state/country also have matches (hierarchical reinforcement).
+   *
+   * @param hits The counters of country, state and city hits.
+   * @param city The position of the city in the city counter.
+   * @return The composite score.
+   */
+  private int cityScore(HitCounters hits, int city) {
+    City entity = hits.cities().entity(city);
+
+    // Get hits for the city's state and country
+    State cityState = stateIdToStateMap.get(entity.getState().getId());
+    Country cityCountry = countryIdToCountryMap.get(entity.getCountry().getId());
+
+    return hits.cities().count(city) + hits.states().count(cityState)
+        + hits.countries().count(cityCountry);
+  }
+
+  /**
+   * Calculates the composite score of a state: state hits + country hits.
+   *
+   * @param hits  The counters of country, state and city hits.
+   * @param state The position of the state in the state counter.
+   * @return The composite score.
+   */
+  private int stateScore(HitCounters hits, int state) {
+    Country stateCountry = countryIdToCountryMap.get(
+        hits.states().entity(state).getCountry().getId());
+    return hits.states().count(state) + hits.countries().count(stateCountry);
+  }
+
+  /**
+   * Gets the top country based on hit counts, the country hit first when counts tie.
    *
-   * @param countryHitsCount The map of country hits.
-   * @return The top country name.
+   * @param countryHits The counter of country hits.
+   * @return The top country, or null if no country was hit.
    */
-  private Country getTopCountry(Map<Country, Integer> countryHitsCount) {
-    return countryHitsCount.entrySet().stream()
-        .max(Map.Entry.comparingByValue())
-        .map(Map.Entry::getKey)
-        .orElse(null);
+  private Country getTopCountry(HitCounter<Country> countryHits) {
+    int best = -1;
+    for (int i = 0; i < countryHits.size(); i++) {
+      if (best < 0 || countryHits.count(i) > countryHits.count(best)) {
+        best = i;
+      }
+    }
+    return best < 0 ? null : countryHits.entity(best);
+  }
+
+  /**
+   * Chooses the matches a search returns, from the direct matches of the whole text or from the
+   * hit counts of its tokens.
+   *
+   * @param <R> the type of the returned matches
+   */
+  private interface Ranking<R> {
+
+    List<R> rankDirectMatches(List<SearchLocationResult> directMatches);
+
+    List<R> rankHits(HitCounters hits);
+  }
+
+  /**
+   * Returns every direct match, or the single best match of the tokens.
+   */
+  private final class BestMatch implements Ranking<SearchLocationResult> {
+
+    @Override
+    public List<SearchLocationResult> rankDirectMatches(
+        List<SearchLocationResult> directMatches) {
+      return directMatches;
+    }
+
+    @Override
+    public List<SearchLocationResult> rankHits(HitCounters hits) {
+      return getTopMatchingLocations(hits);
+    }
+  }
+
+  /**
+   * Returns up to {@code k} matches with their scores.
+   */
+  private final class TopMatches implements Ranking<ScoredSearchLocationResult> {
+
+    private final int k;
+
+    private TopMatches(int k) {
+      this.k = k;
+    }
+
+    @Override
+    public List<ScoredSearchLocationResult> rankDirectMatches(
+        List<SearchLocationResult> directMatches) {
+      return scoreDirectMatches(directMatches, k);
+    }
+
+    @Override
+    public List<ScoredSearchLocationResult> rankHits(HitCounters hits) {
+      return getTopMatchingLocations(hits, k);
+    }
+  }
+
+  /**
+   * Searches a stream of texts a window at a time, so only one window of texts and results is held
+   * however long the stream is.
+   */
+  private final class SearchWindows implements Iterator<List<SearchLocationResult>> {
+
+    private final Iterator<String> texts;
+    private final boolean parallel;
+    private final List<String> window = new ArrayList<>(STREAM_WINDOW);
+    private List<List<SearchLocationResult>> results = List.of();
+    private int next;
+
+    private SearchWindows(Iterator<String> texts, boolean parallel) {
+      this.texts = texts;
+      this.parallel = parallel;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next == results.size()) {
+        window.clear();
+        while (window.size() < STREAM_WINDOW && texts.hasNext()) {
+          window.add(texts.next());
+        }
+        results = searchAll(window, parallel).results();
+        next = 0;
+      }
+      return next < results.size();
+    }
+
+    @Override
+    public List<SearchLocationResult> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return results.get(next++);
+    }
+  }
+
+  /**
+   * Searches a range of the distinct queries of a batch, splitting it until it is a single chunk.
+   */
+  private final class BatchSearch extends RecursiveAction {
+
+    private final List<String> queries;
+    private final List<List<SearchLocationResult>> matches;
+    private final int start;
+    private final int end;
+    private final int chunk;
+
+    private BatchSearch(List<String> queries, List<List<SearchLocationResult>> matches,
+        int start, int end, int chunk) {
+      this.queries = queries;
+      this.matches = matches;
+      this.start = start;
+      this.end = end;
+      this.chunk = chunk;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start > chunk) {
+        int middle = (start + end) >>> 1;
+        invokeAll(new BatchSearch(queries, matches, start, middle, chunk),
+            new BatchSearch(queries, matches, middle, end, chunk));
+        return;
+      }
+      for (int i = start; i < end; i++) {
+        // Shared by every duplicate of the query, so it must not be changed by the caller
+        matches.set(i, List.copyOf(findBestMatches(queries.get(i))));
+      }
+    }
+  }
+
+  private record SearchBuffers(TokenSpans tokens, HitCounters hits) {
+  }
+
+  /**
+   * The hit counters of one search, sized by the dense ordinals of the index. They are pooled with
+   * {@link SearchBuffers} and reused by later searches on any thread.
+   */
+  private record HitCounters(HitCounter<Country> countries, HitCounter<State> states,
+      HitCounter<City> cities) {
+
+    void clear() {
+      countries.clear();
+      states.clear();
+      cities.clear();
+    }
   }
 
   public static class Builder {
@@ -417,7 +1087,11 @@ public class SearchLocationService implements SearchLocation {
     private TextNormaliser textNormaliser = new DefaultTextNormaliser();
     private SearchLocationResultMapper searchLocationResultMapper = new DefaultSearchLocationResultMapper();
     private LocationAliases locationAliases = new DefaultLocationAliases();
-    private DataLoader dataLoader = new DefaultDataLoader();
+    private DataLoader dataLoader;
+    private LocationIndex locationIndex;
+    private int maxEditDistance;
+    private int queryCacheSize;
+    private Executor executor = Thread::startVirtualThread;
 
     Builder() {
     }
@@ -445,13 +1119,69 @@ public class SearchLocationService implements SearchLocation {
     public Builder withDataLoader(
         DataLoader dataLoader) {
       this.dataLoader = dataLoader;
+      this.locationIndex = null;
+      return this;
+    }
+
+    /**
+     * Shares an existing index instead of indexing the data of a {@link DataLoader}.
+     */
+    public Builder withLocationIndex(LocationIndex locationIndex) {
+      this.locationIndex = locationIndex;
+      this.dataLoader = null;
+      return this;
+    }
+
+    /**
+     * Enables typo tolerant search: text with no exact match is matched to the names and codes
+     * within this many inserted, deleted, substituted or swapped characters. Words are allowed one
+     * edit per three characters, up to this distance. Disabled with 0, the default.
+     *
+     * @param maxEditDistance the largest edit distance, from 0 to {@link #MAX_EDIT_DISTANCE}
+     */
+    public Builder withMaxEditDistance(int maxEditDistance) {
+      if (maxEditDistance < 0 || maxEditDistance > MAX_EDIT_DISTANCE) {
+        throw new IllegalArgumentException("Max edit distance must be between 0 and "
+            + MAX_EDIT_DISTANCE);
+      }
+      this.maxEditDistance = maxEditDistance;
+      return this;
+    }
+
+    /**
+     * Enables caching the results of up to this many normalised queries. When the cache is full, a
+     * new query only replaces a cached one that has been searched less often. The results of a
+     * cached query are shared between callers, so every result list is unmodifiable while the
+     * cache is enabled. Disabled with 0, the default.
+     *
+     * @param maximumSize the largest number of cached queries
+     */
+    public Builder withQueryCache(int maximumSize) {
+      if (maximumSize < 0) {
+        throw new IllegalArgumentException("Query cache size cannot be negative");
+      }
+      this.queryCacheSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * Sets the executor running {@link #searchAsync(String)}, by default a new virtual thread per
+     * search.
+     *
+     * @param executor the executor running asynchronous searches
+     */
+    public Builder withExecutor(Executor executor) {
+      if (Objects.isNull(executor)) {
+        throw new IllegalArgumentException("Executor cannot be null");
+      }
+      this.executor = executor;
       return this;
     }
 
     public SearchLocationService build() {
-      return new SearchLocationService(textTokeniser, textNormaliser, searchLocationResultMapper,
-          dataLoader,
-          locationAliases);
+      var index = Objects.nonNull(dataLoader) ? LocationIndex.of(dataLoader)
+          : Objects.isNull(locationIndex) ? LocationIndex.defaultIndex() : locationIndex;
+      return new SearchLocationService(this, index);
     }
   }
 }
@@ -0,0 +1,112 @@
+package com.tomaytotomato.location4j.usecase.search;
+
+/**
+ * Keeps the best scored entities of a {@link HitCounter}, in a bounded min-heap of their positions.
+ * <p>
+ * The worst kept entity is at the root, so an entity that does not beat it is rejected with one
+ * comparison. Ties between scores are broken by position, the same way as when only the best
+ * entity is kept, so the entity hit first ranks first on every run.
+ * </p>
+ */
+final class TopScores {
+
+  private final int[] positions;
+  private final int[] scores;
+  private int size;
+
+  /**
+   * @param counter  the counter whose entities are offered
+   * @param capacity the number of entities to keep
+   */
+  TopScores(HitCounter<?> counter, int capacity) {
+    this.positions = new int[Math.max(0, Math.min(capacity, counter.size()))];
+    this.scores = new int[positions.length];
+  }
+
+  /**
+   * Keeps an entity if it is among the best offered so far.
+   *
+   * @param position the position of the entity in the counter
+   * @param score    the score of the entity
+   */
+  void offer(int position, int score) {
+    if (size < positions.length) {
+      positions[size] = position;
+      scores[size] = score;
+      siftUp(size++);
+    } else if (size > 0 && better(position, score, positions[0], scores[0])) {
+      positions[0] = position;
+      scores[0] = score;
+      siftDown(0, size);
+    }
+  }
+
+  /**
+   * Orders the kept entities best first. No entity can be offered afterwards.
+   *
+   * @return the number of kept entities
+   */
+  int sort() {
+    // Heap sort: moving the worst entity to the end each time leaves the best at the start
+    for (int end = size - 1; end > 0; end--) {
+      swap(0, end);
+      siftDown(0, end);
+    }
+    return size;
+  }
+
+  /**
+   * @return the position in the counter of the kept entity at the given rank
+   */
+  int position(int rank) {
+    return positions[rank];
+  }
+
+  /**
+   * @return the score of the kept entity at the given rank
+   */
+  int score(int rank) {
+    return scores[rank];
+  }
+
+  private void siftUp(int node) {
+    while (node > 0) {
+      int parent = (node - 1) / 2;
+      if (!better(positions[parent], scores[parent], positions[node], scores[node])) {
+        return;
+      }
+      swap(parent, node);
+      node = parent;
+    }
+  }
+
+  private void siftDown(int node, int end) {
+    while (true) {
+      int worst = node;
+      for (int child = 2 * node + 1; child <= 2 * node + 2 && child < end; child++) {
+        if (better(positions[worst], scores[worst], positions[child], scores[child])) {
+          worst = child;
+        }
+      }
+      if (worst == node) {
+        return;
+      }
+      swap(node, worst);
+      node = worst;
+    }
+  }
+
+  private boolean better(int position, int score, int otherPosition, int otherScore) {
+    return score > otherScore
+        || score == otherScore && position < otherPosition;
+  }
+
+  private void swap(int i, int j) {
+    int position = positions[i];
+    positions[i] = positions[j];
+    positions[j] = position;
+    int score = scores[i];
+    scores[i] = scores[j];
+    scores[j] = score;
+  }
+}
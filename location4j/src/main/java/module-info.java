@@ -3,6 +3,7 @@ module location4j {
   requires java.logging;
   requires java.sql;
   exports com.tomaytotomato.location4j.aliases;
+  exports com.tomaytotomato.location4j.index;
   exports com.tomaytotomato.location4j.loader;
   exports com.tomaytotomato.location4j.mapper;
   exports com.tomaytotomato.location4j.model;
@@ -1,35 +1,26 @@
 package com.tomaytotomato.location4j.debug;
 
+import com.tomaytotomato.location4j.index.LocationIndex;
 import com.tomaytotomato.location4j.loader.TestDataLoader;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 /**
  * Enumerates ambiguous location names across country, state and city levels.
- * This is a diagnostic test and will always pass (unless internal structures change).
+ * This is a diagnostic test and will always pass.
  */
 class AmbiguityEnumerationTest extends TestDataLoader {
 
   @Disabled
-  @SuppressWarnings("unchecked")
   @Test
-  void enumerateAmbiguities() throws Exception {
-    var service = getSearchLocationService();
+  void enumerateAmbiguities() {
+    var locationIndex = LocationIndex.of(getDataLoader());
 
-    Map<String, Object> maps = new LinkedHashMap<>();
-    maps.put("countryNameToCountryMap", reflectMap(service, "countryNameToCountryMap"));
-    maps.put("stateNameToStatesMap", reflectMap(service, "stateNameToStatesMap"));
-    maps.put("cityNameToCitiesMap", reflectMap(service, "cityNameToCitiesMap"));
-
-    var countryNames = ((Map<String, ?>) maps.get("countryNameToCountryMap")).keySet();
-    var stateNames = ((Map<String, List<?>>) maps.get("stateNameToStatesMap")).keySet();
-    var cityNames = ((Map<String, List<?>>) maps.get("cityNameToCitiesMap")).keySet();
+    var countryNames = locationIndex.getCountryNameToCountryMap().keySet();
+    var stateNames = locationIndex.getStateNameToStatesMap().keySet();
+    var cityNames = locationIndex.getSearchCityNameToCitiesMap().keySet();
 
     var ambiguityRecords = new ArrayList<String>();
 
@@ -52,11 +43,4 @@ class AmbiguityEnumerationTest extends TestDataLoader {
 
     assert !ambiguityRecords.isEmpty();
   }
-
-  private Map<String, ?> reflectMap(Object target, String fieldName) throws Exception {
-    Field f = target.getClass().getDeclaredField(fieldName);
-    f.setAccessible(true);
-    return (Map<String, ?>) f.get(target);
-  }
 }
-
@@ -0,0 +1,86 @@
+package com.tomaytotomato.location4j.debug;
+
+import com.tomaytotomato.location4j.index.CityKdTree;
+import com.tomaytotomato.location4j.index.Haversine;
+import com.tomaytotomato.location4j.loader.TestDataLoader;
+import com.tomaytotomato.location4j.model.lookup.City;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the k-d tree used by findClosestCityByLatLong with the previous linear haversine scan.
+ * <p>
+ * This is a diagnostic test, enable it locally and read the timings from the console. It warms up
+ * both implementations before measuring, and checks they return the same cities.
+ */
+class ClosestCityBenchmarkTest extends TestDataLoader {
+
+  private static final int WARMUP_QUERIES = 2_000;
+  private static final int QUERIES = 10_000;
+
+  @Disabled
+  @Test
+  void compareLinearScanWithKdTree() {
+    var cities = getDataLoader().getLocation4JData().getCityNameToCitiesMap().values().stream()
+        .flatMap(List::stream)
+        .toList();
+
+    long buildStart = System.nanoTime();
+    var tree = CityKdTree.of(cities);
+    long buildNanos = System.nanoTime() - buildStart;
+
+    var random = new Random(1);
+    double[] latitudes = new double[QUERIES];
+    double[] longitudes = new double[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      latitudes[i] = random.nextDouble() * 180 - 90;
+      longitudes[i] = random.nextDouble() * 360 - 180;
+    }
+
+    for (int i = 0; i < WARMUP_QUERIES; i++) {
+      linearScan(cities, latitudes[i], longitudes[i]);
+      tree.findClosest(latitudes[i], longitudes[i]);
+    }
+
+    var linearResults = new City[QUERIES];
+    long linearStart = System.nanoTime();
+    for (int i = 0; i < QUERIES; i++) {
+      linearResults[i] = linearScan(cities, latitudes[i], longitudes[i]);
+    }
+    long linearNanos = System.nanoTime() - linearStart;
+
+    int mismatches = 0;
+    long treeStart = System.nanoTime();
+    for (int i = 0; i < QUERIES; i++) {
+      if (tree.findClosest(latitudes[i], longitudes[i]) != linearResults[i]) {
+        mismatches++;
+      }
+    }
+    long treeNanos = System.nanoTime() - treeStart;
+
+    System.out.println("--- Closest city (" + cities.size() + " cities, " + QUERIES
+        + " queries) ---");
+    System.out.printf("k-d tree build:   %.1f ms%n", buildNanos / 1e6);
+    System.out.printf("linear scan:      %.2f us/query%n", linearNanos / 1e3 / QUERIES);
+    System.out.printf("k-d tree:         %.2f us/query%n", treeNanos / 1e3 / QUERIES);
+    System.out.println("mismatches:       " + mismatches);
+
+    assert mismatches == 0;
+  }
+
+  private static City linearScan(List<City> cities, double latitude, double longitude) {
+    City closest = null;
+    double closestDistance = Double.MAX_VALUE;
+    for (City city : cities) {
+      double distance = Haversine.distance(latitude, longitude, city.getLatitudeDouble(),
+          city.getLongitudeDouble());
+      if (distance < closestDistance) {
+        closest = city;
+        closestDistance = distance;
+      }
+    }
+    return closest;
+  }
+}
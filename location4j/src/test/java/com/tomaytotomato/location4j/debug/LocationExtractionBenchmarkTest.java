@@ -0,0 +1,63 @@
+package com.tomaytotomato.location4j.debug;
+
+import com.tomaytotomato.location4j.index.LocationIndex;
+import com.tomaytotomato.location4j.loader.TestDataLoader;
+import com.tomaytotomato.location4j.model.lookup.City;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures the throughput of extractLocations over a long document, in MB/s.
+ * <p>
+ * This is a diagnostic test, enable it locally and read the timings from the console. The document
+ * is ordinary words with a city, state and country name every sentence, so it looks like an article
+ * or a log file with many mentions.
+ */
+class LocationExtractionBenchmarkTest extends TestDataLoader {
+
+  private static final int DOCUMENT_LENGTH = 16_000_000;
+  private static final int ROUNDS = 5;
+  private static final String[] WORDS = {"the", "meeting", "was", "held", "near", "and", "then",
+      "we", "drove", "to", "a", "small", "office", "of", "our", "team", "in", "on", "Monday"};
+
+  @Disabled
+  @Test
+  void measureExtractionThroughput() {
+    var cities = getDataLoader().getLocation4JData().getCityIdToCityMap().values().stream()
+        .toList();
+    var document = document(cities);
+
+    long buildStart = System.nanoTime();
+    var automaton = LocationIndex.of(getDataLoader()).getNameAutomaton();
+    long buildNanos = System.nanoTime() - buildStart;
+
+    var searchLocationService = getSearchLocationService();
+    System.out.println("--- Location extraction (" + document.length() / 1_000_000 + " MB) ---");
+    System.out.printf("automaton: %d names, %d nodes, built in %d ms%n", automaton.size(),
+        automaton.nodeCount(), buildNanos / 1_000_000);
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      int mentions = searchLocationService.extractLocations(document).size();
+      long nanos = System.nanoTime() - start;
+
+      System.out.printf("%.1f MB/s (%d mentions)%n", document.length() / (nanos / 1_000.0),
+          mentions);
+    }
+  }
+
+  private static String document(List<City> cities) {
+    var random = new Random(1);
+    var document = new StringBuilder(DOCUMENT_LENGTH + 1_000);
+    while (document.length() < DOCUMENT_LENGTH) {
+      for (int i = 0; i < 12; i++) {
+        document.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+      }
+      var city = cities.get(random.nextInt(cities.size()));
+      document.append(city.getName()).append(", ").append(city.getState().getName())
+          .append(" (").append(city.getCountry().getName()).append("). ");
+    }
+    return document.toString();
+  }
+}
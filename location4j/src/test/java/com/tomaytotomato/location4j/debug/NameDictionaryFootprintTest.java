@@ -0,0 +1,95 @@
+package com.tomaytotomato.location4j.debug;
+
+import com.tomaytotomato.location4j.index.NameTrie;
+import com.tomaytotomato.location4j.index.PerfectHashMap;
+import com.tomaytotomato.location4j.loader.TestDataLoader;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the heap used by the name dictionaries when held as a HashMap, a PerfectHashMap or a
+ * NameTrie, and the cost of a lookup in each.
+ * <p>
+ * This is a diagnostic test, enable it locally and read the report from the console. Sizes are
+ * estimated from the object layout of a 64-bit JVM with compressed references, counting what each
+ * map owns (its keys, tables and nodes) but not the values it shares with the other maps.
+ */
+class NameDictionaryFootprintTest extends TestDataLoader {
+
+  private static final int OBJECT_HEADER = 12;
+  private static final int ARRAY_HEADER = 16;
+  private static final int REFERENCE = 4;
+  private static final int ROUNDS = 5;
+
+  @Disabled
+  @Test
+  void compareNameDictionaries() {
+    var data = getDataLoader().getLocation4JData();
+
+    report("city names", data.getCityNameToCitiesMap());
+    report("search dictionary", data.getSearchDictionary());
+  }
+
+  private static void report(String name, Map<String, ?> dictionary) {
+    var hashMap = new HashMap<String, Object>(dictionary);
+    var perfectHashMap = PerfectHashMap.of(dictionary);
+    var trie = NameTrie.of(dictionary);
+
+    long keyBytes = 0;
+    int characters = 0;
+    for (String key : dictionary.keySet()) {
+      // A String holds a hash, a coder and a reference to its byte array
+      keyBytes += align(OBJECT_HEADER + 12) + array(key.length(), latin1(key) ? 1 : 2);
+      characters += key.length();
+    }
+    int size = dictionary.size();
+    int tableSize = Integer.highestOneBit(Math.max(2, (int) (size / 0.75f)) - 1) << 1;
+    long hashMapBytes = keyBytes + array(tableSize, REFERENCE)
+        + (long) size * align(OBJECT_HEADER + Integer.BYTES + 3 * REFERENCE);
+    long perfectHashMapBytes = keyBytes + 2 * array(size, REFERENCE)
+        + array((size + 3) / 4, Integer.BYTES);
+    long trieBytes = array((trie.nodeCount() + 1) * 3, Integer.BYTES)
+        + array(trie.labelLength(), Character.BYTES)
+        + array(trie.nodeCount() - 1, Long.BYTES)
+        + array(trie.nodeCount(), Integer.BYTES)
+        + array(size, REFERENCE);
+
+    System.out.println("--- " + name + " (" + size + " keys, " + characters + " characters, "
+        + trie.labelLength() + " after prefix sharing, " + trie.nodeCount() + " trie nodes) ---");
+    measure("HashMap", hashMapBytes, hashMap);
+    measure("PerfectHashMap", perfectHashMapBytes, perfectHashMap);
+    measure("NameTrie", trieBytes, trie);
+  }
+
+  private static void measure(String name, long bytes, Map<String, ?> map) {
+    var keys = map.keySet().toArray(String[]::new);
+    int hits = 0;
+    long nanos = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (String key : keys) {
+        if (map.containsKey(key)) {
+          hits++;
+        }
+      }
+      nanos = System.nanoTime() - start;
+    }
+
+    System.out.printf("%-16s %8.2f MB  %6.1f ns/get (%d hits)%n", name, bytes / 1048576.0,
+        (double) nanos / keys.length, hits / ROUNDS);
+  }
+
+  private static boolean latin1(String key) {
+    return key.chars().allMatch(c -> c <= 0xFF);
+  }
+
+  private static long array(int length, int elementBytes) {
+    return align(ARRAY_HEADER + (long) length * elementBytes);
+  }
+
+  private static long align(long bytes) {
+    return (bytes + 7) & ~7L;
+  }
+}
@@ -0,0 +1,92 @@
+package com.tomaytotomato.location4j.debug;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.tomaytotomato.location4j.loader.TestDataLoader;
+import com.tomaytotomato.location4j.mapper.DefaultSearchLocationResultMapper;
+import com.tomaytotomato.location4j.mapper.LazySearchLocationResultMapper;
+import com.tomaytotomato.location4j.mapper.SearchLocationResultMapper;
+import com.tomaytotomato.location4j.model.lookup.City;
+import com.tomaytotomato.location4j.model.lookup.TimeZone;
+import com.tomaytotomato.location4j.model.search.TimeZoneResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares mapping city results with the default, eager mapper and with the lazy one.
+ * <p>
+ * The lazy mapper only saves allocation if it leaves the nested lists unmapped, so that is checked
+ * on a sample of cities, along with the results being equal. The timings are a diagnostic test,
+ * enable it locally and read them from the console, adding a profiler to compare allocation.
+ */
+class ResultMappingAllocationTest extends TestDataLoader {
+
+  private static final int ROUNDS = 3;
+  private static final int CITIES = 20_000;
+  private static final int SAMPLE = 200;
+
+  @DisplayName("Should map results equal to the default mapper, leaving nested lists unmapped")
+  @Test
+  void lazyMapping_WhenNestedListsNotRead_ShouldNotMapThem() {
+    var defaultMapper = new DefaultSearchLocationResultMapper();
+    var lazyMapper = new CountingLazyMapper();
+
+    for (City city : cities(SAMPLE)) {
+      // When
+      lazyMapper.timezones = 0;
+      var lazy = lazyMapper.toCityResult(city);
+
+      // Then only the timezones of the city and its state are mapped, not those of its country
+      assertThat(lazyMapper.timezones).isEqualTo(2);
+      assertThat(lazy).isEqualTo(defaultMapper.toCityResult(city));
+    }
+  }
+
+  @Disabled
+  @Test
+  void compareEagerAndLazyMapping() {
+    var cities = cities(CITIES);
+
+    for (int round = 0; round < ROUNDS; round++) {
+      measure(new DefaultSearchLocationResultMapper(), cities);
+      measure(new LazySearchLocationResultMapper(), cities);
+    }
+  }
+
+  private List<City> cities(int count) {
+    List<City> cities = new ArrayList<>(
+        getDataLoader().getLocation4JData().getCityIdToCityMap().values());
+    Collections.shuffle(cities, new Random(1));
+    return cities.subList(0, Math.min(count, cities.size()));
+  }
+
+  private static void measure(SearchLocationResultMapper mapper, List<City> cities) {
+    long start = System.nanoTime();
+    for (City city : cities) {
+      mapper.toCityResult(city);
+    }
+    long nanos = System.nanoTime() - start;
+
+    System.out.printf("%-34s %6.2f us/city%n", mapper.getClass().getSimpleName(),
+        nanos / 1000.0 / cities.size());
+  }
+
+  /**
+   * Counts the timezones it maps, eagerly or when a lazy list is read.
+   */
+  private static final class CountingLazyMapper extends LazySearchLocationResultMapper {
+
+    private int timezones;
+
+    @Override
+    public TimeZoneResult toTimeZoneResult(TimeZone timezone) {
+      timezones++;
+      return super.toTimeZoneResult(timezone);
+    }
+  }
+}
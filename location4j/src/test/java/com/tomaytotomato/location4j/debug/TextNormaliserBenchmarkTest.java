@@ -0,0 +1,68 @@
+package com.tomaytotomato.location4j.debug;
+
+import com.tomaytotomato.location4j.loader.TestDataLoader;
+import com.tomaytotomato.location4j.model.lookup.City;
+import com.tomaytotomato.location4j.text.normaliser.DefaultTextNormaliser;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the single pass DefaultTextNormaliser with the previous chain of regular expressions.
+ * <p>
+ * This is a diagnostic test, enable it locally and read the timings from the console, adding
+ * {@code -verbose:gc} or a profiler to compare allocation. The queries are built from city, state
+ * and country names so they look like search input.
+ */
+class TextNormaliserBenchmarkTest extends TestDataLoader {
+
+  private static final int ROUNDS = 5;
+
+  @Disabled
+  @Test
+  void compareRegularExpressionsWithSinglePass() {
+    var queries = getDataLoader().getLocation4JData().getCityIdToCityMap().values().stream()
+        .limit(100_000)
+        .map(TextNormaliserBenchmarkTest::query)
+        .toList();
+
+    var normaliser = new DefaultTextNormaliser();
+    UnaryOperator<String> regularExpressions = text -> text.trim().toLowerCase()
+        .replaceAll("\\p{Punct}", "").replaceAll("\\s+", " ");
+
+    int mismatches = 0;
+    for (String query : queries) {
+      if (!normaliser.normalise(query).equals(regularExpressions.apply(query))) {
+        mismatches++;
+      }
+    }
+
+    System.out.println("--- Text normaliser (" + queries.size() + " queries) ---");
+    for (int round = 0; round < ROUNDS; round++) {
+      measure("regular expressions", queries, regularExpressions);
+      measure("single pass", queries, normaliser::normalise);
+    }
+    System.out.println("mismatches:       " + mismatches);
+
+    assert mismatches == 0;
+  }
+
+  private static String query(City city) {
+    return "  " + city.getName() + ", " + city.getState().getName() + "  ("
+        + city.getCountry().getName() + ")";
+  }
+
+  private static void measure(String name, List<String> queries,
+      UnaryOperator<String> normalise) {
+    long start = System.nanoTime();
+    long length = 0;
+    for (String query : queries) {
+      length += normalise.apply(query).length();
+    }
+    long nanos = System.nanoTime() - start;
+
+    System.out.printf("%-20s %.1f ns/op (%d chars)%n", name, (double) nanos / queries.size(),
+        length);
+  }
+}
@@ -0,0 +1,228 @@
+package com.tomaytotomato.location4j.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.tomaytotomato.location4j.loader.TestDataLoader;
+import com.tomaytotomato.location4j.model.lookup.City;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CityKdTreeTest extends TestDataLoader {
+
+  @DisplayName("Should find the same closest city as a linear haversine scan")
+  @Test
+  void findClosest_ShouldMatchLinearScan() {
+    // Given
+    var cities = getDataLoader().getLocation4JData().getCityNameToCitiesMap().values().stream()
+        .flatMap(List::stream)
+        .toList();
+    var tree = CityKdTree.of(cities);
+    var random = new Random(42);
+
+    for (int i = 0; i < 500; i++) {
+      double latitude = random.nextDouble() * 180 - 90;
+      double longitude = random.nextDouble() * 360 - 180;
+
+      // When
+      var result = tree.findClosest(latitude, longitude);
+
+      // Then
+      assertThat(result).isSameAs(findClosestLinear(cities, latitude, longitude));
+    }
+  }
+
+  @DisplayName("Should find the same nearest and in-radius cities as sorting every city")
+  @Test
+  void findNearestAndWithinRadius_ShouldMatchSortedScan() {
+    // Given
+    var cities = getDataLoader().getLocation4JData().getCityNameToCitiesMap().values().stream()
+        .flatMap(List::stream)
+        .toList();
+    var tree = CityKdTree.of(cities);
+    var random = new Random(7);
+
+    for (int i = 0; i < 50; i++) {
+      double latitude = random.nextDouble() * 180 - 90;
+      double longitude = random.nextDouble() * 360 - 180;
+      Comparator<City> byDistance = Comparator.comparingDouble(city -> Haversine.distance(
+          latitude, longitude, city.getLatitudeDouble(), city.getLongitudeDouble()));
+      var sorted = cities.stream().sorted(byDistance).toList();
+
+      // When
+      var nearest = tree.findNearest(latitude, longitude, 10);
+      var withinRadius = tree.findWithinRadius(latitude, longitude, 250);
+
+      // Then
+      assertThat(nearest).containsExactlyElementsOf(sorted.subList(0, 10));
+      assertThat(withinRadius).containsExactlyElementsOf(sorted.stream()
+          .filter(city -> Haversine.distance(latitude, longitude, city.getLatitudeDouble(),
+              city.getLongitudeDouble()) <= 250)
+          .toList());
+    }
+  }
+
+  @DisplayName("Should not prune the closest cities when candidates are almost equally far")
+  @Test
+  void findClosest_WhenCandidatesAreAlmostEquallyFar_ShouldMatchLinearScan() {
+    // Given from a metre to almost antipodal, where the chord length barely grows with distance
+    double[] distancesKm = {0.001, 1, 100, 5_000, 15_000, 20_000, 20_015};
+    var random = new Random(3);
+
+    for (double distanceKm : distancesKm) {
+      for (int query = 0; query < 20; query++) {
+        double latitude = random.nextDouble() * 170 - 85;
+        double longitude = random.nextDouble() * 360 - 180;
+        var cities = new ArrayList<City>();
+        for (int i = 0; i < 64; i++) {
+          // Rings a micrometre apart, well inside the slack allowed for rounding
+          var point = destination(latitude, longitude, random.nextDouble() * 360,
+              distanceKm + random.nextInt(4) * 1e-9);
+          cities.add(city(i, Double.toString(point[0]), Double.toString(point[1])));
+        }
+        var tree = CityKdTree.of(cities);
+        var closest = findClosestLinear(cities, latitude, longitude);
+        double closestKm = Haversine.distance(latitude, longitude, closest.getLatitudeDouble(),
+            closest.getLongitudeDouble());
+        Comparator<City> byDistance = Comparator.comparingDouble(city -> Haversine.distance(
+            latitude, longitude, city.getLatitudeDouble(), city.getLongitudeDouble()));
+
+        // When
+        var result = tree.findClosest(latitude, longitude);
+        var nearest = tree.findNearest(latitude, longitude, 5);
+        var withinRadius = tree.findWithinRadius(latitude, longitude, closestKm);
+
+        // Then
+        assertThat(result).isSameAs(closest);
+        assertThat(nearest).containsExactlyElementsOf(cities.stream()
+            .sorted(byDistance)
+            .limit(5)
+            .toList());
+        assertThat(withinRadius).containsExactlyElementsOf(cities.stream()
+            .filter(city -> byDistance.compare(city, closest) <= 0)
+            .sorted(byDistance)
+            .toList());
+      }
+    }
+  }
+
+  @DisplayName("Should return the first city given when cities share a location")
+  @Test
+  void findClosest_WhenCitiesShareLocation_ShouldReturnFirst() {
+    // Given
+    var first = city(1, "55.86515", "-4.25763");
+    var second = city(2, "55.86515", "-4.25763");
+    var tree = CityKdTree.of(List.of(first, second, city(3, "40.71427", "-74.00597")));
+
+    // When
+    var result = tree.findClosest(55.8, -4.2);
+
+    // Then
+    assertThat(result).isSameAs(first);
+  }
+
+  @DisplayName("Should return null when the tree is empty or the coordinate is not a number")
+  @Test
+  void findClosest_WhenNoAnswer_ShouldReturnNull() {
+    assertThat(CityKdTree.of(List.of()).findClosest(0, 0)).isNull();
+    assertThat(CityKdTree.of(List.of(city(1, "1", "1"))).findClosest(Double.NaN, 0)).isNull();
+  }
+
+  @DisplayName("Should only ask the points for the cities it returns")
+  @Test
+  void of_WhenGivenPoints_ShouldOnlyAskForReturnedCities() {
+    // Given
+    var cities = List.of(city(1, "55.86515", "-4.25763"), city(2, "51.50853", "-0.12574"),
+        city(3, "40.71427", "-74.00597"), city(4, "48.85341", "2.3488"));
+    var asked = new ArrayList<Integer>();
+    var points = CityPoints.of(cities);
+    var tree = CityKdTree.of(new CityPoints() {
+      @Override
+      public int count() {
+        return points.count();
+      }
+
+      @Override
+      public double latitude(int index) {
+        return points.latitude(index);
+      }
+
+      @Override
+      public double longitude(int index) {
+        return points.longitude(index);
+      }
+
+      @Override
+      public City city(int index) {
+        asked.add(index);
+        return points.city(index);
+      }
+    });
+
+    // When
+    var closest = tree.findClosest(51.5, -0.1);
+    var nearest = tree.findNearest(55.8, -4.2, 2);
+
+    // Then
+    assertThat(closest).isSameAs(cities.get(1));
+    assertThat(nearest).containsExactly(cities.get(0), cities.get(1));
+    assertThat(asked).containsExactly(1, 0, 1);
+  }
+
+  @DisplayName("Should throw exception when cities or points are null")
+  @Test
+  void of_WhenNull_ShouldThrowException() {
+    assertThatThrownBy(() -> CityKdTree.of((Collection<City>) null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Cities cannot be null");
+    assertThatThrownBy(() -> CityKdTree.of((CityPoints) null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Points cannot be null");
+  }
+
+  private static City findClosestLinear(List<City> cities, double latitude, double longitude) {
+    City closest = null;
+    double closestDistance = Double.MAX_VALUE;
+    for (City city : cities) {
+      double distance = Haversine.distance(latitude, longitude, city.getLatitudeDouble(),
+          city.getLongitudeDouble());
+      if (distance < closestDistance) {
+        closest = city;
+        closestDistance = distance;
+      }
+    }
+    return closest;
+  }
+
+  /**
+   * Returns the point at a distance and initial bearing from a coordinate, on the same sphere as
+   * {@link Haversine}.
+   */
+  private static double[] destination(double latitude, double longitude, double bearing,
+      double distanceKm) {
+    double latRad = Math.toRadians(latitude);
+    double angle = distanceKm / Haversine.EARTH_RADIUS_KM;
+    double bearingRad = Math.toRadians(bearing);
+    double destinationLat = Math.asin(Math.sin(latRad) * Math.cos(angle)
+        + Math.cos(latRad) * Math.sin(angle) * Math.cos(bearingRad));
+    double destinationLon = Math.toRadians(longitude) + Math.atan2(
+        Math.sin(bearingRad) * Math.sin(angle) * Math.cos(latRad),
+        Math.cos(angle) - Math.sin(latRad) * Math.sin(destinationLat));
+    return new double[]{Math.toDegrees(destinationLat),
+        Math.IEEEremainder(Math.toDegrees(destinationLon), 360)};
+  }
+
+  private static City city(int id, String latitude, String longitude) {
+    return City.builder()
+        .id(id)
+        .latitude(new BigDecimal(latitude))
+        .longitude(new BigDecimal(longitude))
+        .build();
+  }
+}
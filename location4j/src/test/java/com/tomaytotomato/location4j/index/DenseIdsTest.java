@@ -0,0 +1,63 @@
+package com.tomaytotomato.location4j.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.tomaytotomato.location4j.loader.TestDataLoader;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DenseIdsTest extends TestDataLoader {
+
+  @DisplayName("Should assign ordinals in ascending id order")
+  @Test
+  void of_WhenIdsAreNearlyContiguous_ShouldAssignOrdinalsInIdOrder() {
+    // When
+    var ids = DenseIds.of(List.of(7, 3, 4, 10));
+
+    // Then
+    assertThat(ids.size()).isEqualTo(4);
+    assertThat(ids.ordinal(3)).isZero();
+    assertThat(ids.ordinal(4)).isEqualTo(1);
+    assertThat(ids.ordinal(7)).isEqualTo(2);
+    assertThat(ids.ordinal(10)).isEqualTo(3);
+    assertThat(ids.id(2)).isEqualTo(7);
+    assertThat(ids.ordinal(5)).isEqualTo(-1);
+    assertThat(ids.ordinal(-1)).isEqualTo(-1);
+    assertThat(ids.ordinal(11)).isEqualTo(-1);
+  }
+
+  @DisplayName("Should find ordinals of sparse ids")
+  @Test
+  void of_WhenIdsAreSparse_ShouldFindOrdinals() {
+    // When
+    var ids = DenseIds.of(List.of(Integer.MAX_VALUE, Integer.MIN_VALUE, 0));
+
+    // Then
+    assertThat(ids.ordinal(Integer.MIN_VALUE)).isZero();
+    assertThat(ids.ordinal(0)).isEqualTo(1);
+    assertThat(ids.ordinal(Integer.MAX_VALUE)).isEqualTo(2);
+    assertThat(ids.ordinal(1)).isEqualTo(-1);
+  }
+
+  @DisplayName("Should throw exception when ids are repeated")
+  @Test
+  void of_WhenIdsAreRepeated_ShouldThrowException() {
+    assertThatThrownBy(() -> DenseIds.of(List.of(1, 2, 2)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Ids must be distinct, found 2 twice");
+  }
+
+  @DisplayName("Should give every city in the index an ordinal")
+  @Test
+  void locationIndex_ShouldHaveOrdinalForEveryCity() {
+    // Given
+    var index = LocationIndex.of(getDataLoader());
+
+    // Then
+    assertThat(index.getCityIds().size()).isEqualTo(index.getCityIdToCityMap().size());
+    assertThat(index.getCityIdToCityMap().keySet())
+        .allMatch(id -> index.getCityIds().ordinal(id) >= 0);
+  }
+}
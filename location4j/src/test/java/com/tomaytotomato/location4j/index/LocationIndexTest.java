@@ -0,0 +1,111 @@
+package com.tomaytotomato.location4j.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.tomaytotomato.location4j.aliases.DefaultLocationAliases;
+import com.tomaytotomato.location4j.loader.TestDataLoader;
+import com.tomaytotomato.location4j.model.LocationMatches.MatchType;
+import com.tomaytotomato.location4j.usecase.lookup.LocationService;
+import com.tomaytotomato.location4j.usecase.search.SearchLocationService;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LocationIndexTest extends TestDataLoader {
+
+  @DisplayName("Should return the same index for the same data loader")
+  @Test
+  void of_WhenCalledTwiceWithSameLoader_ShouldReturnSameIndex() {
+    // When
+    var first = LocationIndex.of(getDataLoader());
+    var second = LocationIndex.of(getDataLoader());
+
+    // Then
+    assertThat(second).isSameAs(first);
+  }
+
+  @DisplayName("Should throw exception when data loader is null")
+  @Test
+  void of_WhenDataLoaderIsNull_ShouldThrowException() {
+    assertThatThrownBy(() -> LocationIndex.of(null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("DataLoader cannot be null");
+  }
+
+  @DisplayName("Should expose read-only maps that are not copies of the loaded data")
+  @Test
+  void getters_ShouldReturnReadOnlyViews() {
+    // Given
+    var index = LocationIndex.of(getDataLoader());
+
+    // Then
+    assertThat(index.getCityNameToCitiesMap())
+        .hasSameSizeAs(getDataLoader().getLocation4JData().getCityNameToCitiesMap());
+    assertThatThrownBy(() -> index.getCountryNameToCountryMap().put("atlantis", null))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @DisplayName("Should keep aliases local to the search service that declared them")
+  @Test
+  void searchLocationService_WhenAliasesDiffer_ShouldNotLeakIntoSharedIndex() {
+    // Given
+    var index = LocationIndex.of(getDataLoader());
+    var withAliases = SearchLocationService.builder()
+        .withLocationIndex(index)
+        .withLocationAliases(new DefaultLocationAliases() {
+          @Override
+          public Map<String, String> getCityNameAliases() {
+            return Map.of("glesga", "glasgow");
+          }
+        })
+        .build();
+    var withoutAliases = SearchLocationService.builder()
+        .withLocationIndex(index)
+        .build();
+
+    // When
+    var aliasedResults = withAliases.search("Glesga");
+    var unaliasedResults = withoutAliases.search("Glesga");
+
+    // Then
+    assertThat(aliasedResults).isNotEmpty()
+        .allMatch(result -> result.name().equals("Glasgow"));
+    assertThat(unaliasedResults).noneMatch(result -> result.name().equals("Glasgow"));
+    assertThat(index.getSearchCityNameToCitiesMap()).doesNotContainKey("glesga");
+    assertThat(index.getSearchDictionary()).doesNotContainKey("glesga");
+  }
+
+  @DisplayName("Should hold all matches of a search key in one dictionary posting")
+  @Test
+  void getSearchDictionary_ShouldCombineMatchesOfEveryKind() {
+    // Given
+    var index = LocationIndex.of(getDataLoader());
+
+    // When
+    var ca = index.getSearchDictionary().get("ca");
+    var glasgow = index.getSearchDictionary().get("glasgow");
+
+    // Then
+    assertThat(ca.has(MatchType.COUNTRY_ISO2)).isTrue();
+    assertThat(ca.getCountryByIso2()).isSameAs(index.getIso2CodeToCountryMap().get("ca"));
+    assertThat(ca.has(MatchType.STATE_CODE)).isTrue();
+    assertThat(ca.getStatesByCode()).isEqualTo(index.getStateCodeToStatesMap().get("ca"));
+    assertThat(glasgow.getCitiesByName())
+        .isEqualTo(index.getSearchCityNameToCitiesMap().get("glasgow"));
+    assertThat(glasgow.has(MatchType.COUNTRY_NAME)).isFalse();
+    assertThat(index.getSearchDictionary()).doesNotContainKey("atlantis");
+  }
+
+  @DisplayName("Should build a lookup service from a shared index")
+  @Test
+  void locationService_WhenGivenIndex_ShouldFindCities() {
+    // When
+    var locationService = LocationService.builder()
+        .withLocationIndex(LocationIndex.of(getDataLoader()))
+        .build();
+
+    // Then
+    assertThat(locationService.findAllCitiesByCityName("Glasgow")).isNotEmpty();
+  }
+}
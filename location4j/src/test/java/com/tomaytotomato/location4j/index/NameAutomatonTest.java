@@ -0,0 +1,95 @@
+package com.tomaytotomato.location4j.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.tomaytotomato.location4j.index.NameAutomaton.Mention;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class NameAutomatonTest {
+
+  private final NameAutomaton<Integer> automaton = NameAutomaton.of(Map.of(
+      "york", 1, "new york", 2, "new york city", 3, "paris", 4, "sao paulo", 5, "ork", 6));
+
+  @DisplayName("Should find every name in the order they appear, with their document spans")
+  @Test
+  void findAll_WhenDocumentMentionsNames_ShouldFindEachWithSpan() {
+    // Given
+    var document = "From Paris to York";
+
+    // When
+    var mentions = automaton.findAll(document);
+
+    // Then
+    assertThat(mentions).containsExactly(new Mention<>(5, 10, "paris", 4),
+        new Mention<>(14, 18, "york", 1));
+  }
+
+  @DisplayName("Should keep the longest of overlapping names and only match whole words")
+  @Test
+  void findAll_WhenNamesOverlap_ShouldKeepLeftmostLongest() {
+    // When
+    var mentions = automaton.findAll("new york city, yorkshire, new york");
+
+    // Then
+    assertThat(mentions).extracting(Mention::value).containsExactly(3, 2);
+    assertThat(mentions.getFirst().end()).isEqualTo(13);
+  }
+
+  @DisplayName("Should ignore case, punctuation and whitespace runs, keeping original offsets")
+  @Test
+  void findAll_WhenDocumentIsUnformatted_ShouldNormaliseWhileScanning() {
+    // Given
+    var document = "Visit  (NEW\n  YORK)... or “São-Paulo”!";
+
+    // When
+    var mentions = automaton.findAll(document);
+
+    // Then
+    assertThat(mentions).extracting(Mention::name).containsExactly("new york");
+    assertThat(document.substring(mentions.getFirst().start(), mentions.getFirst().end()))
+        .isEqualTo("NEW\n  YORK");
+  }
+
+  @DisplayName("Should find names with accents once the accents are part of the name")
+  @Test
+  void findAll_WhenNameHasAccents_ShouldMatchAccentedText() {
+    // Given
+    var accented = NameAutomaton.of(Map.of("são paulo", 1));
+
+    // When
+    var mentions = accented.findAll("Welcome to “São Paulo”.");
+
+    // Then
+    assertThat(mentions).containsExactly(new Mention<>(12, 21, "são paulo", 1));
+  }
+
+  @DisplayName("Should find nothing in an empty document or for an empty automaton")
+  @Test
+  void findAll_WhenNothingToFind_ShouldReturnEmptyList() {
+    assertThat(automaton.findAll("")).isEmpty();
+    assertThat(automaton.findAll("   ,,, ")).isEmpty();
+    assertThat(NameAutomaton.of(Map.of()).findAll("york")).isEmpty();
+  }
+
+  @DisplayName("Should share the trie nodes of common prefixes")
+  @Test
+  void of_WhenNamesSharePrefixes_ShouldShareNodes() {
+    assertThat(automaton.size()).isEqualTo(6);
+    // root + "york" + "new york city" + "paris" + "sao paulo" + "ork"
+    assertThat(automaton.nodeCount()).isEqualTo(1 + 4 + 13 + 5 + 9 + 3);
+  }
+
+  @DisplayName("Should throw exception when map or document is null")
+  @Test
+  void of_WhenNull_ShouldThrowException() {
+    assertThatThrownBy(() -> NameAutomaton.of(null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Map cannot be null");
+    assertThatThrownBy(() -> automaton.findAll(null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Document cannot be null");
+  }
+}
@@ -0,0 +1,103 @@
+package com.tomaytotomato.location4j.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class NameTrieTest {
+
+  @DisplayName("Should find values by slices of a larger text")
+  @Test
+  void get_WhenGivenSlice_ShouldFindValue() {
+    // Given
+    var trie = NameTrie.of(Map.of("san", 1, "san francisco", 2, "santa cruz", 3));
+    var text = "san francisco santa cruz";
+
+    // When & Then
+    assertThat(trie.get(text, 0, 3)).isEqualTo(1);
+    assertThat(trie.get(text, 0, 13)).isEqualTo(2);
+    assertThat(trie.get(text, 14, 24)).isEqualTo(3);
+    assertThat(trie.get(text, 14, 19)).isNull();
+    assertThat(trie.get(text, 0, 2)).isNull();
+    assertThat(trie.containsKey(text, 4, 13)).isFalse();
+  }
+
+  @DisplayName("Should behave like the map it was copied from, iterating keys in order")
+  @Test
+  void of_WhenCopyingMap_ShouldContainTheSameEntries() {
+    // Given
+    var source = new HashMap<String, Integer>();
+    for (int i = 0; i < 1_000; i++) {
+      source.put("san " + i, i);
+      source.put("santa " + i, -i);
+    }
+    source.put("", 0);
+
+    // When
+    var trie = NameTrie.of(source);
+
+    // Then
+    assertThat(trie).isEqualTo(source).hasSameSizeAs(source);
+    assertThat(new ArrayList<>(trie.keySet())).isSorted();
+    assertThat(trie.get("santa 500")).isEqualTo(-500);
+    assertThat(trie.get("")).isZero();
+    assertThat(trie.get("san 1000")).isNull();
+    assertThat(trie.labelLength()).isLessThan(source.keySet().stream()
+        .mapToInt(String::length).sum());
+    assertThatThrownBy(() -> trie.put("atlantis", 1))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @DisplayName("Should be empty when copied from an empty map")
+  @Test
+  void of_WhenMapIsEmpty_ShouldBeEmpty() {
+    // When
+    var trie = NameTrie.of(Map.of());
+
+    // Then
+    assertThat(trie).isEmpty();
+    assertThat(trie.get("")).isNull();
+  }
+
+  @DisplayName("Should find the closest key within the edit distance")
+  @Test
+  void nearestKey_WhenTextIsMisspelt_ShouldFindClosestKey() {
+    // Given
+    var trie = NameTrie.of(Map.of("glasgow", 1, "san francisco", 2, "santa cruz", 3,
+        "san", 4, "sana", 5));
+    var text = "glasgw sna francisco";
+
+    // When & Then
+    assertThat(trie.nearestKey(text, 0, 6, 1)).isEqualTo("glasgow");
+    assertThat(trie.nearestKey(text, 7, 20, 1)).isEqualTo("san francisco");
+    assertThat(trie.nearestKey("san", 0, 3, 2)).isEqualTo("san");
+    assertThat(trie.nearestKey("sab", 0, 3, 1)).isEqualTo("san");
+    assertThat(trie.nearestKey("glsgw", 0, 5, 1)).isNull();
+    assertThat(trie.nearestKey("glsgw", 0, 5, 2)).isEqualTo("glasgow");
+  }
+
+  @DisplayName("Should throw exception when the edit distance is negative")
+  @Test
+  void nearestKey_WhenDistanceIsNegative_ShouldThrowException() {
+    // Given
+    var trie = NameTrie.of(Map.of("glasgow", 1));
+
+    // When & Then
+    assertThatThrownBy(() -> trie.nearestKey("glasgow", 0, 7, -1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Max distance cannot be negative");
+  }
+
+  @DisplayName("Should throw exception when map is null")
+  @Test
+  void of_WhenMapIsNull_ShouldThrowException() {
+    assertThatThrownBy(() -> NameTrie.of(null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Map cannot be null");
+  }
+}
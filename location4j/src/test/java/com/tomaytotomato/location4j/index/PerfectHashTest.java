@@ -0,0 +1,81 @@
+package com.tomaytotomato.location4j.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PerfectHashTest {
+
+  @DisplayName("Should give every key its own slot")
+  @Test
+  void of_WhenGivenKeys_ShouldGiveEachKeyADistinctSlot() {
+    // Given
+    var keys = new ArrayList<String>();
+    for (int i = 0; i < 10_000; i++) {
+      keys.add("city " + i);
+    }
+    keys.add("");
+
+    // When
+    var hash = PerfectHash.of(keys);
+
+    // Then
+    var slots = new HashSet<Integer>();
+    for (String key : keys) {
+      int slot = hash.slot(key, 0, key.length());
+      assertThat(slot).isBetween(0, keys.size() - 1);
+      slots.add(slot);
+    }
+    assertThat(slots).hasSameSizeAs(keys);
+    assertThat(hash.size()).isEqualTo(keys.size());
+  }
+
+  @DisplayName("Should hash a slice of a larger text to the slot of the equal key")
+  @Test
+  void slot_WhenGivenSlice_ShouldMatchKey() {
+    // Given
+    var hash = PerfectHash.of(List.of("glasgow", "new york", "york"));
+    var text = "glasgow new york";
+
+    // When & Then
+    assertThat(hash.slot(text, 8, 16)).isEqualTo(hash.slot("new york", 0, 8));
+    assertThat(hash.slot(text, 12, 16)).isEqualTo(hash.slot("york", 0, 4));
+  }
+
+  @DisplayName("Should give the same slots when restored from its seed and displacements")
+  @Test
+  void of_WhenRestored_ShouldGiveTheSameSlots() {
+    // Given
+    var keys = List.of("scotland", "texas", "paris", "london", "tokyo", "sydney");
+    var hash = PerfectHash.of(keys);
+
+    // When
+    var restored = PerfectHash.of(hash.seed(), hash.size(), hash.displacements());
+
+    // Then
+    for (String key : keys) {
+      assertThat(restored.slot(key, 0, key.length())).isEqualTo(hash.slot(key, 0, key.length()));
+    }
+    assertThatThrownBy(() -> PerfectHash.of(hash.seed(), hash.size() + 8, hash.displacements()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @DisplayName("Should return -1 when there are no keys")
+  @Test
+  void slot_WhenEmpty_ShouldReturnMinusOne() {
+    assertThat(PerfectHash.of(List.of()).slot("paris", 0, 5)).isEqualTo(-1);
+  }
+
+  @DisplayName("Should throw exception when keys are repeated")
+  @Test
+  void of_WhenKeysAreRepeated_ShouldThrowException() {
+    assertThatThrownBy(() -> PerfectHash.of(List.of("paris", "paris")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Keys must be distinct, found paris twice");
+  }
+}
@@ -0,0 +1,67 @@
+package com.tomaytotomato.location4j.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.tomaytotomato.location4j.model.LocationMatches;
+import com.tomaytotomato.location4j.model.lookup.City;
+import com.tomaytotomato.location4j.model.lookup.Country;
+import com.tomaytotomato.location4j.model.lookup.State;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SuggestionIndexTest {
+
+  private final Country georgia = Country.builder().id(1).name("Georgia").build();
+  private final State georgiaState = State.builder().id(2).name("Georgia").build();
+  private final City gent = City.builder().id(3).name("Gent").build();
+  private final City geneva = City.builder().id(4).name("Geneva").build();
+  private final City genoa = City.builder().id(5).name("Genoa").build();
+
+  private final Map<String, LocationMatches> dictionary = LocationMatches.compile(
+      Map.of("georgia", georgia), Map.of("ge", georgia), Map.of("geo", georgia),
+      Map.of("georgia", List.of(georgiaState)), Map.of(),
+      Map.of("gent", List.of(gent), "geneva", List.of(geneva), "genoa", List.of(genoa)));
+
+  @DisplayName("Should suggest countries, then states, then cities, then shorter names first")
+  @Test
+  void suggest_WhenPrefixMatchesNames_ShouldOrderByKindThenLength() {
+    // Given
+    var index = SuggestionIndex.of(dictionary);
+
+    // When
+    var suggestions = index.suggest("ge", 10);
+
+    // Then
+    assertThat(suggestions).extracting(LocationMatches::getCountryByName)
+        .containsExactly(georgia, null, null, null);
+    assertThat(suggestions.subList(1, 4)).flatExtracting(LocationMatches::getCitiesByName)
+        .containsExactly(gent, genoa, geneva);
+  }
+
+  @DisplayName("Should return at most the limit, and nothing for codes or unknown prefixes")
+  @Test
+  void suggest_WhenLimitedOrUnknown_ShouldReturnFewerNames() {
+    // Given
+    var index = SuggestionIndex.of(NameTrie.of(dictionary));
+
+    // When & Then
+    assertThat(index.suggest("gen", 2)).flatExtracting(LocationMatches::getCitiesByName)
+        .containsExactly(gent, genoa);
+    assertThat(index.suggest("geo", 10)).hasSize(1);
+    assertThat(index.suggest("gex", 10)).isEmpty();
+    assertThat(index.suggest("ge", 0)).isEmpty();
+    assertThat(SuggestionIndex.of(new HashMap<>()).suggest("ge", 10)).isEmpty();
+  }
+
+  @DisplayName("Should throw exception when dictionary is null")
+  @Test
+  void of_WhenDictionaryIsNull_ShouldThrowException() {
+    assertThatThrownBy(() -> SuggestionIndex.of(null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Dictionary cannot be null");
+  }
+}
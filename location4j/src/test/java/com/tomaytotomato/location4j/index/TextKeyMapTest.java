@@ -0,0 +1,57 @@
+package com.tomaytotomato.location4j.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TextKeyMapTest {
+
+  @DisplayName("Should find values by slices of a larger text")
+  @Test
+  void get_WhenGivenSlice_ShouldFindValue() {
+    // Given
+    var map = TextKeyMap.of(Map.of("glasgow", 1, "new york", 2, "york", 3));
+    var text = "glasgow new york";
+
+    // When & Then
+    assertThat(map.get(text, 0, 7)).isEqualTo(1);
+    assertThat(map.get(text, 8, 16)).isEqualTo(2);
+    assertThat(map.get(text, 12, 16)).isEqualTo(3);
+    assertThat(map.get(text, 0, 3)).isNull();
+    assertThat(map.containsKey(text, 4, 7)).isFalse();
+  }
+
+  @DisplayName("Should behave like the map it was copied from")
+  @Test
+  void of_WhenCopyingMap_ShouldContainTheSameEntries() {
+    // Given
+    var source = new HashMap<String, Integer>();
+    for (int i = 0; i < 1_000; i++) {
+      source.put("city " + i, i);
+    }
+    source.put("", -1);
+
+    // When
+    var map = TextKeyMap.of(source);
+
+    // Then
+    assertThat(map).isEqualTo(source).hasSameSizeAs(source);
+    assertThat(map.get("city 500")).isEqualTo(500);
+    assertThat(map.get("")).isEqualTo(-1);
+    assertThat(map.get("city 1000")).isNull();
+    assertThatThrownBy(() -> map.put("atlantis", 1))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @DisplayName("Should throw exception when map is null")
+  @Test
+  void of_WhenMapIsNull_ShouldThrowException() {
+    assertThatThrownBy(() -> TextKeyMap.of(null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Map cannot be null");
+  }
+}
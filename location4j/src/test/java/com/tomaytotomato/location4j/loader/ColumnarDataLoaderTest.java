@@ -0,0 +1,123 @@
+package com.tomaytotomato.location4j.loader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.tomaytotomato.location4j.index.PerfectHashMap;
+import com.tomaytotomato.location4j.model.LocationMatches.MatchType;
+import com.tomaytotomato.location4j.model.lookup.State;
+import com.tomaytotomato.location4j.usecase.lookup.LocationService;
+import com.tomaytotomato.location4j.usecase.search.SearchLocationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ColumnarDataLoaderTest extends TestDataLoader {
+
+  private final ColumnarDataLoader columnarDataLoader = new ColumnarDataLoader();
+
+  @DisplayName("Should successfully load Location4J columnar data")
+  @Test
+  void constructor_WhenFileExists_ShouldLoadDataSuccessfully() {
+    // Then
+    assertThat(columnarDataLoader.getLocation4JData()).isNotNull();
+    assertThat(columnarDataLoader.getCountries()).isNotNull().isNotEmpty();
+    assertThat(columnarDataLoader.getLocation4JData().getCountries())
+        .isEqualTo(columnarDataLoader.getCountries());
+  }
+
+  @DisplayName("Should decode the same data structures as the serialized binary")
+  @Test
+  void getLocation4JData_ShouldMatchSerializedData() {
+    // Given
+    var expected = getDataLoader().getLocation4JData();
+
+    // When
+    var actual = columnarDataLoader.getLocation4JData();
+
+    // Then
+    assertThat(actual.getCountries()).hasSameSizeAs(expected.getCountries());
+    assertThat(actual.getCountryNameToCountryMap().keySet())
+        .isEqualTo(expected.getCountryNameToCountryMap().keySet());
+    assertThat(actual.getLocalisedNameToCountryMap().keySet())
+        .isEqualTo(expected.getLocalisedNameToCountryMap().keySet());
+    assertThat(actual.getIso2CodeToCountryMap().keySet())
+        .isEqualTo(expected.getIso2CodeToCountryMap().keySet());
+    assertThat(actual.getIso3CodeToCountryMap().keySet())
+        .isEqualTo(expected.getIso3CodeToCountryMap().keySet());
+    assertThat(actual.getStateIdToStateMap().keySet())
+        .isEqualTo(expected.getStateIdToStateMap().keySet());
+    assertThat(actual.getCityIdToCityMap().keySet())
+        .isEqualTo(expected.getCityIdToCityMap().keySet());
+    assertThat(actual.getStateNameToStatesMap().keySet())
+        .isEqualTo(expected.getStateNameToStatesMap().keySet());
+    assertThat(actual.getStateCodeToStatesMap().keySet())
+        .isEqualTo(expected.getStateCodeToStatesMap().keySet());
+    assertThat(actual.getCityNameToCitiesMap().keySet())
+        .isEqualTo(expected.getCityNameToCitiesMap().keySet());
+    assertThat(actual.getSearchDictionary().keySet())
+        .isEqualTo(expected.getSearchDictionary().keySet());
+  }
+
+  @DisplayName("Should decode the search dictionary postings of every match type")
+  @Test
+  void getSearchDictionary_ShouldDecodePostings() {
+    // Given
+    var expected = getDataLoader().getLocation4JData().getSearchDictionary().get("ca");
+
+    // When
+    var actual = columnarDataLoader.getLocation4JData().getSearchDictionary().get("ca");
+
+    // Then
+    assertThat(actual.getCountryByIso2().getId()).isEqualTo(expected.getCountryByIso2().getId());
+    assertThat(actual.getStatesByCode()).extracting(State::getId)
+        .containsExactlyElementsOf(expected.getStatesByCode().stream().map(State::getId).toList());
+    assertThat(actual.has(MatchType.COUNTRY_NAME)).isEqualTo(expected.has(MatchType.COUNTRY_NAME));
+    assertThat(actual.has(MatchType.CITY_NAME)).isEqualTo(expected.has(MatchType.CITY_NAME));
+  }
+
+  @DisplayName("Should index the name dictionaries by their stored perfect hashes")
+  @Test
+  void getLocation4JData_ShouldIndexNamesByPerfectHash() {
+    // When
+    var data = columnarDataLoader.getLocation4JData();
+
+    // Then
+    assertThat(data.getCityNameToCitiesMap()).isInstanceOf(PerfectHashMap.class);
+    assertThat(data.getSearchDictionary()).isInstanceOf(PerfectHashMap.class);
+    assertThat(data.getCityNameToCitiesMap().get("glasgow")).isNotEmpty();
+    assertThat(data.getCityNameToCitiesMap().get("glasgowx")).isNull();
+  }
+
+  @DisplayName("Should link cities to their state and country")
+  @Test
+  void getLocation4JData_ShouldLinkCitiesToParents() {
+    // When
+    var city = columnarDataLoader.getLocation4JData().getCityIdToCityMap().get(1);
+
+    // Then
+    assertThat(city.getName()).isEqualTo("Andorra la Vella");
+    assertThat(city.getState().getCities()).contains(city);
+    assertThat(city.getCountry()).isSameAs(city.getState().getCountry());
+    assertThat(city.getCountry().getStates()).contains(city.getState());
+    assertThat(city.getLatitude()).isEqualTo(
+        getDataLoader().getLocation4JData().getCityIdToCityMap().get(1).getLatitude());
+  }
+
+  @DisplayName("Should be accepted by the existing service builders")
+  @Test
+  void builders_WhenGivenColumnarDataLoader_ShouldBuildServices() {
+    // When
+    var locationService = LocationService.builder()
+        .withDataLoader(columnarDataLoader)
+        .build();
+    var searchLocationService = SearchLocationService.builder()
+        .withDataLoader(columnarDataLoader)
+        .build();
+
+    // Then
+    assertThat(locationService.findClosestCityByLatLong(30.438, -84.280).getName())
+        .isEqualTo("Tallahassee");
+    assertThat(searchLocationService.search("Glasgow Scotland")).hasSize(1);
+  }
+}
@@ -0,0 +1,297 @@
+package com.tomaytotomato.location4j.loader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.tomaytotomato.location4j.index.CityPoints;
+import com.tomaytotomato.location4j.index.LocationIndex;
+import com.tomaytotomato.location4j.index.TextLookup;
+import com.tomaytotomato.location4j.model.LocationMatches;
+import com.tomaytotomato.location4j.model.lookup.City;
+import com.tomaytotomato.location4j.usecase.lookup.LocationService;
+import com.tomaytotomato.location4j.usecase.search.SearchLocationService;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MappedDataLoaderTest extends TestDataLoader {
+
+  private MappedDataLoader mappedDataLoader;
+
+  @BeforeAll
+  void setUp(@TempDir Path cacheDirectory) {
+    mappedDataLoader = new MappedDataLoader(cacheDirectory);
+  }
+
+  @DisplayName("Should successfully map Location4J columnar data")
+  @Test
+  void constructor_WhenFileExists_ShouldLoadDataSuccessfully() {
+    // Then
+    assertThat(mappedDataLoader.getLocation4JData()).isNotNull();
+    assertThat(mappedDataLoader.getCountries()).isNotNull().isNotEmpty();
+  }
+
+  @DisplayName("Should throw exception when cache directory is null")
+  @Test
+  void constructor_WhenCacheDirectoryIsNull_ShouldThrowException() {
+    assertThatThrownBy(() -> new MappedDataLoader(null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Cache directory cannot be null");
+  }
+
+  @DisplayName("Should expose the same lookup keys as the serialized binary")
+  @Test
+  void getLocation4JData_ShouldMatchSerializedData() {
+    // Given
+    var expected = getDataLoader().getLocation4JData();
+
+    // When
+    var actual = mappedDataLoader.getLocation4JData();
+
+    // Then
+    assertThat(actual.getCountries()).hasSameSizeAs(expected.getCountries());
+    assertThat(actual.getStateIdToStateMap().keySet())
+        .isEqualTo(expected.getStateIdToStateMap().keySet());
+    assertThat(actual.getCityIdToCityMap().keySet())
+        .isEqualTo(expected.getCityIdToCityMap().keySet());
+    assertThat(actual.getCityNameToCitiesMap().keySet())
+        .isEqualTo(expected.getCityNameToCitiesMap().keySet());
+  }
+
+  @DisplayName("Should materialise a city once and link it to its state and country")
+  @Test
+  void getCityIdToCityMap_ShouldReturnCachedLinkedCity() {
+    // When
+    var cityIdToCityMap = mappedDataLoader.getLocation4JData().getCityIdToCityMap();
+    var city = cityIdToCityMap.get(1);
+
+    // Then
+    assertThat(city.getName()).isEqualTo("Andorra la Vella");
+    assertThat(cityIdToCityMap.get(1)).isSameAs(city);
+    assertThat(city.getState().getCities()).contains(city);
+    assertThat(city.getCountry()).isSameAs(city.getState().getCountry());
+    assertThat(cityIdToCityMap.get(-1)).isNull();
+  }
+
+  @DisplayName("Should find cities by normalised name in the mapped index")
+  @Test
+  void getCityNameToCitiesMap_ShouldFindCitiesByName() {
+    // When
+    var cityNameToCitiesMap = mappedDataLoader.getLocation4JData().getCityNameToCitiesMap();
+
+    // Then
+    assertThat(cityNameToCitiesMap.get("glasgow"))
+        .extracting(City::getId)
+        .containsExactlyElementsOf(
+            getDataLoader().getLocation4JData().getCityNameToCitiesMap().get("glasgow").stream()
+                .map(City::getId)
+                .toList());
+    assertThat(cityNameToCitiesMap.get("not a real city")).isNull();
+  }
+
+  @DisplayName("Should find cities by a slice of text in the mapped index")
+  @Test
+  @SuppressWarnings("unchecked")
+  void getCityNameToCitiesMap_WhenProbedWithSlice_ShouldFindCitiesByName() {
+    // Given
+    var cityNameToCitiesMap = mappedDataLoader.getLocation4JData().getCityNameToCitiesMap();
+    var text = "glasgow scotland";
+
+    // When
+    var cities = ((TextLookup<List<City>>) cityNameToCitiesMap).get(text, 0, 7);
+
+    // Then
+    assertThat(cities).isEqualTo(cityNameToCitiesMap.get("glasgow"));
+    assertThat(((TextLookup<List<City>>) cityNameToCitiesMap).get(text, 0, 6)).isNull();
+    assertThat(((TextLookup<List<City>>) cityNameToCitiesMap).get("zürich", 0, 6))
+        .isEqualTo(cityNameToCitiesMap.get("zürich"));
+  }
+
+  @DisplayName("Should find search dictionary postings by a slice of text in the mapped file")
+  @Test
+  @SuppressWarnings("unchecked")
+  void getSearchDictionary_WhenProbedWithSlice_ShouldDecodePostings() {
+    // Given
+    var searchDictionary = mappedDataLoader.getLocation4JData().getSearchDictionary();
+    var text = "glasgow scotland";
+
+    // When
+    var glasgow = ((TextLookup<LocationMatches>) searchDictionary).get(text, 0, 7);
+
+    // Then
+    assertThat(glasgow).isSameAs(searchDictionary.get("glasgow"));
+    assertThat(glasgow.getCitiesByName())
+        .isEqualTo(mappedDataLoader.getLocation4JData().getCityNameToCitiesMap().get("glasgow"));
+    assertThat(((TextLookup<LocationMatches>) searchDictionary).get(text, 0, 6)).isNull();
+    assertThat(searchDictionary.keySet())
+        .isEqualTo(getDataLoader().getLocation4JData().getSearchDictionary().keySet());
+  }
+
+  @DisplayName("Should give the coordinates of the cities in the mapped name index")
+  @Test
+  void getCityNameToCitiesMap_ShouldGiveCityPointsFromColumns() {
+    // Given
+    var cityNameToCitiesMap = mappedDataLoader.getLocation4JData().getCityNameToCitiesMap();
+    var cities = cityNameToCitiesMap.values().stream().flatMap(List::stream).toList();
+
+    // When
+    var points = (CityPoints) cityNameToCitiesMap;
+
+    // Then
+    assertThat(points.count()).isEqualTo(cities.size());
+    for (int i = 0; i < cities.size(); i++) {
+      assertThat(points.latitude(i)).isEqualTo(cities.get(i).getLatitudeDouble());
+      assertThat(points.longitude(i)).isEqualTo(cities.get(i).getLongitudeDouble());
+      assertThat(points.city(i)).isSameAs(cities.get(i));
+    }
+  }
+
+  @DisplayName("Should find the same closest cities with a tree built from the mapped columns")
+  @Test
+  void getCityKdTree_WhenMapped_ShouldMatchSerializedData() {
+    // Given
+    var mappedTree = LocationIndex.of(mappedDataLoader).getCityKdTree();
+    var tree = LocationIndex.of(getDataLoader()).getCityKdTree();
+    var random = new Random(5);
+
+    for (int i = 0; i < 200; i++) {
+      double latitude = random.nextDouble() * 180 - 90;
+      double longitude = random.nextDouble() * 360 - 180;
+
+      // When
+      var result = mappedTree.findClosest(latitude, longitude);
+
+      // Then
+      assertThat(result.getId()).isEqualTo(tree.findClosest(latitude, longitude).getId());
+    }
+  }
+
+  @DisplayName("Should be accepted by the existing service builders")
+  @Test
+  void builders_WhenGivenMappedDataLoader_ShouldBuildServices() {
+    // When
+    var locationService = LocationService.builder()
+        .withDataLoader(mappedDataLoader)
+        .build();
+    var searchLocationService = SearchLocationService.builder()
+        .withDataLoader(mappedDataLoader)
+        .build();
+
+    // Then
+    assertThat(locationService.findClosestCityByLatLong(30.438, -84.280).getName())
+        .isEqualTo("Tallahassee");
+    assertThat(searchLocationService.search("Glasgow Scotland")).hasSize(1);
+  }
+
+  @DisplayName("Should extract a packaged dataset once, readable by the current user only")
+  @Test
+  void resolve_WhenDatasetInJar_ShouldExtractOnceToPrivateDirectory(@TempDir Path directory)
+      throws IOException {
+    // Given
+    var data = columnarData();
+    var url = jar(directory, data);
+    var cacheDirectory = directory.resolve("cache");
+
+    // When
+    var extracted = MappedDataLoader.resolve(url, cacheDirectory);
+    Files.setLastModifiedTime(extracted, FileTime.fromMillis(0));
+    var reused = MappedDataLoader.resolve(url, cacheDirectory);
+
+    // Then
+    assertThat(extracted.getParent()).isEqualTo(cacheDirectory);
+    assertThat(reused).isEqualTo(extracted);
+    assertThat(Files.getLastModifiedTime(reused)).isEqualTo(FileTime.fromMillis(0));
+    assertThat(Files.readAllBytes(reused)).isEqualTo(data);
+    assumeTrue(isPosix(directory));
+    assertThat(Files.getPosixFilePermissions(cacheDirectory))
+        .isEqualTo(PosixFilePermissions.fromString("rwx------"));
+    assertThat(Files.getPosixFilePermissions(extracted))
+        .isEqualTo(PosixFilePermissions.fromString("rw-------"));
+  }
+
+  @DisplayName("Should extract the dataset again when the cached file does not match its checksum")
+  @Test
+  void resolve_WhenCachedFileTampered_ShouldExtractAgain(@TempDir Path directory)
+      throws IOException {
+    // Given
+    var data = columnarData();
+    var url = jar(directory, data);
+    var cacheDirectory = directory.resolve("cache");
+    var extracted = MappedDataLoader.resolve(url, cacheDirectory);
+    var tampered = data.clone();
+    tampered[tampered.length - 1]++;
+    Files.write(extracted, tampered);
+
+    // When
+    var resolved = MappedDataLoader.resolve(url, cacheDirectory);
+
+    // Then
+    assertThat(resolved).isEqualTo(extracted);
+    assertThat(Files.readAllBytes(resolved)).isEqualTo(data);
+  }
+
+  @DisplayName("Should extract to a private directory when the cache directory is shared")
+  @Test
+  void resolve_WhenCacheDirectoryWritableByOthers_ShouldUsePrivateDirectory(@TempDir Path directory)
+      throws IOException {
+    // Given
+    assumeTrue(isPosix(directory));
+    var url = jar(directory, columnarData());
+    var cacheDirectory = Files.createDirectory(directory.resolve("shared"),
+        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwxrwxrwx")));
+    Files.setPosixFilePermissions(cacheDirectory, PosixFilePermissions.fromString("rwxrwxrwx"));
+
+    // When
+    var extracted = MappedDataLoader.resolve(url, cacheDirectory);
+
+    // Then
+    assertThat(extracted.getParent()).isNotEqualTo(cacheDirectory);
+    assertThat(Files.getPosixFilePermissions(extracted.getParent()))
+        .isEqualTo(PosixFilePermissions.fromString("rwx------"));
+    try (var files = Files.list(cacheDirectory)) {
+      assertThat(files).isEmpty();
+    }
+  }
+
+  /**
+   * An empty columnar data file, a header without sections followed by some padding.
+   */
+  private static byte[] columnarData() {
+    var buffer = ByteBuffer.allocate(1024).order(ColumnarDataFormat.BYTE_ORDER);
+    buffer.putInt(ColumnarDataFormat.MAGIC).putInt(ColumnarDataFormat.VERSION).putInt(0);
+    for (int i = 0; buffer.hasRemaining(); i++) {
+      buffer.put((byte) i);
+    }
+    return buffer.array();
+  }
+
+  private static URL jar(Path directory, byte[] data) throws IOException {
+    var jar = directory.resolve("location4j.jar");
+    try (var outputStream = new JarOutputStream(Files.newOutputStream(jar))) {
+      outputStream.putNextEntry(new JarEntry("location4j-columnar.bin"));
+      outputStream.write(data);
+      outputStream.closeEntry();
+    }
+    return URI.create("jar:" + jar.toUri() + "!/location4j-columnar.bin").toURL();
+  }
+
+  private static boolean isPosix(Path directory) {
+    return directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+  }
+}
@@ -0,0 +1,55 @@
+package com.tomaytotomato.location4j.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.tomaytotomato.location4j.index.LocationIndex;
+import com.tomaytotomato.location4j.loader.TestDataLoader;
+import com.tomaytotomato.location4j.model.lookup.City;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CachingSearchLocationResultMapperTest extends TestDataLoader {
+
+  private final SearchLocationResultMapper defaultMapper = new DefaultSearchLocationResultMapper();
+
+  @DisplayName("Should return the same result instance every time an entity is mapped")
+  @Test
+  void toCityResult_WhenMappedTwice_ShouldReturnSameInstance() {
+    // Given
+    var mapper = new CachingSearchLocationResultMapper(defaultMapper,
+        LocationIndex.of(getDataLoader()));
+    var city = anyCity();
+
+    // When
+    var first = mapper.toCityResult(city);
+    var second = mapper.toCityResult(city);
+
+    // Then
+    assertThat(second).isSameAs(first).isEqualTo(defaultMapper.toCityResult(city));
+    assertThat(mapper.toStateResult(city.getState()))
+        .isSameAs(mapper.toStateResult(city.getState()))
+        .isEqualTo(defaultMapper.toStateResult(city.getState()));
+    assertThat(mapper.toCountryResult(city.getCountry()))
+        .isSameAs(mapper.toCountryResult(city.getCountry()))
+        .isEqualTo(defaultMapper.toCountryResult(city.getCountry()));
+    assertThat(mapper.toCityResult(null)).isNull();
+  }
+
+  @DisplayName("Should throw exception when mapper or index is null")
+  @Test
+  void new_WhenArgumentsAreNull_ShouldThrowException() {
+    var locationIndex = LocationIndex.of(getDataLoader());
+
+    assertThatThrownBy(() -> new CachingSearchLocationResultMapper(null, locationIndex))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Mapper cannot be null");
+    assertThatThrownBy(() -> new CachingSearchLocationResultMapper(defaultMapper, null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("LocationIndex cannot be null");
+  }
+
+  private City anyCity() {
+    return getDataLoader().getLocation4JData().getCityIdToCityMap().values().iterator().next();
+  }
+}
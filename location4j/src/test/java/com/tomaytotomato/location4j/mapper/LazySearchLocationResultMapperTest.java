@@ -0,0 +1,70 @@
+package com.tomaytotomato.location4j.mapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.tomaytotomato.location4j.loader.TestDataLoader;
+import com.tomaytotomato.location4j.model.lookup.City;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LazySearchLocationResultMapperTest extends TestDataLoader {
+
+  private final SearchLocationResultMapper defaultMapper = new DefaultSearchLocationResultMapper();
+  private final SearchLocationResultMapper lazyMapper = new LazySearchLocationResultMapper();
+
+  @DisplayName("Should map results equal to the default mapper")
+  @Test
+  void toCityResult_WhenMapped_ShouldEqualDefaultMapping() {
+    // Given
+    var city = glasgow();
+
+    // When
+    var lazy = lazyMapper.toCityResult(city);
+    var eager = defaultMapper.toCityResult(city);
+
+    // Then
+    assertThat(lazy).isEqualTo(eager).hasSameHashCodeAs(eager);
+    assertThat(lazy.getState().cities()).hasSameSizeAs(city.getState().getCities())
+        .containsExactlyElementsOf(eager.getState().cities());
+    assertThat(lazyMapper.toCountryResult(city.getCountry()))
+        .isEqualTo(defaultMapper.toCountryResult(city.getCountry()));
+  }
+
+  @DisplayName("Should map each nested city once and keep the lists read-only")
+  @Test
+  void toStateResult_WhenCitiesRead_ShouldMapEachCityOnce() {
+    // Given
+    var state = lazyMapper.toStateResult(glasgow().getState());
+
+    // When
+    var first = state.cities().getFirst();
+
+    // Then
+    assertThat(state.cities().getFirst()).isSameAs(first);
+    assertThat(first.getState().cities()).isEmpty();
+    assertThatThrownBy(() -> state.cities().add(first))
+        .isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(() -> state.country().timezones().add(null))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @DisplayName("Should map null entities to null")
+  @Test
+  void toResult_WhenEntityIsNull_ShouldReturnNull() {
+    assertThat(lazyMapper.toCountryResult(null)).isNull();
+    assertThat(lazyMapper.toStateResult(null)).isNull();
+    assertThat(lazyMapper.toCityResult(null)).isNull();
+    assertThat(lazyMapper.toTimeZoneResult(null)).isNull();
+  }
+
+  private City glasgow() {
+    List<City> cities = getDataLoader().getLocation4JData().getCityNameToCitiesMap()
+        .get("glasgow");
+    return cities.stream()
+        .filter(city -> city.getCountry().getName().equals("United Kingdom"))
+        .findFirst()
+        .orElseThrow();
+  }
+}
@@ -0,0 +1,68 @@
+package com.tomaytotomato.location4j.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.tomaytotomato.location4j.model.LocationMatches.MatchType;
+import com.tomaytotomato.location4j.model.lookup.City;
+import com.tomaytotomato.location4j.model.lookup.Country;
+import com.tomaytotomato.location4j.model.lookup.State;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LocationMatchesTest {
+
+  @DisplayName("Should combine the values of a key from every map into one posting")
+  @Test
+  void compile_ShouldMergeMatchesByKey() {
+    // Given
+    var georgia = Country.builder().id(1).name("Georgia").build();
+    var georgiaState = State.builder().id(2).name("Georgia").build();
+    var georgiaCity = City.builder().id(3).name("Georgia").build();
+
+    // When
+    var dictionary = LocationMatches.compile(Map.of("georgia", georgia), Map.of("ge", georgia),
+        Map.of("geo", georgia), Map.of("georgia", List.of(georgiaState)),
+        Map.of("ga", List.of(georgiaState)), Map.of("georgia", List.of(georgiaCity)));
+
+    // Then
+    assertThat(dictionary).containsOnlyKeys("georgia", "ge", "geo", "ga");
+    var matches = dictionary.get("georgia");
+    assertThat(matches.getCountryByName()).isSameAs(georgia);
+    assertThat(matches.getStatesByName()).containsExactly(georgiaState);
+    assertThat(matches.getCitiesByName()).containsExactly(georgiaCity);
+    assertThat(matches.has(MatchType.COUNTRY_ISO2)).isFalse();
+    assertThat(dictionary.get("ga").getStatesByCode()).containsExactly(georgiaState);
+    assertThat(dictionary.get("ga").has(MatchType.STATE_NAME)).isFalse();
+  }
+
+  @DisplayName("Should keep existing matches when another is layered over a posting")
+  @Test
+  void builder_WhenCopyingPosting_ShouldKeepMatches() {
+    // Given
+    var country = Country.builder().id(1).name("United Kingdom").build();
+    var city = City.builder().id(3).name("Uk").build();
+    var posting = LocationMatches.builder().citiesByName(List.of(city)).build();
+
+    // When
+    var aliased = LocationMatches.builder(posting).countryByName(country).build();
+
+    // Then
+    assertThat(aliased.getCountryByName()).isSameAs(country);
+    assertThat(aliased.getCitiesByName()).containsExactly(city);
+    assertThat(aliased.has(MatchType.COUNTRY_NAME)).isTrue();
+    assertThat(posting.has(MatchType.COUNTRY_NAME)).isFalse();
+  }
+
+  @DisplayName("Should record a match type even when an alias maps it to nothing")
+  @Test
+  void has_WhenMatchIsNull_ShouldReturnTrue() {
+    // When
+    var matches = LocationMatches.builder(null).countryByName(null).build();
+
+    // Then
+    assertThat(matches.has(MatchType.COUNTRY_NAME)).isTrue();
+    assertThat(matches.getCountryByName()).isNull();
+  }
+}
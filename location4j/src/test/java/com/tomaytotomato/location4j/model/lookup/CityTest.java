@@ -0,0 +1,63 @@
+package com.tomaytotomato.location4j.model.lookup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class CityTest {
+
+  @DisplayName("Should rebuild the BigDecimal coordinate with its original scale")
+  @ParameterizedTest(name = "{0}, {1}")
+  @CsvSource({
+      "42.50779000, 1.52109000",
+      "-33.86785, 151.20732",
+      "0.00000000, -0.12574000",
+      "55, -4"
+  })
+  void getLatitude_ShouldMatchBuilderValue(BigDecimal latitude, BigDecimal longitude) {
+    // When
+    var city = City.builder()
+        .latitude(latitude)
+        .longitude(longitude)
+        .build();
+
+    // Then
+    assertThat(city.getLatitude()).isEqualTo(latitude);
+    assertThat(city.getLongitude()).isEqualTo(longitude);
+    assertThat(city.getLatitudeDouble()).isEqualTo(latitude.doubleValue());
+    assertThat(city.getLongitudeDouble()).isEqualTo(longitude.doubleValue());
+  }
+
+  @DisplayName("Should only expose primitive coordinates when built from doubles")
+  @Test
+  void getLatitude_WhenBuiltFromDoubles_ShouldReturnNull() {
+    // When
+    var city = City.builder()
+        .latitudeDouble(55.86515)
+        .longitudeDouble(-4.25763)
+        .build();
+
+    // Then
+    assertThat(city.getLatitude()).isNull();
+    assertThat(city.getLongitude()).isNull();
+    assertThat(city.getLatitudeDouble()).isEqualTo(55.86515);
+    assertThat(city.getLongitudeDouble()).isEqualTo(-4.25763);
+  }
+
+  @DisplayName("Should treat cities with the same coordinates and scale as equal")
+  @Test
+  void equals_WhenSameCoordinates_ShouldBeEqual() {
+    // Given
+    var first = City.builder().id(1).latitude(new BigDecimal("55.86515000")).build();
+    var second = City.builder().id(1).latitude(new BigDecimal("55.86515000")).build();
+    var differentScale = City.builder().id(1).latitude(new BigDecimal("55.86515")).build();
+
+    // Then
+    assertThat(first).isEqualTo(second).hasSameHashCodeAs(second);
+    assertThat(first).isNotEqualTo(differentScale);
+  }
+}
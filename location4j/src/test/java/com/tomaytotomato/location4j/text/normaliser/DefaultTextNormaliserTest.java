@@ -2,8 +2,11 @@ package com.tomaytotomato.location4j.text.normaliser;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.Random;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class DefaultTextNormaliserTest {
 
@@ -82,4 +85,80 @@ class DefaultTextNormaliserTest {
     // Then
     assertThat(result).isEqualTo("san francisco ca usa");
   }
+
+  @DisplayName("Normalise, when text is already normalised, then return the same instance")
+  @Test
+  void normalise_WhenTextIsAlreadyNormalised_ThenReturnTheSameInstance() {
+    // Given
+    var text = "new york";
+
+    // When
+    var result = textNormaliser.normalise(text);
+
+    // Then
+    assertThat(result).isSameAs(text);
+  }
+
+  @DisplayName("Normalise, when removing punctuation leaves spaces, then keep a single space")
+  @Test
+  void normalise_WhenRemovingPunctuationLeavesSpaces_ThenKeepASingleSpace() {
+    // When
+    var result = textNormaliser.normalise("Glasgow , - Scotland ,");
+
+    // Then
+    assertThat(result).isEqualTo("glasgow scotland ");
+  }
+
+  @DisplayName("Normalise, when text is tricky, then return the same result as the regular expressions")
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "São Paulo, Brazil",
+      "ZÜRICH",
+      "İSTANBUL",
+      "ΟΔΥΣΣΕΥΣ",
+      "St. John's,\tNewfoundland",
+      "\u00A0Nuuk\u00A0",
+      "a\u0000b\u0001 c",
+      "\t\n\u000B\f\r",
+      "...",
+      "_under_score_",
+  })
+  void normalise_WhenTextIsTricky_ThenReturnTheSameResultAsTheRegularExpressions(String text) {
+    // When
+    var result = textNormaliser.normalise(text);
+
+    // Then
+    assertThat(result).isEqualTo(regularExpressionNormalise(text));
+  }
+
+  @DisplayName("Normalise, when text is random, then return the same result as the regular expressions")
+  @Test
+  void normalise_WhenTextIsRandom_ThenReturnTheSameResultAsTheRegularExpressions() {
+    // Given
+    var random = new Random(1);
+    var alphabet = " \t\n\u000B\f\r\u0001,.-'!?;:@[]^_`{|}~()AZaz09ÀÉİıΣσéß\u00A0K";
+
+    for (int i = 0; i < 10_000; i++) {
+      var builder = new StringBuilder();
+      int length = 1 + random.nextInt(12);
+      for (int j = 0; j < length; j++) {
+        builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      var text = builder.toString();
+
+      // When
+      var result = textNormaliser.normalise(text);
+
+      // Then
+      assertThat(result).as("normalise(\"%s\")", text)
+          .isEqualTo(regularExpressionNormalise(text));
+    }
+  }
+
+  /**
+   * The original implementation, which the single pass normaliser must match.
+   */
+  private static String regularExpressionNormalise(String text) {
+    return text.trim().toLowerCase().replaceAll("\\p{Punct}", "").replaceAll("\\s+", " ");
+  }
 }
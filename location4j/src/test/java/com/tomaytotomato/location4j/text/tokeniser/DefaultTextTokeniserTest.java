@@ -2,6 +2,7 @@ package com.tomaytotomato.location4j.text.tokeniser;
 
 
 import static org.assertj.core.api.Assertions.assertThat;
+import java.util.ArrayList;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -61,4 +62,51 @@ class DefaultTextTokeniserTest {
     assertThat(textTokeniser.tokenise("Tel Aviv Israel")).containsExactly("Tel Aviv", "Aviv Israel",
         "Tel", "Aviv", "Israel");
   }
-}
\ No newline at end of file
+
+  @DisplayName("Tokenise, when text has other separators, then return the words between them")
+  @Test
+  void tokenise_WhenTextHasOtherSeparators_ThenReturnTheWordsBetweenThem() {
+
+    // When
+    var result = textTokeniser.tokenise("Zürich «Schweiz» – St. Gallen\u00A0");
+
+    // Then
+    assertThat(result).containsExactly("Zürich Schweiz", "Schweiz St.", "St. Gallen", "Zürich",
+        "Schweiz", "St.", "Gallen");
+  }
+
+  @DisplayName("Tokenise into spans, when text has several words, then return the same tokens as Strings")
+  @Test
+  void tokeniseSpans_WhenTextHasSeveralWords_ThenReturnTheSameTokensAsStrings() {
+    // Given
+    var spanTextTokeniser = new DefaultTextTokeniser();
+    var tokens = new TokenSpans();
+    var text = "Santa Clara,  California, United States";
+
+    // When
+    spanTextTokeniser.tokenise(text, tokens);
+
+    // Then
+    var spanned = new ArrayList<String>();
+    for (int i = 0; i < tokens.size(); i++) {
+      spanned.add(tokens.subSequence(tokens.start(i), tokens.end(i)).toString());
+    }
+    assertThat(spanned).isEqualTo(textTokeniser.tokenise(text)).isEqualTo(tokens.toList());
+    assertThat(tokens.toString()).isEqualTo("Santa Clara California United States");
+  }
+
+  @DisplayName("Tokenise into spans, when the buffer is reused, then only return the new tokens")
+  @Test
+  void tokeniseSpans_WhenBufferIsReused_ThenOnlyReturnTheNewTokens() {
+    // Given
+    var spanTextTokeniser = new DefaultTextTokeniser();
+    var tokens = new TokenSpans();
+    spanTextTokeniser.tokenise("Saint-Pierre and Miquelon", tokens);
+
+    // When
+    spanTextTokeniser.tokenise("Glasgow", tokens);
+
+    // Then
+    assertThat(tokens.toList()).containsExactly("Glasgow");
+  }
+}
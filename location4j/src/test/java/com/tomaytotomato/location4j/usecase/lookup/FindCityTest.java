@@ -4,8 +4,15 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import com.tomaytotomato.location4j.index.Haversine;
 import com.tomaytotomato.location4j.loader.TestDataLoader;
+import com.tomaytotomato.location4j.model.lookup.City;
 import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.Executors;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -37,6 +44,32 @@ class FindCityTest extends TestDataLoader {
     assertThat(result.getName()).isEqualTo("Tallahassee");
   }
 
+  @DisplayName("Find City by Lat/long asynchronously, on a virtual thread by default")
+  @Test
+  void findCityByLatLongAsync() throws Exception {
+    var result = locationService.findClosestCityByLatLongAsync(30.438, -84.280);
+    assertThat(result.get().getName()).isEqualTo("Tallahassee");
+  }
+
+  @DisplayName("Find City by Lat/long asynchronously, on the executor of the builder")
+  @Test
+  void findCityByLatLongAsync_WhenExecutorIsSet_ThenRunOnExecutor() throws Exception {
+    // Given
+    var executor = Executors.newSingleThreadExecutor(task -> new Thread(task, "reverse-geocode"));
+    var service = LocationService.builder()
+        .withDataLoader(getDataLoader())
+        .withExecutor(executor)
+        .build();
+
+    // When
+    var thread = service.findClosestCityByLatLongAsync(30.438, -84.280)
+        .thenApply(city -> Thread.currentThread().getName());
+
+    // Then
+    assertThat(thread.get()).isEqualTo("reverse-geocode");
+    executor.shutdown();
+  }
+
   @DisplayName("Find City By ID, when null then throw exception")
   @Test
   void findCityById_WhenNull_ThenThrowException() {
@@ -122,4 +155,153 @@ class FindCityTest extends TestDataLoader {
     // Then
     assertThat(results).hasSize(expectedCount);
   }
+
+  @DisplayName("Find Closest Cities, then return the same cities as individual lookups")
+  @Test
+  void findClosestCities_ThenMatchSingleLookups() {
+    // Given
+    var random = new Random(11);
+    double[] latitudes = new double[5_000];
+    double[] longitudes = new double[latitudes.length];
+    for (int i = 0; i < latitudes.length; i++) {
+      latitudes[i] = random.nextDouble() * 180 - 90;
+      longitudes[i] = random.nextDouble() * 360 - 180;
+    }
+
+    // When
+    var results = locationService.findClosestCities(latitudes, longitudes);
+
+    // Then
+    assertThat(results).hasSameSizeAs(latitudes);
+    for (int i = 0; i < latitudes.length; i++) {
+      assertThat(results[i])
+          .isSameAs(locationService.findClosestCityByLatLong(latitudes[i], longitudes[i]));
+    }
+  }
+
+  @DisplayName("Find Closest Cities, when arrays differ in length then throw exception")
+  @Test
+  void findClosestCities_WhenLengthsDiffer_ThenThrowException() {
+    // When Then
+    assertThatThrownBy(() -> locationService.findClosestCities(new double[2], new double[1]))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Latitudes and longitudes must be the same length");
+  }
+
+  @DisplayName("Find Nearest Cities, then return k cities ordered by distance")
+  @Test
+  void findNearestCities_ThenReturnClosestFirst() {
+    // When
+    var results = locationService.findNearestCities(30.438, -84.280, 5);
+
+    // Then
+    assertThat(results).hasSize(5);
+    assertThat(results.getFirst().getName()).isEqualTo("Tallahassee");
+    assertThat(results).isSortedAccordingTo(byDistanceFrom(30.438, -84.280));
+  }
+
+  @DisplayName("Find Nearest Cities, when k is less than one then throw exception")
+  @Test
+  void findNearestCities_WhenKIsNotPositive_ThenThrowException() {
+    // When Then
+    assertThatThrownBy(() -> locationService.findNearestCities(30.438, -84.280, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Number of cities must be greater than zero");
+  }
+
+  @DisplayName("Find Cities Within Radius, then return only cities inside the radius")
+  @Test
+  void findCitiesWithinRadius_ThenReturnCitiesInsideRadius() {
+    // When
+    var results = locationService.findCitiesWithinRadius(55.86515, -4.25763, 25);
+
+    // Then
+    assertThat(results).isNotEmpty()
+        .extracting(City::getName)
+        .contains("Glasgow");
+    assertThat(results).allMatch(city -> Haversine.distance(55.86515, -4.25763,
+        city.getLatitudeDouble(), city.getLongitudeDouble()) <= 25);
+    assertThat(results).isSortedAccordingTo(byDistanceFrom(55.86515, -4.25763));
+  }
+
+  @DisplayName("Find Cities Within Radius, when radius is negative then throw exception")
+  @Test
+  void findCitiesWithinRadius_WhenRadiusIsNegative_ThenThrowException() {
+    // When Then
+    assertThatThrownBy(() -> locationService.findCitiesWithinRadius(55.86515, -4.25763, -1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Radius must be zero or a positive number of kilometers");
+  }
+
+  @DisplayName("Find Cities Within Radius, when latitude is out of range then throw exception")
+  @Test
+  void findCitiesWithinRadius_WhenLatitudeOutOfRange_ThenThrowException() {
+    // When Then
+    assertThatThrownBy(() -> locationService.findCitiesWithinRadius(91, 0, 10))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Latitude must be within range of [-90 to 90]");
+  }
+
+  @DisplayName("Find City by Lat/long asynchronously, by default then complete with the city")
+  @Test
+  void findCityByLatLongAsync_WhenNotOverridden_ThenCompleteWithClosestCity() throws Exception {
+    // Given
+    FindCity scanning = new ScanningFindCity(locationService);
+
+    // When
+    var result = scanning.findClosestCityByLatLongAsync(30.438, -84.280);
+
+    // Then
+    assertThat(result.get().getName()).isEqualTo("Tallahassee");
+  }
+
+  @DisplayName("Find Nearest Cities and Cities Within Radius, by default then scan all cities")
+  @Test
+  void findNearestCities_WhenNotOverridden_ThenMatchIndexedLookups() {
+    // Given
+    FindCity scanning = new ScanningFindCity(locationService);
+    var random = new Random(7);
+
+    for (int i = 0; i < 20; i++) {
+      double latitude = random.nextDouble() * 180 - 90;
+      double longitude = random.nextDouble() * 360 - 180;
+
+      // When Then
+      assertThat(scanning.findNearestCities(latitude, longitude, 5))
+          .isEqualTo(locationService.findNearestCities(latitude, longitude, 5));
+      assertThat(scanning.findCitiesWithinRadius(latitude, longitude, 300))
+          .isEqualTo(locationService.findCitiesWithinRadius(latitude, longitude, 300));
+    }
+  }
+
+  private static Comparator<City> byDistanceFrom(double latitude, double longitude) {
+    return Comparator.comparingDouble(city -> Haversine.distance(latitude, longitude,
+        city.getLatitudeDouble(), city.getLongitudeDouble()));
+  }
+
+  /**
+   * Only implements the abstract methods, so the default methods of FindCity are used.
+   */
+  private record ScanningFindCity(FindCity delegate) implements FindCity {
+
+    @Override
+    public Optional<City> findCityById(Integer id) {
+      return delegate.findCityById(id);
+    }
+
+    @Override
+    public List<City> findAllCities() {
+      return delegate.findAllCities();
+    }
+
+    @Override
+    public List<City> findAllCitiesByCityName(String cityName) {
+      return delegate.findAllCitiesByCityName(cityName);
+    }
+
+    @Override
+    public City findClosestCityByLatLong(double latitude, double longitude) {
+      return delegate.findClosestCityByLatLong(latitude, longitude);
+    }
+  }
 }
@@ -0,0 +1,70 @@
+package com.tomaytotomato.location4j.usecase.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BufferPoolTest {
+
+  private final AtomicInteger created = new AtomicInteger();
+  private final BufferPool<StringBuilder> pool = new BufferPool<>(2, () -> {
+    created.incrementAndGet();
+    return new StringBuilder();
+  });
+
+  @DisplayName("Should reuse a buffer once it is given back")
+  @Test
+  void acquire_WhenBufferWasReleased_ShouldReuseIt() {
+    // Given
+    var first = pool.acquire();
+    pool.release(first);
+
+    // When
+    var second = pool.acquire();
+
+    // Then
+    assertThat(second).isSameAs(first);
+    assertThat(created).hasValue(1);
+  }
+
+  @DisplayName("Should create a buffer when every pooled one is taken")
+  @Test
+  void acquire_WhenEveryBufferIsTaken_ShouldCreateOne() {
+    // When
+    var first = pool.acquire();
+    var second = pool.acquire();
+
+    // Then
+    assertThat(second).isNotSameAs(first);
+    assertThat(created).hasValue(2);
+  }
+
+  @DisplayName("Should drop buffers given back to a full pool")
+  @Test
+  void release_WhenPoolIsFull_ShouldDropBuffer() {
+    // Given
+    var buffers = new StringBuilder[]{pool.acquire(), pool.acquire(), pool.acquire()};
+    for (var buffer : buffers) {
+      pool.release(buffer);
+    }
+
+    // When
+    pool.acquire();
+    pool.acquire();
+    pool.acquire();
+
+    // Then
+    assertThat(created).hasValue(4);
+  }
+
+  @DisplayName("Should throw IllegalArgumentException when the size is not positive")
+  @Test
+  void constructor_WhenSizeIsNotPositive_ShouldThrowIllegalArgumentException() {
+    assertThatThrownBy(() -> new BufferPool<>(0, StringBuilder::new))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Size must be positive");
+  }
+}
@@ -0,0 +1,51 @@
+package com.tomaytotomato.location4j.usecase.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.tomaytotomato.location4j.index.DenseIds;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HitCounterTest {
+
+  private final HitCounter<Integer> hitCounter = new HitCounter<>(
+      DenseIds.of(List.of(10, 20, 30)), Function.identity());
+
+  @DisplayName("Should count hits and list entities in order of first hit")
+  @Test
+  void hit_WhenEntitiesAreHit_ShouldCountHitsInOrderOfFirstHit() {
+    // When
+    hitCounter.hit(30);
+    hitCounter.hit(10);
+    hitCounter.hit(30);
+    hitCounter.hit(40);
+    hitCounter.hit(null);
+
+    // Then
+    assertThat(hitCounter.size()).isEqualTo(2);
+    assertThat(hitCounter.entity(0)).isEqualTo(30);
+    assertThat(hitCounter.count(0)).isEqualTo(2);
+    assertThat(hitCounter.entity(1)).isEqualTo(10);
+    assertThat(hitCounter.count(Integer.valueOf(10))).isEqualTo(1);
+    assertThat(hitCounter.count(Integer.valueOf(20))).isZero();
+  }
+
+  @DisplayName("Should reset only the counts that were hit when cleared")
+  @Test
+  void clear_WhenEntitiesWereHit_ShouldResetCounts() {
+    // Given
+    hitCounter.hit(20);
+    hitCounter.hit(20);
+
+    // When
+    hitCounter.clear();
+    hitCounter.hit(10);
+
+    // Then
+    assertThat(hitCounter.size()).isEqualTo(1);
+    assertThat(hitCounter.count(Integer.valueOf(20))).isZero();
+    assertThat(hitCounter.count(Integer.valueOf(10))).isEqualTo(1);
+  }
+}
@@ -0,0 +1,85 @@
+package com.tomaytotomato.location4j.usecase.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class QueryCacheTest {
+
+  @DisplayName("Should return cached values and count hits and misses")
+  @Test
+  void get_WhenValueIsCached_ShouldCountHit() {
+    // Given
+    var cache = new QueryCache<String>(4);
+
+    // When
+    var miss = cache.get("glasgow");
+    cache.put("glasgow", "Glasgow");
+    var hit = cache.get("glasgow");
+
+    // Then
+    assertThat(miss).isNull();
+    assertThat(hit).isEqualTo("Glasgow");
+    assertThat(cache.hitCount()).isEqualTo(1);
+    assertThat(cache.missCount()).isEqualTo(1);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @DisplayName("Should keep frequent queries when full of one-off queries")
+  @Test
+  void put_WhenFull_ShouldOnlyAdmitMoreFrequentQueries() {
+    // Given
+    var cache = new QueryCache<String>(8);
+    for (int i = 0; i < 8; i++) {
+      var key = "frequent " + i;
+      cache.get(key);
+      cache.put(key, key);
+    }
+
+    // When
+    for (int i = 0; i < 100; i++) {
+      for (int j = 0; j < 8; j++) {
+        cache.get("frequent " + j);
+      }
+      var key = "one-off " + i;
+      cache.get(key);
+      cache.put(key, key);
+    }
+
+    // Then
+    assertThat(cache.size()).isEqualTo(8);
+    for (int i = 0; i < 8; i++) {
+      assertThat(cache.get("frequent " + i)).isEqualTo("frequent " + i);
+    }
+  }
+
+  @DisplayName("Should replace a rare query with one read more often")
+  @Test
+  void put_WhenFull_ShouldEvictLessFrequentQuery() {
+    // Given
+    var cache = new QueryCache<String>(1);
+    cache.get("rare");
+    cache.put("rare", "rare");
+
+    // When
+    for (int read = 0; read < 3; read++) {
+      cache.get("popular");
+    }
+    cache.put("popular", "popular");
+
+    // Then
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.get("popular")).isEqualTo("popular");
+    assertThat(cache.get("rare")).isNull();
+  }
+
+  @DisplayName("Should throw exception when maximum size is not positive")
+  @Test
+  void new_WhenMaximumSizeIsNotPositive_ShouldThrowException() {
+    assertThatThrownBy(() -> new QueryCache<String>(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Maximum size must be positive");
+  }
+}
@@ -0,0 +1,247 @@
+package com.tomaytotomato.location4j.usecase.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.tomaytotomato.location4j.loader.TestDataLoader;
+import com.tomaytotomato.location4j.model.search.SearchLocationResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SearchLocationProcessorTest extends TestDataLoader {
+
+  private final SearchLocation searchLocationService;
+
+  SearchLocationProcessorTest() {
+    searchLocationService = getSearchLocationService();
+  }
+
+  @DisplayName("Should publish results in the order of the texts when searched concurrently")
+  @Test
+  void subscribe_WhenSearchedConcurrently_ShouldPublishResultsInOrder() throws Exception {
+    // Given
+    var texts = List.of("Glasgow Scotland", "Canada", "x", "Santa Clara US CA", "Kyiv",
+        "glasgow, scotland");
+    var executor = Executors.newFixedThreadPool(4);
+    var processor = new SearchLocationProcessor(searchLocationService, executor, 2);
+    var subscriber = new CollectingSubscriber(1);
+
+    // When
+    try (var publisher = new SubmissionPublisher<String>()) {
+      publisher.subscribe(processor);
+      processor.subscribe(subscriber);
+      texts.forEach(publisher::submit);
+    }
+    subscriber.completion.get(30, TimeUnit.SECONDS);
+    executor.shutdown();
+
+    // Then
+    assertThat(subscriber.results).isEqualTo(searchLocationService.searchAll(texts).results());
+  }
+
+  @DisplayName("Should only request texts from the publisher as results are delivered")
+  @Test
+  void onNext_WhenSubscriberHasNoDemand_ShouldStopRequestingTexts() {
+    // Given
+    var processor = new SearchLocationProcessor(searchLocationService, Runnable::run, 2);
+    var upstream = new RecordingSubscription();
+    var subscriber = new CollectingSubscriber(0);
+    processor.subscribe(subscriber);
+
+    // When
+    processor.onSubscribe(upstream);
+    processor.onNext("Canada");
+    processor.onNext("Kyiv");
+
+    // Then
+    assertThat(upstream.requested).isEqualTo(2);
+    assertThat(subscriber.results).isEmpty();
+
+    // When
+    subscriber.subscription.request(1);
+
+    // Then
+    assertThat(upstream.requested).isEqualTo(3);
+    assertThat(subscriber.results).containsExactly(searchLocationService.search("Canada"));
+  }
+
+  @DisplayName("Should complete after every buffered result is delivered")
+  @Test
+  void onComplete_WhenResultsAreBuffered_ShouldCompleteAfterDeliveringThem() {
+    // Given
+    var processor = new SearchLocationProcessor(searchLocationService, Runnable::run, 4);
+    var subscriber = new CollectingSubscriber(0);
+    processor.subscribe(subscriber);
+    processor.onSubscribe(new RecordingSubscription());
+    processor.onNext("Canada");
+    processor.onComplete();
+
+    // When
+    var completedEarly = subscriber.completion.isDone();
+    subscriber.subscription.request(1);
+
+    // Then
+    assertThat(completedEarly).isFalse();
+    assertThat(subscriber.results).hasSize(1);
+    assertThat(subscriber.completion).isCompleted();
+  }
+
+  @DisplayName("Should signal an error from the publisher and cancel on a cancelled subscription")
+  @Test
+  void onError_WhenPublisherFails_ShouldSignalError() {
+    // Given
+    var processor = new SearchLocationProcessor(searchLocationService, Runnable::run, 4);
+    var subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+    processor.subscribe(subscriber);
+
+    // When
+    processor.onError(new IllegalStateException("Import failed"));
+    var upstream = new RecordingSubscription();
+    processor.onSubscribe(upstream);
+
+    // Then
+    assertThat(subscriber.completion).isCompletedExceptionally();
+    assertThat(upstream.cancelled).isTrue();
+  }
+
+  @DisplayName("Should cancel the publisher and signal the error when the subscriber throws")
+  @Test
+  void onNext_WhenSubscriberThrows_ShouldCancelAndSignalError() {
+    // Given
+    var processor = new SearchLocationProcessor(searchLocationService, Runnable::run, 4);
+    var upstream = new RecordingSubscription();
+    var failure = new IllegalStateException("Subscriber failed");
+    var delivered = new ArrayList<List<SearchLocationResult>>();
+    var errors = new ArrayList<Throwable>();
+    processor.subscribe(new Flow.Subscriber<>() {
+      @Override
+      public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+      }
+
+      @Override
+      public void onNext(List<SearchLocationResult> item) {
+        delivered.add(item);
+        throw failure;
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        errors.add(throwable);
+      }
+
+      @Override
+      public void onComplete() {
+        errors.add(null);
+      }
+    });
+    processor.onSubscribe(upstream);
+
+    // When
+    processor.onNext("Canada");
+    processor.onNext("Kyiv");
+    processor.onComplete();
+
+    // Then
+    assertThat(delivered).containsExactly(searchLocationService.search("Canada"));
+    assertThat(upstream.cancelled).isTrue();
+    assertThat(errors).containsExactly(failure);
+  }
+
+  @DisplayName("Should reject a second subscriber")
+  @Test
+  void subscribe_WhenAlreadySubscribed_ShouldSignalErrorToSecondSubscriber() {
+    // Given
+    var processor = new SearchLocationProcessor(searchLocationService);
+    processor.subscribe(new CollectingSubscriber(0));
+    var second = new CollectingSubscriber(0);
+
+    // When
+    processor.subscribe(second);
+
+    // Then
+    assertThatThrownBy(() -> second.completion.join())
+        .hasCauseInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("SearchLocationProcessor only supports one subscriber");
+  }
+
+  @DisplayName("Should throw IllegalArgumentException when created with invalid arguments")
+  @Test
+  void constructor_WhenArgumentsAreInvalid_ShouldThrowIllegalArgumentException() {
+    assertThatThrownBy(() -> new SearchLocationProcessor(null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("SearchLocation cannot be null");
+    assertThatThrownBy(() -> new SearchLocationProcessor(searchLocationService, null, 4))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Executor cannot be null");
+    assertThatThrownBy(() -> new SearchLocationProcessor(searchLocationService, Runnable::run, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Buffer size must be positive");
+  }
+
+  /**
+   * Collects results, requesting an initial amount then one more after each result when the
+   * initial amount is 1.
+   */
+  private static final class CollectingSubscriber implements
+      Flow.Subscriber<List<SearchLocationResult>> {
+
+    private final long initialRequest;
+    private final List<List<SearchLocationResult>> results = new ArrayList<>();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+
+    private CollectingSubscriber(long initialRequest) {
+      this.initialRequest = initialRequest;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      if (initialRequest > 0) {
+        subscription.request(initialRequest);
+      }
+    }
+
+    @Override
+    public void onNext(List<SearchLocationResult> item) {
+      results.add(item);
+      if (initialRequest == 1) {
+        subscription.request(1);
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      completion.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      completion.complete(null);
+    }
+  }
+
+  private static final class RecordingSubscription implements Flow.Subscription {
+
+    private long requested;
+    private boolean cancelled;
+
+    @Override
+    public void request(long n) {
+      requested += n;
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+  }
+}
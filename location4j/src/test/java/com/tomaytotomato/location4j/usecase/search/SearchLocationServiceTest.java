@@ -3,14 +3,22 @@ package com.tomaytotomato.location4j.usecase.search;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
+import com.tomaytotomato.location4j.index.LocationIndex;
+import com.tomaytotomato.location4j.model.lookup.City;
 import com.tomaytotomato.location4j.model.search.CityResult;
 import com.tomaytotomato.location4j.model.search.CountryResult;
+import com.tomaytotomato.location4j.model.search.ScoredSearchLocationResult;
 import com.tomaytotomato.location4j.model.search.SearchLocationResult;
 import com.tomaytotomato.location4j.model.search.StateResult;
 import com.tomaytotomato.location4j.loader.TestDataLoader;
+import com.tomaytotomato.location4j.text.normaliser.DefaultTextNormaliser;
+import com.tomaytotomato.location4j.text.normaliser.TextNormaliser;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,6 +30,7 @@ import org.junit.jupiter.params.provider.CsvSource;
 class SearchLocationServiceTest extends TestDataLoader {
 
   private final SearchLocation searchLocationService;
+  private final TextNormaliser normaliser = new DefaultTextNormaliser();
 
   public SearchLocationServiceTest() {
     searchLocationService = getSearchLocationService();
@@ -198,6 +207,349 @@ class SearchLocationServiceTest extends TestDataLoader {
     assertThat(description).isEqualTo(expectedDescription);
   }
 
+  @DisplayName("Suggest, when prefix starts country names, then suggest countries first")
+  @Test
+  void suggest_WhenPrefixStartsCountryNames_ThenSuggestCountriesFirst() {
+    // When
+    var result = searchLocationService.suggest("United", 5);
+
+    // Then
+    assertThat(result).hasSize(5);
+    assertThat(result.subList(0, 3)).allMatch(CountryResult.class::isInstance)
+        .extracting(SearchLocationResult::name)
+        .containsExactly("United States", "United Kingdom", "United Arab Emirates");
+  }
+
+  @DisplayName("Suggest, when prefix is part of a city name, then suggest the city")
+  @Test
+  void suggest_WhenPrefixStartsCityName_ThenSuggestCity() {
+    // When
+    var result = searchLocationService.suggest("glasg", 10);
+
+    // Then
+    assertThat(result).isNotEmpty().hasSizeLessThanOrEqualTo(10)
+        .allMatch(location -> normaliser.normalise(location.name()).startsWith("glasg"));
+    assertThat(result).filteredOn(CityResult.class::isInstance)
+        .extracting(location -> location.country().name())
+        .contains("United Kingdom");
+  }
+
+  @DisplayName("Suggest, when prefix ends with a space, then only complete whole words")
+  @Test
+  void suggest_WhenPrefixEndsWithSpace_ThenCompleteWholeWords() {
+    // When
+    var result = searchLocationService.suggest("san ", 20);
+
+    // Then
+    assertThat(result).isNotEmpty()
+        .allMatch(location -> normaliser.normalise(location.name()).startsWith("san "));
+  }
+
+  @DisplayName("Suggest, when nothing starts with the prefix, then return empty list")
+  @Test
+  void suggest_WhenNoNameMatches_ThenReturnEmptyList() {
+    assertThat(searchLocationService.suggest("zzzzzz", 5)).isEmpty();
+    assertThat(searchLocationService.suggest("  ", 5)).isEmpty();
+    assertThat(searchLocationService.suggest("glasgow", 0)).isEmpty();
+  }
+
+  @DisplayName("Suggest, when prefix is empty, then return empty list")
+  @Test
+  void suggest_WhenPrefixIsEmpty_ThenReturnEmptyList() {
+    assertThat(searchLocationService.suggest("", 5)).isEmpty();
+  }
+
+  @DisplayName("Suggest, when prefix is null or limit negative, then throw exception")
+  @Test
+  void suggest_WhenArgumentsInvalid_ThenThrowException() {
+    assertThatThrownBy(() -> searchLocationService.suggest(null, 5))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Prefix cannot be null");
+    assertThatThrownBy(() -> searchLocationService.suggest("glasgow", -1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Limit cannot be negative");
+  }
+
+  @DisplayName("Extract locations, when document mentions locations, then find each in order")
+  @Test
+  void extractLocations_WhenDocumentMentionsLocations_ThenFindEachInOrder() {
+    // Given
+    var document = "We flew from San Francisco to Glasgow, Scotland, and then home to Canada.";
+
+    // When
+    var result = searchLocationService.extractLocations(document);
+
+    // Then
+    assertThat(result).extracting(mention -> document.substring(mention.start(), mention.end()))
+        .containsSubsequence("San Francisco", "Glasgow", "Scotland", "Canada");
+    assertThat(result).filteredOn(mention -> mention.start() == document.indexOf("San Francisco"))
+        .singleElement()
+        .satisfies(mention -> assertThat(mention.cityIds()).isNotEmpty());
+    assertThat(result).filteredOn(mention -> mention.start() == document.indexOf("Scotland"))
+        .singleElement()
+        .satisfies(mention -> assertThat(mention.stateIds()).isNotEmpty());
+    assertThat(result).filteredOn(mention -> mention.start() == document.indexOf("Canada"))
+        .singleElement()
+        .satisfies(mention -> assertThat(mention.countryIds()).hasSize(1));
+  }
+
+  @DisplayName("Extract locations, when document only has codes, then find nothing")
+  @Test
+  void extractLocations_WhenDocumentOnlyHasCodes_ThenReturnEmptyList() {
+    assertThat(searchLocationService.extractLocations("CA or IN, US")).isEmpty();
+    assertThat(searchLocationService.extractLocations("")).isEmpty();
+  }
+
+  @DisplayName("Extract locations, when document is null, then throw exception")
+  @Test
+  void extractLocations_WhenDocumentIsNull_ThenThrowException() {
+    assertThatThrownBy(() -> searchLocationService.extractLocations(null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Document cannot be null");
+  }
+
+  @DisplayName("SearchLocation, when text is misspelt and fuzzy search is enabled, then return the closest match")
+  @Test
+  void search_WhenMisspeltWithMaxEditDistance_ThenReturnClosestMatch() {
+    // Given
+    var fuzzySearchLocationService = SearchLocationService.builder()
+        .withDataLoader(getDataLoader())
+        .withMaxEditDistance(1)
+        .build();
+
+    // When
+    var city = fuzzySearchLocationService.search("Glasgw");
+    var swapped = fuzzySearchLocationService.search("Califronia");
+    var country = fuzzySearchLocationService.search("Untied Kingdom");
+
+    // Then
+    assertThat(city).isNotEmpty().allMatch(location -> location.name().equals("Glasgow"));
+    assertThat(swapped).isNotEmpty().allMatch(location -> location.name().equals("California"));
+    assertThat(country).hasSize(1).first().isInstanceOf(CountryResult.class)
+        .extracting(SearchLocationResult::name).isEqualTo("United Kingdom");
+    assertThat(fuzzySearchLocationService.search("Glasgow"))
+        .isEqualTo(searchLocationService.search("Glasgow"));
+  }
+
+  @DisplayName("SearchLocation, when text is misspelt and fuzzy search is disabled, then return empty list")
+  @Test
+  void search_WhenMisspeltWithoutMaxEditDistance_ThenReturnEmptyList() {
+    assertThat(searchLocationService.search("Glasgw")).isEmpty();
+  }
+
+  @DisplayName("SearchLocation, when max edit distance is out of range, then throw exception")
+  @Test
+  void builder_WhenMaxEditDistanceOutOfRange_ThenThrowException() {
+    assertThatThrownBy(() -> SearchLocationService.builder().withMaxEditDistance(-1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Max edit distance must be between 0 and 2");
+    assertThatThrownBy(() -> SearchLocationService.builder().withMaxEditDistance(3))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Max edit distance must be between 0 and 2");
+  }
+
+  @DisplayName("SearchLocation, when query cache is enabled, then repeated queries are served from the cache")
+  @Test
+  void search_WhenQueryCacheEnabled_ThenRepeatedQueriesHitCache() {
+    // Given
+    var cachingSearchLocationService = SearchLocationService.builder()
+        .withDataLoader(getDataLoader())
+        .withQueryCache(100)
+        .build();
+
+    // When
+    var first = cachingSearchLocationService.search("Glasgow");
+    var second = cachingSearchLocationService.search("  GLASGOW ");
+
+    // Then
+    assertThat(first).isEqualTo(searchLocationService.search("Glasgow"));
+    assertThat(second).isSameAs(first);
+    assertThat(cachingSearchLocationService.getQueryCacheStats())
+        .isEqualTo(new QueryCacheStats(1, 1, 1, 100));
+    assertThatThrownBy(() -> second.clear()).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @DisplayName("SearchLocation, when query cache size is negative, then throw exception")
+  @Test
+  void builder_WhenQueryCacheSizeNegative_ThenThrowException() {
+    assertThatThrownBy(() -> SearchLocationService.builder().withQueryCache(-1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Query cache size cannot be negative");
+  }
+
+  @DisplayName("SearchLocation top K, when text matches several cities, then rank them with scores")
+  @Test
+  void searchTopK_WhenTextMatchesSeveralCities_ThenReturnRankedCandidates() {
+    // When
+    var single = searchLocationService.search("Glasgow Scotland");
+    var ranked = searchLocationService.search("Glasgow Scotland", 5);
+
+    // Then
+    assertThat(ranked).isNotEmpty().hasSizeLessThanOrEqualTo(5);
+    assertThat(ranked.getFirst().location()).isEqualTo(single.getFirst());
+    assertThat(ranked).allMatch(candidate -> candidate.score() > 0);
+    assertThat(ranked).filteredOn(candidate -> candidate.location() instanceof CityResult)
+        .extracting(ScoredSearchLocationResult::score)
+        .isSortedAccordingTo(Comparator.reverseOrder());
+    assertThat(searchLocationService.search("Glasgow Scotland", 1)).containsExactly(
+        ranked.getFirst());
+  }
+
+  @DisplayName("SearchLocation, when several cities tie, then return the one listed first for the name")
+  @Test
+  void search_WhenCitiesTie_ThenReturnFirstListedCity() {
+    // Given every Springfield in the USA scores a hit for itself, its state and its country
+    var springfields = LocationIndex.of(getDataLoader()).getSearchDictionary().get("springfield")
+        .getCitiesByName().stream()
+        .filter(city -> "USA".equals(city.getCountry().getIso3()))
+        .toList();
+    var stateHits = springfields.stream()
+        .collect(Collectors.groupingBy(city -> city.getState().getId(), Collectors.counting()));
+    long mostStateHits = Collections.max(stateHits.values());
+    var tied = springfields.stream()
+        .filter(city -> stateHits.get(city.getState().getId()) == mostStateHits)
+        .map(City::getId)
+        .toList();
+
+    // When
+    var result = searchLocationService.search("Springfield USA");
+    var ranked = searchLocationService.search("Springfield USA", tied.size());
+
+    // Then
+    assertThat(tied).hasSizeGreaterThan(1);
+    assertThat(result).singleElement().isInstanceOfSatisfying(CityResult.class,
+        city -> assertThat(city.id()).isEqualTo(tied.getFirst()));
+    assertThat(ranked).extracting(candidate -> ((CityResult) candidate.location()).id())
+        .containsExactlyElementsOf(tied);
+  }
+
+  @DisplayName("SearchLocation top K, when text is a country name, then return it scored")
+  @Test
+  void searchTopK_WhenTextIsCountryName_ThenReturnCountry() {
+    // When
+    var ranked = searchLocationService.search("United Kingdom", 3);
+
+    // Then
+    assertThat(ranked).hasSize(1);
+    assertThat(ranked.getFirst().location()).isInstanceOf(CountryResult.class)
+        .extracting(SearchLocationResult::name).isEqualTo("United Kingdom");
+    assertThat(ranked.getFirst().score()).isEqualTo(1);
+  }
+
+  @DisplayName("SearchLocation top K, when K is zero or negative, then return empty list or throw")
+  @Test
+  void searchTopK_WhenKIsNotPositive_ThenReturnEmptyOrThrow() {
+    assertThat(searchLocationService.search("Glasgow", 0)).isEmpty();
+    assertThatThrownBy(() -> searchLocationService.search("Glasgow", -1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("K cannot be negative");
+  }
+
+  @DisplayName("SearchLocation async, when text matches, then complete with the same results")
+  @Test
+  void searchAsync_WhenTextMatches_ThenCompleteWithSameResults() throws Exception {
+    // When
+    var results = searchLocationService.searchAsync("Santa Clara US CA");
+
+    // Then
+    assertThat(results.get()).isEqualTo(searchLocationService.search("Santa Clara US CA"));
+  }
+
+  @DisplayName("SearchLocation async, when text is empty, then complete exceptionally")
+  @Test
+  void searchAsync_WhenTextIsEmpty_ThenCompleteExceptionally() {
+    assertThatThrownBy(() -> searchLocationService.searchAsync("").join())
+        .hasCauseInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> SearchLocationService.builder().withExecutor(null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Executor cannot be null");
+  }
+
+  @DisplayName("SearchLocation batch, when texts repeat, then return results in input order")
+  @Test
+  void searchAll_WhenTextsRepeat_ThenReturnResultsInInputOrder() {
+    // Given
+    var texts = Arrays.asList("Glasgow Scotland", "united kingdom", null, "GLASGOW, SCOTLAND", "",
+        "United Kingdom");
+
+    // When
+    var batch = searchLocationService.searchAll(texts);
+
+    // Then
+    var results = batch.results();
+    assertThat(results).hasSize(6);
+    assertThat(results.get(0)).isEqualTo(searchLocationService.search("Glasgow Scotland"));
+    assertThat(results.get(1)).isEqualTo(searchLocationService.search("United Kingdom"));
+    assertThat(results.get(2)).isEmpty();
+    assertThat(results.get(3)).isSameAs(results.get(0));
+    assertThat(results.get(4)).isEmpty();
+    assertThat(results.get(5)).isSameAs(results.get(1));
+    assertThat(batch.uniqueQueries()).isEqualTo(2);
+    assertThat(batch.workers()).isPositive();
+    assertThat(batch.queriesPerSecondPerCore()).isPositive();
+  }
+
+  @DisplayName("SearchLocation batch, when texts are an array, then match the list variant")
+  @Test
+  void searchAll_WhenTextsAreAnArray_ThenMatchListVariant() {
+    // When
+    var batch = searchLocationService.searchAll(new String[]{"Canada", "Glasgow, GB"});
+
+    // Then
+    assertThat(batch.results()).containsExactly(searchLocationService.search("Canada"),
+        searchLocationService.search("Glasgow, GB"));
+  }
+
+  @DisplayName("SearchLocation batch, when texts are null, then throw IllegalArgumentException")
+  @Test
+  void searchAll_WhenTextsAreNull_ThenThrowIllegalArgumentException() {
+    assertThatThrownBy(() -> searchLocationService.searchAll((List<String>) null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Texts cannot be null");
+    assertThatThrownBy(() -> searchLocationService.searchAll((String[]) null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Texts cannot be null");
+  }
+
+  @DisplayName("SearchLocation stream, when parallel or sequential, then return results in order")
+  @Test
+  void searchAllStream_WhenParallelOrSequential_ThenReturnResultsInInputOrder() {
+    // Given
+    var texts = Stream.of("Glasgow Scotland", "Canada", "Santa Clara US CA", "Kyiv")
+        .flatMap(text -> Stream.of(text, text.toUpperCase(), null))
+        .collect(Collectors.toList());
+
+    // When
+    var sequential = searchLocationService.searchAll(texts.stream()).toList();
+    var parallel = searchLocationService.searchAll(texts.parallelStream()).toList();
+
+    // Then
+    assertThat(sequential).isEqualTo(searchLocationService.searchAll(texts).results());
+    assertThat(parallel).isEqualTo(sequential);
+  }
+
+  @DisplayName("SearchLocation stream, when texts are unbounded, then search them lazily")
+  @Test
+  void searchAllStream_WhenTextsAreUnbounded_ThenSearchLazily() {
+    // Given
+    var texts = Stream.generate(() -> "Glasgow Scotland");
+
+    // When
+    var results = searchLocationService.searchAll(texts).limit(3).toList();
+
+    // Then
+    assertThat(results).hasSize(3).allMatch(
+        result -> result.equals(searchLocationService.search("Glasgow Scotland")));
+  }
+
+  @DisplayName("SearchLocation stream, when texts are null, then throw IllegalArgumentException")
+  @Test
+  void searchAllStream_WhenTextsAreNull_ThenThrowIllegalArgumentException() {
+    assertThatThrownBy(() -> searchLocationService.searchAll((Stream<String>) null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Texts cannot be null");
+  }
+
   /**
    * Bug detected - https://github.com/tomaytotomato/location4j/issues/45
    * Test cases for special city combinations that include state and country information
@@ -0,0 +1,127 @@
+package com.tomaytotomato.location4j.usecase.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.tomaytotomato.location4j.loader.TestDataLoader;
+import com.tomaytotomato.location4j.model.search.ScoredSearchLocationResult;
+import com.tomaytotomato.location4j.model.search.SearchLocationResult;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SearchLocationTest extends TestDataLoader {
+
+  private final SearchLocation searchLocationService;
+  private final SearchLocation searchOnly;
+
+  public SearchLocationTest() {
+    searchLocationService = getSearchLocationService();
+    searchOnly = new SearchOnly(searchLocationService);
+  }
+
+  @DisplayName("Search top K, by default then return at most K single search results")
+  @Test
+  void searchTopK_WhenNotOverridden_ThenLimitSingleSearch() {
+    // Given
+    var expected = searchLocationService.search("San Francisco").stream()
+        .limit(2)
+        .map(location -> new ScoredSearchLocationResult(location, 1))
+        .toList();
+
+    // When
+    var results = searchOnly.search("San Francisco", 2);
+
+    // Then
+    assertThat(results).isEqualTo(expected);
+    assertThat(searchOnly.search("San Francisco", 0)).isEmpty();
+    assertThatThrownBy(() -> searchOnly.search("San Francisco", -1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("K cannot be negative");
+  }
+
+  @DisplayName("Search all, by default then search each distinct text in input order")
+  @Test
+  void searchAll_WhenNotOverridden_ThenMatchSingleSearches() {
+    // Given
+    var texts = Arrays.asList("Glasgow, GB", null, "", "Canada", "Glasgow, GB");
+
+    // When
+    var batch = searchOnly.searchAll(texts);
+
+    // Then
+    assertThat(batch.results()).containsExactly(searchLocationService.search("Glasgow, GB"),
+        List.of(), List.of(), searchLocationService.search("Canada"),
+        searchLocationService.search("Glasgow, GB"));
+    assertThat(batch.uniqueQueries()).isEqualTo(2);
+    assertThat(batch.workers()).isEqualTo(1);
+    assertThatThrownBy(() -> searchOnly.searchAll((List<String>) null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Texts cannot be null");
+  }
+
+  @DisplayName("Search all streamed texts, by default then search them in encounter order")
+  @Test
+  void searchAllStream_WhenNotOverridden_ThenMatchSingleSearches() {
+    // Given
+    var texts = Arrays.asList("Canada", null, "Glasgow, GB", "San Francisco");
+    var closed = new AtomicBoolean();
+    var stream = texts.parallelStream().onClose(() -> closed.set(true));
+
+    // When
+    List<List<SearchLocationResult>> results;
+    try (var searched = searchOnly.searchAll(stream)) {
+      results = searched.toList();
+    }
+
+    // Then
+    assertThat(results).containsExactly(searchLocationService.search("Canada"), List.of(),
+        searchLocationService.search("Glasgow, GB"), searchLocationService.search("San Francisco"));
+    assertThat(closed).isTrue();
+  }
+
+  @DisplayName("Search asynchronously, by default then complete with the search results")
+  @Test
+  void searchAsync_WhenNotOverridden_ThenCompleteWithSearchResults() {
+    // When
+    var result = searchOnly.searchAsync("Glasgow, GB");
+
+    // Then
+    assertThat(result.join()).isEqualTo(searchLocationService.search("Glasgow, GB"));
+    assertThatThrownBy(() -> searchOnly.searchAsync(null).join())
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(IllegalArgumentException.class);
+  }
+
+  @DisplayName("Suggest, by default then throw exception as there is no index of names")
+  @Test
+  void suggest_WhenNotOverridden_ThenThrowException() {
+    assertThatThrownBy(() -> searchOnly.suggest("glas", 5))
+        .isInstanceOf(UnsupportedOperationException.class)
+        .hasMessage(SearchOnly.class.getName() + " does not suggest locations");
+  }
+
+  @DisplayName("Extract locations, by default then throw exception as there is no index of names")
+  @Test
+  void extractLocations_WhenNotOverridden_ThenThrowException() {
+    assertThatThrownBy(() -> searchOnly.extractLocations("Flights from Glasgow to Canada"))
+        .isInstanceOf(UnsupportedOperationException.class)
+        .hasMessage(SearchOnly.class.getName() + " does not extract locations");
+  }
+
+  /**
+   * Only implements the abstract methods, so the default methods of SearchLocation are used.
+   */
+  private record SearchOnly(SearchLocation delegate) implements SearchLocation {
+
+    @Override
+    public List<SearchLocationResult> search(String text) {
+      return delegate.search(text);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.tomaytotomato.location4j.usecase.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.tomaytotomato.location4j.index.DenseIds;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TopScoresTest {
+
+  private final HitCounter<Integer> hitCounter = new HitCounter<>(
+      DenseIds.of(List.of(1, 2, 3, 4, 5)), Function.identity());
+
+  @DisplayName("Should keep the best scores, best first")
+  @Test
+  void sort_WhenMoreEntitiesThanCapacity_ShouldKeepBestFirst() {
+    // Given
+    for (int id = 1; id <= 5; id++) {
+      hitCounter.hit(id);
+    }
+    var topScores = new TopScores(hitCounter, 3);
+    int[] scores = {4, 9, 1, 7, 5};
+
+    // When
+    for (int position = 0; position < scores.length; position++) {
+      topScores.offer(position, scores[position]);
+    }
+    int size = topScores.sort();
+
+    // Then
+    assertThat(size).isEqualTo(3);
+    assertThat(new int[]{topScores.score(0), topScores.score(1), topScores.score(2)})
+        .containsExactly(9, 7, 5);
+    assertThat(new int[]{topScores.position(0), topScores.position(1), topScores.position(2)})
+        .containsExactly(1, 3, 4);
+  }
+
+  @DisplayName("Should break ties by the order the entities were first hit")
+  @Test
+  void sort_WhenScoresTie_ShouldRankFirstHitFirst() {
+    // Given
+    hitCounter.hit(2);
+    hitCounter.hit(1);
+    hitCounter.hit(3);
+    var topScores = new TopScores(hitCounter, 3);
+
+    // When
+    topScores.offer(2, 3);
+    topScores.offer(1, 3);
+    topScores.offer(0, 3);
+    topScores.sort();
+
+    // Then
+    assertThat(new int[]{topScores.position(0), topScores.position(1), topScores.position(2)})
+        .containsExactly(0, 1, 2);
+  }
+
+  @DisplayName("Should keep nothing when nothing was hit")
+  @Test
+  void sort_WhenCounterIsEmpty_ShouldKeepNothing() {
+    // Given
+    var topScores = new TopScores(hitCounter, 3);
+
+    // When Then
+    assertThat(topScores.sort()).isZero();
+  }
+}